@@ -2,8 +2,10 @@ package com.purchase.transaction;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class PurchaseTransactionApplication {
     public static void main(String[] args) {
         SpringApplication.run(PurchaseTransactionApplication.class, args);
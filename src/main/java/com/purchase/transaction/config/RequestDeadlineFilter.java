@@ -0,0 +1,52 @@
+package com.purchase.transaction.config;
+
+import com.purchase.transaction.service.ExchangeRateProperties;
+import com.purchase.transaction.service.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Gives each incoming HTTP request a deadline ({@link RequestDeadline}) that Treasury API retries
+ * respect: {@code app.exchange-rate.retry.request-timeout} from arrival, or less if the caller
+ * sends a shorter {@value #TIMEOUT_HEADER} header (milliseconds), e.g. a gateway passing on
+ * what is left of its own timeout.
+ */
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final Duration requestTimeout;
+
+    public RequestDeadlineFilter(ExchangeRateProperties properties) {
+        this.requestTimeout = properties.getRetry().getRequestTimeout();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestDeadline.start(timeout(request.getHeader(TIMEOUT_HEADER)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /** The configured timeout, shortened to the caller's header value when that is smaller. */
+    Duration timeout(String header) {
+        if (header == null || header.isBlank()) return requestTimeout;
+        try {
+            Duration requested = Duration.ofMillis(Math.max(0, Long.parseLong(header.trim())));
+            return requested.compareTo(requestTimeout) < 0 ? requested : requestTimeout;
+        } catch (NumberFormatException e) {
+            return requestTimeout;
+        }
+    }
+}
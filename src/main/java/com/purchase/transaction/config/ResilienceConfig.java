@@ -0,0 +1,56 @@
+package com.purchase.transaction.config;
+
+import com.purchase.transaction.service.AdaptiveConcurrencyLimiter;
+import com.purchase.transaction.service.TreasuryRetryPolicy;
+import io.github.resilience4j.common.circuitbreaker.configuration.CircuitBreakerConfigCustomizer;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.retry.RetryConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Resilience4j customizations that properties cannot express.
+ *
+ * CIRCUIT BREAKER PATTERN: rejections by the adaptive concurrency limit are ignored.
+ *
+ * RETRY PATTERN: the {@code treasuryApi} retry keeps {@code maxAttempts} from
+ * application.properties, but which failures are retried and how long to wait in between come
+ * from {@link TreasuryRetryPolicy}: transient failures only, within a retry budget shared by
+ * all calls and the deadline of the HTTP request being served, after a jittered sub-second
+ * backoff. Fixed multi-second waits would hold a request thread for 14+ seconds.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * CIRCUIT BREAKER PATTERN: a call turned away by the adaptive concurrency limit never reached
+     * the Treasury API, so it says nothing about the API's health and is not recorded. The
+     * services wrap it in ExchangeRateRetrievalException, hence the cause-chain predicate rather
+     * than an {@code ignoreExceptions} property.
+     */
+    @Bean
+    public CircuitBreakerConfigCustomizer treasuryApiCircuitBreakerCustomizer() {
+        return CircuitBreakerConfigCustomizer.of("treasuryApi", builder -> builder
+                .ignoreException(AdaptiveConcurrencyLimiter::isLimitExceeded));
+    }
+
+    @Bean
+    public RetryConfigCustomizer treasuryApiRetryCustomizer(TreasuryRetryPolicy retryPolicy) {
+        // The backoff sees the failure, which may carry the deadline of a non-blocking lookup
+        IntervalBiFunction<Object> backoff = (attempt, result) ->
+                retryPolicy.backoffMillis(attempt, result.isLeft() ? result.getLeft() : null);
+        return RetryConfigCustomizer.of("treasuryApi", builder -> typed(builder)
+                .retryOnException(retryPolicy::shouldRetry)
+                .intervalBiFunction(backoff));
+    }
+
+    /**
+     * RetryConfigCustomizer hands over a raw RetryConfig.Builder. The retry wraps methods of any
+     * return type, so its results are only ever seen as Object and the cast cannot fail.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RetryConfig.Builder<Object> typed(RetryConfig.Builder builder) {
+        return builder;
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,7 +28,9 @@ public class RestTemplateConfig {
      * 
      * BULKHEAD PATTERN IMPLEMENTATION:
      * - maxTotal (100): Maximum total connections across all routes (bulkhead limit)
-     * - defaultMaxPerRoute (20): Maximum connections per route/host (per-host bulkhead)
+     * - defaultMaxPerRoute (20): Maximum connections per route/host (per-host bulkhead); sized to
+     *   the ceiling of the adaptive Treasury concurrency limit (app.exchange-rate.limiter.max-limit),
+     *   which decides how many of them are actually used
      * 
      * These limits ensure that:
      * - No single external service can consume all available connections
@@ -40,10 +43,12 @@ public class RestTemplateConfig {
      * - connectionRequestTimeout (3s): Time to get a connection from the pool
      * 
      * @param builder Spring's RestTemplateBuilder
+     * @param maxPerRoute Highest concurrency limit of Treasury calls
      * @return Configured RestTemplate with connection pooling and timeouts
      */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${app.exchange-rate.limiter.max-limit:20}") int maxPerRoute) {
         // BULKHEAD PATTERN: Connection pool manager limits concurrent connections
         PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
         
@@ -53,7 +58,7 @@ public class RestTemplateConfig {
         
         // BULKHEAD: Maximum 20 connections per route (per destination host)
         // This ensures fair resource distribution across multiple external services
-        connectionManager.setDefaultMaxPerRoute(20);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
         
         // Request timeout configuration
         RequestConfig requestConfig = RequestConfig.custom()
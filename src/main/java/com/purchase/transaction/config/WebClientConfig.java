@@ -0,0 +1,63 @@
+package com.purchase.transaction.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * WebClient Configuration for the non-blocking Treasury API client
+ *
+ * Mirrors RestTemplateConfig for the reactive stack: a bounded reactor-netty connection pool and
+ * the same timeouts. Waiting callers hold no thread - requests queue for a pooled connection and
+ * responses are handled on the netty event loop.
+ */
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * Creates the WebClient used by AsyncTreasuryApiClient.
+     *
+     * BULKHEAD PATTERN IMPLEMENTATION:
+     * - maxConnections (20): Maximum connections to the Treasury API; the ceiling of the adaptive
+     *   concurrency limit (app.exchange-rate.limiter.max-limit), as for the RestTemplate pool
+     * - pendingAcquireMaxCount (100): Maximum requests queued for a connection before failing fast
+     *
+     * TIMEOUT CONFIGURATION:
+     * - connectTimeout (5s): Time to establish a connection
+     * - responseTimeout (10s): Time to receive the response after the request is sent
+     * - pendingAcquireTimeout (3s): Time to get a connection from the pool
+     *
+     * Response bodies are not decoded by a codec: AsyncTreasuryApiClient parses the received buffers
+     * itself and bounds their size, so the codecs' in-memory limit does not apply.
+     *
+     * @param builder Spring's WebClient.Builder (carries the application's Jackson codecs)
+     * @param maxConnections Highest concurrency limit of Treasury calls
+     * @return Configured WebClient with a pooled reactor-netty connector
+     */
+    @Bean
+    public WebClient treasuryWebClient(WebClient.Builder builder,
+                                       @Value("${app.exchange-rate.limiter.max-limit:20}") int maxConnections) {
+        // BULKHEAD PATTERN: Connection pool shared by all async Treasury requests
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("treasury-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(100)
+                .pendingAcquireTimeout(Duration.ofSeconds(3))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)  // Connection timeout: 5 seconds
+                .responseTimeout(Duration.ofSeconds(10));            // Response timeout: 10 seconds
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
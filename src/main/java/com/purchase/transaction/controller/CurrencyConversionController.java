@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/conversions")
@@ -20,8 +21,10 @@ public class CurrencyConversionController {
         this.transactionService = transactionService;
     }
     
+    // Answered asynchronously: the servlet thread is released while the exchange rate is looked up,
+    // and the Treasury time limiter bounds how long the request waits for it
     @GetMapping("/{transactionId}")
-    public ResponseEntity<ConvertedTransaction> convertTransaction(
+    public CompletableFuture<ResponseEntity<ConvertedTransaction>> convertTransaction(
             @PathVariable String transactionId,
             @RequestParam(required = false) String country,
             @RequestParam(required = false) String currency,
@@ -37,9 +40,8 @@ public class CurrencyConversionController {
             throw new IllegalArgumentException("Must specify at least one of: country, currency, or country_currency_desc");
         }
         
-        ConvertedTransaction converted = transactionService.convertTransaction(
-                transactionId, country, currency, country_currency_desc);
-        return ResponseEntity.ok(converted);
+        return transactionService.convertTransactionAsync(transactionId, country, currency, country_currency_desc)
+                .thenApply(ResponseEntity::ok);
     }
     
     @GetMapping("/currencies/available")
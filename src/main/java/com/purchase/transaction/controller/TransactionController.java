@@ -1,29 +1,54 @@
 package com.purchase.transaction.controller;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.purchase.transaction.model.BulkIngestionReport;
 import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionDraft;
+import com.purchase.transaction.model.TransactionPage;
 import com.purchase.transaction.service.IPurchaseTransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
 public class TransactionController {
     private static final Logger log = LoggerFactory.getLogger(TransactionController.class);
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final IPurchaseTransactionService transactionService;
+    private final ObjectMapper objectMapper;
     
-    public TransactionController(IPurchaseTransactionService transactionService) {
+    public TransactionController(IPurchaseTransactionService transactionService, ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
     }
     
     // JSON body handler - primary endpoint
@@ -54,6 +79,55 @@ public class TransactionController {
         }
     }
     
+    // Bulk import: every entry is validated on its own and all valid entries are persisted in a
+    // single pass. The report lists the created ID or the validation error for each entry. The array
+    // is read element by element, so an entry that does not bind (e.g. a non-numeric amount) is
+    // rejected on its own; only a body that is not a JSON array at all fails the request
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkIngestionReport> createTransactionsJson(InputStream body) throws IOException {
+        List<TransactionDraft> drafts = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new IllegalArgumentException("Bulk request body must be a JSON array of transactions");
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode entry = objectMapper.readTree(parser);
+                try {
+                    drafts.add(toDraft(objectMapper.treeToValue(entry, TransactionRequest.class)));
+                } catch (JsonProcessingException e) {
+                    drafts.add(null);
+                }
+            }
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Bulk request body is not valid JSON: " + e.getOriginalMessage());
+        }
+        log.info("Received bulk request with {} transactions", drafts.size());
+        return ResponseEntity.ok(transactionService.createTransactions(drafts));
+    }
+
+    // Same as above with one JSON object per line; a line that is not valid JSON is rejected on its own
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkIngestionReport> createTransactionsNdjson(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(TransactionRequest.class);
+        List<TransactionDraft> drafts = new ArrayList<>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    drafts.add(toDraft(reader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    drafts.add(null);
+                }
+            }
+        }
+        log.info("Received NDJSON bulk request with {} transactions", drafts.size());
+        return ResponseEntity.ok(transactionService.createTransactions(drafts));
+    }
+
+    private static TransactionDraft toDraft(TransactionRequest request) {
+        return request == null ? null : new TransactionDraft(request.getDescription(), request.getTransactionDate(), request.getAmount());
+    }
+    
     @GetMapping("/{transactionId}")
     public ResponseEntity<PurchaseTransaction> getTransaction(@PathVariable String transactionId) {
         log.info("Received request to get transaction: {}", transactionId);
@@ -61,11 +135,51 @@ public class TransactionController {
         return ResponseEntity.ok(transaction);
     }
     
+    // Without query parameters the whole ledger is returned. from/to (inclusive, yyyy-MM-dd), after and
+    // limit select a page of transactions ordered by (transactionDate, transactionId); when the page is
+    // full the cursor for the next one is returned in the X-Next-Cursor header. A page holds limit
+    // transactions (100 if omitted, at most 1000; a larger limit is a 400)
     @GetMapping
-    public ResponseEntity<List<PurchaseTransaction>> getAllTransactions() {
-        log.info("Received request to get all transactions");
-        List<PurchaseTransaction> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<List<PurchaseTransaction>> getAllTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        if (from == null && to == null && after == null && limit == null) {
+            log.info("Received request to get all transactions");
+            return ResponseEntity.ok(transactionService.getAllTransactions());
+        }
+        log.info("Received request to get transactions: from={}, to={}, after={}, limit={}", from, to, after, limit);
+        TransactionPage page = transactionService.getTransactionPage(from, to, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.transactions());
+    }
+    
+    // Same selection as above, written one JSON object per line as records are read from the
+    // repository, without building the full response in memory
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Received request to stream transactions: from={}, to={}, after={}, limit={}", from, to, after, limit);
+        // Parameters are validated here, before the response is committed, so bad input is still a 400
+        Stream<PurchaseTransaction> transactions = transactionService.streamTransactions(from, to, after, limit);
+        ObjectWriter writer = objectMapper.writerFor(PurchaseTransaction.class);
+        StreamingResponseBody body = out -> {
+            try (transactions) {
+                Iterator<PurchaseTransaction> iterator = transactions.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
     
     @DeleteMapping("/{transactionId}")
@@ -0,0 +1,14 @@
+package com.purchase.transaction.model;
+
+import java.util.List;
+
+/**
+ * Per-entry results of a bulk import, in request order, with totals.
+ */
+public record BulkIngestionReport(int received, int created, int rejected, List<BulkTransactionResult> results) {
+
+    public static BulkIngestionReport of(List<BulkTransactionResult> results) {
+        int created = (int) results.stream().filter(result -> result.error() == null).count();
+        return new BulkIngestionReport(results.size(), created, results.size() - created, results);
+    }
+}
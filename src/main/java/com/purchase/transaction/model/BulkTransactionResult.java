@@ -0,0 +1,15 @@
+package com.purchase.transaction.model;
+
+/**
+ * Outcome of one entry of a bulk import: the id of the created transaction, or why it was rejected.
+ */
+public record BulkTransactionResult(int index, String transactionId, String error) {
+
+    public static BulkTransactionResult created(int index, String transactionId) {
+        return new BulkTransactionResult(index, transactionId, null);
+    }
+
+    public static BulkTransactionResult rejected(int index, String error) {
+        return new BulkTransactionResult(index, null, error);
+    }
+}
@@ -0,0 +1,35 @@
+package com.purchase.transaction.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset pagination position: the (transactionDate, transactionId) of the last transaction
+ * on a page. Clients receive it as an opaque URL-safe token and pass it back as {@code after}.
+ * Undated transactions are listed before every date, so a null date marks a cursor among them.
+ */
+public record TransactionCursor(LocalDate transactionDate, String transactionId) {
+
+    public static TransactionCursor of(PurchaseTransaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getTransactionId());
+    }
+
+    public String encode() {
+        String raw = (transactionDate == null ? "" : transactionDate.toString()) + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0 || separator == raw.length() - 1) throw new IllegalArgumentException("Invalid cursor: " + token);
+            LocalDate transactionDate = separator == 0 ? null : LocalDate.parse(raw.substring(0, separator));
+            return new TransactionCursor(transactionDate, raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
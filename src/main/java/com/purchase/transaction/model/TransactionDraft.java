@@ -0,0 +1,10 @@
+package com.purchase.transaction.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One unvalidated entry of a bulk import, as received. The date is kept as text so a bad date
+ * is reported against its entry instead of failing the whole request.
+ */
+public record TransactionDraft(String description, String transactionDate, BigDecimal amount) {
+}
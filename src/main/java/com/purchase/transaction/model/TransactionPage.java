@@ -0,0 +1,10 @@
+package com.purchase.transaction.model;
+
+import java.util.List;
+
+/**
+ * One page of transactions in (transactionDate, transactionId) order. {@code nextCursor} is
+ * null once there is nothing further to fetch.
+ */
+public record TransactionPage(List<PurchaseTransaction> transactions, String nextCursor) {
+}
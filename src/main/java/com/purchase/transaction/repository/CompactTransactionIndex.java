@@ -0,0 +1,679 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link ITransactionIndex} that stores transactions as primitive columns instead of one
+ * object graph per record, so tens of millions of transactions fit in an ordinary heap with
+ * little GC pressure. {@link PurchaseTransaction} objects are only materialized when a
+ * caller reads them.
+ *
+ * Per record: the UUID as two longs, the amount as an unscaled long plus its scale (cents for
+ * every amount the service writes), both dates as int epoch-days and the description as a
+ * reference into a shared, chunked UTF-8 byte arena. Columns are paged so growth never
+ * copies them. An open-addressing hash table maps ids to slots, and the date index keeps one
+ * bucket of slots per epoch-day, plus a bucket under {@code NO_DATE} for undated records.
+ *
+ * Records that cannot be encoded exactly (non-canonical ids, null fields, amounts beyond a
+ * long) are kept as objects in a small overflow map, so every value round-trips unchanged.
+ *
+ * Mutations and their journal calls run under the write lock of a {@link StampedLock}, which
+ * keeps journal order equal to apply order. Point reads use optimistic reads and only fall
+ * back to the read lock when they race with a writer; none of them waits on disk I/O.
+ */
+public class CompactTransactionIndex implements ITransactionIndex {
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int ARENA_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_DESCRIPTION_BYTES = 0xFFFF;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final byte FREE_SLOT = Byte.MIN_VALUE;
+    private static final int ITERATION_BATCH = 1024;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[][] idHigh = new long[0][];
+    private long[][] idLow = new long[0][];
+    private long[][] unscaledAmount = new long[0][];
+    private byte[][] amountScale = new byte[0][];
+    private int[][] transactionDay = new int[0][];
+    private int[][] createdDay = new int[0][];
+    private long[][] descriptionRef = new long[0][];
+    private int slotCount;
+    private int liveCount;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+
+    // Open addressing with linear probing; each bucket holds slot + 1, 0 means empty
+    private int[] table = new int[1024];
+
+    private byte[][] arena = new byte[0][];
+    private long arenaEnd;
+    private long arenaGarbage;
+
+    private final NavigableMap<Integer, DayBucket> days = new TreeMap<>();
+    private final ConcurrentHashMap<String, PurchaseTransaction> overflow = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T put(PurchaseTransaction transaction, Function<TransactionLogRecord, T> journal) {
+        long stamp = lock.writeLock();
+        try {
+            store(transaction);
+            return journal.apply(TransactionLogRecord.put(transaction));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public <T> T remove(String transactionId, Function<TransactionLogRecord, T> journal) {
+        long stamp = lock.writeLock();
+        try {
+            if (!delete(transactionId)) return null;
+            return journal.apply(TransactionLogRecord.delete(transactionId));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public <T> T clear(Function<TransactionLogRecord, T> journal) {
+        long stamp = lock.writeLock();
+        try {
+            reset();
+            return journal.apply(TransactionLogRecord.clear());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void apply(TransactionLogRecord record) {
+        long stamp = lock.writeLock();
+        try {
+            switch (record.type()) {
+                case PUT -> store(record.transaction());
+                case DELETE -> delete(record.transactionId());
+                case CLEAR -> reset();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public PurchaseTransaction get(String transactionId) {
+        if (transactionId == null) return null;
+        UUID id = compactId(transactionId);
+        if (id == null) return overflow.get(transactionId);
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                PurchaseTransaction transaction = slot < 0 ? overflow.get(transactionId) : materialize(slot, transactionId);
+                if (lock.validate(stamp)) return transaction;
+            } catch (RuntimeException e) {
+                // Columns were resized or rewritten underneath us; retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return slot < 0 ? overflow.get(transactionId) : materialize(slot, transactionId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(String transactionId) {
+        if (transactionId == null) return false;
+        UUID id = compactId(transactionId);
+        if (id == null) return overflow.containsKey(transactionId);
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                boolean found = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0
+                        || overflow.containsKey(transactionId);
+                if (lock.validate(stamp)) return found;
+            } catch (RuntimeException e) {
+                // Retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0
+                    || overflow.containsKey(transactionId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return liveCount + overflow.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Materializes transactions a batch of slots at a time, so the whole ledger is never copied at once. */
+    @Override
+    public Collection<PurchaseTransaction> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<PurchaseTransaction> iterator() {
+                return new SlotIterator();
+            }
+
+            @Override
+            public int size() {
+                return CompactTransactionIndex.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Stream<PurchaseTransaction> streamByTransactionDate(LocalDate from, LocalDate to, TransactionCursor after) {
+        int fromDay = clampDay(from);
+        int toDay = clampDay(to);
+        TransactionCursor resumeAfter = null;
+        if (after != null && after.transactionDate() != null && !after.transactionDate().isBefore(from)) {
+            fromDay = clampDay(after.transactionDate());
+            resumeAfter = after;
+        }
+        if (fromDay > toDay) return Stream.empty();
+        return streamDays(fromDay, toDay, resumeAfter);
+    }
+
+    @Override
+    public Stream<PurchaseTransaction> streamUndated(String afterId) {
+        return streamDays(NO_DATE, NO_DATE, afterId == null ? null : new TransactionCursor(null, afterId));
+    }
+
+    private Stream<PurchaseTransaction> streamDays(int fromDay, int toDay, TransactionCursor after) {
+        DayIterator days = new DayIterator(fromDay, toDay, after);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(days, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // --- mutations, always called with the write lock held ---
+
+    private void store(PurchaseTransaction transaction) {
+        String transactionId = transaction.getTransactionId();
+        UUID id = compactId(transactionId);
+        byte[] description = transaction.getDescription() == null ? null : transaction.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (id == null || !encodable(transaction, description)) {
+            delete(transactionId);
+            overflow.put(transactionId, transaction);
+            indexOverflow(transaction);
+            return;
+        }
+
+        PurchaseTransaction previousOverflow = overflow.remove(transactionId);
+        if (previousOverflow != null) unindexOverflow(previousOverflow);
+
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int slot = findSlot(high, low);
+        if (slot >= 0) {
+            unindexSlot(slot);
+            releaseDescription(slot);
+        } else {
+            slot = allocateSlot();
+            set(idHigh, slot, high);
+            set(idLow, slot, low);
+            insertIntoTable(slot);
+            liveCount++;
+        }
+        BigDecimal amount = transaction.getAmount();
+        set(unscaledAmount, slot, amount.unscaledValue().longValueExact());
+        amountScale[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = (byte) amount.scale();
+        set(transactionDay, slot, toDay(transaction.getTransactionDate()));
+        set(createdDay, slot, toDay(transaction.getCreatedAt()));
+        set(descriptionRef, slot, storeDescription(description));
+        indexSlot(slot);
+    }
+
+    private boolean delete(String transactionId) {
+        PurchaseTransaction previous = overflow.remove(transactionId);
+        if (previous != null) {
+            unindexOverflow(previous);
+            return true;
+        }
+        UUID id = compactId(transactionId);
+        if (id == null) return false;
+        int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) return false;
+
+        unindexSlot(slot);
+        removeFromTable(slot);
+        releaseDescription(slot);
+        amountScale[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = FREE_SLOT;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        liveCount--;
+        return true;
+    }
+
+    private void reset() {
+        idHigh = new long[0][];
+        idLow = new long[0][];
+        unscaledAmount = new long[0][];
+        amountScale = new byte[0][];
+        transactionDay = new int[0][];
+        createdDay = new int[0][];
+        descriptionRef = new long[0][];
+        slotCount = 0;
+        liveCount = 0;
+        freeSlots = new int[64];
+        freeCount = 0;
+        table = new int[1024];
+        arena = new byte[0][];
+        arenaEnd = 0;
+        arenaGarbage = 0;
+        days.clear();
+        overflow.clear();
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        int slot = slotCount++;
+        if ((slot & PAGE_MASK) == 0) addPage();
+        return slot;
+    }
+
+    private void addPage() {
+        int pages = idHigh.length + 1;
+        idHigh = Arrays.copyOf(idHigh, pages);
+        idHigh[pages - 1] = new long[PAGE_SIZE];
+        idLow = Arrays.copyOf(idLow, pages);
+        idLow[pages - 1] = new long[PAGE_SIZE];
+        unscaledAmount = Arrays.copyOf(unscaledAmount, pages);
+        unscaledAmount[pages - 1] = new long[PAGE_SIZE];
+        amountScale = Arrays.copyOf(amountScale, pages);
+        amountScale[pages - 1] = new byte[PAGE_SIZE];
+        Arrays.fill(amountScale[pages - 1], FREE_SLOT);
+        transactionDay = Arrays.copyOf(transactionDay, pages);
+        transactionDay[pages - 1] = new int[PAGE_SIZE];
+        createdDay = Arrays.copyOf(createdDay, pages);
+        createdDay[pages - 1] = new int[PAGE_SIZE];
+        descriptionRef = Arrays.copyOf(descriptionRef, pages);
+        descriptionRef[pages - 1] = new long[PAGE_SIZE];
+    }
+
+    // --- id hash table ---
+
+    private int findSlot(long high, long low) {
+        int[] buckets = table;
+        int mask = buckets.length - 1;
+        for (int i = hash(high, low) & mask; ; i = (i + 1) & mask) {
+            int entry = buckets[i];
+            if (entry == 0) return -1;
+            int slot = entry - 1;
+            if (get(idHigh, slot) == high && get(idLow, slot) == low) return slot;
+        }
+    }
+
+    private void insertIntoTable(int slot) {
+        if ((liveCount + 1) * 4L > table.length * 3L) resizeTable();
+        int mask = table.length - 1;
+        int i = hash(get(idHigh, slot), get(idLow, slot)) & mask;
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = slot + 1;
+    }
+
+    private void resizeTable() {
+        int[] previous = table;
+        int[] resized = new int[previous.length * 2];
+        int mask = resized.length - 1;
+        for (int entry : previous) {
+            if (entry == 0) continue;
+            int slot = entry - 1;
+            int i = hash(get(idHigh, slot), get(idLow, slot)) & mask;
+            while (resized[i] != 0) i = (i + 1) & mask;
+            resized[i] = entry;
+        }
+        table = resized;
+    }
+
+    /** Backward-shift deletion, so lookups never need tombstones. */
+    private void removeFromTable(int slot) {
+        int mask = table.length - 1;
+        int hole = hash(get(idHigh, slot), get(idLow, slot)) & mask;
+        while (table[hole] != slot + 1) hole = (hole + 1) & mask;
+        table[hole] = 0;
+        for (int i = (hole + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int entry = table[i];
+            int home = hash(get(idHigh, entry - 1), get(idLow, entry - 1)) & mask;
+            boolean reachableWithoutHole = hole <= i ? (home > hole && home <= i) : (home > hole || home <= i);
+            if (!reachableWithoutHole) {
+                table[hole] = entry;
+                table[i] = 0;
+                hole = i;
+            }
+        }
+    }
+
+    private static int hash(long high, long low) {
+        long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // --- description arena ---
+
+    private long storeDescription(byte[] bytes) {
+        int chunk = (int) (arenaEnd / ARENA_CHUNK_SIZE);
+        int position = (int) (arenaEnd % ARENA_CHUNK_SIZE);
+        if (position + bytes.length > ARENA_CHUNK_SIZE) {
+            arenaGarbage += ARENA_CHUNK_SIZE - position;
+            chunk++;
+            position = 0;
+        }
+        if (chunk == arena.length) {
+            arena = Arrays.copyOf(arena, chunk + 1);
+            arena[chunk] = new byte[ARENA_CHUNK_SIZE];
+        }
+        System.arraycopy(bytes, 0, arena[chunk], position, bytes.length);
+        long offset = (long) chunk * ARENA_CHUNK_SIZE + position;
+        arenaEnd = offset + bytes.length;
+        return offset << 16 | bytes.length;
+    }
+
+    private void releaseDescription(int slot) {
+        arenaGarbage += get(descriptionRef, slot) & MAX_DESCRIPTION_BYTES;
+        if (arenaGarbage > ARENA_CHUNK_SIZE && arenaGarbage * 2 > arenaEnd) compactArena(slot);
+    }
+
+    /** Rewrites live descriptions into a fresh arena once more than half of it is garbage. */
+    private void compactArena(int releasedSlot) {
+        byte[][] previous = arena;
+        arena = new byte[0][];
+        arenaEnd = 0;
+        arenaGarbage = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slot == releasedSlot || amountScale[slot >>> PAGE_SHIFT][slot & PAGE_MASK] == FREE_SLOT) continue;
+            set(descriptionRef, slot, storeDescription(readDescription(previous, get(descriptionRef, slot))));
+        }
+    }
+
+    private static byte[] readDescription(byte[][] chunks, long reference) {
+        long offset = reference >>> 16;
+        int length = (int) (reference & MAX_DESCRIPTION_BYTES);
+        int position = (int) (offset % ARENA_CHUNK_SIZE);
+        return Arrays.copyOfRange(chunks[(int) (offset / ARENA_CHUNK_SIZE)], position, position + length);
+    }
+
+    // --- date index ---
+
+    private void indexSlot(int slot) {
+        days.computeIfAbsent(get(transactionDay, slot), d -> new DayBucket()).add(slot);
+    }
+
+    private void unindexSlot(int slot) {
+        int day = get(transactionDay, slot);
+        DayBucket bucket = days.get(day);
+        bucket.remove(slot);
+        if (bucket.isEmpty()) days.remove(day);
+    }
+
+    private void indexOverflow(PurchaseTransaction transaction) {
+        Integer day = overflowDay(transaction);
+        if (day != null) days.computeIfAbsent(day, d -> new DayBucket()).addOverflow(transaction.getTransactionId());
+    }
+
+    private void unindexOverflow(PurchaseTransaction transaction) {
+        Integer day = overflowDay(transaction);
+        if (day == null) return;
+        DayBucket bucket = days.get(day);
+        bucket.removeOverflow(transaction.getTransactionId());
+        if (bucket.isEmpty()) days.remove(day);
+    }
+
+    private static Integer overflowDay(PurchaseTransaction transaction) {
+        LocalDate date = transaction.getTransactionDate();
+        if (date == null) return NO_DATE;
+        long epochDay = date.toEpochDay();
+        return epochDay > NO_DATE && epochDay <= Integer.MAX_VALUE ? (int) epochDay : null;
+    }
+
+    /** Transactions dated on one day in id order, skipping ids up to {@code afterId}; read lock held. */
+    private List<PurchaseTransaction> readDay(int day, String afterId) {
+        DayBucket bucket = days.get(day);
+        List<PurchaseTransaction> transactions = new ArrayList<>(bucket.size + (bucket.overflowIds == null ? 0 : bucket.overflowIds.size()));
+        for (int i = 0; i < bucket.size; i++) {
+            int slot = bucket.slots[i];
+            transactions.add(materialize(slot, new UUID(get(idHigh, slot), get(idLow, slot)).toString()));
+        }
+        if (bucket.overflowIds != null) {
+            bucket.overflowIds.forEach(id -> transactions.add(overflow.get(id)));
+        }
+        if (afterId != null) transactions.removeIf(transaction -> transaction.getTransactionId().compareTo(afterId) <= 0);
+        transactions.sort(Comparator.comparing(PurchaseTransaction::getTransactionId));
+        return transactions;
+    }
+
+    // --- encoding ---
+
+    private PurchaseTransaction materialize(int slot, String transactionId) {
+        byte scale = amountScale[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+        String description = new String(readDescription(arena, get(descriptionRef, slot)), StandardCharsets.UTF_8);
+        return new PurchaseTransaction(transactionId, description, fromDay(get(transactionDay, slot)),
+                BigDecimal.valueOf(get(unscaledAmount, slot), scale), fromDay(get(createdDay, slot)));
+    }
+
+    /** Only canonical lower-case UUID strings are stored as two longs, so the id round-trips exactly. */
+    private static UUID compactId(String transactionId) {
+        if (transactionId == null || transactionId.length() != 36) return null;
+        try {
+            UUID id = UUID.fromString(transactionId);
+            return id.toString().equals(transactionId) ? id : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean encodable(PurchaseTransaction transaction, byte[] description) {
+        BigDecimal amount = transaction.getAmount();
+        if (description == null || description.length > MAX_DESCRIPTION_BYTES || amount == null) return false;
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() > 63 || amount.scale() <= FREE_SLOT || amount.scale() > Byte.MAX_VALUE) return false;
+        return fitsDay(transaction.getTransactionDate()) && fitsDay(transaction.getCreatedAt());
+    }
+
+    private static boolean fitsDay(LocalDate date) {
+        if (date == null) return true;
+        long epochDay = date.toEpochDay();
+        return epochDay > NO_DATE && epochDay <= Integer.MAX_VALUE;
+    }
+
+    private static int toDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    private static LocalDate fromDay(int day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private static int clampDay(LocalDate date) {
+        return (int) Math.max(NO_DATE + 1L, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+
+    private static int cursorDay(TransactionCursor cursor) {
+        return cursor.transactionDate() == null ? NO_DATE : clampDay(cursor.transactionDate());
+    }
+
+    private static long get(long[][] column, int slot) {
+        return column[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+    }
+
+    private static int get(int[][] column, int slot) {
+        return column[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+    }
+
+    private static void set(long[][] column, int slot, long value) {
+        column[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = value;
+    }
+
+    private static void set(int[][] column, int slot, int value) {
+        column[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = value;
+    }
+
+    private static final class DayBucket {
+        int[] slots = new int[4];
+        int size;
+        Set<String> overflowIds;
+
+        void add(int slot) {
+            if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+
+        void addOverflow(String transactionId) {
+            if (overflowIds == null) overflowIds = new HashSet<>();
+            overflowIds.add(transactionId);
+        }
+
+        void removeOverflow(String transactionId) {
+            if (overflowIds != null) overflowIds.remove(transactionId);
+        }
+
+        boolean isEmpty() {
+            return size == 0 && (overflowIds == null || overflowIds.isEmpty());
+        }
+    }
+
+    /** Walks slots in batches under the read lock, then the overflow records. */
+    private final class SlotIterator implements Iterator<PurchaseTransaction> {
+        private int nextSlot;
+        private Iterator<PurchaseTransaction> batch = List.<PurchaseTransaction>of().iterator();
+        private Iterator<PurchaseTransaction> overflowValues;
+
+        @Override
+        public boolean hasNext() {
+            while (!batch.hasNext()) {
+                if (overflowValues != null) return false;
+                batch = nextBatch();
+            }
+            return true;
+        }
+
+        @Override
+        public PurchaseTransaction next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return batch.next();
+        }
+
+        private Iterator<PurchaseTransaction> nextBatch() {
+            long stamp = lock.readLock();
+            try {
+                List<PurchaseTransaction> transactions = new ArrayList<>();
+                while (nextSlot < slotCount && transactions.size() < ITERATION_BATCH) {
+                    int slot = nextSlot++;
+                    if (amountScale[slot >>> PAGE_SHIFT][slot & PAGE_MASK] != FREE_SLOT) {
+                        transactions.add(materialize(slot, new UUID(get(idHigh, slot), get(idLow, slot)).toString()));
+                    }
+                }
+                if (nextSlot >= slotCount) {
+                    overflowValues = overflow.values().iterator();
+                    return transactions.isEmpty() ? overflowValues : concat(transactions.iterator(), overflowValues);
+                }
+                return transactions.iterator();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /** Walks the day buckets in order, materializing one day at a time under the read lock. */
+    private final class DayIterator implements Iterator<PurchaseTransaction> {
+        private final int toDay;
+        private Integer day;
+        private boolean started;
+        private final int firstDay;
+        private final TransactionCursor after;
+        private Iterator<PurchaseTransaction> current = List.<PurchaseTransaction>of().iterator();
+
+        DayIterator(int firstDay, int toDay, TransactionCursor after) {
+            this.firstDay = firstDay;
+            this.toDay = toDay;
+            this.after = after;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                long stamp = lock.readLock();
+                try {
+                    day = started ? days.higherKey(day) : days.ceilingKey(firstDay);
+                    started = true;
+                    if (day == null || day > toDay) return false;
+                    boolean resumeDay = after != null && day == cursorDay(after);
+                    current = readDay(day, resumeDay ? after.transactionId() : null).iterator();
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public PurchaseTransaction next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+    }
+
+    private static <E> Iterator<E> concat(Iterator<E> first, Iterator<E> second) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return first.hasNext() || second.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return first.hasNext() ? first.next() : second.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link ITransactionIndex} backed by a {@link ConcurrentHashMap}, with a
+ * {@link ConcurrentSkipListSet} of (transactionDate, id) keys as the date index and another
+ * of ids for transactions without a date.
+ *
+ * Reads go straight to the map and are lock-free. Single-key mutations run inside
+ * {@code compute}, which locks only the key's bin, so writers to different ids proceed in
+ * parallel and writers to the same id are serialized together with their journal call.
+ * Writers share a read lock that {@link #clear} takes exclusively, so a CLEAR record is
+ * never journaled between a concurrent PUT's apply and its journal entry.
+ *
+ * The date index is updated inside the same {@code compute} call as the map, so it is
+ * consistent per id. Range reads are weakly consistent like map iteration and re-check each
+ * hit against the map, so they never return a transaction under a date it no longer has.
+ */
+public class ConcurrentTransactionIndex implements ITransactionIndex {
+    private final ConcurrentHashMap<String, PurchaseTransaction> transactions = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<DateKey> byTransactionDate = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<String> undated = new ConcurrentSkipListSet<>();
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
+    @Override
+    public <T> T put(PurchaseTransaction transaction, Function<TransactionLogRecord, T> journal) {
+        TransactionLogRecord record = TransactionLogRecord.put(transaction);
+        Lock lock = clearLock.readLock();
+        lock.lock();
+        try {
+            Object[] result = new Object[1];
+            transactions.compute(transaction.getTransactionId(), (id, existing) -> {
+                unindex(existing);
+                index(transaction);
+                result[0] = journal.apply(record);
+                return transaction;
+            });
+            @SuppressWarnings("unchecked")
+            T journaled = (T) result[0];
+            return journaled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T remove(String transactionId, Function<TransactionLogRecord, T> journal) {
+        Lock lock = clearLock.readLock();
+        lock.lock();
+        try {
+            Object[] result = new Object[1];
+            transactions.computeIfPresent(transactionId, (id, existing) -> {
+                unindex(existing);
+                result[0] = journal.apply(TransactionLogRecord.delete(id));
+                return null;
+            });
+            @SuppressWarnings("unchecked")
+            T journaled = (T) result[0];
+            return journaled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T clear(Function<TransactionLogRecord, T> journal) {
+        Lock lock = clearLock.writeLock();
+        lock.lock();
+        try {
+            transactions.clear();
+            byTransactionDate.clear();
+            undated.clear();
+            return journal.apply(TransactionLogRecord.clear());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void apply(TransactionLogRecord record) {
+        switch (record.type()) {
+            case PUT -> {
+                unindex(transactions.put(record.transactionId(), record.transaction()));
+                index(record.transaction());
+            }
+            case DELETE -> unindex(transactions.remove(record.transactionId()));
+            case CLEAR -> {
+                transactions.clear();
+                byTransactionDate.clear();
+                undated.clear();
+            }
+        }
+    }
+
+    @Override
+    public PurchaseTransaction get(String transactionId) {
+        return transactions.get(transactionId);
+    }
+
+    @Override
+    public boolean contains(String transactionId) {
+        return transactions.containsKey(transactionId);
+    }
+
+    @Override
+    public int size() {
+        return transactions.size();
+    }
+
+    @Override
+    public Collection<PurchaseTransaction> values() {
+        return Collections.unmodifiableCollection(transactions.values());
+    }
+
+    @Override
+    public Stream<PurchaseTransaction> streamByTransactionDate(LocalDate from, LocalDate to, TransactionCursor after) {
+        DateKey lower = DateKey.lowest(from);
+        boolean lowerInclusive = true;
+        // An undated cursor sorts before every dated transaction
+        if (after != null && after.transactionDate() != null) {
+            DateKey afterKey = new DateKey(after.transactionDate(), after.transactionId());
+            if (afterKey.compareTo(lower) >= 0) {
+                lower = afterKey;
+                lowerInclusive = false;
+            }
+        }
+        DateKey upper = DateKey.highest(to);
+        if (lower.compareTo(upper) > 0) return Stream.empty();
+
+        return byTransactionDate.subSet(lower, lowerInclusive, upper, true).stream()
+                .map(key -> {
+                    PurchaseTransaction transaction = transactions.get(key.id());
+                    return transaction != null && key.date().equals(transaction.getTransactionDate()) ? transaction : null;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public Stream<PurchaseTransaction> streamUndated(String afterId) {
+        return (afterId == null ? undated : undated.tailSet(afterId, false)).stream()
+                .map(transactions::get)
+                .filter(transaction -> transaction != null && transaction.getTransactionDate() == null);
+    }
+
+    private void index(PurchaseTransaction transaction) {
+        if (transaction.getTransactionDate() != null) {
+            byTransactionDate.add(new DateKey(transaction.getTransactionDate(), transaction.getTransactionId()));
+        } else {
+            undated.add(transaction.getTransactionId());
+        }
+    }
+
+    private void unindex(PurchaseTransaction transaction) {
+        if (transaction == null) return;
+        if (transaction.getTransactionDate() != null) {
+            byTransactionDate.remove(new DateKey(transaction.getTransactionDate(), transaction.getTransactionId()));
+        } else {
+            undated.remove(transaction.getTransactionId());
+        }
+    }
+
+    /** Date index entry; a null id sorts after every id so it can serve as an inclusive upper bound. */
+    private record DateKey(LocalDate date, String id) implements Comparable<DateKey> {
+        private static final Comparator<DateKey> ORDER = Comparator.comparing(DateKey::date)
+                .thenComparing(DateKey::id, Comparator.nullsLast(Comparator.naturalOrder()));
+
+        static DateKey lowest(LocalDate date) {
+            return new DateKey(date, "");
+        }
+
+        static DateKey highest(LocalDate date) {
+            return new DateKey(date, null);
+        }
+
+        @Override
+        public int compareTo(DateKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
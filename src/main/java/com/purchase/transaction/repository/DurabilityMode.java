@@ -0,0 +1,13 @@
+package com.purchase.transaction.repository;
+
+/**
+ * When a group-commit batch counts as written, selected with {@code app.repository.durability}.
+ */
+public enum DurabilityMode {
+    /** Every batch is fsynced before any of its writers is acknowledged. */
+    FSYNC_PER_BATCH,
+    /** Writers are acknowledged once their batch reaches the OS; an fsync runs at most every fsync-interval. */
+    FSYNC_INTERVAL,
+    /** Writers are acknowledged once their batch reaches the OS; flushing is left to the OS. */
+    OS_BUFFERED
+}
@@ -2,33 +2,52 @@ package com.purchase.transaction.repository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Repository
+@ConditionalOnProperty(name = "app.repository.engine", havingValue = "file", matchIfMissing = true)
 public class FileBasedTransactionRepository implements ITransactionRepository {
     private static final Logger log = LoggerFactory.getLogger(FileBasedTransactionRepository.class);
     
-    private static final String TRANSACTIONS_FILENAME = "transactions.json";
     private final String repositoryPath;
-    private final ObjectMapper objectMapper;
-    private final Map<String, PurchaseTransaction> transactionCache;
-    
-    public FileBasedTransactionRepository(ObjectMapper objectMapper,
-                                          @Value("${app.repository.path:./data}") String repositoryPath) {
-        this.objectMapper = objectMapper;
-        this.repositoryPath = repositoryPath;
-        this.transactionCache = new HashMap<>();
+    private final ITransactionIndex transactionIndex;
+    private final PersistenceMode persistenceMode;
+    private final ITransactionStore transactionStore;
+    private final GroupCommitWriter writer;
+    
+    public FileBasedTransactionRepository(ObjectMapper objectMapper, String repositoryPath) {
+        this(objectMapper, RepositoryProperties.forPath(repositoryPath));
+    }
+    
+    @Autowired
+    public FileBasedTransactionRepository(ObjectMapper objectMapper, RepositoryProperties properties) {
+        this.repositoryPath = properties.getPath();
+        this.persistenceMode = properties.getPersistenceMode();
+        this.transactionIndex = properties.getLayout() == StorageLayout.COMPACT
+                ? new CompactTransactionIndex()
+                : new ConcurrentTransactionIndex();
         initializeRepository();
-        loadTransactionsFromFile();
+        this.transactionStore = createStore(objectMapper, properties);
+        loadTransactions();
+        this.writer = new GroupCommitWriter(transactionStore, properties.getDurability(), properties.getGroupCommitWindow(),
+                properties.getGroupCommitMaxBatch(), properties.getFsyncInterval());
     }
     
     private void initializeRepository() {
@@ -44,89 +63,156 @@ public class FileBasedTransactionRepository implements ITransactionRepository {
         }
     }
     
-    private void loadTransactionsFromFile() {
+    private ITransactionStore createStore(ObjectMapper objectMapper, RepositoryProperties properties) {
+        Path directory = Path.of(repositoryPath);
+        int loadParallelism = properties.effectiveLoadParallelism();
+        log.info("Using {} persistence for transactions in {}", persistenceMode, repositoryPath);
+        return switch (persistenceMode) {
+            case JSON -> new JsonFileTransactionStore(objectMapper, directory, transactionIndex::values, loadParallelism);
+            case LOG -> new SegmentedLogTransactionStore(objectMapper, directory, properties.getSegmentSize().toBytes(), loadParallelism);
+            case SNAPSHOT -> new SnapshotTransactionStore(objectMapper, directory, properties.getSegmentSize().toBytes(),
+                    properties.getCompactionInterval(), properties.getCompactionThreshold().toBytes(), loadParallelism,
+                    transactionIndex::values);
+        };
+    }
+    
+    private void loadTransactions() {
         try {
-            File file = getRepositoryFile();
-            transactionCache.clear();
-            
-            if (file.exists()) {
-                PurchaseTransaction[] transactions = objectMapper.readValue(file, PurchaseTransaction[].class);
-                for (PurchaseTransaction transaction : transactions) {
-                    transactionCache.put(transaction.getTransactionId(), transaction);
-                }
-                log.info("Loaded {} transactions from file", transactions.length);
-            } else {
-                log.info("Repository file does not exist. Starting with empty repository.");
-                saveTransactionsToFile();
-            }
+            long started = System.nanoTime();
+            AtomicLong records = new AtomicLong();
+            transactionStore.replay(record -> {
+                transactionIndex.apply(record);
+                records.incrementAndGet();
+            });
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            long recordsPerSecond = records.get() * 1000 / Math.max(1, elapsedMillis);
+            log.info("Loaded {} transactions from {} records in {} ms ({} records/s)",
+                    transactionIndex.size(), records.get(), elapsedMillis, recordsPerSecond);
         } catch (IOException e) {
             log.error("Failed to load transactions from file", e);
             throw new RuntimeException("Failed to load transactions", e);
         }
     }
     
-    private synchronized void saveTransactionsToFile() {
+    /**
+     * Waits for the group-commit batch holding a mutation that the index has already applied
+     * and queued, so the caller is only acknowledged once the configured durability is
+     * reached. No index lock is held here: readers and other writers never wait on disk I/O.
+     */
+    private void awaitDurable(CompletableFuture<Void> pendingWrite) {
         try {
-            File file = getRepositoryFile();
-            List<PurchaseTransaction> transactions = new ArrayList<>(transactionCache.values());
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, transactions);
-            log.debug("Persisted {} transactions to file", transactions.size());
-        } catch (IOException e) {
-            log.error("Failed to save transactions to file", e);
-            throw new RuntimeException("Failed to save transactions", e);
+            pendingWrite.join();
+        } catch (CompletionException e) {
+            log.error("Failed to save transactions to file", e.getCause());
+            throw new RuntimeException("Failed to save transactions", e.getCause());
         }
     }
     
-    private File getRepositoryFile() {
-        return Path.of(repositoryPath, TRANSACTIONS_FILENAME).toFile();
+    public Map<String, Object> describeStore() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("persistenceMode", persistenceMode);
+        status.put("transactions", transactionIndex.size());
+        status.putAll(transactionStore.describe());
+        return status;
+    }
+    
+    public boolean requestCompaction() {
+        return transactionStore.requestCompaction();
+    }
+    
+    @PreDestroy
+    public void close() {
+        writer.close();
+        try {
+            transactionStore.close();
+        } catch (IOException e) {
+            log.warn("Failed to close transaction store", e);
+        }
     }
     
     @Override
     public PurchaseTransaction save(PurchaseTransaction transaction) {
         if (transaction == null) throw new IllegalArgumentException("Transaction cannot be null");
-        transactionCache.put(transaction.getTransactionId(), transaction);
-        saveTransactionsToFile();
+        awaitDurable(transactionIndex.put(transaction, writer::submit));
         log.info("Saved transaction with ID: {}", transaction.getTransactionId());
         return transaction;
     }
     
+    /**
+     * Applies every transaction to the index while the writer is held, so the whole batch is
+     * written with one store call and one fsync, then waits for it once.
+     */
+    @Override
+    public List<PurchaseTransaction> saveAll(Collection<PurchaseTransaction> transactions) {
+        if (transactions == null || transactions.stream().anyMatch(Objects::isNull)) throw new IllegalArgumentException("Transaction cannot be null");
+        if (transactions.isEmpty()) return List.of();
+        List<CompletableFuture<Void>> pendingWrites = new ArrayList<>(transactions.size());
+        writer.hold();
+        try {
+            for (PurchaseTransaction transaction : transactions) {
+                pendingWrites.add(transactionIndex.put(transaction, writer::submit));
+            }
+        } finally {
+            writer.release();
+        }
+        awaitDurable(CompletableFuture.allOf(pendingWrites.toArray(CompletableFuture[]::new)));
+        log.info("Saved {} transactions", transactions.size());
+        return List.copyOf(transactions);
+    }
+    
     @Override
     public Optional<PurchaseTransaction> findById(String transactionId) {
         if (transactionId == null || transactionId.trim().isEmpty()) return Optional.empty();
-        return Optional.ofNullable(transactionCache.get(transactionId));
+        return Optional.ofNullable(transactionIndex.get(transactionId));
     }
     
     @Override
     public List<PurchaseTransaction> findAll() {
-        return new ArrayList<>(transactionCache.values());
+        return new ArrayList<>(transactionIndex.values());
+    }
+    
+    @Override
+    public List<PurchaseTransaction> findByTransactionDateBetween(LocalDate from, LocalDate to, int limit) {
+        if (from == null || to == null) throw new IllegalArgumentException("Date range bounds cannot be null");
+        if (from.isAfter(to)) throw new IllegalArgumentException("Date range start %s is after its end %s".formatted(from, to));
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive: %d".formatted(limit));
+        return transactionIndex.streamByTransactionDate(from, to, null).limit(limit).toList();
+    }
+    
+    @Override
+    public Stream<PurchaseTransaction> streamByTransactionDate(LocalDate from, LocalDate to, TransactionCursor after) {
+        if (from == null || to == null) throw new IllegalArgumentException("Date range bounds cannot be null");
+        return transactionIndex.streamByTransactionDate(from, to, after);
+    }
+    
+    @Override
+    public Stream<PurchaseTransaction> streamUndated(String afterId) {
+        return transactionIndex.streamUndated(afterId);
     }
     
     @Override
     public boolean deleteById(String transactionId) {
         if (transactionId == null || transactionId.trim().isEmpty()) return false;
-        boolean existed = transactionCache.containsKey(transactionId);
-        if (existed) {
-            transactionCache.remove(transactionId);
-            saveTransactionsToFile();
-            log.info("Deleted transaction with ID: {}", transactionId);
-        }
-        return existed;
+        CompletableFuture<Void> pendingWrite = transactionIndex.remove(transactionId, writer::submit);
+        if (pendingWrite == null) return false;
+        awaitDurable(pendingWrite);
+        log.info("Deleted transaction with ID: {}", transactionId);
+        return true;
     }
     
     @Override
     public boolean existsById(String transactionId) {
-        return transactionId != null && !transactionId.trim().isEmpty() && transactionCache.containsKey(transactionId);
+        return transactionId != null && !transactionId.trim().isEmpty() && transactionIndex.contains(transactionId);
     }
     
     @Override
     public long count() {
-        return transactionCache.size();
+        return transactionIndex.size();
     }
     
     @Override
     public void deleteAll() {
-        transactionCache.clear();
-        saveTransactionsToFile();
+        awaitDurable(transactionIndex.clear(writer::submit));
         log.info("Deleted all transactions");
     }
 }
@@ -0,0 +1,185 @@
+package com.purchase.transaction.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for transaction store writes.
+ *
+ * Request threads hand their mutation to {@link #submit} and wait on the returned future. A
+ * single writer thread collects everything that arrives within the batch window (or until
+ * the batch is full), writes the batch with one store call and, depending on the
+ * {@link DurabilityMode}, one fsync, then completes every future in the batch. Concurrent
+ * POSTs therefore share disk I/O instead of queueing behind each other's writes.
+ *
+ * A bulk write brackets its submissions with {@link #hold()} and {@link #release()}, which
+ * queue markers around them; a batch that has seen a hold marker keeps collecting past the
+ * batch size and window until the matching release, so the whole bulk is written with one
+ * store call and one fsync.
+ */
+public class GroupCommitWriter implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ITransactionStore store;
+    private final DurabilityMode durabilityMode;
+    private final long batchWindowNanos;
+    private final int maxBatchSize;
+    private final long fsyncIntervalNanos;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    /** Makes the {@code running} check and enqueue in {@link #submit} atomic with {@link #close()} clearing it. */
+    private final Object submitLock = new Object();
+
+    private volatile boolean running = true;
+    private boolean unsynced;
+    private long lastSyncNanos = System.nanoTime();
+
+    public GroupCommitWriter(ITransactionStore store, DurabilityMode durabilityMode, Duration batchWindow,
+                             int maxBatchSize, Duration fsyncInterval) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("Group commit batch size must be at least 1");
+        this.store = store;
+        this.durabilityMode = durabilityMode;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.writerThread = new Thread(this::run, "transaction-group-commit");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a mutation for the next batch.
+     *
+     * @return completes once the batch containing the record has been written (and, in
+     *         {@link DurabilityMode#FSYNC_PER_BATCH} mode, fsynced)
+     */
+    public CompletableFuture<Void> submit(TransactionLogRecord record) {
+        PendingWrite write = new PendingWrite(record, new CompletableFuture<>(), 0);
+        synchronized (submitLock) {
+            // Once close() has cleared running, nothing may be queued: the writer may already have
+            // exited and close() drained the queue, leaving the future incomplete
+            if (running) {
+                queue.add(write);
+                return write.completion();
+            }
+        }
+        write.completion().completeExceptionally(new IllegalStateException("Transaction writer is closed"));
+        return write.completion();
+    }
+
+    /** Keeps the batch that picks up the following submissions open until the matching {@link #release()}. */
+    public void hold() {
+        queue.add(new PendingWrite(null, null, 1));
+    }
+
+    public void release() {
+        queue.add(new PendingWrite(null, null, -1));
+    }
+
+    @Override
+    public void close() {
+        synchronized (submitLock) {
+            running = false;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingWrite> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.stream()
+                .filter(write -> write.record() != null)
+                .forEach(write -> write.completion().completeExceptionally(new IllegalStateException("Transaction writer is closed")));
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    syncIfIntervalElapsed();
+                    continue;
+                }
+                batch.add(first);
+                collectBatch(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        syncIfIntervalElapsed();
+    }
+
+    private void collectBatch(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + batchWindowNanos;
+        int openHolds = batch.get(0).holdDelta();
+        while (openHolds > 0 || batch.size() < maxBatchSize) {
+            PendingWrite next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (openHolds == 0 && remaining <= 0) return;
+                next = queue.poll(openHolds > 0 ? IDLE_POLL_NANOS : remaining, TimeUnit.NANOSECONDS);
+                if (next == null) continue;
+            }
+            batch.add(next);
+            openHolds += next.holdDelta();
+        }
+    }
+
+    private void commit(List<PendingWrite> collected) {
+        List<PendingWrite> batch = collected.stream().filter(write -> write.record() != null).toList();
+        if (batch.isEmpty()) return;
+        try {
+            store.append(batch.stream().map(PendingWrite::record).toList());
+            unsynced = true;
+            if (durabilityMode == DurabilityMode.FSYNC_PER_BATCH) {
+                sync();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write batch of {} transaction records", batch.size(), e);
+            batch.forEach(write -> write.completion().completeExceptionally(e));
+            return;
+        }
+        batch.forEach(write -> write.completion().complete(null));
+        log.debug("Committed batch of {} transaction records", batch.size());
+        if (durabilityMode == DurabilityMode.FSYNC_INTERVAL) {
+            syncIfIntervalElapsed();
+        }
+    }
+
+    private void syncIfIntervalElapsed() {
+        if (!unsynced || durabilityMode == DurabilityMode.OS_BUFFERED) return;
+        if (System.nanoTime() - lastSyncNanos < fsyncIntervalNanos && running) return;
+        try {
+            sync();
+        } catch (IOException e) {
+            log.error("Failed to fsync transaction store", e);
+        }
+    }
+
+    private void sync() throws IOException {
+        store.sync();
+        unsynced = false;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    /** A queued mutation, or a hold (+1) / release (-1) marker without record or completion. */
+    private record PendingWrite(TransactionLogRecord record, CompletableFuture<Void> completion, int holdDelta) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory view of the ledger that the repository serves reads from.
+ *
+ * Reads never block. Mutations hand their {@link TransactionLogRecord} to a journal function
+ * while the affected key is still locked, so the order in which records reach the store
+ * matches the order in which they were applied here, even for concurrent writes to the same
+ * id. The journal must only enqueue the record; waiting for it to be written happens after
+ * the mutation method returns, outside of any lock.
+ */
+public interface ITransactionIndex {
+    /**
+     * Inserts or replaces a transaction.
+     *
+     * @return whatever the journal returned for the PUT record
+     */
+    <T> T put(PurchaseTransaction transaction, Function<TransactionLogRecord, T> journal);
+
+    /**
+     * Removes a transaction if present.
+     *
+     * @return whatever the journal returned for the DELETE record, or null if there was
+     *         nothing to remove (in which case nothing is journaled)
+     */
+    <T> T remove(String transactionId, Function<TransactionLogRecord, T> journal);
+
+    /**
+     * Removes every transaction. No other mutation can interleave with a clear.
+     *
+     * @return whatever the journal returned for the CLEAR record
+     */
+    <T> T clear(Function<TransactionLogRecord, T> journal);
+
+    /** Applies a replayed record without journaling it again. */
+    void apply(TransactionLogRecord record);
+
+    PurchaseTransaction get(String transactionId);
+
+    boolean contains(String transactionId);
+
+    int size();
+
+    /** Weakly consistent view of every transaction, safe to iterate during concurrent writes. */
+    Collection<PurchaseTransaction> values();
+
+    /**
+     * Lazily walks the sorted transactionDate index: transactions dated within [from, to],
+     * ordered by date and then id, starting strictly after {@code after} when it is given.
+     * Nothing is copied up front, so callers can stop early or stream the results. A cursor
+     * without a date points into {@link #streamUndated}, which sorts before every date.
+     */
+    Stream<PurchaseTransaction> streamByTransactionDate(LocalDate from, LocalDate to, TransactionCursor after);
+
+    /** Lazily walks transactions without a transactionDate in id order, starting strictly after {@code afterId} when it is given. */
+    Stream<PurchaseTransaction> streamUndated(String afterId);
+}
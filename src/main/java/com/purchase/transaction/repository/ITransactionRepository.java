@@ -1,12 +1,22 @@
 package com.purchase.transaction.repository;
 import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ITransactionRepository {
     PurchaseTransaction save(PurchaseTransaction transaction);
+    /** Saves a batch of transactions with a single persistence pass. */
+    List<PurchaseTransaction> saveAll(Collection<PurchaseTransaction> transactions);
     Optional<PurchaseTransaction> findById(String transactionId);
     List<PurchaseTransaction> findAll();
+    List<PurchaseTransaction> findByTransactionDateBetween(LocalDate from, LocalDate to, int limit);
+    Stream<PurchaseTransaction> streamByTransactionDate(LocalDate from, LocalDate to, TransactionCursor after);
+    /** Transactions without a transactionDate, in id order, starting strictly after {@code afterId} when it is given. */
+    Stream<PurchaseTransaction> streamUndated(String afterId);
     boolean deleteById(String transactionId);
     boolean existsById(String transactionId);
     long count();
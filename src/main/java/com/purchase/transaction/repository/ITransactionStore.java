@@ -0,0 +1,43 @@
+package com.purchase.transaction.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Durable backing store for the repository's in-memory transaction cache.
+ */
+public interface ITransactionStore extends Closeable {
+    /** Replays every persisted mutation, oldest first, into the given sink. */
+    void replay(Consumer<TransactionLogRecord> sink) throws IOException;
+
+    /**
+     * Writes a batch of mutations that have already been applied to the in-memory cache.
+     * Called from the single group-commit writer thread; the data only has to reach the
+     * operating system here, {@link #sync()} makes it durable.
+     */
+    void append(List<TransactionLogRecord> records) throws IOException;
+
+    /** Forces everything appended so far to stable storage. */
+    void sync() throws IOException;
+
+    /** Key facts about the on-disk state, reported by the transactionstore actuator endpoint. */
+    default Map<String, Object> describe() {
+        return Map.of();
+    }
+
+    /**
+     * Asks the store to fold its change log into a fresh snapshot in the background.
+     *
+     * @return false if this store does not support compaction
+     */
+    default boolean requestCompaction() {
+        return false;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
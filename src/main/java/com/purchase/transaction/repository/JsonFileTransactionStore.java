@@ -0,0 +1,75 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Original persistence strategy: the whole cache is re-serialized as a pretty-printed
+ * JSON array into transactions.json whenever anything changes.
+ */
+public class JsonFileTransactionStore implements ITransactionStore {
+    private static final Logger log = LoggerFactory.getLogger(JsonFileTransactionStore.class);
+
+    static final String TRANSACTIONS_FILENAME = "transactions.json";
+
+    private final ObjectMapper objectMapper;
+    private final File file;
+    private final Supplier<Collection<PurchaseTransaction>> snapshotSupplier;
+    private final TransactionJsonStreamReader reader;
+
+    public JsonFileTransactionStore(ObjectMapper objectMapper, Path directory, Supplier<Collection<PurchaseTransaction>> snapshotSupplier,
+                                    int loadParallelism) {
+        this.objectMapper = objectMapper;
+        this.file = directory.resolve(TRANSACTIONS_FILENAME).toFile();
+        this.snapshotSupplier = snapshotSupplier;
+        this.reader = new TransactionJsonStreamReader(objectMapper, loadParallelism);
+    }
+
+    @Override
+    public void replay(Consumer<TransactionLogRecord> sink) throws IOException {
+        if (!file.exists()) {
+            log.info("Repository file does not exist. Starting with empty repository.");
+            writeFile();
+            return;
+        }
+        reader.read(file.toPath(), transaction -> sink.accept(TransactionLogRecord.put(transaction)));
+    }
+
+    /** One rewrite covers the whole batch, however many mutations it contains. */
+    @Override
+    public void append(List<TransactionLogRecord> records) throws IOException {
+        writeFile();
+    }
+
+    @Override
+    public void sync() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public Map<String, Object> describe() {
+        return Map.of("file", file.getName(), "fileBytes", file.length());
+    }
+
+    private void writeFile() throws IOException {
+        List<PurchaseTransaction> transactions = new ArrayList<>(snapshotSupplier.get());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, transactions);
+        log.debug("Persisted {} transactions to file", transactions.size());
+    }
+}
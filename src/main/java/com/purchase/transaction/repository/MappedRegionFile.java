@@ -0,0 +1,118 @@
+package com.purchase.transaction.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A file mapped into memory as a sequence of fixed-size regions, so it can grow past the 2 GB
+ * limit of a single {@link MappedByteBuffer}. Callers lay out fixed-width entries whose size
+ * divides the region size, so no entry ever straddles two regions.
+ *
+ * Not thread-safe for writes; {@link MappedTransactionRepository} serializes writers. Only
+ * regions written since the last {@link #force()} are synced.
+ */
+final class MappedRegionFile implements Closeable {
+    static final long REGION_BYTES = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private final BitSet dirtyRegions = new BitSet();
+
+    MappedRegionFile(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ensureCapacity(channel.size());
+    }
+
+    /** Bytes currently mapped, always a whole number of regions. */
+    long capacity() {
+        return regions.length * REGION_BYTES;
+    }
+
+    /** Maps further regions until at least {@code bytes} are addressable; mapping extends the file. */
+    void ensureCapacity(long bytes) throws IOException {
+        int needed = (int) ((bytes + REGION_BYTES - 1) / REGION_BYTES);
+        if (needed <= regions.length) return;
+        MappedByteBuffer[] grown = Arrays.copyOf(regions, needed);
+        for (int i = regions.length; i < needed; i++) {
+            grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * REGION_BYTES, REGION_BYTES);
+        }
+        regions = grown;
+    }
+
+    byte getByte(long position) {
+        return region(position).get(offset(position));
+    }
+
+    int getInt(long position) {
+        return region(position).getInt(offset(position));
+    }
+
+    long getLong(long position) {
+        return region(position).getLong(offset(position));
+    }
+
+    void read(long position, byte[] target) {
+        region(position).get(offset(position), target);
+    }
+
+    void putByte(long position, byte value) {
+        writable(position).put(offset(position), value);
+    }
+
+    void putInt(long position, int value) {
+        writable(position).putInt(offset(position), value);
+    }
+
+    void putLong(long position, long value) {
+        writable(position).putLong(offset(position), value);
+    }
+
+    void write(long position, byte[] source) {
+        writable(position).put(offset(position), source);
+    }
+
+    void zero(long position, long length) {
+        byte[] zeros = new byte[(int) Math.min(length, 64 * 1024)];
+        for (long end = position + length; position < end; ) {
+            int chunk = (int) Math.min(zeros.length, Math.min(end - position, REGION_BYTES - offset(position)));
+            writable(position).put(offset(position), zeros, 0, chunk);
+            position += chunk;
+        }
+    }
+
+    /** Syncs every region written since the last call. */
+    void force() {
+        MappedByteBuffer[] mapped = regions;
+        for (int i = dirtyRegions.nextSetBit(0); i >= 0; i = dirtyRegions.nextSetBit(i + 1)) {
+            mapped[i].force();
+        }
+        dirtyRegions.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        regions = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    private MappedByteBuffer region(long position) {
+        return regions[(int) (position / REGION_BYTES)];
+    }
+
+    private MappedByteBuffer writable(long position) {
+        int index = (int) (position / REGION_BYTES);
+        dirtyRegions.set(index);
+        return regions[index];
+    }
+
+    private static int offset(long position) {
+        return (int) (position % REGION_BYTES);
+    }
+}
@@ -0,0 +1,640 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Off-heap {@link ITransactionRepository}, selected with {@code app.repository.engine=mmap}.
+ *
+ * Transactions live in fixed-width records in a memory-mapped data file and are found through
+ * a hash index that is itself a memory-mapped file, so the ledger can exceed the heap, the OS
+ * page cache decides what stays resident, and startup after a clean shutdown only maps the
+ * two files instead of deserializing every transaction.
+ *
+ * transactions.mmap holds 256-byte records densely in [0, count); a delete moves the last
+ * record into the hole. Record layout: [byte status][byte idLength][short descriptionLength,
+ * -1 = null][int transactionDay][int createdDay][byte amountScale][byte amountPresent][2 pad]
+ * [long unscaledAmount][64 bytes id][160 bytes description][int crc32 of bytes 0-247][4 pad].
+ *
+ * transactions.mmap.idx has a 64-byte header ([int magic][int version][long capacity]
+ * [long count][byte clean]) followed by an open-addressing table of 16-byte slots
+ * ([long id fingerprint][long record number + 1], 0 = empty).
+ *
+ * The clean flag is cleared while the files are open. If the previous run did not close
+ * cleanly, the index is rebuilt by scanning the data file, dropping records with a bad
+ * checksum and duplicates left by an interrupted delete. {@code app.repository.durability}
+ * decides when dirty pages are forced: after every write, every fsync-interval, or never.
+ *
+ * Reads share a read lock and touch only the pages they need; writes are serialized.
+ * There is no secondary date index: range queries scan the mapped records.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.repository.engine", havingValue = "mmap")
+public class MappedTransactionRepository implements ITransactionRepository {
+    private static final Logger log = LoggerFactory.getLogger(MappedTransactionRepository.class);
+
+    static final String DATA_FILENAME = "transactions.mmap";
+    static final String INDEX_FILENAME = "transactions.mmap.idx";
+    static final int RECORD_BYTES = 256;
+
+    private static final int STATUS = 0;
+    private static final int ID_LENGTH = 1;
+    private static final int DESCRIPTION_LENGTH = 2;
+    private static final int TRANSACTION_DAY = 4;
+    private static final int CREATED_DAY = 8;
+    private static final int AMOUNT_SCALE = 12;
+    private static final int AMOUNT_PRESENT = 13;
+    private static final int UNSCALED_AMOUNT = 16;
+    private static final int ID = 24;
+    private static final int DESCRIPTION = 88;
+    private static final int CHECKSUM = 248;
+    private static final int MAX_ID_BYTES = DESCRIPTION - ID;
+    private static final int MAX_DESCRIPTION_BYTES = CHECKSUM - DESCRIPTION;
+    private static final byte LIVE = 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int INDEX_MAGIC = 0x50544958; // "PTIX"
+    private static final int INDEX_VERSION = 1;
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_CAPACITY = 8;
+    private static final int HEADER_COUNT = 16;
+    private static final int HEADER_CLEAN = 24;
+    private static final int INDEX_HEADER_BYTES = 64;
+    private static final int INDEX_SLOT_BYTES = 16;
+    private static final long INITIAL_INDEX_CAPACITY = 1 << 12;
+
+    private final Path directory;
+    private final DurabilityMode durability;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MappedRegionFile data;
+    private final ScheduledExecutorService syncScheduler;
+    private MappedRegionFile index;
+    private long indexCapacity;
+    private long count;
+    private boolean closed;
+
+    public MappedTransactionRepository(RepositoryProperties properties) {
+        this.directory = Path.of(properties.getPath());
+        this.durability = properties.getDurability();
+        try {
+            Files.createDirectories(directory);
+            long started = System.nanoTime();
+            this.data = new MappedRegionFile(directory.resolve(DATA_FILENAME));
+            if (!openIndex()) rebuildIndex();
+            index.putByte(HEADER_CLEAN, (byte) 0);
+            index.force();
+            log.info("Opened {} memory-mapped transactions in {} in {} ms",
+                    count, directory, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            log.error("Failed to open memory-mapped transaction store", e);
+            throw new RuntimeException("Failed to initialize repository", e);
+        }
+
+        if (durability == DurabilityMode.FSYNC_INTERVAL) {
+            long intervalMillis = Math.max(1, properties.getFsyncInterval().toMillis());
+            this.syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "transaction-mmap-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(this::force, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncScheduler = null;
+        }
+    }
+
+    /** @return false if the index is missing, from another version, or was not closed cleanly */
+    private boolean openIndex() throws IOException {
+        Path path = directory.resolve(INDEX_FILENAME);
+        boolean existed = Files.exists(path);
+        index = new MappedRegionFile(path);
+        if (!existed || index.capacity() < INDEX_HEADER_BYTES) return false;
+        if (index.getInt(HEADER_MAGIC) != INDEX_MAGIC || index.getInt(HEADER_VERSION) != INDEX_VERSION) return false;
+        if (index.getByte(HEADER_CLEAN) != 1) {
+            log.warn("Transaction store in {} was not closed cleanly; rebuilding its index", directory);
+            return false;
+        }
+        indexCapacity = index.getLong(HEADER_CAPACITY);
+        count = index.getLong(HEADER_COUNT);
+        return true;
+    }
+
+    /** Scans every mapped record, packing valid ones to the front and re-inserting them into a fresh index. */
+    private void rebuildIndex() throws IOException {
+        resetIndex();
+        count = 0;
+        long dropped = 0;
+        byte[] record = new byte[RECORD_BYTES];
+        long slots = data.capacity() / RECORD_BYTES;
+        for (long recordNumber = 0; recordNumber < slots; recordNumber++) {
+            long position = recordNumber * RECORD_BYTES;
+            if (data.getByte(position + STATUS) == 0) continue;
+            data.read(position, record);
+            byte[] id = valid(record) ? idOf(record) : null;
+            if (id == null || findSlot(id, fingerprint(id)) >= 0) {
+                data.putByte(position + STATUS, (byte) 0);
+                dropped++;
+                continue;
+            }
+            if (recordNumber != count) {
+                data.write(count * RECORD_BYTES, record);
+                data.putByte(position + STATUS, (byte) 0);
+            }
+            if ((count + 1) * 10 > indexCapacity * 7) growIndex();
+            insertEntry(fingerprint(id), count);
+            count++;
+        }
+        index.putLong(HEADER_COUNT, count);
+        data.force();
+        index.force();
+        if (dropped > 0) log.warn("Dropped {} torn or duplicate records while rebuilding the index", dropped);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (syncScheduler != null) syncScheduler.shutdown();
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            data.close();
+            index.putLong(HEADER_COUNT, count);
+            index.force();
+            index.putByte(HEADER_CLEAN, (byte) 1);
+            index.close();
+        } catch (IOException e) {
+            log.warn("Failed to close memory-mapped transaction store", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Map<String, Object> describeStore() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("engine", "mmap");
+            status.put("durability", durability);
+            status.put("transactions", count);
+            status.put("dataFileBytes", data.capacity());
+            status.put("indexCapacity", indexCapacity);
+            return status;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public PurchaseTransaction save(PurchaseTransaction transaction) {
+        if (transaction == null) throw new IllegalArgumentException("Transaction cannot be null");
+        write(List.of(encode(transaction)));
+        log.info("Saved transaction with ID: {}", transaction.getTransactionId());
+        return transaction;
+    }
+
+    /** Encodes the whole batch up front, then writes it under one lock acquisition and one force. */
+    @Override
+    public List<PurchaseTransaction> saveAll(Collection<PurchaseTransaction> transactions) {
+        if (transactions == null || transactions.stream().anyMatch(Objects::isNull)) throw new IllegalArgumentException("Transaction cannot be null");
+        if (transactions.isEmpty()) return List.of();
+        write(transactions.stream().map(MappedTransactionRepository::encode).toList());
+        log.info("Saved {} transactions", transactions.size());
+        return List.copyOf(transactions);
+    }
+
+    private void write(List<byte[]> records) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (byte[] record : records) {
+                byte[] id = idOf(record);
+                long fingerprint = fingerprint(id);
+                long slot = findSlot(id, fingerprint);
+                long recordNumber;
+                if (slot >= 0) {
+                    recordNumber = index.getLong(slotPosition(slot) + 8) - 1;
+                } else {
+                    if ((count + 1) * 10 > indexCapacity * 7) growIndex();
+                    recordNumber = count;
+                    data.ensureCapacity((recordNumber + 1) * RECORD_BYTES);
+                    insertEntry(fingerprint, recordNumber);
+                    setCount(count + 1);
+                }
+                data.write(recordNumber * RECORD_BYTES, record);
+            }
+            forceIfRequired();
+        } catch (IOException e) {
+            log.error("Failed to save transactions to memory-mapped store", e);
+            throw new RuntimeException("Failed to save transactions", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<PurchaseTransaction> findById(String transactionId) {
+        if (transactionId == null || transactionId.trim().isEmpty()) return Optional.empty();
+        byte[] id = transactionId.getBytes(StandardCharsets.UTF_8);
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            long slot = findSlot(id, fingerprint(id));
+            return slot < 0 ? Optional.empty() : Optional.of(decode(readRecord(index.getLong(slotPosition(slot) + 8) - 1)));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<PurchaseTransaction> findAll() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            List<PurchaseTransaction> transactions = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE - 8));
+            for (long recordNumber = 0; recordNumber < count; recordNumber++) {
+                transactions.add(decode(readRecord(recordNumber)));
+            }
+            return transactions;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<PurchaseTransaction> findByTransactionDateBetween(LocalDate from, LocalDate to, int limit) {
+        if (from == null || to == null) throw new IllegalArgumentException("Date range bounds cannot be null");
+        if (from.isAfter(to)) throw new IllegalArgumentException("Date range start %s is after its end %s".formatted(from, to));
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive: %d".formatted(limit));
+        return streamByTransactionDate(from, to, null).limit(limit).toList();
+    }
+
+    /**
+     * Scans the records once for matching (date, id) keys and sorts them; transactions are then
+     * read lazily by id, and skipped if they were deleted or re-dated in the meantime.
+     */
+    @Override
+    public Stream<PurchaseTransaction> streamByTransactionDate(LocalDate from, LocalDate to, TransactionCursor after) {
+        if (from == null || to == null) throw new IllegalArgumentException("Date range bounds cannot be null");
+        // An undated cursor sorts before every dated transaction
+        DateKey afterKey = after == null || after.transactionDate() == null ? null
+                : new DateKey(clampDay(after.transactionDate()), after.transactionId());
+        return streamDays(clampDay(from), clampDay(to), afterKey);
+    }
+
+    @Override
+    public Stream<PurchaseTransaction> streamUndated(String afterId) {
+        return streamDays(NO_DATE, NO_DATE, afterId == null ? null : new DateKey(NO_DATE, afterId));
+    }
+
+    private Stream<PurchaseTransaction> streamDays(int fromDay, int toDay, DateKey afterKey) {
+        List<DateKey> keys = new ArrayList<>();
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            for (long recordNumber = 0; recordNumber < count; recordNumber++) {
+                long position = recordNumber * RECORD_BYTES;
+                int day = data.getInt(position + TRANSACTION_DAY);
+                if (day < fromDay || day > toDay) continue;
+                byte[] id = new byte[data.getByte(position + ID_LENGTH) & 0xFF];
+                data.read(position + ID, id);
+                DateKey key = new DateKey(day, new String(id, StandardCharsets.UTF_8));
+                if (afterKey == null || key.compareTo(afterKey) > 0) keys.add(key);
+            }
+        } finally {
+            readLock.unlock();
+        }
+        keys.sort(null);
+        return keys.stream()
+                .map(key -> findById(key.id())
+                        .filter(transaction -> toDay(transaction.getTransactionDate()) == key.day())
+                        .orElse(null))
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public boolean deleteById(String transactionId) {
+        if (transactionId == null || transactionId.trim().isEmpty()) return false;
+        byte[] id = transactionId.getBytes(StandardCharsets.UTF_8);
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            long slot = findSlot(id, fingerprint(id));
+            if (slot < 0) return false;
+            long recordNumber = index.getLong(slotPosition(slot) + 8) - 1;
+            removeEntry(slot);
+            long last = count - 1;
+            if (recordNumber != last) {
+                byte[] moved = readRecord(last);
+                data.write(recordNumber * RECORD_BYTES, moved);
+                byte[] movedId = idOf(moved);
+                index.putLong(slotPosition(findSlot(movedId, fingerprint(movedId))) + 8, recordNumber + 1);
+            }
+            data.putByte(last * RECORD_BYTES + STATUS, (byte) 0);
+            setCount(last);
+            forceIfRequired();
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Deleted transaction with ID: {}", transactionId);
+        return true;
+    }
+
+    @Override
+    public boolean existsById(String transactionId) {
+        if (transactionId == null || transactionId.trim().isEmpty()) return false;
+        byte[] id = transactionId.getBytes(StandardCharsets.UTF_8);
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return findSlot(id, fingerprint(id)) >= 0;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return count;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (long recordNumber = 0; recordNumber < count; recordNumber++) {
+                data.putByte(recordNumber * RECORD_BYTES + STATUS, (byte) 0);
+            }
+            resetIndex();
+            count = 0;
+            forceIfRequired();
+        } catch (IOException e) {
+            log.error("Failed to clear memory-mapped store", e);
+            throw new RuntimeException("Failed to save transactions", e);
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Deleted all transactions");
+    }
+
+    // --- index, always called with the lock held ---
+
+    private long findSlot(byte[] id, long fingerprint) {
+        long mask = indexCapacity - 1;
+        for (long slot = fingerprint & mask; ; slot = (slot + 1) & mask) {
+            long position = slotPosition(slot);
+            long value = index.getLong(position + 8);
+            if (value == 0) return -1;
+            if (index.getLong(position) == fingerprint && idMatches(value - 1, id)) return slot;
+        }
+    }
+
+    private void insertEntry(long fingerprint, long recordNumber) {
+        long mask = indexCapacity - 1;
+        long slot = fingerprint & mask;
+        while (index.getLong(slotPosition(slot) + 8) != 0) slot = (slot + 1) & mask;
+        index.putLong(slotPosition(slot), fingerprint);
+        index.putLong(slotPosition(slot) + 8, recordNumber + 1);
+    }
+
+    /** Backward-shift deletion, so lookups never need tombstones. */
+    private void removeEntry(long slot) {
+        long mask = indexCapacity - 1;
+        long hole = slot;
+        index.putLong(slotPosition(hole) + 8, 0);
+        for (long i = (hole + 1) & mask; ; i = (i + 1) & mask) {
+            long position = slotPosition(i);
+            long value = index.getLong(position + 8);
+            if (value == 0) return;
+            long fingerprint = index.getLong(position);
+            long home = fingerprint & mask;
+            boolean reachableWithoutHole = hole <= i ? (home > hole && home <= i) : (home > hole || home <= i);
+            if (!reachableWithoutHole) {
+                index.putLong(slotPosition(hole), fingerprint);
+                index.putLong(slotPosition(hole) + 8, value);
+                index.putLong(position + 8, 0);
+                hole = i;
+            }
+        }
+    }
+
+    /** Rehashes into a table twice the size, written to a side file and moved over the old index. */
+    private void growIndex() throws IOException {
+        Path path = directory.resolve(INDEX_FILENAME);
+        Path resized = directory.resolve(INDEX_FILENAME + ".resize");
+        Files.deleteIfExists(resized);
+        MappedRegionFile previous = index;
+        long previousCapacity = indexCapacity;
+        index = new MappedRegionFile(resized);
+        writeIndexHeader(previousCapacity * 2);
+        for (long slot = 0; slot < previousCapacity; slot++) {
+            long value = previous.getLong(slotPosition(slot) + 8);
+            if (value != 0) insertEntry(previous.getLong(slotPosition(slot)), value - 1);
+        }
+        index.putLong(HEADER_COUNT, count);
+        index.force();
+        previous.close();
+        Files.move(resized, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void resetIndex() throws IOException {
+        writeIndexHeader(INITIAL_INDEX_CAPACITY);
+    }
+
+    /** Zeroes the header and a table of {@code capacity} slots; slots beyond it are never read. */
+    private void writeIndexHeader(long capacity) throws IOException {
+        long bytes = slotPosition(capacity);
+        index.ensureCapacity(bytes);
+        index.zero(0, bytes);
+        index.putInt(HEADER_MAGIC, INDEX_MAGIC);
+        index.putInt(HEADER_VERSION, INDEX_VERSION);
+        index.putLong(HEADER_CAPACITY, capacity);
+        indexCapacity = capacity;
+    }
+
+    private void setCount(long newCount) {
+        count = newCount;
+        index.putLong(HEADER_COUNT, newCount);
+    }
+
+    private boolean idMatches(long recordNumber, byte[] id) {
+        long position = recordNumber * RECORD_BYTES;
+        if ((data.getByte(position + ID_LENGTH) & 0xFF) != id.length) return false;
+        byte[] stored = new byte[id.length];
+        data.read(position + ID, stored);
+        return Arrays.equals(stored, id);
+    }
+
+    private static long slotPosition(long slot) {
+        return INDEX_HEADER_BYTES + slot * INDEX_SLOT_BYTES;
+    }
+
+    /** FNV-1a over the UTF-8 id, finished with the MurmurHash3 mixer so low bits are well spread. */
+    private static long fingerprint(byte[] id) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : id) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    // --- durability ---
+
+    private void forceIfRequired() {
+        if (durability == DurabilityMode.FSYNC_PER_BATCH) {
+            data.force();
+            index.force();
+        }
+    }
+
+    private void force() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            if (closed) return;
+            data.force();
+            index.force();
+        } catch (RuntimeException e) {
+            log.warn("Failed to force memory-mapped transaction store", e);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // --- records ---
+
+    private byte[] readRecord(long recordNumber) {
+        byte[] record = new byte[RECORD_BYTES];
+        data.read(recordNumber * RECORD_BYTES, record);
+        return record;
+    }
+
+    private static byte[] encode(PurchaseTransaction transaction) {
+        if (transaction.getTransactionId() == null) throw new IllegalArgumentException("Transaction id cannot be null");
+        byte[] id = transaction.getTransactionId().getBytes(StandardCharsets.UTF_8);
+        if (id.length == 0 || id.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("Transaction id must be 1 to %d UTF-8 bytes".formatted(MAX_ID_BYTES));
+        }
+        byte[] description = transaction.getDescription() == null ? null : transaction.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (description != null && description.length > MAX_DESCRIPTION_BYTES) {
+            throw new IllegalArgumentException("Description must not exceed %d UTF-8 bytes".formatted(MAX_DESCRIPTION_BYTES));
+        }
+        BigDecimal amount = transaction.getAmount();
+        if (amount != null && (amount.unscaledValue().bitLength() > 63 || amount.scale() < Byte.MIN_VALUE || amount.scale() > Byte.MAX_VALUE)) {
+            throw new IllegalArgumentException("Amount %s does not fit a fixed-width record".formatted(amount));
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        record.put(STATUS, LIVE);
+        record.put(ID_LENGTH, (byte) id.length);
+        record.putShort(DESCRIPTION_LENGTH, (short) (description == null ? -1 : description.length));
+        record.putInt(TRANSACTION_DAY, toDay(transaction.getTransactionDate()));
+        record.putInt(CREATED_DAY, toDay(transaction.getCreatedAt()));
+        if (amount != null) {
+            record.put(AMOUNT_SCALE, (byte) amount.scale());
+            record.put(AMOUNT_PRESENT, (byte) 1);
+            record.putLong(UNSCALED_AMOUNT, amount.unscaledValue().longValue());
+        }
+        record.put(ID, id);
+        if (description != null) record.put(DESCRIPTION, description);
+        record.putInt(CHECKSUM, checksum(record.array()));
+        return record.array();
+    }
+
+    private static PurchaseTransaction decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        String id = new String(idOf(record), StandardCharsets.UTF_8);
+        short descriptionLength = buffer.getShort(DESCRIPTION_LENGTH);
+        String description = descriptionLength < 0 ? null : new String(record, DESCRIPTION, descriptionLength, StandardCharsets.UTF_8);
+        BigDecimal amount = buffer.get(AMOUNT_PRESENT) == 0 ? null : BigDecimal.valueOf(buffer.getLong(UNSCALED_AMOUNT), buffer.get(AMOUNT_SCALE));
+        return new PurchaseTransaction(id, description, fromDay(buffer.getInt(TRANSACTION_DAY)), amount, fromDay(buffer.getInt(CREATED_DAY)));
+    }
+
+    private static boolean valid(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int idLength = record[ID_LENGTH] & 0xFF;
+        short descriptionLength = buffer.getShort(DESCRIPTION_LENGTH);
+        return record[STATUS] == LIVE
+                && idLength > 0 && idLength <= MAX_ID_BYTES
+                && descriptionLength >= -1 && descriptionLength <= MAX_DESCRIPTION_BYTES
+                && buffer.getInt(CHECKSUM) == checksum(record);
+    }
+
+    private static byte[] idOf(byte[] record) {
+        return Arrays.copyOfRange(record, ID, ID + (record[ID_LENGTH] & 0xFF));
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, CHECKSUM);
+        return (int) crc.getValue();
+    }
+
+    private static int toDay(LocalDate date) {
+        if (date == null) return NO_DATE;
+        long epochDay = date.toEpochDay();
+        if (epochDay <= NO_DATE || epochDay > Integer.MAX_VALUE) throw new IllegalArgumentException("Date out of range: " + date);
+        return (int) epochDay;
+    }
+
+    private static LocalDate fromDay(int day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private static int clampDay(LocalDate date) {
+        return (int) Math.max(NO_DATE + 1L, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+
+    private record DateKey(int day, String id) implements Comparable<DateKey> {
+        private static final Comparator<DateKey> ORDER = Comparator.comparingInt(DateKey::day).thenComparing(DateKey::id);
+
+        @Override
+        public int compareTo(DateKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.purchase.transaction.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Decodes chunks of startup data on a worker pool while handing the results to the sink
+ * strictly in submission order, on the calling thread. Replay order matters (a DELETE must
+ * follow the PUT it removes), so only the expensive decoding runs in parallel.
+ *
+ * At most {@code parallelism} chunks are in flight, which bounds the decoded-but-not-yet-
+ * applied data held in memory. With a parallelism of 1 every chunk is decoded inline.
+ */
+public class OrderedParallelLoader<T> implements Closeable {
+    private final Consumer<T> sink;
+    private final int parallelism;
+    private final ExecutorService pool;
+    private final Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+
+    public OrderedParallelLoader(int parallelism, String threadNamePrefix, Consumer<T> sink) {
+        this.sink = sink;
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = this.parallelism == 1 ? null : Executors.newFixedThreadPool(this.parallelism, daemonThreads(threadNamePrefix));
+    }
+
+    public void submit(Callable<List<T>> chunk) throws IOException {
+        if (pool == null) {
+            drain(call(chunk));
+            return;
+        }
+        inFlight.addLast(pool.submit(chunk));
+        if (inFlight.size() >= parallelism) {
+            drain(await(inFlight.removeFirst()));
+        }
+    }
+
+    /** Waits for every outstanding chunk and applies it. */
+    public void finish() throws IOException {
+        while (!inFlight.isEmpty()) {
+            drain(await(inFlight.removeFirst()));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+            pool.shutdownNow();
+        }
+    }
+
+    private void drain(List<T> items) {
+        items.forEach(sink);
+    }
+
+    private static <T> List<T> call(Callable<List<T>> chunk) throws IOException {
+        try {
+            return chunk.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static <T> List<T> await(Future<List<T>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading transactions", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new IOException(cause);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.purchase.transaction.repository;
+
+/**
+ * Persistence strategies supported by {@link FileBasedTransactionRepository}.
+ * Selected with {@code app.repository.persistence-mode}.
+ */
+public enum PersistenceMode {
+    /** Rewrites the whole ledger as a JSON array in transactions.json on every mutation. */
+    JSON,
+    /** Appends one framed record per mutation to rolling log segments and replays them on startup. */
+    LOG,
+    /** Binary snapshot plus a change log since that snapshot, periodically compacted in the background. */
+    SNAPSHOT
+}
@@ -0,0 +1,11 @@
+package com.purchase.transaction.repository;
+
+/**
+ * Which {@link ITransactionRepository} backs the application, selected with {@code app.repository.engine}.
+ */
+public enum RepositoryEngine {
+    /** {@link FileBasedTransactionRepository}: the whole ledger in memory, persisted per {@link PersistenceMode}. */
+    FILE,
+    /** {@link MappedTransactionRepository}: fixed-width records in memory-mapped files, off-heap. */
+    MMAP
+}
@@ -0,0 +1,133 @@
+package com.purchase.transaction.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the file-based transaction repository, bound from {@code app.repository.*}.
+ */
+@ConfigurationProperties(prefix = "app.repository")
+public class RepositoryProperties {
+    private String path = "./data";
+    private RepositoryEngine engine = RepositoryEngine.FILE;
+    private PersistenceMode persistenceMode = PersistenceMode.JSON;
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private Duration compactionInterval = Duration.ofMinutes(5);
+    private DataSize compactionThreshold = DataSize.ofMegabytes(16);
+    private DurabilityMode durability = DurabilityMode.FSYNC_PER_BATCH;
+    private Duration groupCommitWindow = Duration.ofMillis(2);
+    private int groupCommitMaxBatch = 512;
+    private Duration fsyncInterval = Duration.ofSeconds(1);
+    /** Threads used to decode data files at startup; 0 means one per available processor. */
+    private int loadParallelism = 0;
+    private StorageLayout layout = StorageLayout.OBJECT;
+
+    public static RepositoryProperties forPath(String path) {
+        RepositoryProperties properties = new RepositoryProperties();
+        properties.setPath(path);
+        return properties;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public RepositoryEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(RepositoryEngine engine) {
+        this.engine = engine;
+    }
+
+    public PersistenceMode getPersistenceMode() {
+        return persistenceMode;
+    }
+
+    public void setPersistenceMode(PersistenceMode persistenceMode) {
+        this.persistenceMode = persistenceMode;
+    }
+
+    public DataSize getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(DataSize segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public Duration getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    public void setCompactionInterval(Duration compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    public DataSize getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public void setCompactionThreshold(DataSize compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public DurabilityMode getDurability() {
+        return durability;
+    }
+
+    public void setDurability(DurabilityMode durability) {
+        this.durability = durability;
+    }
+
+    public Duration getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+
+    public void setGroupCommitWindow(Duration groupCommitWindow) {
+        this.groupCommitWindow = groupCommitWindow;
+    }
+
+    public int getGroupCommitMaxBatch() {
+        return groupCommitMaxBatch;
+    }
+
+    public void setGroupCommitMaxBatch(int groupCommitMaxBatch) {
+        this.groupCommitMaxBatch = groupCommitMaxBatch;
+    }
+
+    public Duration getFsyncInterval() {
+        return fsyncInterval;
+    }
+
+    public void setFsyncInterval(Duration fsyncInterval) {
+        this.fsyncInterval = fsyncInterval;
+    }
+
+    public int getLoadParallelism() {
+        return loadParallelism;
+    }
+
+    public void setLoadParallelism(int loadParallelism) {
+        this.loadParallelism = loadParallelism;
+    }
+
+    public StorageLayout getLayout() {
+        return layout;
+    }
+
+    public void setLayout(StorageLayout layout) {
+        this.layout = layout;
+    }
+
+    /** {@link #getLoadParallelism()} with 0 resolved to the number of available processors. */
+    public int effectiveLoadParallelism() {
+        return loadParallelism > 0 ? loadParallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
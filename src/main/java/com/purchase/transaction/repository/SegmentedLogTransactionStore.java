@@ -0,0 +1,353 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Log-structured persistence: every mutation is appended as one framed record to the
+ * active segment file, so the cost of a write no longer depends on the size of the ledger.
+ *
+ * Frame layout: [int payloadLength][int crc32(type + payload)][byte type][payload].
+ * PUT payloads are the JSON form of the transaction, DELETE payloads the UTF-8 id,
+ * CLEAR has no payload. Segments are named transactions-{sequence}.log and roll over
+ * once they reach the configured size; on startup they are replayed in sequence order.
+ * A torn record at the tail of the newest segment (crash mid-append) is truncated away.
+ */
+public class SegmentedLogTransactionStore implements ITransactionStore {
+    private static final Logger log = LoggerFactory.getLogger(SegmentedLogTransactionStore.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("transactions-(\\d{20})\\.log");
+    private static final String MIGRATED_SUFFIX = ".migrated";
+    private static final String MIGRATING_SUFFIX = ".migrating";
+    private static final int MIGRATION_BATCH_SIZE = 1024;
+    private static final int FRAME_HEADER_BYTES = 9;
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long segmentSizeBytes;
+    private final int loadParallelism;
+
+    private FileChannel activeChannel;
+    private long activeSequence;
+    private long activeSize;
+
+    public SegmentedLogTransactionStore(ObjectMapper objectMapper, Path directory, long segmentSizeBytes, int loadParallelism) {
+        if (segmentSizeBytes <= 0) throw new IllegalArgumentException("Segment size must be positive");
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.loadParallelism = loadParallelism;
+    }
+
+    @Override
+    public void replay(Consumer<TransactionLogRecord> sink) throws IOException {
+        replayAfter(0, sink);
+    }
+
+    /**
+     * Replays only the segments newer than {@code afterSequence} (everything up to and including
+     * it is already covered by a snapshot) and opens the segment that new appends go to.
+     * With a load parallelism above 1, segments are read and decoded concurrently and
+     * applied in sequence order.
+     */
+    public synchronized void replayAfter(long afterSequence, Consumer<TransactionLogRecord> sink) throws IOException {
+        discardInterruptedMigration();
+        List<Long> existing = listSegmentSequences();
+        List<Long> sequences = existing.stream().filter(sequence -> sequence > afterSequence).toList();
+        if (sequences.isEmpty()) {
+            long highest = existing.isEmpty() ? afterSequence : Math.max(afterSequence, existing.get(existing.size() - 1));
+            openSegment(highest + 1);
+            if (existing.isEmpty() && afterSequence == 0) migrateLegacyJsonFile(sink);
+            return;
+        }
+
+        AtomicLong records = new AtomicLong();
+        Consumer<TransactionLogRecord> counted = record -> {
+            records.incrementAndGet();
+            sink.accept(record);
+        };
+        try (OrderedParallelLoader<TransactionLogRecord> loader = new OrderedParallelLoader<>(loadParallelism, "transaction-log-loader", counted)) {
+            for (int i = 0; i < sequences.size(); i++) {
+                Path segment = segmentPath(sequences.get(i));
+                boolean newest = i == sequences.size() - 1;
+                if (loadParallelism > 1) {
+                    loader.submit(() -> {
+                        List<TransactionLogRecord> decoded = new ArrayList<>();
+                        replaySegment(segment, newest, decoded::add);
+                        return decoded;
+                    });
+                } else {
+                    replaySegment(segment, newest, counted);
+                }
+            }
+            loader.finish();
+        }
+        log.debug("Replayed {} log records from {} segment(s)", records.get(), sequences.size());
+        openSegment(sequences.get(sequences.size() - 1));
+    }
+
+    @Override
+    public synchronized void append(List<TransactionLogRecord> records) throws IOException {
+        if (activeChannel == null) throw new IllegalStateException("Transaction log has not been opened");
+        List<ByteBuffer> frames = new ArrayList<>(records.size());
+        for (TransactionLogRecord record : records) {
+            frames.add(encode(record));
+        }
+        ByteBuffer[] pending = frames.toArray(ByteBuffer[]::new);
+        long remaining = frames.stream().mapToLong(ByteBuffer::remaining).sum();
+        while (remaining > 0) {
+            long written = activeChannel.write(pending);
+            activeSize += written;
+            remaining -= written;
+        }
+        if (activeSize >= segmentSizeBytes) {
+            rollSegment();
+        }
+    }
+
+    @Override
+    public synchronized void sync() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.force(false);
+        }
+    }
+
+    /**
+     * Closes the active segment to further appends so it can be folded into a snapshot.
+     *
+     * @return the highest sequence that will never be appended to again
+     */
+    public synchronized long seal() throws IOException {
+        if (activeSize > 0) {
+            rollSegment();
+        }
+        return activeSequence - 1;
+    }
+
+    /** Removes segments whose contents have been folded into a snapshot. */
+    public synchronized void deleteSegmentsThrough(long sequence) throws IOException {
+        for (long existing : listSegmentSequences()) {
+            if (existing <= sequence && existing != activeSequence) {
+                Files.deleteIfExists(segmentPath(existing));
+            }
+        }
+    }
+
+    /** Total bytes across all segments, i.e. the size of the change log still to be replayed. */
+    public synchronized long sizeBytes() throws IOException {
+        long total = 0;
+        for (long sequence : listSegmentSequences()) {
+            total += Files.size(segmentPath(sequence));
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        try {
+            status.put("segments", listSegmentSequences().size());
+            status.put("logBytes", sizeBytes());
+        } catch (IOException e) {
+            status.put("error", e.getMessage());
+        }
+        status.put("activeSegment", activeSequence);
+        return status;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+            activeChannel = null;
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        openSegment(activeSequence + 1);
+        log.info("Rolled transaction log to segment {}", segmentPath(activeSequence).getFileName());
+    }
+
+    private void openSegment(long sequence) throws IOException {
+        Path path = segmentPath(sequence);
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSequence = sequence;
+        activeSize = activeChannel.size();
+    }
+
+    private long replaySegment(Path segment, boolean newest, Consumer<TransactionLogRecord> sink) throws IOException {
+        long validOffset = 0;
+        long records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                TransactionLogRecord record;
+                int frameLength;
+                try {
+                    int payloadLength = in.readInt();
+                    if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_BYTES) {
+                        throw new CorruptRecordException("invalid payload length " + payloadLength);
+                    }
+                    int expectedCrc = in.readInt();
+                    byte type = in.readByte();
+                    byte[] payload = new byte[payloadLength];
+                    in.readFully(payload);
+                    if (crc(type, payload) != expectedCrc) {
+                        throw new CorruptRecordException("checksum mismatch");
+                    }
+                    record = decode(TransactionLogRecord.Type.fromCode(type), payload);
+                    frameLength = FRAME_HEADER_BYTES + payloadLength;
+                } catch (EOFException e) {
+                    if (Files.size(segment) == validOffset) break;
+                    return handleCorruptTail(segment, newest, validOffset, records, "truncated record");
+                } catch (CorruptRecordException | IllegalArgumentException e) {
+                    return handleCorruptTail(segment, newest, validOffset, records, e.getMessage());
+                }
+                sink.accept(record);
+                validOffset += frameLength;
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private long handleCorruptTail(Path segment, boolean newest, long validOffset, long records, String reason) throws IOException {
+        if (!newest) {
+            throw new IOException("Corrupt record in %s at offset %d: %s".formatted(segment.getFileName(), validOffset, reason));
+        }
+        log.warn("Discarding torn tail of {} at offset {} ({}); {} records recovered", segment.getFileName(), validOffset, reason, records);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(validOffset);
+        }
+        return records;
+    }
+
+    /**
+     * Seeds an empty log from an existing transactions.json so switching persistence
+     * modes does not lose data. The JSON file is streamed into the log in batches and
+     * renamed afterwards so it is imported once; a marker file makes a migration that was
+     * interrupted part-way start over on the next boot.
+     */
+    private void migrateLegacyJsonFile(Consumer<TransactionLogRecord> sink) throws IOException {
+        Path legacyFile = directory.resolve(JsonFileTransactionStore.TRANSACTIONS_FILENAME);
+        if (!Files.exists(legacyFile)) return;
+
+        Path marker = migrationMarker();
+        Files.createFile(marker);
+        List<TransactionLogRecord> pending = new ArrayList<>(MIGRATION_BATCH_SIZE);
+        long migrated;
+        try {
+            migrated = new TransactionJsonStreamReader(objectMapper, loadParallelism).read(legacyFile, transaction -> {
+                pending.add(TransactionLogRecord.put(transaction));
+                if (pending.size() == MIGRATION_BATCH_SIZE) appendMigrated(pending, sink);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        appendMigrated(pending, sink);
+        activeChannel.force(true);
+        Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + MIGRATED_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(marker);
+        log.info("Migrated {} transactions from {} into the transaction log", migrated, legacyFile.getFileName());
+    }
+
+    private void appendMigrated(List<TransactionLogRecord> pending, Consumer<TransactionLogRecord> sink) {
+        try {
+            append(pending);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pending.forEach(sink);
+        pending.clear();
+    }
+
+    private void discardInterruptedMigration() throws IOException {
+        Path marker = migrationMarker();
+        if (!Files.exists(marker)) return;
+        log.warn("Previous migration of {} did not finish; discarding its partial log", JsonFileTransactionStore.TRANSACTIONS_FILENAME);
+        for (long sequence : listSegmentSequences()) {
+            Files.deleteIfExists(segmentPath(sequence));
+        }
+        Files.delete(marker);
+    }
+
+    private Path migrationMarker() {
+        return directory.resolve(JsonFileTransactionStore.TRANSACTIONS_FILENAME + MIGRATING_SUFFIX);
+    }
+
+    private ByteBuffer encode(TransactionLogRecord record) throws IOException {
+        byte[] payload = switch (record.type()) {
+            case PUT -> objectMapper.writeValueAsBytes(record.transaction());
+            case DELETE -> record.transactionId().getBytes(StandardCharsets.UTF_8);
+            case CLEAR -> new byte[0];
+        };
+        byte type = record.type().code();
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt(crc(type, payload)).put(type).put(payload);
+        return frame.flip();
+    }
+
+    private TransactionLogRecord decode(TransactionLogRecord.Type type, byte[] payload) throws IOException {
+        return switch (type) {
+            case PUT -> TransactionLogRecord.put(objectMapper.readValue(payload, PurchaseTransaction.class));
+            case DELETE -> TransactionLogRecord.delete(new String(payload, StandardCharsets.UTF_8));
+            case CLEAR -> TransactionLogRecord.clear();
+        };
+    }
+
+    private static int crc(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private List<Long> listSegmentSequences() throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) sequences.add(Long.parseLong(matcher.group(1)));
+            });
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve("transactions-%020d.log".formatted(sequence));
+    }
+
+    private static class CorruptRecordException extends IOException {
+        CorruptRecordException(String message) {
+            super(message);
+        }
+    }
+}
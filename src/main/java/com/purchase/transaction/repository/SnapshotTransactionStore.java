@@ -0,0 +1,292 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot + change log persistence.
+ *
+ * Mutations are appended to a {@link SegmentedLogTransactionStore}; a background compactor
+ * periodically seals the active segment, writes the current cache as a compact binary
+ * snapshot (transactions.snapshot) and deletes the segments the snapshot now covers. Startup
+ * reads the snapshot and replays only the segments written after it, so write cost, replay
+ * time and disk usage all stay bounded.
+ *
+ * Compaction never blocks writers or readers: sealing only swaps the active segment file,
+ * and the snapshot is written from a copy of the (concurrent) cache. Every mutation applied
+ * after the copy is taken lands in a segment newer than the sealed one and is replayed on
+ * top of the snapshot, which is safe because replaying PUT/DELETE/CLEAR is idempotent.
+ */
+public class SnapshotTransactionStore implements ITransactionStore {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotTransactionStore.class);
+
+    static final String SNAPSHOT_FILENAME = "transactions.snapshot";
+    private static final int MAGIC = 0x50545853; // "PTXS"
+    private static final int VERSION = 1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private final Path directory;
+    private final SegmentedLogTransactionStore changeLog;
+    private final Supplier<Collection<PurchaseTransaction>> snapshotSupplier;
+    private final Duration compactionInterval;
+    private final long compactionThresholdBytes;
+    private final ScheduledExecutorService compactor;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private volatile long snapshotSegment;
+    private volatile long snapshotRecords;
+    private volatile long compactions;
+    private volatile Instant lastCompactionAt;
+    private volatile long lastCompactionMillis;
+    private volatile String lastCompactionError;
+
+    public SnapshotTransactionStore(ObjectMapper objectMapper, Path directory, long segmentSizeBytes,
+                                    Duration compactionInterval, long compactionThresholdBytes, int loadParallelism,
+                                    Supplier<Collection<PurchaseTransaction>> snapshotSupplier) {
+        this.directory = directory;
+        this.changeLog = new SegmentedLogTransactionStore(objectMapper, directory, segmentSizeBytes, loadParallelism);
+        this.snapshotSupplier = snapshotSupplier;
+        this.compactionInterval = compactionInterval;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void replay(Consumer<TransactionLogRecord> sink) throws IOException {
+        Path snapshot = snapshotPath();
+        if (Files.exists(snapshot)) {
+            snapshotSegment = readSnapshot(snapshot, sink);
+        }
+        changeLog.replayAfter(snapshotSegment, sink);
+
+        long intervalMillis = compactionInterval.toMillis();
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void append(List<TransactionLogRecord> records) throws IOException {
+        changeLog.append(records);
+    }
+
+    @Override
+    public void sync() throws IOException {
+        changeLog.sync();
+    }
+
+    @Override
+    public boolean requestCompaction() {
+        if (compactor.isShutdown()) return false;
+        compactor.execute(this::compact);
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("snapshotSegment", snapshotSegment);
+        status.put("snapshotRecords", snapshotRecords);
+        status.put("snapshotBytes", snapshotPath().toFile().length());
+        status.putAll(changeLog.describe());
+        status.put("compactionThresholdBytes", compactionThresholdBytes);
+        status.put("compactionRunning", compacting.get());
+        status.put("compactions", compactions);
+        status.put("lastCompactionAt", lastCompactionAt);
+        status.put("lastCompactionMillis", lastCompactionMillis);
+        status.put("lastCompactionError", lastCompactionError);
+        return status;
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for transaction compaction to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        changeLog.close();
+    }
+
+    private void compactIfNeeded() {
+        try {
+            if (changeLog.sizeBytes() >= compactionThresholdBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to check transaction log size", e);
+        }
+    }
+
+    /** Runs on the compactor thread only, so compactions never overlap. */
+    private void compact() {
+        if (!compacting.compareAndSet(false, true)) return;
+        long started = System.nanoTime();
+        try {
+            long sealedSegment = changeLog.seal();
+            if (sealedSegment <= snapshotSegment) {
+                log.debug("No new transaction log segments to compact");
+                return;
+            }
+            List<PurchaseTransaction> transactions = new ArrayList<>(snapshotSupplier.get());
+            writeSnapshot(transactions, sealedSegment);
+            changeLog.deleteSegmentsThrough(sealedSegment);
+
+            snapshotSegment = sealedSegment;
+            snapshotRecords = transactions.size();
+            compactions++;
+            lastCompactionAt = Instant.now();
+            lastCompactionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            lastCompactionError = null;
+            log.info("Compacted transaction log through segment {} into snapshot of {} transactions in {} ms",
+                    sealedSegment, transactions.size(), lastCompactionMillis);
+        } catch (IOException | RuntimeException e) {
+            lastCompactionError = e.getMessage();
+            log.error("Transaction log compaction failed", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void writeSnapshot(List<PurchaseTransaction> transactions, long lastSegment) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_FILENAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lastSegment);
+            out.writeInt(transactions.size());
+            for (PurchaseTransaction transaction : transactions) {
+                writeTransaction(out, transaction);
+            }
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, snapshotPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long readSnapshot(Path snapshot, Consumer<TransactionLogRecord> sink) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16), new CRC32());
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a transaction snapshot: " + snapshot);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported transaction snapshot version: " + version);
+            long lastSegment = in.readLong();
+            int count = in.readInt();
+            List<PurchaseTransaction> transactions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                transactions.add(readTransaction(in));
+            }
+            long expectedChecksum = checked.getChecksum().getValue();
+            if (in.readLong() != expectedChecksum) throw new IOException("Transaction snapshot checksum mismatch: " + snapshot);
+
+            transactions.forEach(transaction -> sink.accept(TransactionLogRecord.put(transaction)));
+            snapshotRecords = count;
+            log.info("Read snapshot of {} transactions covering log segments through {}", count, lastSegment);
+            return lastSegment;
+        }
+    }
+
+    private static void writeTransaction(DataOutputStream out, PurchaseTransaction transaction) throws IOException {
+        writeString(out, transaction.getTransactionId());
+        writeString(out, transaction.getDescription());
+        writeDate(out, transaction.getTransactionDate());
+        BigDecimal amount = transaction.getAmount();
+        if (amount == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] unscaled = amount.unscaledValue().toByteArray();
+            out.writeInt(unscaled.length);
+            out.write(unscaled);
+            out.writeInt(amount.scale());
+        }
+        writeDate(out, transaction.getCreatedAt());
+    }
+
+    private static PurchaseTransaction readTransaction(DataInputStream in) throws IOException {
+        String transactionId = readString(in);
+        String description = readString(in);
+        LocalDate transactionDate = readDate(in);
+        BigDecimal amount = null;
+        int unscaledLength = in.readInt();
+        if (unscaledLength >= 0) {
+            byte[] unscaled = new byte[unscaledLength];
+            in.readFully(unscaled);
+            amount = new BigDecimal(new BigInteger(unscaled), in.readInt());
+        }
+        LocalDate createdAt = readDate(in);
+        return new PurchaseTransaction(transactionId, description, transactionDate, amount, createdAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeInt(date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay()));
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        int epochDay = in.readInt();
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private Path snapshotPath() {
+        return directory.resolve(SNAPSHOT_FILENAME);
+    }
+}
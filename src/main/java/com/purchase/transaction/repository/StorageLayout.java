@@ -0,0 +1,11 @@
+package com.purchase.transaction.repository;
+
+/**
+ * How the in-memory index holds transactions, selected with {@code app.repository.layout}.
+ */
+public enum StorageLayout {
+    /** One {@code PurchaseTransaction} object per record in a concurrent map. */
+    OBJECT,
+    /** Primitive columns plus a shared description arena; objects are built on read. */
+    COMPACT
+}
@@ -0,0 +1,100 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.purchase.transaction.model.PurchaseTransaction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Streams the transactions.json array with Jackson's {@link JsonParser}, handing each
+ * transaction to the sink as soon as it has been read rather than materializing the whole
+ * array first, so peak heap during startup no longer doubles with the ledger size.
+ *
+ * With a parallelism above 1 the calling thread only tokenizes: each array element is
+ * copied into a {@link TokenBuffer} and batches of them are bound to
+ * {@link PurchaseTransaction} on worker threads, then delivered in file order.
+ */
+public class TransactionJsonStreamReader {
+    private static final int BATCH_SIZE = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+
+    public TransactionJsonStreamReader(ObjectMapper objectMapper, int parallelism) {
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the number of transactions read
+     */
+    public long read(Path file, Consumer<PurchaseTransaction> sink) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(file.toFile())) {
+            JsonToken first = parser.nextToken();
+            if (first == null) return 0;
+            if (first != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of transactions in " + file.getFileName());
+            }
+            return parallelism > 1 ? readParallel(parser, sink) : readSequential(parser, sink);
+        }
+    }
+
+    private long readSequential(JsonParser parser, Consumer<PurchaseTransaction> sink) throws IOException {
+        long count = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            sink.accept(objectMapper.readValue(parser, PurchaseTransaction.class));
+            count++;
+        }
+        expectEndOfArray(parser);
+        return count;
+    }
+
+    private long readParallel(JsonParser parser, Consumer<PurchaseTransaction> sink) throws IOException {
+        long count = 0;
+        try (OrderedParallelLoader<PurchaseTransaction> loader = new OrderedParallelLoader<>(parallelism, "transaction-loader", sink)) {
+            List<TokenBuffer> batch = new ArrayList<>(BATCH_SIZE);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                TokenBuffer buffer = new TokenBuffer(parser);
+                buffer.copyCurrentStructure(parser);
+                batch.add(buffer);
+                count++;
+                if (batch.size() == BATCH_SIZE) {
+                    loader.submit(bindTask(batch));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            expectEndOfArray(parser);
+            if (!batch.isEmpty()) {
+                loader.submit(bindTask(batch));
+            }
+            loader.finish();
+        }
+        return count;
+    }
+
+    private Callable<List<PurchaseTransaction>> bindTask(List<TokenBuffer> batch) {
+        return () -> {
+            List<PurchaseTransaction> transactions = new ArrayList<>(batch.size());
+            for (TokenBuffer buffer : batch) {
+                try (JsonParser elementParser = buffer.asParser(objectMapper)) {
+                    transactions.add(objectMapper.readValue(elementParser, PurchaseTransaction.class));
+                }
+            }
+            return transactions;
+        };
+    }
+
+    private static void expectEndOfArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new IOException("Unexpected " + parser.currentToken() + " in transactions array at " + parser.currentLocation());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+
+/**
+ * A single repository mutation as it is written to, and replayed from, a transaction store.
+ */
+public record TransactionLogRecord(Type type, String transactionId, PurchaseTransaction transaction) {
+
+    public enum Type {
+        PUT((byte) 1),
+        DELETE((byte) 2),
+        CLEAR((byte) 3);
+
+        private final byte code;
+
+        Type(byte code) {
+            this.code = code;
+        }
+
+        public byte code() {
+            return code;
+        }
+
+        public static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) return type;
+            }
+            throw new IllegalArgumentException("Unknown transaction log record type: " + code);
+        }
+    }
+
+    public static TransactionLogRecord put(PurchaseTransaction transaction) {
+        return new TransactionLogRecord(Type.PUT, transaction.getTransactionId(), transaction);
+    }
+
+    public static TransactionLogRecord delete(String transactionId) {
+        return new TransactionLogRecord(Type.DELETE, transactionId, null);
+    }
+
+    public static TransactionLogRecord clear() {
+        return new TransactionLogRecord(Type.CLEAR, null, null);
+    }
+}
@@ -0,0 +1,45 @@
+package com.purchase.transaction.repository;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the transaction store.
+ *
+ * GET  /actuator/transactionstore - persistence mode or engine, file sizes, last compaction
+ * POST /actuator/transactionstore - starts a background compaction (snapshot persistence mode only)
+ */
+@Component
+@Endpoint(id = "transactionstore")
+public class TransactionStoreEndpoint {
+    private final ITransactionRepository transactionRepository;
+
+    public TransactionStoreEndpoint(ITransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        if (transactionRepository instanceof FileBasedTransactionRepository fileRepository) {
+            return fileRepository.describeStore();
+        }
+        if (transactionRepository instanceof MappedTransactionRepository mappedRepository) {
+            return mappedRepository.describeStore();
+        }
+        return Map.of("repository", transactionRepository.getClass().getSimpleName());
+    }
+
+    @WriteOperation
+    public Map<String, Object> compact() {
+        boolean requested = transactionRepository instanceof FileBasedTransactionRepository fileRepository
+                && fileRepository.requestCompaction();
+        Map<String, Object> body = new LinkedHashMap<>(status());
+        body.put("compactionRequested", requested);
+        return body;
+    }
+}
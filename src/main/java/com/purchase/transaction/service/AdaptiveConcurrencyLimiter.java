@@ -0,0 +1,273 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for Treasury API calls that adapts to how the API is performing, replacing
+ * the fixed {@code treasuryApi} bulkhead (AIMD with a latency signal):
+ *
+ * - INCREASE: a response no slower than {@code latencyTolerance} times the smoothed latency,
+ *   while at least half the limit was in use, raises the limit by 1/limit (about +1 per round
+ *   of calls), up to {@code maxLimit}
+ * - DECREASE: a slower response, a timeout or I/O error, a 5xx or a 429 multiplies the limit by
+ *   {@code backoffRatio}, down to {@code minLimit}; only calls started after the previous
+ *   decrease can trigger another, so one slow period shrinks the limit once per round
+ *
+ * A call that finds the limit reached waits up to {@code maxWait} for a slot, like the bulkhead
+ * did, then fails with {@link LimitExceededException}: a blocking caller on its own thread, a
+ * non-blocking one ({@link #acquireAsync}) as a queued future that a released slot completes.
+ * The rejection is not a Treasury API failure, so the circuit breaker ignores it (see
+ * ResilienceConfig). Shared by {@link TreasuryApiClient} and
+ * {@link AsyncTreasuryApiClient}. Metrics: {@code treasury.api.concurrency.limit},
+ * {@code .in-flight} and {@code .rejected}.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+    /** Weight of a new sample in the smoothed latency. */
+    private static final double SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    /** Non-blocking callers waiting for a slot, oldest first; served before blocked threads. */
+    private final Deque<CompletableFuture<Permit>> waiting = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double smoothedLatencyNanos;
+    private long lastDecreaseAt = Long.MIN_VALUE;
+
+    public AdaptiveConcurrencyLimiter(ExchangeRateProperties properties, MeterRegistry meterRegistry) {
+        ExchangeRateProperties.Limiter settings = properties.getLimiter();
+        this.minLimit = Math.max(1, settings.getMinLimit());
+        this.maxLimit = Math.max(minLimit, settings.getMaxLimit());
+        this.limit = Math.min(maxLimit, Math.max(minLimit, settings.getInitialLimit()));
+        this.backoffRatio = settings.getBackoffRatio();
+        this.latencyTolerance = settings.getLatencyTolerance();
+        this.maxWaitNanos = settings.getMaxWait().toNanos();
+        Gauge.builder("treasury.api.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive limit on concurrent Treasury API calls")
+            .register(meterRegistry);
+        Gauge.builder("treasury.api.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Treasury API calls in flight")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("treasury.api.concurrency.rejected")
+            .description("Treasury API calls rejected because the concurrency limit was reached")
+            .register(meterRegistry);
+    }
+
+    /** Takes a slot, waiting up to {@code maxWait} for one; the caller must complete the permit. */
+    public Permit acquire() {
+        return acquire(maxWaitNanos);
+    }
+
+    /** Takes a slot if one is free right now; for callers that must not block. */
+    public Permit tryAcquire() {
+        return acquire(0);
+    }
+
+    /**
+     * Takes a slot without blocking: the future completes with the permit once one is free, or
+     * fails with LimitExceededException if none is within {@code maxWait}. Cancelling the future
+     * gives up the place in the queue.
+     */
+    public CompletableFuture<Permit> acquireAsync() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit && waiting.isEmpty()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit(System.nanoTime(), inFlight));
+            }
+            if (maxWaitNanos <= 0) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new LimitExceededException((int) limit));
+            }
+            CompletableFuture<Permit> waiter = new CompletableFuture<>();
+            waiting.add(waiter);
+            CompletableFuture.delayedExecutor(maxWaitNanos, TimeUnit.NANOSECONDS).execute(() -> expire(waiter));
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expire(CompletableFuture<Permit> waiter) {
+        LimitExceededException timedOut;
+        lock.lock();
+        try {
+            if (!waiting.remove(waiter)) return;  // already served
+            rejected.increment();
+            timedOut = new LimitExceededException((int) limit);
+        } finally {
+            lock.unlock();
+        }
+        waiter.completeExceptionally(timedOut);
+    }
+
+    private Permit acquire(long waitNanos) {
+        lock.lock();
+        try {
+            long remaining = waitNanos;
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    rejected.increment();
+                    throw new LimitExceededException((int) limit);
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return new Permit(System.nanoTime(), inFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LimitExceededException((int) limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(Permit permit, Throwable error) {
+        long now = System.nanoTime();
+        long latency = now - permit.startedAt;
+        lock.lock();
+        try {
+            inFlight--;
+            if (error == null) {
+                if (smoothedLatencyNanos == 0) smoothedLatencyNanos = latency;
+                if (latency > latencyTolerance * smoothedLatencyNanos) {
+                    decrease(permit, now);
+                } else if (permit.inFlightAtStart * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+                smoothedLatencyNanos += (latency - smoothedLatencyNanos) * SMOOTHING;
+            } else if (signalsOverload(error)) {
+                decrease(permit, now);
+            }
+        } finally {
+            lock.unlock();
+        }
+        releaseSlot();
+    }
+
+    /**
+     * Hands the free slots to queued non-blocking callers, then wakes blocked threads for any
+     * left. The futures are completed outside the lock, since that starts their calls; a caller
+     * that gave up in the meantime frees its slot again.
+     */
+    private void releaseSlot() {
+        List<CompletableFuture<Permit>> served = new ArrayList<>();
+        List<Permit> permits = new ArrayList<>();
+        lock.lock();
+        try {
+            while (inFlight < (int) limit && !waiting.isEmpty()) {
+                served.add(waiting.poll());
+                inFlight++;
+                permits.add(new Permit(System.nanoTime(), inFlight));
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < served.size(); i++) {
+            if (!served.get(i).complete(permits.get(i))) abandon();
+        }
+    }
+
+    /** Frees a slot that was granted to a caller no longer waiting for it, without a latency sample. */
+    private void abandon() {
+        lock.lock();
+        try {
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+        releaseSlot();
+    }
+
+    private void decrease(Permit permit, long now) {
+        if (permit.startedAt <= lastDecreaseAt) return;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecreaseAt = now;
+    }
+
+    /** True if the failure, or one of its causes, is a rejection by the limit rather than a failed call. */
+    public static boolean isLimitExceeded(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LimitExceededException) return true;
+        }
+        return false;
+    }
+
+    /** True for failures that suggest the Treasury API is overloaded rather than the request being wrong. */
+    static boolean signalsOverload(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RestClientResponseException e) return signalsOverload(e.getStatusCode());
+        if (cause instanceof WebClientResponseException e) return signalsOverload(e.getStatusCode());
+        return true;  // timeouts, I/O errors, cancelled calls
+    }
+
+    private static boolean signalsOverload(HttpStatusCode status) {
+        return status.is5xxServerError() || status.value() == 429;
+    }
+
+    /** A taken slot; {@link #complete} it exactly once when the call has finished. */
+    public final class Permit {
+        private final long startedAt;
+        private final int inFlightAtStart;
+
+        private Permit(long startedAt, int inFlightAtStart) {
+            this.startedAt = startedAt;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /** Frees the slot and feeds the call's latency, or its failure (null if none), into the limit. */
+        public void complete(Throwable error) {
+            AdaptiveConcurrencyLimiter.this.complete(this, error);
+        }
+    }
+
+    /** Thrown when no slot became free within the wait time. */
+    public static class LimitExceededException extends RuntimeException {
+        public LimitExceededException(int limit) {
+            super("Treasury API concurrency limit of %d calls reached".formatted(limit));
+        }
+    }
+}
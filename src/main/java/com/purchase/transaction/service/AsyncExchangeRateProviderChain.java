@@ -0,0 +1,55 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
+import com.purchase.transaction.model.ExchangeRate;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * The non-blocking exchange rate service the application uses: the same tier chain as
+ * {@link ExchangeRateProviderChain}, over the tiers' {@code Async} lookup. The local tiers answer
+ * at once; a lookup only waits - without holding a thread - when it reaches the Treasury tier.
+ * Answers are counted in {@code exchange.rate.lookups} like the blocking ones.
+ */
+@Service
+@Primary
+public class AsyncExchangeRateProviderChain implements IAsyncExchangeRateService {
+    private final ExchangeRateProviderChain chain;
+    private final List<IExchangeRateTier> tiers;
+
+    public AsyncExchangeRateProviderChain(ExchangeRateProviderChain chain) {
+        this.chain = chain;
+        this.tiers = chain.getTiers();
+    }
+
+    @Override
+    public CompletableFuture<Optional<ExchangeRate>> getMostRecentExchangeRateWithinRange(String country, String currency, String country_currency_desc, LocalDate fromDate, LocalDate toDate) {
+        ExchangeRateCriteria criteria = ExchangeRateCriteria.of(country, currency, country_currency_desc);
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Must specify at least one of: country, currency, or country_currency_desc");
+        }
+        if (fromDate == null || toDate == null) throw new IllegalArgumentException("Dates cannot be null");
+        // Read on the request thread: the lookup may continue, and be retried, on threads without it
+        Long deadline = RequestDeadline.current();
+        return resolve("mostRecentWithinRange", tier -> tier.getMostRecentExchangeRateWithinRangeAsync(criteria, fromDate, toDate, deadline), 0);
+    }
+
+    /** Asks tier {@code index} and, if it cannot answer, the tiers after it. */
+    private <T> CompletableFuture<T> resolve(String operation, Function<IExchangeRateTier, CompletableFuture<T>> lookup, int index) {
+        if (index == tiers.size()) {
+            return CompletableFuture.failedFuture(new ExchangeRateRetrievalException("No exchange rate tier could answer " + operation));
+        }
+        IExchangeRateTier tier = tiers.get(index);
+        return lookup.apply(tier).thenCompose(answer -> {
+            if (answer == null) return resolve(operation, lookup, index + 1);
+            chain.recordAnswer(tier, operation);
+            return CompletableFuture.completedFuture(answer);
+        });
+    }
+}
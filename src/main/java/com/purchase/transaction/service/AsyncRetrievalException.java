@@ -0,0 +1,22 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
+
+/**
+ * Failure of a non-blocking Treasury lookup. It reaches the {@code treasuryApi} retry on a netty
+ * or scheduler thread, which has no {@link RequestDeadline}, so it carries the deadline of the
+ * request the lookup serves, read on the request thread when the lookup started.
+ */
+class AsyncRetrievalException extends ExchangeRateRetrievalException {
+    private final Long deadline;
+
+    AsyncRetrievalException(String message, Throwable cause, Long deadline) {
+        super(message, cause);
+        this.deadline = deadline;
+    }
+
+    /** The request's deadline (a System.nanoTime() value), or null if it had none. */
+    Long getDeadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,93 @@
+package com.purchase.transaction.service;
+
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link TreasuryApiClient}: the HTTP call goes through
+ * {@link WebClient}, so the caller's thread is released while the Treasury API responds.
+ * Because the result is a {@link CompletableFuture}, the {@code treasuryApi} TIME LIMITER can
+ * apply as well as the CONCURRENCY LIMIT; both count requests actually sent, after coalescing.
+ */
+@Component
+public class AsyncTreasuryApiClient {
+    /** Largest response body accepted; a full 500-row page is a few hundred KB. */
+    static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+    private final WebClient webClient;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RetryBudget retryBudget;
+
+    public AsyncTreasuryApiClient(@Qualifier("treasuryWebClient") WebClient webClient, AdaptiveConcurrencyLimiter limiter,
+                                  RetryBudget retryBudget) {
+        this.webClient = webClient;
+        this.limiter = limiter;
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * GETs a fully built (already encoded) Treasury API URL and hands the response body to
+     * {@code reader} as a stream over the received network buffers: the bytes are parsed where
+     * they landed, without being decoded into a String first, and the buffers are released once
+     * read. A body larger than {@link #MAX_BODY_BYTES} fails the call.
+     *
+     * RESILIENCE PATTERNS APPLIED:
+     * - @TimeLimiter: Fails the call after 10 seconds and cancels the HTTP exchange
+     * - Adaptive concurrency limit: shared with TreasuryApiClient; when no slot is free the call
+     *   queues for one without holding a thread, up to max-wait, and a timed-out (cancelled) call
+     *   lowers the limit
+     */
+    @TimeLimiter(name = "treasuryApi")  // TIME LIMITER PATTERN: Bounds how long a call may take
+    public <T> CompletableFuture<T> get(String url, TreasuryApiClient.BodyReader<T> reader) {
+        return Mono.fromFuture(limiter::acquireAsync)
+                .flatMap(permit -> send(permit, url, reader))
+                .toFuture();
+    }
+
+    /**
+     * Like {@link #get}, but fails at once with LimitExceededException instead of queuing when
+     * the concurrency limit is reached; used for hedge calls, which must not wait for a slot.
+     */
+    @TimeLimiter(name = "treasuryApi")
+    public <T> CompletableFuture<T> tryGet(String url, TreasuryApiClient.BodyReader<T> reader) {
+        return Mono.fromCallable(limiter::tryAcquire)
+                .flatMap(permit -> send(permit, url, reader))
+                .toFuture();
+    }
+
+    private <T> Mono<T> send(AdaptiveConcurrencyLimiter.Permit permit, String url, TreasuryApiClient.BodyReader<T> reader) {
+        return DataBufferUtils.join(webClient.get()
+                        .uri(URI.create(url))
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class), MAX_BODY_BYTES)
+                .defaultIfEmpty(DefaultDataBufferFactory.sharedInstance.wrap(new byte[0]))
+                .map(body -> read(body, reader))
+                .doOnSuccess(result -> {
+                    permit.complete(null);
+                    retryBudget.recordSuccess();
+                })
+                .doOnError(permit::complete)
+                .doOnCancel(() -> permit.complete(new CancellationException("Treasury API call cancelled")));
+    }
+
+    private static <T> T read(DataBuffer body, TreasuryApiClient.BodyReader<T> reader) {
+        try (InputStream in = body.asInputStream(true)) {
+            return reader.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import com.purchase.transaction.service.TreasuryRateParser.Page;
+import com.purchase.transaction.service.TreasuryRateParser.RowFilter;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking Treasury Exchange Rate Service
+ *
+ * Answers the conversion lookup of {@link TreasuryExchangeRateService} - the most recent rate in
+ * a window - sharing its rate index, cache and persisted rates and the way it handles responses
+ * ({@link TreasuryRateResults}), but over {@link AsyncTreasuryApiClient}: no thread waits on the
+ * Treasury API, and the lookup returns a {@link CompletableFuture}. The other lookups have no
+ * non-blocking caller and stay on the blocking service, with its currency snapshot.
+ *
+ * RESILIENCE PATTERNS APPLIED (same treasuryApi instances as the blocking service):
+ * 1. CIRCUIT BREAKER and RETRY on each method, with the same cache-based fallbacks; retries are
+ *    scheduled rather than slept, so they hold no thread either
+ * 2. TIME LIMITER and CONCURRENCY LIMIT per HTTP call (in AsyncTreasuryApiClient); the time limiter is
+ *    effective here because the call returns a CompletionStage
+ *
+ * Identical requests issued concurrently share one HTTP call (SingleFlight), hedged when slow
+ * (HedgedRequests, shared with the blocking service).
+ *
+ * Serves the Treasury tier of {@link AsyncExchangeRateProviderChain}, which hands it the
+ * {@link RequestDeadline} of the request being served: the retry runs on other threads, so a
+ * failure carries the deadline to it ({@link AsyncRetrievalException}).
+ */
+@Service
+public class AsyncTreasuryExchangeRateService {
+    private static final Logger log = LoggerFactory.getLogger(AsyncTreasuryExchangeRateService.class);
+
+    private final AsyncTreasuryApiClient apiClient;
+    private final SingleFlight<String, Page> requests;
+    private final HedgedRequests hedging;
+    private final TreasuryRateParser parser;
+    private final ExchangeRateIndex rateIndex;
+    private final TreasuryRateResults results;
+    private final TreasuryQuery query;
+
+    @Value("${app.exchange-rate.cache-enabled:true}")
+    private boolean cacheEnabled;
+
+    // Package-private setter to control cache during tests
+    void setCacheEnabled(boolean enabled) {
+        this.cacheEnabled = enabled;
+    }
+
+    public AsyncTreasuryExchangeRateService(AsyncTreasuryApiClient apiClient,
+                                            ObjectMapper objectMapper,
+                                            @Value("${app.exchange-rate.url:}") String treasuryApiUrl,
+                                            ExchangeRateIndex rateIndex,
+                                            ExchangeRateCache exchangeRateCache,
+                                            MeterRegistry meterRegistry,
+                                            PersistentRateCache persistentCache,
+                                            HedgedRequests hedging) {
+        this.apiClient = apiClient;
+        this.requests = new SingleFlight<>(meterRegistry, "treasury.api.async-requests");
+        this.hedging = hedging;
+        this.parser = new TreasuryRateParser(objectMapper);
+        this.rateIndex = rateIndex;
+        this.results = new TreasuryRateResults(rateIndex, exchangeRateCache, persistentCache);
+        this.query = new TreasuryQuery(treasuryApiUrl);
+    }
+
+    /**
+     * Retrieves the most recent exchange rate on or before endDate and on or after startDate.
+     * Same strategy as {@link TreasuryExchangeRateService#getMostRecentExchangeRateWithinRange}:
+     * a covered window is answered from the rate index without a call, and otherwise the query
+     * carries the date bounds and the criteria values whose Treasury spelling the index knows.
+     *
+     * RESILIENCE PATTERNS APPLIED:
+     * - @CircuitBreaker: Fast failure when Treasury API is down
+     * - @Retry: Automatic retry for transient failures, while enough of {@code deadline} (the
+     *   request's, read on its thread; null without one) is left; retries call this method again
+     *   with the same deadline
+     * - TimeLimiter and concurrency limit: per HTTP call, in AsyncTreasuryApiClient
+     *
+     * FALLBACK: Searches the rate index and cache for the most recent matching rate
+     */
+    @CircuitBreaker(name = "treasuryApi", fallbackMethod = "getMostRecentExchangeRateWithinRangeFallback")
+    @Retry(name = "treasuryApi")
+    public CompletableFuture<Optional<ExchangeRate>> getMostRecentExchangeRateWithinRange(String country, String currency, String country_currency_desc,
+                                                                                   LocalDate startDate, LocalDate endDate, Long deadline) {
+        ExchangeRateCriteria criteria = ExchangeRateCriteria.of(country, currency, country_currency_desc);
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Must specify at least one of: country, currency, or country_currency_desc");
+        }
+        if (startDate == null || endDate == null) throw new IllegalArgumentException("Dates cannot be null");
+
+        if (cacheEnabled) {
+            Optional<ExchangeRate> local = results.coveredMostRecent(criteria, startDate, endDate);
+            if (local != null) return CompletableFuture.completedFuture(local);
+        }
+
+        ExchangeRateCriteria pushed = TreasuryQuery.pushable(criteria, rateIndex.spelling(criteria));
+        String url = query.ratesBetween(pushed, startDate, endDate);
+        log.debug("Fetching exchange rates from Treasury API with country={}, currency={}, country_currency_desc={} from {} to {}",
+                country, currency, country_currency_desc, startDate, endDate);
+        String failure = "Failed to retrieve exchange rates for country=%s, currency=%s, country_currency_desc=%s".formatted(country, currency, country_currency_desc);
+        if (!cacheEnabled) {
+            // Nothing is indexed, so only the answer needs parsing
+            return failWith(fetch(url, RowFilter.mostRecent(criteria, startDate, endDate))
+                    .thenApply(page -> page.rates().stream().findFirst()), failure, deadline);
+        }
+        return failWith(fetch(url, RowFilter.ALL).thenApply(page -> {
+            results.indexRange(page, pushed, startDate, endDate);
+            return results.mostRecent(page.rates(), criteria, startDate, endDate);
+        }), failure, deadline);
+    }
+
+    /**
+     * GETs a Treasury API URL and parses the rows the filter selects from the response bytes;
+     * concurrent callers asking for the same URL and rows share one HTTP call, which is hedged
+     * when slow like the blocking service's calls, from the same budget.
+     */
+    private CompletableFuture<Page> fetch(String url, RowFilter filter) {
+        String key = filter == RowFilter.ALL ? url : url + " " + filter;
+        TreasuryApiClient.BodyReader<Page> reader = body -> parser.read(body, filter);
+        return requests.executeAsync(key, () -> hedging.executeAsync(
+            () -> apiClient.get(url, reader),
+            () -> apiClient.tryGet(url, reader)));
+    }
+
+    /** Logs a failed lookup and fails the returned future with an exception carrying the request deadline. */
+    private static <T> CompletableFuture<T> failWith(CompletableFuture<T> lookup, String message, Long deadline) {
+        return lookup.exceptionallyCompose(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error(message, cause);
+            return CompletableFuture.failedFuture(new AsyncRetrievalException(message, cause, deadline));
+        });
+    }
+
+    // ==============================================================================
+    // FALLBACK METHODS - Called when Circuit Breaker is OPEN or on failure
+    // ==============================================================================
+    // Not private: resilience4j invokes them on the Spring proxy, which only forwards non-private
+    // methods to this bean - a private one would run against the proxy's unset fields.
+
+    CompletableFuture<Optional<ExchangeRate>> getMostRecentExchangeRateWithinRangeFallback(
+            String country, String currency, String country_currency_desc, LocalDate startDate, LocalDate endDate, Long deadline,
+            Exception ex) {
+        log.warn("Treasury API call failed for country={}, currency={}, country_currency_desc={} between {} and {}, using fallback. Reason: {}",
+                country, currency, country_currency_desc, startDate, endDate, ex.getMessage());
+        return CompletableFuture.completedFuture(
+                results.cachedMostRecent(ExchangeRateCriteria.of(country, currency, country_currency_desc), startDate, endDate));
+    }
+}
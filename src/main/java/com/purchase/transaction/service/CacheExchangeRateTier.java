@@ -0,0 +1,53 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Second tier: the (currency, date) {@link ExchangeRateCache}, including cached misses and the
+ * entries replayed from the persistent rate cache at startup. It only knows single-currency
+ * lookups; everything else goes on to the next tier.
+ */
+@Component
+@Order(200)
+public class CacheExchangeRateTier implements IExchangeRateTier {
+    private final ExchangeRateCache exchangeRateCache;
+    private final boolean enabled;
+
+    public CacheExchangeRateTier(ExchangeRateCache exchangeRateCache,
+                                 @Value("${app.exchange-rate.cache-enabled:true}") boolean enabled) {
+        this.exchangeRateCache = exchangeRateCache;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String getName() {
+        return "cache";
+    }
+
+    @Override
+    public List<ExchangeRate> getExchangeRatesForDate(LocalDate date) {
+        return null;
+    }
+
+    @Override
+    public Optional<ExchangeRate> getExchangeRateForCurrency(String currencyCode, LocalDate date) {
+        return enabled ? exchangeRateCache.get(currencyCode, date) : null;
+    }
+
+    @Override
+    public Optional<ExchangeRate> getMostRecentExchangeRateWithinRange(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        return null;
+    }
+
+    @Override
+    public List<String> getAvailableCurrencies() {
+        return null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.purchase.transaction.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.purchase.transaction.model.ExchangeRate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded cache of exchange rates by (currency code, date), evicting by W-TinyLFU once
+ * {@code app.exchange-rate.cache.maximum-size} is reached.
+ *
+ * Expiry depends on the date: rates for dates older than {@code recent-window} are final and
+ * never expire; rates for recent dates could still be revised and expire after
+ * {@code recent-ttl}. A lookup that found no rate is cached as a miss for {@code negative-ttl},
+ * so a currency with nothing published that day does not go to the API on every request.
+ *
+ * Hit, miss and eviction counts are published as the {@code cache.*} metrics with
+ * {@code cache=exchangeRates}.
+ */
+@Component
+public class ExchangeRateCache {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final Cache<String, Entry> cache;
+    private final Duration recentWindow;
+
+    @Autowired
+    public ExchangeRateCache(ExchangeRateProperties properties, MeterRegistry meterRegistry) {
+        this(properties.getCache(), meterRegistry, Ticker.systemTicker());
+    }
+
+    ExchangeRateCache(ExchangeRateProperties.Cache settings, MeterRegistry meterRegistry, Ticker ticker) {
+        this.recentWindow = settings.getRecentWindow();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(settings.getMaximumSize())
+            .expireAfter(new EntryExpiry(settings.getRecentTtl().toNanos(), settings.getNegativeTtl().toNanos()))
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "exchangeRates");
+    }
+
+    /**
+     * Cached result for the currency and date: a rate, {@code Optional.empty()} for a cached
+     * miss, or null if nothing is cached.
+     */
+    public Optional<ExchangeRate> get(String currencyCode, LocalDate date) {
+        Entry entry = cache.getIfPresent(key(currencyCode, date));
+        return entry == null ? null : Optional.ofNullable(entry.rate());
+    }
+
+    public void put(String currencyCode, LocalDate date, ExchangeRate rate) {
+        cache.put(key(currencyCode, date), new Entry(rate, isFinal(date)));
+    }
+
+    /** Remembers that no rate was found for the currency and date. */
+    public void putMiss(String currencyCode, LocalDate date) {
+        cache.put(key(currencyCode, date), new Entry(null, false));
+    }
+
+    /** Adds an entry by its {@link #key} unless one is present, as when reloading persisted rates. */
+    public void putIfAbsent(String key, ExchangeRate rate) {
+        LocalDate date = rate.getEffectiveDate();
+        cache.asMap().putIfAbsent(key, new Entry(rate, date != null && isFinal(date)));
+    }
+
+    /** Every cached rate (not misses). */
+    public List<ExchangeRate> rates() {
+        return cache.asMap().values().stream().map(Entry::rate).filter(Objects::nonNull).toList();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /** Runs pending evictions now rather than on a later access. */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public static String key(String currencyCode, LocalDate date) {
+        return currencyCode.toUpperCase() + "_" + date.format(DATE_FORMATTER);
+    }
+
+    private boolean isFinal(LocalDate date) {
+        return date.isBefore(LocalDate.now().minusDays(recentWindow.toDays()));
+    }
+
+    /** {@code rate} is null for a cached miss. */
+    private record Entry(ExchangeRate rate, boolean isFinal) {
+    }
+
+    private record EntryExpiry(long recentTtlNanos, long negativeTtlNanos) implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            if (entry.rate() == null) return negativeTtlNanos;
+            return entry.isFinal() ? Long.MAX_VALUE : recentTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+
+/**
+ * The country / currency / country_currency_desc filter of a conversion request. Any
+ * combination may be given; blank values are ignored and all provided values must match,
+ * case-insensitively, against the Treasury "country", "currency" and "country_currency_desc"
+ * fields of a rate.
+ */
+public record ExchangeRateCriteria(String country, String currency, String countryCurrencyDesc) {
+
+    public ExchangeRateCriteria {
+        country = normalize(country);
+        currency = normalize(currency);
+        countryCurrencyDesc = normalize(countryCurrencyDesc);
+    }
+
+    public static ExchangeRateCriteria of(String country, String currency, String countryCurrencyDesc) {
+        return new ExchangeRateCriteria(country, currency, countryCurrencyDesc);
+    }
+
+    /** True if no filter value was provided. */
+    public boolean isEmpty() {
+        return country == null && currency == null && countryCurrencyDesc == null;
+    }
+
+    public boolean matches(ExchangeRate rate) {
+        return matches(rate.getCountryCode(), rate.getCurrencySimpleName(), rate.getCurrencyName());
+    }
+
+    /** Matches the raw Treasury field values of a row, before an {@link ExchangeRate} is built. */
+    public boolean matches(String rowCountry, String rowCurrency, String rowCountryCurrencyDesc) {
+        return matches(country, rowCountry)
+            && matches(currency, rowCurrency)
+            && matches(countryCurrencyDesc, rowCountryCurrencyDesc);
+    }
+
+    private static boolean matches(String expected, String actual) {
+        return expected == null || (actual != null && actual.equalsIgnoreCase(expected));
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,47 @@
+package com.purchase.transaction.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the offline exchange rate import.
+ *
+ * GET  /actuator/exchangerates - rates in the index, latest effective date, last import
+ * POST /actuator/exchangerates {"file": "rates.csv", "coveredTo": "2025-10-01", "complete": true} -
+ *      imports a file from {@code app.exchange-rate.bulk-import.directory}; {@code coveredTo} is
+ *      optional, and {@code complete} (default false) vouches that the file holds every currency
+ */
+@Component
+@Endpoint(id = "exchangerates")
+public class ExchangeRateImportEndpoint {
+    private final ExchangeRateImporter importer;
+    private final ExchangeRateIndex rateIndex;
+
+    public ExchangeRateImportEndpoint(ExchangeRateImporter importer, ExchangeRateIndex rateIndex) {
+        this.importer = importer;
+        this.rateIndex = rateIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("indexedRates", rateIndex.size());
+        body.put("latestEffectiveDate", rateIndex.latestEffectiveDate());
+        body.put("lastImport", importer.getLastImport());
+        return body;
+    }
+
+    @WriteOperation
+    public ExchangeRateImporter.ImportReport importFile(String file, @Nullable LocalDate coveredTo,
+                                                        @Nullable Boolean complete) throws IOException {
+        return importer.importFromDirectory(file, coveredTo, Boolean.TRUE.equals(complete));
+    }
+}
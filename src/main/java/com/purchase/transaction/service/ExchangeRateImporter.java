@@ -0,0 +1,286 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports a downloaded copy of the Treasury {@code rates_of_exchange} dataset - CSV, or the API's
+ * JSON ({@code {"data": [...]}}) - into the rate index and, when enabled, the persistent rate
+ * cache. The file is read as a stream and its rates added in batches as they are parsed, so
+ * conversions are answered without any Treasury call (air-gapped and load-test environments).
+ *
+ * The file alone cannot say whether it holds every currency, so by default the index only
+ * treats each series in it (one country_currency_desc) as fully known from its first to its
+ * last record, or a later {@code coveredTo}. Only with {@code complete} - the caller vouching
+ * for an unfiltered extract, every currency and every record in its date range - is
+ * [first record date, coveredTo] known for all series, which also answers rates-by-date and
+ * currency list lookups and is persisted.
+ *
+ * {@code coveredTo} defaults to the last record date; only the caller knows whether the extract
+ * is complete beyond it (a file's modification time says when it was copied, not downloaded),
+ * so a later date must be given explicitly. It is never after today, and coverage of recent
+ * dates lapses as described on {@link ExchangeRateIndex}. Triggered by
+ * {@code app.exchange-rate.bulk-import.file} (and {@code covered-to}, {@code complete}) at
+ * startup, before the warm-up and before the app reports ready, or through
+ * {@link ExchangeRateImportEndpoint} for files in {@code app.exchange-rate.bulk-import.directory}.
+ * Imported rates outlive a restart only with {@code app.exchange-rate.persistent-cache.enabled}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ExchangeRateImporter implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateImporter.class);
+    private static final int BATCH_SIZE = 10_000;
+
+    private final ExchangeRateIndex rateIndex;
+    private final PersistentRateCache persistentCache;
+    private final TreasuryRateParser parser;
+    private final String startupFile;
+    private final String startupCoveredTo;
+    private final boolean startupComplete;
+    private final Path directory;
+    private volatile ImportReport lastImport;
+
+    public ExchangeRateImporter(ExchangeRateIndex rateIndex, PersistentRateCache persistentCache,
+                                ObjectMapper objectMapper, ExchangeRateProperties properties) {
+        this.rateIndex = rateIndex;
+        this.persistentCache = persistentCache;
+        this.parser = new TreasuryRateParser(objectMapper);
+        this.startupFile = properties.getBulkImport().getFile();
+        this.startupCoveredTo = properties.getBulkImport().getCoveredTo();
+        this.startupComplete = properties.getBulkImport().isComplete();
+        this.directory = Paths.get(properties.getBulkImport().getDirectory()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (startupFile == null || startupFile.isBlank()) return;
+        LocalDate coveredTo = startupCoveredTo == null || startupCoveredTo.isBlank() ? null : LocalDate.parse(startupCoveredTo.trim());
+        importFile(Paths.get(startupFile), coveredTo, startupComplete);
+    }
+
+    /** Imports {@code name}, which must be inside the import directory. */
+    public ImportReport importFromDirectory(String name, LocalDate coveredTo, boolean complete) throws IOException {
+        Path file = directory.resolve(name).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Import file must be inside " + directory);
+        }
+        return importFile(file, coveredTo, complete);
+    }
+
+    /**
+     * Imports a CSV or JSON dataset file; a null {@code coveredTo} uses the default above, and
+     * {@code complete} says the file holds every currency.
+     */
+    public synchronized ImportReport importFile(Path file, LocalDate coveredTo, boolean complete) throws IOException {
+        if (!Files.isRegularFile(file)) throw new IllegalArgumentException("No such file: " + file);
+        long started = System.nanoTime();
+        Batches batches = new Batches();
+        int skipped = isJson(file) ? readJson(file, batches) : readCsv(file, batches);
+        batches.flush();
+
+        LocalDate until = batches.first == null ? null : coveredUntil(coveredTo, batches.last);
+        if (until != null && complete) {
+            rateIndex.addAll(List.of(), batches.first, until);
+            LocalDate settled = rateIndex.settledThrough();
+            persistentCache.saveCoverage(batches.first, until.isAfter(settled) ? settled : until);
+        } else if (until != null) {
+            batches.series.forEach((series, range) -> coverSeries(series, range[0], coveredUntil(coveredTo, range[1])));
+        }
+        ImportReport report = new ImportReport(file.toString(), batches.imported, skipped, batches.first, until,
+            complete, batches.series.size(), (System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} exchange rates of {} series from {} in {} ms ({} rows skipped), covering {} to {}{}",
+            report.imported(), report.series(), file, report.millis(), skipped, report.coveredFrom(), report.coveredTo(),
+            complete ? " for every series" : " for each series from its first record");
+        lastImport = report;
+        return report;
+    }
+
+    /** The most recent import, or null if nothing was imported since startup. */
+    public ImportReport getLastImport() {
+        return lastImport;
+    }
+
+    /** {@code coveredTo}, or else the last record date, but never after today. */
+    private static LocalDate coveredUntil(LocalDate coveredTo, LocalDate last) {
+        LocalDate until = coveredTo != null ? coveredTo : last;
+        return until.isAfter(LocalDate.now()) ? LocalDate.now() : until;
+    }
+
+    /**
+     * Records that the index holds every rate of one series in [from, to], under the filters a
+     * lookup of that series alone is made with: its description, or its country and currency.
+     */
+    private void coverSeries(ExchangeRateCriteria series, LocalDate from, LocalDate to) {
+        if (series.countryCurrencyDesc() != null) {
+            rateIndex.addAll(List.of(), ExchangeRateCriteria.of(null, null, series.countryCurrencyDesc()), from, to);
+        }
+        if (series.country() != null && series.currency() != null) {
+            rateIndex.addAll(List.of(), ExchangeRateCriteria.of(series.country(), series.currency(), null), from, to);
+        }
+    }
+
+    private static boolean isJson(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".json")) return true;
+        if (name.endsWith(".csv")) return false;
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int c = in.read(); c != -1; c = in.read()) {
+                if (!Character.isWhitespace(c) && c != 0xEF && c != 0xBB && c != 0xBF) return c == '{';
+            }
+        }
+        return false;
+    }
+
+    private int readJson(Path file, Batches batches) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            int before = batches.read;
+            int rows = parser.stream(in, batches::add);
+            return rows - (batches.read - before);
+        }
+    }
+
+    /**
+     * Reads a CSV with a header row. Columns are found by name, either the API's field names
+     * ({@code record_date}) or the download's labels ({@code Record Date}); others are ignored.
+     */
+    private int readCsv(Path file, Batches batches) throws IOException {
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) return 0;
+            Map<String, Integer> columns = columns(splitCsv(header.replace("\uFEFF", "")));
+            int date = column(columns, "record_date");
+            int country = column(columns, "country");
+            int currency = column(columns, "currency");
+            int desc = columns.getOrDefault("country_currency_desc", columns.getOrDefault("country_currency_description", -1));
+            int rate = column(columns, "exchange_rate");
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) continue;
+                List<String> fields = splitCsv(line);
+                try {
+                    String currencyName = field(fields, currency);
+                    String rateText = field(fields, rate);
+                    String dateText = field(fields, date);
+                    if (currencyName.isEmpty() || rateText.isEmpty() || dateText.isEmpty()) {
+                        skipped++;
+                        continue;
+                    }
+                    batches.add(new ExchangeRate(TreasuryRateParser.currencyCode(currencyName), field(fields, desc), currencyName,
+                        new BigDecimal(rateText), LocalDate.parse(dateText), field(fields, country)));
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    skipped++;
+                }
+            }
+        }
+        return skipped;
+    }
+
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_").replaceAll("^_|_$", "");
+            columns.putIfAbsent(name, i);
+        }
+        return columns;
+    }
+
+    private static int column(Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) throw new IllegalArgumentException("CSV header has no " + name + " column");
+        return index;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    /** Splits one CSV line; fields may be quoted, with {@code ""} for a quote inside them. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') field.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') field.append(line.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /** Hands rates to the index and the persistent cache {@value #BATCH_SIZE} at a time. */
+    private final class Batches {
+        private final List<ExchangeRate> batch = new ArrayList<>(BATCH_SIZE);
+        private int imported;
+        /** Rates handed to {@link #add}, including those skipped for lack of a date. */
+        private int read;
+        private LocalDate first;
+        private LocalDate last;
+        /** First and last record date of each series read. */
+        private final Map<ExchangeRateCriteria, LocalDate[]> series = new HashMap<>();
+
+        void add(ExchangeRate rate) {
+            read++;
+            LocalDate date = rate.getEffectiveDate();
+            if (date == null) return;
+            if (first == null || date.isBefore(first)) first = date;
+            if (last == null || date.isAfter(last)) last = date;
+            LocalDate[] range = series.computeIfAbsent(
+                ExchangeRateCriteria.of(rate.getCountryCode(), rate.getCurrencySimpleName(), rate.getCurrencyName()),
+                key -> new LocalDate[] {date, date});
+            if (date.isBefore(range[0])) range[0] = date;
+            if (date.isAfter(range[1])) range[1] = date;
+            batch.add(rate);
+            if (batch.size() == BATCH_SIZE) flush();
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            rateIndex.addAll(batch);
+            persistentCache.saveRates(batch);
+            imported += batch.size();
+            batch.clear();
+        }
+    }
+
+    /**
+     * Outcome of one import; {@code coveredFrom} and {@code coveredTo} are null if no rate was
+     * read, and cover every series only if {@code complete}.
+     */
+    public record ImportReport(String file, int imported, int skipped, LocalDate coveredFrom, LocalDate coveredTo,
+                               boolean complete, int series, long millis) {
+    }
+}
@@ -0,0 +1,346 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process index of Treasury exchange rates, one series per (country, currency,
+ * country_currency_desc), each a {@link ConcurrentSkipListMap} from effective date to rate.
+ * "Latest rate on or before the purchase date, no older than the cutoff" is a floor lookup
+ * per matching series.
+ *
+ * The index also records which date intervals it holds completely: a Treasury query that
+ * returned every row of a date range covers that interval for all series, and a query filtered
+ * by country / currency / description covers it for the series matching that filter. A lookup
+ * is only {@link #findCovered answered from the index} when no rate newer than the one found
+ * could be missing, i.e. the days after it up to the purchase date are covered. Otherwise the
+ * caller has to ask the API.
+ *
+ * Treasury publishes some rows days after their {@code record_date} (quarter-end rates in
+ * particular), so only coverage of settled dates - older than {@code cache.recent-window}, as for
+ * {@link ExchangeRateCache} - is kept for good. Coverage of more recent dates lapses after
+ * {@code cache.recent-ttl}, and the next lookup asks the API again and picks up late rows.
+ *
+ * Reads are lock-free; coverage is replaced copy-on-write since it changes once per fetch.
+ */
+@Component
+public final class ExchangeRateIndex {
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+    private final Map<String, Set<Series>> byCountryCurrencyDesc = new ConcurrentHashMap<>();
+    private final Map<String, Set<Series>> byCountry = new ConcurrentHashMap<>();
+    private final Map<String, Set<Series>> byCurrency = new ConcurrentHashMap<>();
+    private final Coverage coverage = new Coverage();
+    /** Coverage of filtered queries, by folded filter; only filters spelled as indexed series are recorded. */
+    private final Map<ExchangeRateCriteria, Coverage> filteredCoverage = new ConcurrentHashMap<>();
+    private final long recentWindowDays;
+    private final long recentTtlNanos;
+    private final LongSupplier ticker;
+
+    public ExchangeRateIndex() {
+        this(new ExchangeRateProperties());
+    }
+
+    @Autowired
+    public ExchangeRateIndex(ExchangeRateProperties properties) {
+        this(properties.getCache().getRecentWindow(), properties.getCache().getRecentTtl(), System::nanoTime);
+    }
+
+    ExchangeRateIndex(Duration recentWindow, Duration recentTtl, LongSupplier ticker) {
+        this.recentWindowDays = recentWindow.toDays();
+        this.recentTtlNanos = recentTtl.toNanos();
+        this.ticker = ticker;
+    }
+
+    /** Adds rates without claiming anything about rates that are absent. */
+    public void addAll(Collection<ExchangeRate> rates) {
+        for (ExchangeRate rate : rates) {
+            if (rate.getEffectiveDate() == null) continue;
+            seriesFor(rate).rates.put(rate.getEffectiveDate(), rate);
+        }
+    }
+
+    /** Adds rates that are every published rate with an effective date in [from, to]. */
+    public void addAll(Collection<ExchangeRate> rates, LocalDate from, LocalDate to) {
+        addAll(rates);
+        if (!from.isAfter(to)) coverage.add(from, to);
+    }
+
+    /**
+     * Adds rates that are every published rate matching {@code filter} with an effective date
+     * in [from, to]. An empty filter is the same as {@link #addAll(Collection, LocalDate, LocalDate)}.
+     */
+    public void addAll(Collection<ExchangeRate> rates, ExchangeRateCriteria filter, LocalDate from, LocalDate to) {
+        if (filter.isEmpty()) {
+            addAll(rates, from, to);
+            return;
+        }
+        addAll(rates);
+        if (!from.isAfter(to)) filteredCoverage.computeIfAbsent(folded(filter), key -> new Coverage()).add(from, to);
+    }
+
+    /**
+     * The criteria with each value replaced by the exact spelling of an indexed series that
+     * matches it case-insensitively, or null where no indexed series has that value.
+     */
+    public ExchangeRateCriteria spelling(ExchangeRateCriteria criteria) {
+        return ExchangeRateCriteria.of(
+            spelling(byCountry, criteria.country(), ExchangeRate::getCountryCode),
+            spelling(byCurrency, criteria.currency(), ExchangeRate::getCurrencySimpleName),
+            spelling(byCountryCurrencyDesc, criteria.countryCurrencyDesc(), ExchangeRate::getCurrencyName));
+    }
+
+    /**
+     * Most recent rate matching the criteria with an effective date in [startDate, endDate],
+     * from whatever the index holds.
+     */
+    public Optional<ExchangeRate> find(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        ExchangeRate best = null;
+        for (Series candidate : candidates(criteria)) {
+            if (!criteria.matches(candidate.sample)) continue;
+            Map.Entry<LocalDate, ExchangeRate> floor = candidate.rates.floorEntry(endDate);
+            if (floor == null || floor.getKey().isBefore(startDate)) continue;
+            if (best == null || floor.getKey().isAfter(best.getEffectiveDate())) best = floor.getValue();
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Like {@link #find}, but also tells whether the answer is final: the index has seen every
+     * rate that could be more recent than the one found (or, if none was found, every rate in
+     * the window).
+     */
+    public Lookup findCovered(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        Optional<ExchangeRate> found = find(criteria, startDate, endDate);
+        LocalDate unknownFrom = found.map(rate -> rate.getEffectiveDate().plusDays(1)).orElse(startDate);
+        return new Lookup(found, unknownFrom.isAfter(endDate) || covers(criteria, unknownFrom, endDate));
+    }
+
+    /**
+     * True if every rate matching the criteria effective in [from, to] is in the index: the
+     * interval is covered for all series, or for a filter made of some of the criteria's values
+     * (whose rows include all rows matching the criteria).
+     */
+    public boolean covers(ExchangeRateCriteria criteria, LocalDate from, LocalDate to) {
+        if (covers(from, to)) return true;
+        if (filteredCoverage.isEmpty()) return false;
+        ExchangeRateCriteria key = folded(criteria);
+        String[] values = {key.country(), key.currency(), key.countryCurrencyDesc()};
+        for (int subset = 1; subset < 8; subset++) {
+            if (((subset & 1) != 0 && values[0] == null) || ((subset & 2) != 0 && values[1] == null) || ((subset & 4) != 0 && values[2] == null)) continue;
+            ExchangeRateCriteria filter = ExchangeRateCriteria.of(
+                (subset & 1) != 0 ? values[0] : null, (subset & 2) != 0 ? values[1] : null, (subset & 4) != 0 ? values[2] : null);
+            Coverage filtered = filteredCoverage.get(filter);
+            if (filtered != null && filtered.covers(from, to)) return true;
+        }
+        return false;
+    }
+
+    /** True if every rate effective in [from, to] is in the index. */
+    public boolean covers(LocalDate from, LocalDate to) {
+        return coverage.covers(from, to);
+    }
+
+    /**
+     * Latest date whose published rates are final; coverage after it lapses. Callers persisting
+     * coverage stop there, since a restart cannot tell how old the rest is.
+     */
+    public LocalDate settledThrough() {
+        return LocalDate.now().minusDays(recentWindowDays + 1);
+    }
+
+    /** Every rate effective on the given date, one per series. */
+    public List<ExchangeRate> ratesOn(LocalDate date) {
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (Series candidate : series.values()) {
+            ExchangeRate rate = candidate.rates.get(date);
+            if (rate != null) rates.add(rate);
+        }
+        return rates;
+    }
+
+    /** Sorted currency codes of every series with a rate effective on or after {@code from}. */
+    public List<String> currencyCodesSince(LocalDate from) {
+        Set<String> codes = new TreeSet<>();
+        for (Series candidate : series.values()) {
+            if (candidate.rates.ceilingKey(from) != null) codes.add(candidate.sample.getCurrencyCode());
+        }
+        return List.copyOf(codes);
+    }
+
+    /**
+     * Treasury spellings of the {@code currency} of every series held whose rates carry
+     * {@code currencyCode}; empty if any of them could not be sent as a filter value.
+     */
+    public Set<String> currencySpellings(String currencyCode) {
+        Set<String> spellings = new TreeSet<>();
+        for (Series candidate : series.values()) {
+            if (!currencyCode.equalsIgnoreCase(candidate.sample.getCurrencyCode())) continue;
+            String spelled = candidate.sample.getCurrencySimpleName();
+            if (spelled == null || spelled.matches(".*[,()\"].*")) return Set.of();
+            spellings.add(spelled);
+        }
+        return spellings;
+    }
+
+    /** Most recent effective date held for any series, or null if the index is empty. */
+    public LocalDate latestEffectiveDate() {
+        LocalDate latest = null;
+        for (Series candidate : series.values()) {
+            LocalDate last = candidate.rates.isEmpty() ? null : candidate.rates.lastKey();
+            if (last != null && (latest == null || last.isAfter(latest))) latest = last;
+        }
+        return latest;
+    }
+
+    public int size() {
+        return series.values().stream().mapToInt(s -> s.rates.size()).sum();
+    }
+
+    /** A copy of {@code intervals} with [from, to] merged in. */
+    private static NavigableMap<LocalDate, LocalDate> merge(NavigableMap<LocalDate, LocalDate> intervals, LocalDate from, LocalDate to) {
+        TreeMap<LocalDate, LocalDate> merged = new TreeMap<>(intervals);
+        Map.Entry<LocalDate, LocalDate> before = merged.floorEntry(from);
+        if (before != null && !before.getValue().isBefore(from.minusDays(1))) {
+            from = before.getKey();
+            if (before.getValue().isAfter(to)) to = before.getValue();
+        }
+        // Absorb every interval that starts inside or directly after [from, to]
+        for (Map.Entry<LocalDate, LocalDate> next = merged.ceilingEntry(from);
+                next != null && !next.getKey().isAfter(to.plusDays(1)); next = merged.ceilingEntry(from)) {
+            merged.remove(next.getKey());
+            if (next.getValue().isAfter(to)) to = next.getValue();
+        }
+        merged.put(from, to);
+        return Collections.unmodifiableNavigableMap(merged);
+    }
+
+    private Collection<Series> candidates(ExchangeRateCriteria criteria) {
+        Map<String, Set<Series>> lookup;
+        String value;
+        if (criteria.countryCurrencyDesc() != null) {
+            lookup = byCountryCurrencyDesc;
+            value = criteria.countryCurrencyDesc();
+        } else if (criteria.country() != null) {
+            lookup = byCountry;
+            value = criteria.country();
+        } else if (criteria.currency() != null) {
+            lookup = byCurrency;
+            value = criteria.currency();
+        } else {
+            return series.values();
+        }
+        return lookup.getOrDefault(fold(value), Set.of());
+    }
+
+    private Series seriesFor(ExchangeRate rate) {
+        SeriesKey key = new SeriesKey(fold(rate.getCountryCode()), fold(rate.getCurrencySimpleName()), fold(rate.getCurrencyName()));
+        Series existing = series.get(key);
+        if (existing != null) return existing;
+        return series.computeIfAbsent(key, k -> {
+            Series created = new Series(rate);
+            register(byCountry, k.country(), created);
+            register(byCurrency, k.currency(), created);
+            register(byCountryCurrencyDesc, k.countryCurrencyDesc(), created);
+            return created;
+        });
+    }
+
+    private static void register(Map<String, Set<Series>> lookup, String value, Series added) {
+        lookup.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet()).add(added);
+    }
+
+    private static String spelling(Map<String, Set<Series>> lookup, String value, Function<ExchangeRate, String> field) {
+        Set<Series> matching = value == null ? null : lookup.get(fold(value));
+        return matching == null || matching.isEmpty() ? null : field.apply(matching.iterator().next().sample);
+    }
+
+    private static ExchangeRateCriteria folded(ExchangeRateCriteria criteria) {
+        return ExchangeRateCriteria.of(fold(criteria.country()), fold(criteria.currency()), fold(criteria.countryCurrencyDesc()));
+    }
+
+    private static String fold(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /** Result of {@link #findCovered}; {@code rate} is only trustworthy when {@code covered}. */
+    public record Lookup(Optional<ExchangeRate> rate, boolean covered) {
+    }
+
+    /**
+     * Date intervals held completely: settled ones merged and kept for good, recent ones each
+     * kept until it lapses.
+     */
+    private final class Coverage {
+        private volatile NavigableMap<LocalDate, LocalDate> settled = Collections.emptyNavigableMap();
+        private volatile List<RecentInterval> recent = List.of();
+
+        synchronized void add(LocalDate from, LocalDate to) {
+            LocalDate settledThrough = settledThrough();
+            if (!from.isAfter(settledThrough)) {
+                settled = merge(settled, from, to.isAfter(settledThrough) ? settledThrough : to);
+            }
+            if (!to.isAfter(settledThrough)) return;
+            LocalDate recentFrom = from.isAfter(settledThrough) ? from : settledThrough.plusDays(1);
+            long now = ticker.getAsLong();
+            List<RecentInterval> kept = new ArrayList<>();
+            for (RecentInterval interval : recent) {
+                boolean contained = !interval.from().isBefore(recentFrom) && !interval.to().isAfter(to);
+                if (interval.expiresAt() - now > 0 && !contained) kept.add(interval);
+            }
+            kept.add(new RecentInterval(recentFrom, to, now + recentTtlNanos));
+            recent = List.copyOf(kept);
+        }
+
+        /** True if [from, to] lies in a settled interval, or starts in one and ends in a live recent one. */
+        boolean covers(LocalDate from, LocalDate to) {
+            Map.Entry<LocalDate, LocalDate> interval = settled.floorEntry(from);
+            LocalDate uncoveredFrom = from;
+            if (interval != null && !interval.getValue().isBefore(from)) {
+                if (!interval.getValue().isBefore(to)) return true;
+                uncoveredFrom = interval.getValue().plusDays(1);
+            }
+            long now = ticker.getAsLong();
+            for (RecentInterval candidate : recent) {
+                if (candidate.expiresAt() - now > 0 && !candidate.from().isAfter(uncoveredFrom) && !candidate.to().isBefore(to)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record RecentInterval(LocalDate from, LocalDate to, long expiresAt) {
+    }
+
+    private record SeriesKey(String country, String currency, String countryCurrencyDesc) {
+    }
+
+    private static final class Series {
+        /** Any rate of the series; all share its country, currency and description. */
+        final ExchangeRate sample;
+        final ConcurrentSkipListMap<LocalDate, ExchangeRate> rates = new ConcurrentSkipListMap<>();
+
+        Series(ExchangeRate sample) {
+            this.sample = sample;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.purchase.transaction.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for exchange rate caching, preloading, warm-up and offline import and for Treasury
+ * API concurrency, hedging and retries, bound from {@code app.exchange-rate.*}.
+ */
+@ConfigurationProperties(prefix = "app.exchange-rate")
+public class ExchangeRateProperties {
+    private final Preload preload = new Preload();
+    private final Cache cache = new Cache();
+    private final Currencies currencies = new Currencies();
+    private final WarmUp warmUp = new WarmUp();
+    private final Limiter limiter = new Limiter();
+    private final Hedging hedging = new Hedging();
+    private final Retry retry = new Retry();
+    private final BulkImport bulkImport = new BulkImport();
+
+    public Preload getPreload() {
+        return preload;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Currencies getCurrencies() {
+        return currencies;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    public Hedging getHedging() {
+        return hedging;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public BulkImport getBulkImport() {
+        return bulkImport;
+    }
+
+    /** Loading the whole Treasury dataset into the rate index and keeping it current. */
+    public static class Preload {
+        private boolean enabled = false;
+        private Duration refreshInterval = Duration.ofHours(6);
+        private int pageSize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+    }
+
+    /** Bounds and expiry of the (currency, date) exchange rate cache. */
+    public static class Cache {
+        private long maximumSize = 10000;
+        /** Rates for dates within this window of today may still be revised and expire after {@code recentTtl}. */
+        private Duration recentWindow = Duration.ofDays(30);
+        private Duration recentTtl = Duration.ofHours(1);
+        /** How long "no rate published for this currency and date" is remembered. */
+        private Duration negativeTtl = Duration.ofMinutes(5);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getRecentWindow() {
+            return recentWindow;
+        }
+
+        public void setRecentWindow(Duration recentWindow) {
+            this.recentWindow = recentWindow;
+        }
+
+        public Duration getRecentTtl() {
+            return recentTtl;
+        }
+
+        public void setRecentTtl(Duration recentTtl) {
+            this.recentTtl = recentTtl;
+        }
+
+        public Duration getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+    }
+
+    /**
+     * Refresh of the available currencies snapshot. Treasury publishes rates quarterly, so the
+     * list changes a few times a year; a scheduled refresh every few hours picks changes up the
+     * same day, and requests only trigger a background refresh once the scheduled ones failed.
+     */
+    public static class Currencies {
+        private Duration refreshInterval = Duration.ofHours(6);
+        /** Age after which a request serving the snapshot also starts a background refresh. */
+        private Duration staleAfter = Duration.ofDays(1);
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Duration getStaleAfter() {
+            return staleAfter;
+        }
+
+        public void setStaleAfter(Duration staleAfter) {
+            this.staleAfter = staleAfter;
+        }
+    }
+
+    /** Prefetching, before the app reports ready, the rate windows stored transactions convert with. */
+    public static class WarmUp {
+        private boolean enabled = false;
+        /** country_currency_desc values (Treasury spelling) of the currencies conversions mostly ask for. */
+        private List<String> currencies = new ArrayList<>(List.of(
+            "Euro Zone-Euro", "Canada-Dollar", "United Kingdom-Pound", "Japan-Yen", "Mexico-Peso"));
+        private int concurrency = 4;
+        /** The app reports ready after this long even if prefetches are still running. */
+        private Duration timeout = Duration.ofSeconds(60);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getCurrencies() {
+            return currencies;
+        }
+
+        public void setCurrencies(List<String> currencies) {
+            this.currencies = currencies;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /** Bounds and tuning of the adaptive limit on concurrent Treasury API calls. */
+    public static class Limiter {
+        private int initialLimit = 10;
+        private int minLimit = 2;
+        /** Also the size of the HTTP connection pools to the Treasury API. */
+        private int maxLimit = 20;
+        private double backoffRatio = 0.9;
+        /** A response slower than this multiple of the smoothed latency lowers the limit. */
+        private double latencyTolerance = 2.0;
+        private Duration maxWait = Duration.ofMillis(500);
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        public void setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    /** Hedged (duplicated) Treasury API calls for responses slower than usual. */
+    public static class Hedging {
+        private boolean enabled = false;
+        /** Latency percentile of recent calls after which a call is hedged. */
+        private double percentile = 95;
+        private Duration minDelay = Duration.ofMillis(50);
+        /** Hedges allowed per call made; caps the extra load on the Treasury API. */
+        private double budgetRatio = 0.1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+    }
+
+    /** Retry budget, backoff and request deadline of the {@code treasuryApi} retry. */
+    public static class Retry {
+        /** Retries earned per successful Treasury API call. */
+        private double budgetRatio = 0.1;
+        /** Most retries the budget can save up (and its starting balance). */
+        private int maxTokens = 10;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofMillis(800);
+        /** Deadline of an incoming HTTP request, unless the caller asks for less. */
+        private Duration requestTimeout = Duration.ofSeconds(5);
+        /** No retry is started with less than this left before the request deadline. */
+        private Duration minTimeLeft = Duration.ofMillis(500);
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getMaxTokens() {
+            return maxTokens;
+        }
+
+        public void setMaxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public Duration getMinTimeLeft() {
+            return minTimeLeft;
+        }
+
+        public void setMinTimeLeft(Duration minTimeLeft) {
+            this.minTimeLeft = minTimeLeft;
+        }
+    }
+
+    /** Importing a downloaded Treasury dataset file (CSV or JSON) into the rate index. */
+    public static class BulkImport {
+        /** File imported at startup, if set. */
+        private String file;
+        /** Last date (yyyy-MM-dd) the startup file is complete through, if later than its last record. */
+        private String coveredTo;
+        /** The startup file holds every currency, so its date range is covered for all series. */
+        private boolean complete;
+        /** The only directory the actuator endpoint imports files from. */
+        private String directory = "./data/import";
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public String getCoveredTo() {
+            return coveredTo;
+        }
+
+        public void setCoveredTo(String coveredTo) {
+            this.coveredTo = coveredTo;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public void setComplete(boolean complete) {
+            this.complete = complete;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+}
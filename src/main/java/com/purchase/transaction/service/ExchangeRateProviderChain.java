@@ -0,0 +1,97 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
+import com.purchase.transaction.model.ExchangeRate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The exchange rate service the application uses: resolves each lookup from the first
+ * {@link IExchangeRateTier} able to answer it authoritatively - by default the rate index, then
+ * the (currency, date) cache, then the Treasury API - so a local source can be put in front of
+ * the network by adding a tier bean, without touching callers.
+ *
+ * Each lookup is counted in {@code exchange.rate.lookups}, tagged with the {@code tier} that
+ * answered and the {@code operation}, and logged at DEBUG. {@link AsyncExchangeRateProviderChain}
+ * resolves the non-blocking lookups the same way.
+ */
+@Service
+@Primary
+public class ExchangeRateProviderChain implements IExchangeRateService {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateProviderChain.class);
+
+    private final List<IExchangeRateTier> tiers;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> lookups = new ConcurrentHashMap<>();
+
+    public ExchangeRateProviderChain(List<IExchangeRateTier> tiers, MeterRegistry meterRegistry) {
+        if (tiers.isEmpty()) throw new IllegalArgumentException("At least one exchange rate tier is required");
+        this.tiers = List.copyOf(tiers);
+        this.meterRegistry = meterRegistry;
+        log.info("Exchange rate tiers: {}", this.tiers.stream().map(IExchangeRateTier::getName).toList());
+    }
+
+    @Override
+    public List<ExchangeRate> getExchangeRatesForDate(LocalDate date) {
+        if (date == null) throw new IllegalArgumentException("Date cannot be null");
+        return resolve("ratesForDate", tier -> tier.getExchangeRatesForDate(date));
+    }
+
+    @Override
+    public Optional<ExchangeRate> getExchangeRateForCurrency(String currencyCode, LocalDate date) {
+        if (currencyCode == null || currencyCode.trim().isEmpty()) throw new IllegalArgumentException("Currency code cannot be null or empty");
+        if (date == null) throw new IllegalArgumentException("Date cannot be null");
+        return resolve("rateForCurrency", tier -> tier.getExchangeRateForCurrency(currencyCode, date));
+    }
+
+    @Override
+    public Optional<ExchangeRate> getMostRecentExchangeRateWithinRange(String country, String currency, String country_currency_desc, LocalDate fromDate, LocalDate toDate) {
+        ExchangeRateCriteria criteria = ExchangeRateCriteria.of(country, currency, country_currency_desc);
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Must specify at least one of: country, currency, or country_currency_desc");
+        }
+        if (fromDate == null || toDate == null) throw new IllegalArgumentException("Dates cannot be null");
+        return resolve("mostRecentWithinRange", tier -> tier.getMostRecentExchangeRateWithinRange(criteria, fromDate, toDate));
+    }
+
+    @Override
+    public List<String> getAvailableCurrencies() {
+        return resolve("availableCurrencies", IExchangeRateTier::getAvailableCurrencies);
+    }
+
+    private <T> T resolve(String operation, Function<IExchangeRateTier, T> lookup) {
+        for (IExchangeRateTier tier : tiers) {
+            T answer = lookup.apply(tier);
+            if (answer != null) {
+                recordAnswer(tier, operation);
+                return answer;
+            }
+        }
+        throw new ExchangeRateRetrievalException("No exchange rate tier could answer " + operation);
+    }
+
+    /** Counts and logs a lookup answered by {@code tier}. */
+    void recordAnswer(IExchangeRateTier tier, String operation) {
+        lookups.computeIfAbsent(tier.getName() + '/' + operation, key -> Counter.builder("exchange.rate.lookups")
+            .description("Exchange rate lookups by the tier that answered them")
+            .tag("tier", tier.getName())
+            .tag("operation", operation)
+            .register(meterRegistry)).increment();
+        log.debug("Exchange rate lookup {} answered by the {} tier", operation, tier.getName());
+    }
+
+    List<IExchangeRateTier> getTiers() {
+        return tiers;
+    }
+}
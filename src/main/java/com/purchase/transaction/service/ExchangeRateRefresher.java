@@ -0,0 +1,109 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link ExchangeRateIndex} holding the complete Treasury {@code rates_of_exchange}
+ * dataset. The first run loads every page; later runs only ask for records with a
+ * {@code record_date} after the latest one loaded so far, or after the index's settled dates if
+ * that is earlier, since recent rows can be published late. Runs at startup and then every
+ * {@code app.exchange-rate.preload.refresh-interval} on its own thread; a failed run keeps
+ * the rates already loaded and is retried at the next interval.
+ */
+@Component
+@ConditionalOnProperty(name = "app.exchange-rate.preload.enabled", havingValue = "true")
+public class ExchangeRateRefresher {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateRefresher.class);
+    /** Coverage start for a full load; the Treasury dataset begins long after this. */
+    private static final LocalDate DATASET_START = LocalDate.EPOCH;
+
+    private final TreasuryExchangeRateService treasuryService;
+    private final ExchangeRateIndex rateIndex;
+    private final Duration refreshInterval;
+    private final int pageSize;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile LocalDate loadedThrough;
+    private volatile Instant lastRefreshAt;
+
+    public ExchangeRateRefresher(TreasuryExchangeRateService treasuryService, ExchangeRateIndex rateIndex,
+                                 ExchangeRateProperties properties) {
+        this.treasuryService = treasuryService;
+        this.rateIndex = rateIndex;
+        this.refreshInterval = properties.getPreload().getRefreshInterval();
+        this.pageSize = properties.getPreload().getPageSize();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "exchange-rate-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /** True once the full dataset has been loaded. */
+    public boolean isLoaded() {
+        return lastRefreshAt != null;
+    }
+
+    public Instant getLastRefreshAt() {
+        return lastRefreshAt;
+    }
+
+    /**
+     * Loads the full dataset on the first call and the records published since on later ones.
+     * Throws if the Treasury API call fails.
+     */
+    public synchronized void refresh() {
+        long started = System.nanoTime();
+        LocalDate loaded = loadedThrough;
+        LocalDate settled = rateIndex.settledThrough();
+        LocalDate after = loaded == null || loaded.isBefore(settled) ? loaded : settled;
+        LocalDate today = LocalDate.now();
+        List<ExchangeRate> rates = treasuryService.fetchRatesAfter(after, pageSize);
+
+        rateIndex.addAll(rates, after == null ? DATASET_START : after.plusDays(1), today);
+        rates.stream().map(ExchangeRate::getEffectiveDate).filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .filter(latest -> loaded == null || latest.isAfter(loaded))
+            .ifPresent(latest -> loadedThrough = latest);
+        lastRefreshAt = Instant.now();
+
+        log.info("{} {} exchange rates in {} ms; {} rates held, latest record date {}",
+            loaded == null ? "Loaded" : "Refreshed with", rates.size(), (System.nanoTime() - started) / 1_000_000,
+            rateIndex.size(), loadedThrough);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Exchange rate refresh failed, keeping {} loaded rates: {}", rateIndex.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.repository.ITransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Prefetches, at startup, the exchange rates that conversions of the stored transactions need,
+ * so the first conversion for a (transaction date, currency) pair is a rate index lookup rather
+ * than a Treasury call. The transaction dates are scanned once and their six-month conversion
+ * windows merged; each merged window is then fetched for each of the
+ * {@code app.exchange-rate.warm-up.currencies} with at most {@code concurrency} calls in flight.
+ *
+ * Runs as an {@link ApplicationRunner}, so the readiness probe ({@code /actuator/health/readiness})
+ * reports ready only once the warm-up finished or {@code timeout} passed. A failed prefetch only
+ * means that window is fetched on first use.
+ */
+@Component
+@ConditionalOnProperty(name = "app.exchange-rate.warm-up.enabled", havingValue = "true")
+public class ExchangeRateWarmUp implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateWarmUp.class);
+    /** Same window as PurchaseTransactionService uses for a conversion. */
+    private static final int WINDOW_MONTHS = 6;
+
+    private final ITransactionRepository transactionRepository;
+    private final TreasuryExchangeRateService treasuryService;
+    private final ExchangeRateIndex rateIndex;
+    private final List<String> currencies;
+    private final int concurrency;
+    private final Duration timeout;
+
+    public ExchangeRateWarmUp(ITransactionRepository transactionRepository, TreasuryExchangeRateService treasuryService,
+                              ExchangeRateIndex rateIndex, ExchangeRateProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.treasuryService = treasuryService;
+        this.rateIndex = rateIndex;
+        this.currencies = List.copyOf(properties.getWarmUp().getCurrencies());
+        this.concurrency = Math.max(1, properties.getWarmUp().getConcurrency());
+        this.timeout = properties.getWarmUp().getTimeout();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /** Prefetches the rate windows of the stored transactions; returns the number of rates fetched. */
+    public int warmUp() {
+        long started = System.nanoTime();
+        List<Window> windows;
+        try (Stream<PurchaseTransaction> transactions = transactionRepository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, null)) {
+            windows = windows(transactions.map(PurchaseTransaction::getTransactionDate));
+        }
+        if (windows.isEmpty()) {
+            log.info("No stored transactions, skipping exchange rate warm-up");
+            return 0;
+        }
+
+        // One broad query first: it indexes the latest rates of every series and the Treasury
+        // spelling of each, so the per-currency prefetches below can filter on the API side
+        treasuryService.getAvailableCurrencies();
+        List<ExchangeRateCriteria> known = new ArrayList<>();
+        for (String currency : currencies) {
+            ExchangeRateCriteria criteria = ExchangeRateCriteria.of(null, null, currency);
+            if (rateIndex.spelling(criteria).countryCurrencyDesc() != null) known.add(criteria);
+            else log.warn("Skipping warm-up of unknown currency '{}'", currency);
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "exchange-rate-warm-up-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Integer>> prefetches = new ArrayList<>();
+        try {
+            // Newest windows first: recent transactions are the likeliest to be converted
+            for (int i = windows.size() - 1; i >= 0; i--) {
+                Window window = windows.get(i);
+                for (ExchangeRateCriteria criteria : known) {
+                    prefetches.add(pool.submit(() -> treasuryService.prefetchRates(criteria, window.from(), window.to())));
+                }
+            }
+            return await(prefetches, started, windows.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int await(List<Future<Integer>> prefetches, long started, int windows) {
+        long deadline = started + timeout.toNanos();
+        int rates = 0;
+        int failed = 0;
+        int unfinished = 0;
+        for (Future<Integer> prefetch : prefetches) {
+            try {
+                rates += prefetch.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                failed++;
+            } catch (TimeoutException e) {
+                unfinished++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Exchange rate warm-up interrupted");
+                return rates;
+            }
+        }
+        log.info("Exchange rate warm-up fetched {} rates for {} windows in {} ms ({} prefetches failed, {} still running at the {} timeout)",
+            rates, windows, (System.nanoTime() - started) / 1_000_000, failed, unfinished, timeout);
+        return rates;
+    }
+
+    /**
+     * The conversion windows [date - 6 months, date] of the given dates, with overlapping and
+     * adjacent windows merged, in ascending order.
+     */
+    static List<Window> windows(Stream<LocalDate> dates) {
+        List<Window> windows = new ArrayList<>();
+        dates.filter(Objects::nonNull).sorted().distinct().forEachOrdered(date -> {
+            LocalDate from = date.minusMonths(WINDOW_MONTHS);
+            Window last = windows.isEmpty() ? null : windows.get(windows.size() - 1);
+            if (last != null && !from.isAfter(last.to().plusDays(1))) {
+                windows.set(windows.size() - 1, new Window(last.from(), date));
+            } else {
+                windows.add(new Window(from, date));
+            }
+        });
+        return windows;
+    }
+
+    record Window(LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,296 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests: when a call has not answered within the {@code percentile} latency of recent
+ * calls (never less than {@code minDelay}), an identical second call is started, the first of
+ * the two to succeed is returned and the other is cancelled. A call that fails before the delay
+ * is not hedged - retrying is the retry policy's job.
+ *
+ * Hedges are capped by a budget: every call earns {@code budgetRatio} of a hedge, so hedges never
+ * exceed that share of the calls made (10% by default). No call is hedged until
+ * {@value #MIN_SAMPLES} latencies have been observed.
+ *
+ * Blocking calls ({@link #execute}) run both attempts on a pool thread while the caller waits;
+ * the loser is interrupted, and a response body read through {@link #interruptible} stops at its
+ * next read. Non-blocking calls ({@link #executeAsync}) start the hedge from a timer and cancel
+ * the loser's future. One instance serves both Treasury services, so they share the budget and
+ * the latencies. When disabled, calls run directly on the caller's thread. Publishes
+ * {@code <name>.sent}, {@code .won} (hedges that answered first), {@code .skipped} (over budget)
+ * and {@code .delay} (ms).
+ */
+@Component
+public class HedgedRequests {
+    /** Latencies kept for the percentile. */
+    private static final int SAMPLES = 256;
+    private static final int MIN_SAMPLES = 20;
+    /** The delay is recomputed after this many new latencies. */
+    private static final int RECOMPUTE_EVERY = 16;
+    /** Budget units one hedge costs; integral so that ten calls at 10% earn exactly one hedge. */
+    private static final int HEDGE_COST = 1000;
+    /** Unused budget carried over, so a quiet period allows at most ten hedges in a burst. */
+    private static final int MAX_BUDGET = 10 * HEDGE_COST;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int budgetPerCall;
+    private final ExecutorService executor;
+    private final Counter sent;
+    private final Counter won;
+    private final Counter skipped;
+
+    private final long[] latencies = new long[SAMPLES];
+    private int recorded;
+    private long delayNanos = -1;
+    private int budget;
+
+    @Autowired
+    public HedgedRequests(ExchangeRateProperties properties, MeterRegistry meterRegistry) {
+        this(properties.getHedging(), meterRegistry, "treasury.api.hedges");
+    }
+
+    HedgedRequests(ExchangeRateProperties.Hedging settings, MeterRegistry meterRegistry, String name) {
+        this.enabled = settings.isEnabled();
+        this.percentile = Math.min(100, Math.max(0, settings.getPercentile()));
+        this.minDelayNanos = settings.getMinDelay().toNanos();
+        this.budgetPerCall = (int) Math.round(settings.getBudgetRatio() * HEDGE_COST);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "treasury-hedging-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = Counter.builder(name + ".sent")
+            .description("Hedge calls started because the first call was slower than the hedge delay")
+            .register(meterRegistry);
+        this.won = Counter.builder(name + ".won")
+            .description("Hedge calls that answered before the first call")
+            .register(meterRegistry);
+        this.skipped = Counter.builder(name + ".skipped")
+            .description("Slow calls not hedged because the hedge budget was spent")
+            .register(meterRegistry);
+        Gauge.builder(name + ".delay", this, hedging -> hedging.delayNanos() / 1_000_000.0)
+            .description("Current hedge delay in milliseconds (-1 until enough latencies are observed)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code primary} and, if it is slow, {@code hedge} (the same call, typically one that does
+     * not wait for a concurrency slot); returns the first success or throws the first failure.
+     */
+    <T> T execute(Supplier<T> primary, Supplier<T> hedge) {
+        if (!enabled) return primary.get();
+
+        long started = System.nanoTime();
+        earnBudget();
+        ExecutorCompletionService<T> attempts = new ExecutorCompletionService<>(executor);
+        List<Future<T>> running = new ArrayList<>(2);
+        running.add(attempts.submit(primary::get));
+        try {
+            long delay = delayNanos();
+            Future<T> done = delay < 0 ? attempts.take() : attempts.poll(delay, TimeUnit.NANOSECONDS);
+            if (done == null) {
+                if (spendBudget()) {
+                    sent.increment();
+                    running.add(attempts.submit(hedge::get));
+                } else {
+                    skipped.increment();
+                }
+                done = attempts.take();
+            }
+            return firstSuccess(attempts, running, done, started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the Treasury API");
+        } finally {
+            running.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Non-blocking {@link #execute}: starts {@code primary} and, if it has not completed within the
+     * delay, {@code hedge}; the returned future completes with the first success, or the first
+     * failure once both have failed, and the other attempt is cancelled.
+     */
+    <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> primary, Supplier<CompletableFuture<T>> hedge) {
+        if (!enabled) return primary.get();
+
+        long started = System.nanoTime();
+        earnBudget();
+        AsyncAttempts<T> attempts = new AsyncAttempts<>(started);
+        attempts.add(primary.get());
+        long delay = delayNanos();
+        if (delay >= 0) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (attempts.result.isDone()) return;
+                if (spendBudget()) {
+                    sent.increment();
+                    attempts.add(hedge.get());
+                } else {
+                    skipped.increment();
+                }
+            });
+        }
+        return attempts.result;
+    }
+
+    /** The attempts of one non-blocking call and the future they complete. */
+    private final class AsyncAttempts<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long started;
+        private final List<CompletableFuture<T>> running = new ArrayList<>(2);
+        private Throwable firstFailure;
+        private boolean claimed;
+
+        AsyncAttempts(long started) {
+            this.started = started;
+            // The loser is cancelled (before the result completes, when an attempt wins), which also
+            // cancels its HTTP exchange
+            result.whenComplete((value, error) -> cancelAll());
+        }
+
+        void add(CompletableFuture<T> attempt) {
+            boolean hedged;
+            synchronized (this) {
+                hedged = !running.isEmpty();
+                running.add(attempt);
+            }
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (claimWin()) {
+                        record(System.nanoTime() - started);
+                        if (hedged) won.increment();
+                        cancelAll();
+                        result.complete(value);
+                    }
+                } else if (lastToFail(error)) {
+                    result.completeExceptionally(firstFailure);
+                }
+            });
+            if (result.isDone()) attempt.cancel(true);
+        }
+
+        /** True for the first attempt to succeed; the result is completed after its latency is recorded. */
+        private synchronized boolean claimWin() {
+            if (claimed || result.isDone()) return false;
+            claimed = true;
+            return true;
+        }
+
+        private synchronized boolean lastToFail(Throwable error) {
+            if (firstFailure == null) firstFailure = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return running.stream().allMatch(CompletableFuture::isCompletedExceptionally);
+        }
+
+        private void cancelAll() {
+            List<CompletableFuture<T>> attempts;
+            synchronized (this) {
+                attempts = List.copyOf(running);
+            }
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private <T> T firstSuccess(ExecutorCompletionService<T> attempts, List<Future<T>> running,
+                               Future<T> done, long started) throws InterruptedException {
+        ExecutionException firstFailure = null;
+        for (int pending = running.size(); ; done = attempts.take()) {
+            try {
+                T value = done.get();
+                // When the hedge wins, the elapsed time is a lower bound of the primary's latency
+                record(System.nanoTime() - started);
+                if (done != running.get(0)) won.increment();
+                return value;
+            } catch (ExecutionException e) {
+                if (firstFailure == null) firstFailure = e;
+                if (--pending == 0) throw rethrow(firstFailure.getCause());
+            }
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) return runtime;
+        if (cause instanceof Error error) throw error;
+        return new IllegalStateException(cause);
+    }
+
+    private synchronized void earnBudget() {
+        budget = Math.min(MAX_BUDGET, budget + budgetPerCall);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budget < HEDGE_COST) return false;
+        budget -= HEDGE_COST;
+        return true;
+    }
+
+    /** Nanoseconds to wait before hedging, or -1 while too few latencies are known. */
+    synchronized long delayNanos() {
+        return delayNanos;
+    }
+
+    synchronized void record(long latencyNanos) {
+        latencies[recorded % SAMPLES] = latencyNanos;
+        recorded++;
+        if (recorded >= MIN_SAMPLES && (recorded == MIN_SAMPLES || recorded % RECOMPUTE_EVERY == 0)) {
+            long[] sorted = Arrays.copyOf(latencies, Math.min(recorded, SAMPLES));
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Wraps a response body so a cancelled (interrupted) attempt stops reading it. */
+    static InputStream interruptible(InputStream body) {
+        return new FilterInputStream(body) {
+            @Override
+            public int read() throws IOException {
+                checkInterrupted();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                checkInterrupted();
+                return super.read(buffer, offset, length);
+            }
+
+            private void checkInterrupted() throws InterruptedIOException {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Hedged Treasury call cancelled");
+                }
+            }
+        };
+    }
+}
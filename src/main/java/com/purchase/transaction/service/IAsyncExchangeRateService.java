@@ -0,0 +1,13 @@
+package com.purchase.transaction.service;
+import com.purchase.transaction.model.ExchangeRate;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The conversion lookup of {@link IExchangeRateService} without blocking: it returns at once and
+ * completes when the rate is known.
+ */
+public interface IAsyncExchangeRateService {
+    CompletableFuture<Optional<ExchangeRate>> getMostRecentExchangeRateWithinRange(String country, String currency, String country_currency_desc, LocalDate fromDate, LocalDate toDate);
+}
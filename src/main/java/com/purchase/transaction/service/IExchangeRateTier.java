@@ -0,0 +1,43 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One source of exchange rates in the {@link ExchangeRateProviderChain}. A tier answers only when
+ * its answer is authoritative - the same the Treasury API would give - and returns null
+ * otherwise, so the lookup moves on to the next tier. An empty list or {@code Optional.empty()}
+ * is an answer: no rate was published.
+ *
+ * Tiers are Spring beans, consulted in {@code @Order}, cheapest first. The {@code Async} form of
+ * the conversion lookup serves {@link AsyncExchangeRateProviderChain}; it defaults to the
+ * blocking method, for tiers that answer from memory.
+ */
+public interface IExchangeRateTier {
+    /** Tier name, recorded as the {@code tier} tag of {@code exchange.rate.lookups}. */
+    String getName();
+
+    /** Every rate effective on the date, or null if this tier cannot tell. */
+    List<ExchangeRate> getExchangeRatesForDate(LocalDate date);
+
+    /** The currency's rate effective on the date, or null if this tier cannot tell. */
+    Optional<ExchangeRate> getExchangeRateForCurrency(String currencyCode, LocalDate date);
+
+    /** Most recent matching rate effective in [startDate, endDate], or null if this tier cannot tell. */
+    Optional<ExchangeRate> getMostRecentExchangeRateWithinRange(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate);
+
+    /** Currencies with a rate in the last six months, or null if this tier cannot tell. */
+    List<String> getAvailableCurrencies();
+
+    /**
+     * {@link #getMostRecentExchangeRateWithinRange} without blocking; {@code deadline} is the
+     * {@link RequestDeadline} of the request served, read where the lookup started (null without one).
+     */
+    default CompletableFuture<Optional<ExchangeRate>> getMostRecentExchangeRateWithinRangeAsync(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate, Long deadline) {
+        return CompletableFuture.completedFuture(getMostRecentExchangeRateWithinRange(criteria, startDate, endDate));
+    }
+}
@@ -1,15 +1,24 @@
 package com.purchase.transaction.service;
+import com.purchase.transaction.model.BulkIngestionReport;
 import com.purchase.transaction.model.ConvertedTransaction;
 import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionDraft;
+import com.purchase.transaction.model.TransactionPage;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public interface IPurchaseTransactionService {
     PurchaseTransaction createTransaction(String description, LocalDate transactionDate, BigDecimal amount);
+    BulkIngestionReport createTransactions(List<TransactionDraft> drafts);
     PurchaseTransaction getTransaction(String transactionId);
     List<PurchaseTransaction> getAllTransactions();
+    TransactionPage getTransactionPage(LocalDate from, LocalDate to, String after, Integer limit);
+    Stream<PurchaseTransaction> streamTransactions(LocalDate from, LocalDate to, String after, Integer limit);
     void deleteTransaction(String transactionId);
     ConvertedTransaction convertTransaction(String transactionId, String country, String currency, String country_currency_desc);
+    CompletableFuture<ConvertedTransaction> convertTransactionAsync(String transactionId, String country, String currency, String country_currency_desc);
     List<String> getAvailableCurrencies();
 }
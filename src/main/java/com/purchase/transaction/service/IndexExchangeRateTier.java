@@ -0,0 +1,63 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * First tier: the in-memory {@link ExchangeRateIndex}. It answers for dates the index holds
+ * completely - fetched windows, the preloaded dataset, imported files and intervals replayed from
+ * the persistent rate cache. Skipped when neither the cache nor the preload is enabled.
+ */
+@Component
+@Order(100)
+public class IndexExchangeRateTier implements IExchangeRateTier {
+    private final ExchangeRateIndex rateIndex;
+    private final boolean enabled;
+
+    public IndexExchangeRateTier(ExchangeRateIndex rateIndex,
+                                 @Value("${app.exchange-rate.cache-enabled:true}") boolean cacheEnabled,
+                                 @Value("${app.exchange-rate.preload.enabled:false}") boolean preloadEnabled) {
+        this.rateIndex = rateIndex;
+        this.enabled = cacheEnabled || preloadEnabled;
+    }
+
+    @Override
+    public String getName() {
+        return "index";
+    }
+
+    @Override
+    public List<ExchangeRate> getExchangeRatesForDate(LocalDate date) {
+        if (!enabled || !rateIndex.covers(date, date)) return null;
+        return rateIndex.ratesOn(date);
+    }
+
+    @Override
+    public Optional<ExchangeRate> getExchangeRateForCurrency(String currencyCode, LocalDate date) {
+        if (!enabled || !rateIndex.covers(date, date)) return null;
+        return rateIndex.ratesOn(date).stream()
+            .filter(rate -> currencyCode.equalsIgnoreCase(rate.getCurrencyCode()))
+            .findFirst();
+    }
+
+    @Override
+    public Optional<ExchangeRate> getMostRecentExchangeRateWithinRange(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        if (!enabled) return null;
+        ExchangeRateIndex.Lookup lookup = rateIndex.findCovered(criteria, startDate, endDate);
+        return lookup.covered() ? lookup.rate() : null;
+    }
+
+    @Override
+    public List<String> getAvailableCurrencies() {
+        LocalDate today = LocalDate.now();
+        LocalDate since = today.minusMonths(6);
+        if (!enabled || !rateIndex.covers(since, today)) return null;
+        return rateIndex.currencyCodesSince(since);
+    }
+}
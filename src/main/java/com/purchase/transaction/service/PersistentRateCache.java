@@ -0,0 +1,191 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps fetched exchange rates in {@code exchange-rates.ndjson} under {@code app.repository.path},
+ * so a restart does not begin with an empty cache. Treasury rates for past dates never change,
+ * so entries never expire. One JSON object per line, appended as rates are fetched:
+ * <ul>
+ *   <li>a rate, with {@code key} set if it was also cached under that (currency, date) key</li>
+ *   <li>a covered interval ({@code coveredFrom}, {@code coveredTo}) of the rate index</li>
+ * </ul>
+ * On startup the file is replayed into the exchange rate cache and {@link ExchangeRateIndex}.
+ * A torn last line from a crash is skipped. Disabled unless
+ * {@code app.exchange-rate.persistent-cache.enabled=true}; then every method is a no-op.
+ */
+@Component
+public class PersistentRateCache {
+    private static final Logger log = LoggerFactory.getLogger(PersistentRateCache.class);
+
+    static final String FILENAME = "exchange-rates.ndjson";
+
+    private final boolean enabled;
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    /** Series and date of every rate already in the file, so refetched rates are not appended twice. */
+    private final Set<String> written = ConcurrentHashMap.newKeySet();
+    private Writer writer;
+
+    public PersistentRateCache(ObjectMapper objectMapper,
+                               @Value("${app.repository.path:./data}") String repositoryPath,
+                               @Value("${app.exchange-rate.persistent-cache.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.file = Paths.get(repositoryPath).resolve(FILENAME);
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /** A cache that neither loads nor saves anything. */
+    public static PersistentRateCache disabled() {
+        return new PersistentRateCache(new ObjectMapper(), ".", false);
+    }
+
+    /** Replays the file into the given cache and index. */
+    public synchronized void load(ExchangeRateCache cache, ExchangeRateIndex index) {
+        if (!enabled || !Files.exists(file)) return;
+        long started = System.nanoTime();
+        int rates = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) continue;
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    if (node.has("coveredFrom")) {
+                        // Coverage of dates still recent may be missing rows published since it was written
+                        LocalDate coveredTo = LocalDate.parse(node.get("coveredTo").asText());
+                        LocalDate settled = index.settledThrough();
+                        index.addAll(List.of(), LocalDate.parse(node.get("coveredFrom").asText()),
+                            coveredTo.isAfter(settled) ? settled : coveredTo);
+                        continue;
+                    }
+                    ExchangeRate rate = new ExchangeRate(
+                        node.path("code").asText(),
+                        node.path("desc").asText(),
+                        node.path("currency").asText(),
+                        new BigDecimal(node.path("rate").asText()),
+                        LocalDate.parse(node.path("date").asText()),
+                        node.path("country").asText());
+                    index.addAll(List.of(rate));
+                    written.add(identity(rate));
+                    if (node.hasNonNull("key")) cache.putIfAbsent(node.get("key").asText(), rate);
+                    rates++;
+                } catch (Exception e) {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read exchange rate cache file {}: {}", file, e.getMessage());
+        }
+        log.info("Loaded {} cached exchange rates from {} in {} ms ({} unreadable lines skipped)",
+            rates, file, (System.nanoTime() - started) / 1_000_000, skipped);
+    }
+
+    /** Appends rates not yet in the file. */
+    public void saveRates(Collection<ExchangeRate> rates) {
+        if (!enabled || rates.isEmpty()) return;
+        StringWriter lines = new StringWriter();
+        for (ExchangeRate rate : rates) {
+            if (rate.getEffectiveDate() != null && written.add(identity(rate))) writeRate(lines, null, rate);
+        }
+        append(lines.toString());
+    }
+
+    /** Appends a rate cached under a (currency, date) key. */
+    public void saveCached(String cacheKey, ExchangeRate rate) {
+        if (!enabled || rate.getEffectiveDate() == null) return;
+        written.add(identity(rate));
+        StringWriter line = new StringWriter();
+        writeRate(line, cacheKey, rate);
+        append(line.toString());
+    }
+
+    /** Appends an interval in which the rate index holds every published rate. */
+    public void saveCoverage(LocalDate from, LocalDate to) {
+        if (!enabled || from.isAfter(to)) return;
+        StringWriter line = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(line)) {
+            generator.writeStartObject();
+            generator.writeStringField("coveredFrom", from.toString());
+            generator.writeStringField("coveredTo", to.toString());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(line + "\n");
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Could not close exchange rate cache file {}: {}", file, e.getMessage());
+        }
+        writer = null;
+    }
+
+    private void writeRate(StringWriter out, String cacheKey, ExchangeRate rate) {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            if (cacheKey != null) generator.writeStringField("key", cacheKey);
+            generator.writeStringField("code", rate.getCurrencyCode());
+            generator.writeStringField("desc", rate.getCurrencyName());
+            generator.writeStringField("currency", rate.getCurrencySimpleName());
+            generator.writeStringField("rate", rate.getExchangeRate().toPlainString());
+            generator.writeStringField("date", rate.getEffectiveDate().toString());
+            generator.writeStringField("country", rate.getCountryCode());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        out.write('\n');
+    }
+
+    /** Losing the cache file only costs refetching, so write failures are logged and dropped. */
+    private synchronized void append(String lines) {
+        if (lines.isEmpty()) return;
+        try {
+            if (writer == null) {
+                Files.createDirectories(file.getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(lines);
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Could not write exchange rate cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String identity(ExchangeRate rate) {
+        return rate.getCountryCode() + '|' + rate.getCurrencySimpleName() + '|' + rate.getCurrencyName() + '|' + rate.getEffectiveDate();
+    }
+}
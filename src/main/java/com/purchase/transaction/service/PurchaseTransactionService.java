@@ -3,9 +3,14 @@ package com.purchase.transaction.service;
 import com.purchase.transaction.exception.ExchangeRateRetrievalException;
 import com.purchase.transaction.exception.TransactionNotFoundException;
 import com.purchase.transaction.exception.TransactionValidationException;
+import com.purchase.transaction.model.BulkIngestionReport;
+import com.purchase.transaction.model.BulkTransactionResult;
 import com.purchase.transaction.model.ConvertedTransaction;
 import com.purchase.transaction.model.ExchangeRate;
 import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+import com.purchase.transaction.model.TransactionDraft;
+import com.purchase.transaction.model.TransactionPage;
 import com.purchase.transaction.repository.ITransactionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,25 +19,80 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @Service
 public class PurchaseTransactionService implements IPurchaseTransactionService {
     private static final Logger log = LoggerFactory.getLogger(PurchaseTransactionService.class);
+    /** Page size when a page is requested without a limit. */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    /** Largest page a request may ask for; the NDJSON stream is written as it is read and has no cap. */
+    public static final int MAX_PAGE_SIZE = 1000;
     
     private final ITransactionRepository transactionRepository;
     private final IExchangeRateService exchangeRateService;
+    private final IAsyncExchangeRateService asyncExchangeRateService;
     
-    public PurchaseTransactionService(ITransactionRepository transactionRepository, IExchangeRateService exchangeRateService) {
+    public PurchaseTransactionService(ITransactionRepository transactionRepository, IExchangeRateService exchangeRateService,
+                                      IAsyncExchangeRateService asyncExchangeRateService) {
         this.transactionRepository = transactionRepository;
         this.exchangeRateService = exchangeRateService;
+        this.asyncExchangeRateService = asyncExchangeRateService;
     }
     
     @Override
     public PurchaseTransaction createTransaction(String description, LocalDate transactionDate, BigDecimal amount) {
         log.info("Creating new transaction: description='{}', date={}, amount={}", description, transactionDate, amount);
         
+        PurchaseTransaction transaction = buildTransaction(description, transactionDate, amount);
+        
+        PurchaseTransaction savedTransaction = transactionRepository.save(transaction);
+        log.info("Successfully created transaction with ID: {}", savedTransaction.getTransactionId());
+        return savedTransaction;
+    }
+    
+    @Override
+    public BulkIngestionReport createTransactions(List<TransactionDraft> drafts) {
+        log.info("Creating {} transactions in bulk", drafts.size());
+        BulkTransactionResult[] results = new BulkTransactionResult[drafts.size()];
+        List<PurchaseTransaction> accepted = new ArrayList<>(drafts.size());
+        for (int index = 0; index < drafts.size(); index++) {
+            TransactionDraft draft = drafts.get(index);
+            try {
+                if (draft == null) throw new TransactionValidationException("Entry is missing or is not a valid transaction object");
+                PurchaseTransaction transaction = buildTransaction(draft.description(), parseTransactionDate(draft.transactionDate()), draft.amount());
+                accepted.add(transaction);
+                results[index] = BulkTransactionResult.created(index, transaction.getTransactionId());
+            } catch (TransactionValidationException e) {
+                results[index] = BulkTransactionResult.rejected(index, e.getMessage());
+            }
+        }
+        
+        // Every valid entry is persisted in one pass
+        transactionRepository.saveAll(accepted);
+        
+        BulkIngestionReport report = BulkIngestionReport.of(Arrays.asList(results));
+        log.info("Bulk import finished: {} created, {} rejected", report.created(), report.rejected());
+        return report;
+    }
+    
+    private static LocalDate parseTransactionDate(String transactionDate) {
+        if (transactionDate == null) 
+            throw new TransactionValidationException("Transaction date cannot be null");
+        try {
+            return LocalDate.parse(transactionDate);
+        } catch (DateTimeParseException e) {
+            throw new TransactionValidationException("Invalid transactionDate format. Expected yyyy-MM-dd: " + transactionDate);
+        }
+    }
+    
+    private PurchaseTransaction buildTransaction(String description, LocalDate transactionDate, BigDecimal amount) {
         if (description == null || description.trim().isEmpty()) 
             throw new TransactionValidationException("Description cannot be null or empty");
         if (description.length() > 50) 
@@ -54,9 +114,7 @@ public class PurchaseTransactionService implements IPurchaseTransactionService {
         if (!transaction.isValid()) 
             throw new TransactionValidationException("Transaction validation failed");
         
-        PurchaseTransaction savedTransaction = transactionRepository.save(transaction);
-        log.info("Successfully created transaction with ID: {}", savedTransaction.getTransactionId());
-        return savedTransaction;
+        return transaction;
     }
     
     @Override
@@ -80,6 +138,42 @@ public class PurchaseTransactionService implements IPurchaseTransactionService {
         return transactions;
     }
     
+    @Override
+    public TransactionPage getTransactionPage(LocalDate from, LocalDate to, String after, Integer limit) {
+        log.debug("Retrieving transactions page: from={}, to={}, after={}, limit={}", from, to, after, limit);
+        if (limit != null && limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Limit must not exceed %d".formatted(MAX_PAGE_SIZE));
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        List<PurchaseTransaction> transactions;
+        try (Stream<PurchaseTransaction> stream = streamTransactions(from, to, after, pageSize)) {
+            transactions = stream.toList();
+        }
+        // A full page may be followed by more; the client stops at the first page without a cursor
+        String nextCursor = transactions.size() == pageSize
+            ? TransactionCursor.of(transactions.get(transactions.size() - 1)).encode()
+            : null;
+        log.info("Retrieved {} transactions dated between {} and {}", transactions.size(), from, to);
+        return new TransactionPage(transactions, nextCursor);
+    }
+    
+    @Override
+    public Stream<PurchaseTransaction> streamTransactions(LocalDate from, LocalDate to, String after, Integer limit) {
+        LocalDate start = from != null ? from : LocalDate.MIN;
+        LocalDate end = to != null ? to : LocalDate.MAX;
+        if (start.isAfter(end))
+            throw new IllegalArgumentException("'from' date %s must not be after 'to' date %s".formatted(from, to));
+        if (limit != null && limit <= 0)
+            throw new IllegalArgumentException("Limit must be a positive number");
+        TransactionCursor cursor = after != null && !after.isBlank() ? TransactionCursor.decode(after) : null;
+        
+        Stream<PurchaseTransaction> transactions = transactionRepository.streamByTransactionDate(start, end, cursor);
+        // Undated transactions sort before every date, so only a range open at the start lists them
+        if (from == null && (cursor == null || cursor.transactionDate() == null)) {
+            transactions = Stream.concat(transactionRepository.streamUndated(cursor != null ? cursor.transactionId() : null), transactions);
+        }
+        return limit != null ? transactions.limit(limit) : transactions;
+    }
+    
     @Override
     public void deleteTransaction(String transactionId) {
         log.info("Deleting transaction with ID: {}", transactionId);
@@ -96,6 +190,30 @@ public class PurchaseTransactionService implements IPurchaseTransactionService {
     
     @Override
     public ConvertedTransaction convertTransaction(String transactionId, String country, String currency, String country_currency_desc) {
+        PurchaseTransaction transaction = transactionToConvert(transactionId, country, currency, country_currency_desc);
+        
+        // Requirement: Use the latest exchange rate <= purchase date within the last 6 months
+        LocalDate purchaseDate = transaction.getTransactionDate();
+        Optional<ExchangeRate> maybeRate = exchangeRateService.getMostRecentExchangeRateWithinRange(
+                country, currency, country_currency_desc, purchaseDate.minusMonths(6), purchaseDate);
+        return convert(transaction, maybeRate, country, currency, country_currency_desc);
+    }
+    
+    /**
+     * Same as {@link #convertTransaction}, but the rate lookup does not hold the calling thread:
+     * the result completes when the rate is known, failing as convertTransaction would throw.
+     */
+    @Override
+    public CompletableFuture<ConvertedTransaction> convertTransactionAsync(String transactionId, String country, String currency, String country_currency_desc) {
+        PurchaseTransaction transaction = transactionToConvert(transactionId, country, currency, country_currency_desc);
+        
+        LocalDate purchaseDate = transaction.getTransactionDate();
+        return asyncExchangeRateService.getMostRecentExchangeRateWithinRange(
+                country, currency, country_currency_desc, purchaseDate.minusMonths(6), purchaseDate)
+            .thenApply(maybeRate -> convert(transaction, maybeRate, country, currency, country_currency_desc));
+    }
+    
+    private PurchaseTransaction transactionToConvert(String transactionId, String country, String currency, String country_currency_desc) {
         log.info("Converting transaction {} with country={}, currency={}, country_currency_desc={}", 
                 transactionId, country, currency, country_currency_desc);
         
@@ -109,14 +227,12 @@ public class PurchaseTransactionService implements IPurchaseTransactionService {
             throw new IllegalArgumentException("Must specify at least one of: country, currency, or country_currency_desc");
         }
         
-        PurchaseTransaction transaction = getTransaction(transactionId);
-        
-        // Requirement: Use the latest exchange rate <= purchase date within the last 6 months
+        return getTransaction(transactionId);
+    }
+    
+    private ConvertedTransaction convert(PurchaseTransaction transaction, Optional<ExchangeRate> maybeRate,
+                                         String country, String currency, String country_currency_desc) {
         LocalDate purchaseDate = transaction.getTransactionDate();
-        LocalDate cutoffDate = purchaseDate.minusMonths(6);
-
-        Optional<ExchangeRate> maybeRate = exchangeRateService.getMostRecentExchangeRateWithinRange(
-                country, currency, country_currency_desc, cutoffDate, purchaseDate);
         if (maybeRate.isEmpty()) {
             String msg = String.format("Cannot convert purchase to target currency (country=%s, currency=%s, country_currency_desc=%s): no exchange rate within 6 months on or before %s",
                     country, currency, country_currency_desc, purchaseDate);
@@ -142,7 +258,7 @@ public class PurchaseTransactionService implements IPurchaseTransactionService {
         );
         
         log.info("Successfully converted transaction {} to (country={}, currency={}, country_currency_desc={}): {} -> {}", 
-                transactionId, country, currency, country_currency_desc, transaction.getAmount(), convertedAmount);
+                transaction.getTransactionId(), country, currency, country_currency_desc, transaction.getAmount(), convertedAmount);
         return converted;
     }
     
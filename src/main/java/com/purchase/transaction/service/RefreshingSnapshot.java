@@ -0,0 +1,71 @@
+package com.purchase.transaction.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A value that is loaded once and then served stale-while-revalidate: readers always get the
+ * last loaded value without waiting, and a read after {@code staleAfter} starts a reload in the
+ * background. At most one background reload runs at a time, and a failed reload keeps the
+ * previous value. The loaded value should be immutable, since every reader shares it.
+ */
+final class RefreshingSnapshot<T> {
+    private static final Logger log = LoggerFactory.getLogger(RefreshingSnapshot.class);
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final long staleAfterNanos;
+    private final Executor executor;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile Loaded<T> current;
+
+    RefreshingSnapshot(String name, Supplier<T> loader, Duration staleAfter, Executor executor) {
+        this.name = name;
+        this.loader = loader;
+        this.staleAfterNanos = staleAfter.toNanos();
+        this.executor = executor;
+    }
+
+    /** The last loaded value, or null if none has been loaded yet. */
+    T get() {
+        Loaded<T> loaded = current;
+        if (loaded == null) return null;
+        if (System.nanoTime() - loaded.loadedAt() >= staleAfterNanos) reloadInBackground();
+        return loaded.value();
+    }
+
+    /** Loads a value on the calling thread and serves it from now on; throws if the loader does. */
+    T load() {
+        T value = loader.get();
+        current = new Loaded<>(value, System.nanoTime());
+        return value;
+    }
+
+    /** Starts a reload on the executor unless one is already running. */
+    void reloadInBackground() {
+        if (!reloading.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    load();
+                    log.debug("Reloaded {}", name);
+                } catch (RuntimeException e) {
+                    log.warn("Reloading {} failed, serving the previous snapshot: {}", name, e.getMessage());
+                } finally {
+                    reloading.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reloading.set(false);
+        }
+    }
+
+    private record Loaded<T>(T value, long loadedAt) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.purchase.transaction.service;
+
+import java.time.Duration;
+
+/**
+ * The deadline of the HTTP request the current thread is serving, set by
+ * {@code RequestDeadlineFilter} for the duration of the request. Treasury API retries are
+ * skipped once too little of it is left. Threads that serve no request (scheduled refreshes,
+ * warm-up, reactive callbacks) have no deadline, so work that continues on them is handed the
+ * request's deadline, read with {@link #current} where it started.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /** Starts a deadline of {@code timeout} from now on the current thread. */
+    public static void start(Duration timeout) {
+        DEADLINE.set(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /** The current thread's deadline (a System.nanoTime() value), or null without one. */
+    public static Long current() {
+        return DEADLINE.get();
+    }
+
+    /** Nanoseconds left before the deadline (negative once passed), or Long.MAX_VALUE without one. */
+    public static long remainingNanos() {
+        return remainingNanos(DEADLINE.get());
+    }
+
+    /** Nanoseconds left before a deadline read with {@link #current}, or Long.MAX_VALUE for null. */
+    public static long remainingNanos(Long deadline) {
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+}
@@ -0,0 +1,69 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket shared by every retry of a Treasury API call: each successful call deposits
+ * {@code budgetRatio} of a token and each retry withdraws one, so retries stay a fixed share of
+ * the successful traffic (10% by default) instead of multiplying the load while the API
+ * struggles. The bucket holds at most {@code maxTokens} and starts full, which allows a few
+ * retries before any call has succeeded.
+ *
+ * Publishes {@code treasury.api.retries.tokens}, {@code treasury.api.retries} (retries made) and
+ * {@code treasury.api.retries.denied} (retries skipped for want of a token).
+ */
+@Component
+public class RetryBudget {
+    /** Token units per retry; integral so that ten successes at 10% earn exactly one retry. */
+    private static final int RETRY_COST = 1000;
+
+    private final int depositPerSuccess;
+    private final int maxUnits;
+    private final Counter retries;
+    private final Counter denied;
+    private int units;
+
+    public RetryBudget(ExchangeRateProperties properties, MeterRegistry meterRegistry) {
+        ExchangeRateProperties.Retry settings = properties.getRetry();
+        this.depositPerSuccess = (int) Math.round(settings.getBudgetRatio() * RETRY_COST);
+        this.maxUnits = Math.max(1, settings.getMaxTokens()) * RETRY_COST;
+        this.units = maxUnits;
+        Gauge.builder("treasury.api.retries.tokens", this, RetryBudget::getTokens)
+            .description("Retries the Treasury API retry budget currently allows")
+            .register(meterRegistry);
+        this.retries = Counter.builder("treasury.api.retries")
+            .description("Treasury API calls retried")
+            .register(meterRegistry);
+        this.denied = Counter.builder("treasury.api.retries.denied")
+            .description("Treasury API retries skipped because the retry budget was spent")
+            .register(meterRegistry);
+    }
+
+    /** Credits a successful Treasury API call. */
+    public synchronized void recordSuccess() {
+        units = Math.min(maxUnits, units + depositPerSuccess);
+    }
+
+    /** True if a retry would be allowed now; counts a denied retry if not. */
+    public synchronized boolean canRetry() {
+        if (units >= RETRY_COST) return true;
+        denied.increment();
+        return false;
+    }
+
+    /**
+     * Takes the token of a retry that is about to happen. Concurrent retries that all passed
+     * {@link #canRetry} may overdraw the bucket by a token each; later successes repay it.
+     */
+    public synchronized void withdraw() {
+        units -= RETRY_COST;
+        retries.increment();
+    }
+
+    public synchronized double getTokens() {
+        return (double) units / RETRY_COST;
+    }
+}
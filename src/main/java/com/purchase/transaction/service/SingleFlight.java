@@ -0,0 +1,96 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: while a call for a key is in flight, further callers with the same key
+ * wait for its result instead of starting their own. The first caller runs the call on its
+ * own thread; the others receive the same value or the same exception. Nothing is cached -
+ * the key is free again as soon as the call completes.
+ *
+ * Publishes {@code <name>.calls} (calls actually made), {@code <name>.coalesced} (callers that
+ * shared another's call) and {@code <name>.in-flight}.
+ */
+final class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter calls;
+    private final Counter coalesced;
+
+    SingleFlight(MeterRegistry meterRegistry, String name) {
+        this.calls = Counter.builder(name + ".calls")
+            .description("Calls made on behalf of one or more callers")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder(name + ".coalesced")
+            .description("Callers that shared an identical call already in flight")
+            .register(meterRegistry);
+        Gauge.builder(name + ".in-flight", inFlight, Map::size)
+            .description("Distinct calls currently in flight")
+            .register(meterRegistry);
+    }
+
+    V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        calls.increment();
+        try {
+            V value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Non-blocking form of {@link #execute}: the first caller starts the call, the others get
+     * the same future. The key is freed when the call's future completes.
+     */
+    CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        calls.increment();
+        try {
+            call.get().whenComplete((value, error) -> {
+                inFlight.remove(key, mine);
+                if (error != null) mine.completeExceptionally(error);
+                else mine.complete(value);
+            });
+        } catch (Throwable t) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(t);
+        }
+        return mine;
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * The HTTP call to the Treasury API, kept apart from {@link TreasuryExchangeRateService} so the
+ * CONCURRENCY LIMIT applies per request actually sent: callers that coalesce onto an identical
+ * in-flight request (see {@link SingleFlight}) wait without holding a slot.
+ */
+@Component
+public class TreasuryApiClient {
+    private final RestTemplate restTemplate;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RetryBudget retryBudget;
+
+    public TreasuryApiClient(RestTemplate restTemplate, RestTemplateBuilder restTemplateBuilder) {
+        this(restTemplate, restTemplateBuilder, new AdaptiveConcurrencyLimiter(new ExchangeRateProperties(), new SimpleMeterRegistry()),
+             new RetryBudget(new ExchangeRateProperties(), new SimpleMeterRegistry()));
+    }
+
+    // Prefer an injected RestTemplate when available (tests often provide one),
+    // otherwise build one from RestTemplateBuilder for runtime usage.
+    @Autowired
+    public TreasuryApiClient(@Autowired(required = false) RestTemplate restTemplate, RestTemplateBuilder restTemplateBuilder,
+                             AdaptiveConcurrencyLimiter limiter, RetryBudget retryBudget) {
+        this.restTemplate = restTemplate != null ? restTemplate : restTemplateBuilder.build();
+        this.limiter = limiter;
+        this.retryBudget = retryBudget;
+    }
+
+    /** Consumes a response body as it arrives. */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    /**
+     * GETs a fully built Treasury API URL and hands the response body stream to {@code reader},
+     * so the response is parsed while it is received rather than buffered as a String first.
+     *
+     * RESILIENCE PATTERNS APPLIED:
+     * - Adaptive concurrency limit: Waits up to 500ms for a slot, then fails with
+     *   LimitExceededException; the call's latency or failure adjusts the limit
+     */
+    public <T> T get(String url, BodyReader<T> reader) {
+        return execute(limiter.acquire(), url, reader);
+    }
+
+    /**
+     * Like {@link #get}, but fails at once with LimitExceededException instead of waiting when
+     * the concurrency limit is reached; used for hedge calls, which must not queue for a slot.
+     */
+    public <T> T tryGet(String url, BodyReader<T> reader) {
+        return execute(limiter.tryAcquire(), url, reader);
+    }
+
+    private <T> T execute(AdaptiveConcurrencyLimiter.Permit permit, String url, BodyReader<T> reader) {
+        try {
+            // The URL is already encoded (TreasuryQuery); a String would be encoded a second time
+            T result = restTemplate.execute(URI.create(url), HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                    response -> reader.read(response.getBody()));
+            permit.complete(null);
+            retryBudget.recordSuccess();
+            return result;
+        } catch (RuntimeException | Error e) {
+            permit.complete(e);
+            throw e;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.purchase.transaction.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.purchase.transaction.exception.ExchangeRateRetrievalException;
 import com.purchase.transaction.model.ExchangeRate;
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import com.purchase.transaction.service.TreasuryRateParser.Page;
+import com.purchase.transaction.service.TreasuryRateParser.RowFilter;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +19,12 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.io.IOException;
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Treasury Exchange Rate Service with Resilience Patterns
@@ -32,31 +36,42 @@ import java.util.concurrent.ConcurrentHashMap;
  *    - Waits 30 seconds before attempting recovery
  *    - Provides fallback methods to return cached data
  * 
- * 2. BULKHEAD: Limits concurrent calls to prevent resource exhaustion
- *    - Maximum 10 concurrent calls to Treasury API
+ * 2. ADAPTIVE CONCURRENCY LIMIT (BULKHEAD): Limits concurrent calls to prevent resource exhaustion
+ *    - Starts at 10 concurrent calls to Treasury API and adapts between 2 and 20 to its latency
+ *      (AdaptiveConcurrencyLimiter, applied in TreasuryApiClient)
  *    - Prevents Treasury API from consuming all application threads
  *    - Works with connection pool limits in RestTemplateConfig
  * 
+ * Identical requests issued concurrently are coalesced into one HTTP call (SingleFlight), so a
+ * burst of conversions for the same window costs one concurrency slot, not one per caller.
+ * Optionally (app.exchange-rate.hedging.enabled) a call slower than the recent p95 is hedged
+ * with a second identical call, for at most 10% extra calls (HedgedRequests).
+ * 
  * 3. RETRY: Automatically retries transient failures
- *    - Up to 3 retry attempts with exponential backoff
+ *    - Up to 3 attempts with jittered sub-second backoff (TreasuryRetryPolicy)
+ *    - Retries are limited by a budget shared by all calls and skipped near the request deadline
  *    - Useful for network hiccups and temporary service issues
  * 
  * 4. TIME LIMITER: Prevents calls from hanging indefinitely
  *    - 10-second timeout per call
  *    - Prevents thread starvation from slow external services
+ *    - Only enforced by AsyncTreasuryExchangeRateService; here the RestTemplate timeouts apply
  */
 @Service
 public class TreasuryExchangeRateService implements IExchangeRateService {
     private static final Logger log = LoggerFactory.getLogger(TreasuryExchangeRateService.class);
-    private static final String DEFAULT_TREASURY_API_URL = "https://api.fiscaldata.treasury.gov/services/api/fiscal_service/v1/accounting/od/rates_of_exchange";
-    
-    
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-    private final Map<String, ExchangeRate> exchangeRateCache;
-    private final String treasuryApiUrl;
+    private final TreasuryApiClient apiClient;
+    private final SingleFlight<String, Page> requests;
+    private final HedgedRequests hedging;
+    private final TreasuryRateParser parser;
+    private final ExchangeRateCache exchangeRateCache;
+    private final ExchangeRateIndex rateIndex;
+    private final TreasuryRateResults results;
+    private final TreasuryQuery query;
+    private final RefreshingSnapshot<List<String>> availableCurrencies;
+    private final ScheduledExecutorService currencyRefresher;
+    private final Duration currencyRefreshInterval;
     
     @Value("${app.exchange-rate.cache-enabled:true}")
     private boolean cacheEnabled;
@@ -66,31 +81,74 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
         this.cacheEnabled = enabled;
     }
     
-    // Single constructor: prefer an injected RestTemplate when available (tests often provide one),
-    // otherwise build one from RestTemplateBuilder for runtime usage.
-    public TreasuryExchangeRateService(@Autowired(required = false) RestTemplate restTemplate,
+    public TreasuryExchangeRateService(RestTemplate restTemplate,
                                       RestTemplateBuilder restTemplateBuilder,
                                       ObjectMapper objectMapper,
-                                      @Value("${app.exchange-rate.url:}") String treasuryApiUrl) {
-        this.restTemplate = restTemplate != null ? restTemplate : restTemplateBuilder.build();
-        this.objectMapper = objectMapper;
-        this.exchangeRateCache = new ConcurrentHashMap<>();
-        this.treasuryApiUrl = (treasuryApiUrl == null || treasuryApiUrl.isBlank()) ? DEFAULT_TREASURY_API_URL : treasuryApiUrl;
+                                      String treasuryApiUrl) {
+        this(new TreasuryApiClient(restTemplate, restTemplateBuilder), objectMapper, treasuryApiUrl,
+             new ExchangeRateIndex(), defaultCache(), new SimpleMeterRegistry(), PersistentRateCache.disabled(),
+             new ExchangeRateProperties(), new HedgedRequests(new ExchangeRateProperties(), new SimpleMeterRegistry()));
+    }
+    
+    @Autowired
+    public TreasuryExchangeRateService(TreasuryApiClient apiClient,
+                                      ObjectMapper objectMapper,
+                                      @Value("${app.exchange-rate.url:}") String treasuryApiUrl,
+                                      ExchangeRateIndex rateIndex,
+                                      ExchangeRateCache exchangeRateCache,
+                                      MeterRegistry meterRegistry,
+                                      PersistentRateCache persistentCache,
+                                      ExchangeRateProperties properties,
+                                      HedgedRequests hedging) {
+        this.apiClient = apiClient;
+        this.requests = new SingleFlight<>(meterRegistry, "treasury.api.requests");
+        this.hedging = hedging;
+        this.parser = new TreasuryRateParser(objectMapper);
+        this.exchangeRateCache = exchangeRateCache;
+        this.rateIndex = rateIndex;
+        this.results = new TreasuryRateResults(rateIndex, exchangeRateCache, persistentCache);
+        persistentCache.load(exchangeRateCache, rateIndex);
+        this.query = new TreasuryQuery(treasuryApiUrl);
+        this.currencyRefresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "available-currencies-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.currencyRefreshInterval = properties.getCurrencies().getRefreshInterval();
+        this.availableCurrencies = new RefreshingSnapshot<>("available currencies", this::fetchAvailableCurrencies,
+             properties.getCurrencies().getStaleAfter(), currencyRefresher);
+    }
+    
+    /** Refreshes the available currencies snapshot every {@code app.exchange-rate.currencies.refresh-interval}. */
+    @PostConstruct
+    public void startCurrencyRefresh() {
+        long intervalMillis = currencyRefreshInterval.toMillis();
+        currencyRefresher.scheduleWithFixedDelay(availableCurrencies::reloadInBackground, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /** Stops the currency refresher, cancelling a refresh still running on it. */
+    @PreDestroy
+    public void shutdown() {
+        currencyRefresher.shutdownNow();
+    }
+    
+    private static ExchangeRateCache defaultCache() {
+        return new ExchangeRateCache(new ExchangeRateProperties(), new SimpleMeterRegistry());
     }
     
     @Override
     public List<ExchangeRate> getExchangeRatesForDate(LocalDate date) {
         if (date == null) throw new IllegalArgumentException("Date cannot be null");
+        if (cacheEnabled) {
+            List<ExchangeRate> covered = results.coveredRatesOn(date);
+            if (covered != null) return covered;
+        }
         
         try {
-            String formattedDate = date.format(DATE_FORMATTER);
-            String filter = "exchange_rate_date:eq:\"%s\"".formatted(formattedDate);
-            String url = "%s?filter=%s&limit=500".formatted(this.treasuryApiUrl, encodeFilter(filter));
+            String url = query.ratesOn(date);
             
-            log.debug("Fetching exchange rates from Treasury API for date: {}", formattedDate);
-            @SuppressWarnings("null")
-            String response = restTemplate.getForObject(url, String.class);
-            return parseExchangeRates(response);
+            log.debug("Fetching exchange rates from Treasury API for date: {}", date);
+            return fetch(url, RowFilter.ALL).rates();
         } catch (Exception e) {
             log.error("Failed to retrieve exchange rates for date: {}", date, e);
             throw new ExchangeRateRetrievalException("Failed to retrieve exchange rates for date: %s".formatted(date), e);
@@ -98,47 +156,35 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
     }
     
     /**
-     * Retrieves exchange rate for a specific currency and date.
+     * Retrieves exchange rate for a specific currency and date. A date the rate index fully
+     * covers (a fetched range, an imported dataset) is answered from the index.
      * 
      * RESILIENCE PATTERNS APPLIED:
      * - @CircuitBreaker: Stops calling Treasury API after repeated failures, uses fallback
-     * - @Retry: Retries up to 3 times with exponential backoff for transient failures
-     * - @Bulkhead: Limits concurrent calls to 10 to prevent resource exhaustion
+     * - @Retry: Up to 3 attempts with jittered backoff, within the retry budget and request deadline
+     * - Concurrency limit: Adaptive limit on concurrent calls (in TreasuryApiClient, after coalescing)
      * 
      * FALLBACK: Returns cached data if Treasury API is unavailable
      * Note: TimeLimiter removed - only works with async CompletionStage returns
+     * (applied in AsyncTreasuryExchangeRateService)
      */
     @Override
     @CircuitBreaker(name = "treasuryApi", fallbackMethod = "getExchangeRateForCurrencyFallback")
     @Retry(name = "treasuryApi")
-    @Bulkhead(name = "treasuryApi")  // BULKHEAD PATTERN: Limits concurrent calls
     public Optional<ExchangeRate> getExchangeRateForCurrency(String currencyCode, LocalDate date) {
         if (currencyCode == null || currencyCode.trim().isEmpty()) throw new IllegalArgumentException("Currency code cannot be null or empty");
         if (date == null) throw new IllegalArgumentException("Date cannot be null");
         
-        String cacheKey = getCacheKey(currencyCode, date);
-        if (cacheEnabled && exchangeRateCache.containsKey(cacheKey)) {
-            return Optional.of(exchangeRateCache.get(cacheKey));
+        if (cacheEnabled) {
+            Optional<ExchangeRate> local = results.localRateFor(currencyCode, date);
+            if (local != null) return local;
         }
         
         try {
-            String formattedDate = date.format(DATE_FORMATTER);
-            String filter = "record_date:eq:\"%s\" and currency_code:eq:\"%s\"".formatted(formattedDate, currencyCode.toUpperCase());
-            String url = "%s?filter=%s".formatted(this.treasuryApiUrl, encodeFilter(filter));
-            
-            log.debug("Fetching exchange rate from Treasury API for currency: {} on date: {}", currencyCode, formattedDate);
-            @SuppressWarnings("null")
-            String response = restTemplate.getForObject(url, String.class);
-            List<ExchangeRate> rates = parseExchangeRates(response);
-            
-            if (!rates.isEmpty()) {
-                ExchangeRate rate = rates.get(0);
-                if (cacheEnabled) exchangeRateCache.put(cacheKey, rate);
-                return Optional.of(rate);
-            }
+            String url = query.rateFor(rateIndex.currencySpellings(currencyCode), date);
             
-            log.warn("No exchange rate found for currency: {} on date: {}", currencyCode, date);
-            return Optional.empty();
+            log.debug("Fetching exchange rate from Treasury API for currency: {} on date: {}", currencyCode, date);
+            return results.rateFor(fetch(url, RowFilter.ALL).rates(), currencyCode, date, cacheEnabled);
         } catch (Exception e) {
             log.error("Failed to retrieve exchange rate for currency: {} on date: {}", currencyCode, date, e);
             throw new ExchangeRateRetrievalException("Failed to retrieve exchange rate for currency: %s".formatted(currencyCode), e);
@@ -148,40 +194,46 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
     /**
      * Retrieves list of available currencies for conversion.
      * 
+     * STRATEGY: The sorted list is held as an immutable snapshot, loaded by the first call and
+     * then served without a Treasury call (stale-while-revalidate). It is refreshed every
+     * {@code app.exchange-rate.currencies.refresh-interval}, and a call finding it older than
+     * {@code stale-after} (the scheduled refreshes failed) also starts a background refresh.
+     * A failed refresh keeps the snapshot. With the cache disabled every call fetches the list.
+     * 
      * RESILIENCE PATTERNS APPLIED:
      * - @CircuitBreaker: Protects against repeated failures
      * - @Retry: Retries transient failures
-     * - @Bulkhead: Limits concurrent execution (BULKHEAD PATTERN)
+     * - Concurrency limit: Limits concurrent execution (BULKHEAD PATTERN, in TreasuryApiClient)
+     * Background refreshes run inside this bean, so only the concurrency limit applies to them.
      * 
-     * FALLBACK: Returns empty list if Treasury API is unavailable
+     * FALLBACK: Returns currencies from cache if the Treasury API is unavailable and no
+     * snapshot has been loaded yet
      */
     @Override
     @CircuitBreaker(name = "treasuryApi", fallbackMethod = "getAvailableCurrenciesFallback")
     @Retry(name = "treasuryApi")
-    @Bulkhead(name = "treasuryApi")  // BULKHEAD PATTERN: Prevents resource exhaustion
     public List<String> getAvailableCurrencies() {
+        if (!cacheEnabled) return fetchAvailableCurrencies();
+        List<String> snapshot = availableCurrencies.get();
+        return snapshot != null ? snapshot : availableCurrencies.load();
+    }
+    
+    private List<String> fetchAvailableCurrencies() {
         try {
             // Query for rates from the latest update to ensure we get recent data
             LocalDate endDate = LocalDate.now();
             LocalDate startDate = endDate.minusMonths(6);
-            String filter = "record_date:gte:\"%s\"".formatted(startDate.format(DATE_FORMATTER));
-            String url = "%s?filter=%s&sort=-record_date&limit=500".formatted(this.treasuryApiUrl, encodeFilter(filter));
-            
-            log.debug("Fetching available currencies from Treasury API");
-            @SuppressWarnings("null")
-            String response = restTemplate.getForObject(url, String.class);
-            List<ExchangeRate> rates = parseExchangeRates(response);
-            
-            List<String> currencies = new ArrayList<>();
-            Set<String> uniqueCurrencies = new LinkedHashSet<>();
-            
-            for (ExchangeRate rate : rates) {
-                uniqueCurrencies.add(rate.getCurrencyCode());
+            if (cacheEnabled) {
+                List<String> covered = results.coveredCurrencyCodesSince(startDate);
+                if (covered != null) return covered;
             }
+            String url = query.ratesSince(startDate);
             
-            currencies.addAll(uniqueCurrencies);
-            Collections.sort(currencies);
+            log.debug("Fetching available currencies from Treasury API");
+            Page page = fetch(url, RowFilter.ALL);
+            results.indexRange(page, ExchangeRateCriteria.of(null, null, null), startDate, endDate);
             
+            List<String> currencies = TreasuryRateResults.currencyCodes(page.rates());
             log.info("Found {} available currencies", currencies.size());
             return currencies;
         } catch (Exception e) {
@@ -190,207 +242,137 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
         }
     }
     
-    private List<ExchangeRate> parseExchangeRates(String jsonResponse) throws IOException {
-        List<ExchangeRate> rates = new ArrayList<>();
-        JsonNode root = objectMapper.readTree(jsonResponse);
-        JsonNode dataNode = root.path("data");
+    /**
+     * Fetches every rate with a record date after {@code after} (the whole dataset if null),
+     * following the API's pagination. Used by {@link ExchangeRateRefresher} to fill the rate index.
+     * 
+     * RESILIENCE PATTERNS APPLIED:
+     * - @CircuitBreaker: Refreshes fail fast while the Treasury API is down
+     * - @Retry: Retries transient failures; the whole fetch is repeated
+     * 
+     * No fallback: a failed refresh keeps the rates already loaded.
+     */
+    @CircuitBreaker(name = "treasuryApi")
+    @Retry(name = "treasuryApi")
+    public List<ExchangeRate> fetchRatesAfter(LocalDate after, int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
         
-        if (dataNode.isArray()) {
-            for (JsonNode node : dataNode) {
-                try {
-                    String dateStr = node.path("record_date").asText(null);
-                    LocalDate effectiveDate = dateStr == null || dateStr.isBlank() ? null : LocalDate.parse(dateStr, DATE_FORMATTER);
-                    
-                    // Extract currency information from Treasury API response
-                    // Treasury API fields:
-                    // - "currency": Currency name (e.g., "Euro", "Pound Sterling")
-                    // - "country_currency_desc": Full description (e.g., "Euro Zone-Euro")
-                    // - "country": Country name
-                    String currencyName = node.path("currency").asText("");
-                    String country = node.path("country").asText("");
-                    String countryCurrencyDesc = node.path("country_currency_desc").asText("");
-                    String exchangeRateStr = node.path("exchange_rate").asText();
-                    
-                    // Skip if missing critical fields
-                    if (currencyName.isEmpty() || exchangeRateStr.isEmpty()) {
-                        log.debug("Skipping record with missing currency or exchange_rate");
-                        continue;
-                    }
-                    
-                    // Map currency name to standard ISO 4217 code
-                    String currencyCode = mapCurrencyNameToCode(currencyName);
-                    
-                    ExchangeRate rate = new ExchangeRate(
-                        currencyCode,  // Use mapped currency code (e.g., "EUR" for "Euro")
-                        countryCurrencyDesc,  // Full description (e.g., "Euro Zone-Euro")
-                        currencyName,  // Simple currency name (e.g., "Euro")
-                        new BigDecimal(exchangeRateStr),
-                        effectiveDate,
-                        country  // Use country name
-                    );
-                    rates.add(rate);
-                    log.debug("Parsed exchange rate: {} {} on {}", currencyCode, exchangeRateStr, effectiveDate);
-                } catch (Exception e) {
-                    log.warn("Failed to parse exchange rate record: {}", e.getMessage());
-                }
+        List<ExchangeRate> rates = new ArrayList<>();
+        try {
+            int totalPages = 1;
+            for (int page = 1; page <= totalPages; page++) {
+                String url = query.ratesAfter(after, page, pageSize);
+                log.debug("Fetching page {} of exchange rates recorded after {} from Treasury API", page, after);
+                Page response = fetch(url, RowFilter.ALL);
+                rates.addAll(response.rates());
+                totalPages = response.totalPages();
             }
+            return rates;
+        } catch (Exception e) {
+            log.error("Failed to fetch exchange rates recorded after {}", after, e);
+            throw new ExchangeRateRetrievalException("Failed to fetch exchange rates recorded after %s".formatted(after), e);
         }
-        
-        log.info("Parsed {} exchange rates from API response", rates.size());
-        return rates;
     }
     
     /**
-     * Maps Treasury API currency names to standard ISO 4217 currency codes.
-     * The Treasury API returns currency names like "Euro", "Dollar", "Pound Sterling", etc.
-     * This method converts them to standard codes for display purposes.
-     * 
-     * NOTE: For currencies shared by multiple countries (e.g., "Rupee" used by India, Pakistan, Nepal),
-     * the user must specify the country to disambiguate. This honors the API contract.
+     * Fetches the rates matching the criteria recorded in [from, to] into the rate index, so
+     * conversions in that window are answered locally. Used by {@link ExchangeRateWarmUp}.
+     *
+     * RESILIENCE PATTERNS APPLIED:
+     * - @CircuitBreaker: Warm-up stops calling the Treasury API while it is down
+     * - @Retry: Retries transient failures
+     *
+     * No fallback: a failed prefetch leaves the window to be fetched on first use.
+     *
+     * @return the number of rates fetched
      */
-    private String mapCurrencyNameToCode(String currencyName) {
-        if (currencyName == null || currencyName.isEmpty()) {
-            return "";
+    @CircuitBreaker(name = "treasuryApi")
+    @Retry(name = "treasuryApi")
+    public int prefetchRates(ExchangeRateCriteria criteria, LocalDate from, LocalDate to) {
+        ExchangeRateCriteria pushed = TreasuryQuery.pushable(criteria, rateIndex.spelling(criteria));
+        try {
+            Page page = fetch(query.ratesBetween(pushed, from, to), RowFilter.ALL);
+            results.indexRange(page, pushed, from, to);
+            return page.rates().size();
+        } catch (Exception e) {
+            log.error("Failed to prefetch exchange rates matching {} between {} and {}", criteria, from, to, e);
+            throw new ExchangeRateRetrievalException("Failed to prefetch exchange rates matching %s".formatted(criteria), e);
         }
-        
-        return switch (currencyName.toLowerCase()) {
-            case "euro" -> "EUR";
-            case "dollar" -> "USD";
-            case "pound sterling" -> "GBP";
-            case "yen" -> "JPY";
-            case "canadian dollar" -> "CAD";
-            case "australian dollar" -> "AUD";
-            case "swiss franc" -> "CHF";
-            case "swedish krona" -> "SEK";
-            case "norwegian krone" -> "NOK";
-            case "danish krone" -> "DKK";
-            case "hong kong dollar" -> "HKD";
-            case "singapore dollar" -> "SGD";
-            case "new zealand dollar" -> "NZD";
-            case "mexican peso" -> "MXN";
-            case "brazilian real" -> "BRL";
-            case "south african rand" -> "ZAR";
-            case "south korean won" -> "KRW";
-            case "thai baht" -> "THB";
-            case "malaysian ringgit" -> "MYR";
-            case "indonesian rupiah" -> "IDR";
-            case "philippine peso" -> "PHP";
-            case "chinese yuan", "renminbi" -> "CNY";
-            case "russian ruble" -> "RUB";
-            case "turkish lira" -> "TRY";
-            case "saudi riyal" -> "SAR";
-            case "united arab emirates dirham" -> "AED";
-            case "israeli new sheqel" -> "ILS";
-            case "afghan afghani" -> "AFN";
-            case "argentine peso" -> "ARS";
-            case "bahraini dinar" -> "BHD";
-            case "colombian peso" -> "COP";
-            case "czech koruna" -> "CZK";
-            case "hungarian forint" -> "HUF";
-            case "icelandic króna" -> "ISK";
-            case "kuwaiti dinar" -> "KWD";
-            case "lebanese pound" -> "LBP";
-            case "libyan dinar" -> "LYD";
-            case "moroccan dirham" -> "MAD";
-            case "omani rial" -> "OMR";
-            case "peruvian nuevo sol" -> "PEN";
-            case "qatari riyal" -> "QAR";
-            case "ukrainian hryvnia" -> "UAH";
-            case "bangladeshi taka" -> "BDT";
-            case "bulgarian lev" -> "BGN";
-            case "croatian kuna" -> "HRK";
-            case "estonian kroon" -> "EEK";
-            case "lithuanian litas" -> "LTL";
-            case "pakistani rupee" -> "PKR";
-            case "polish zloty" -> "PLN";
-            case "romanian leu" -> "RON";
-            case "slovak koruna" -> "SKK";
-            case "slovenian tolar" -> "SIT";
-            case "venezuelan bolívar" -> "VEB";
-            case "vietnamese dong" -> "VND";
-            case "zambian kwacha" -> "ZMW";
-            case "kenyan shilling" -> "KES";
-            case "nigerian naira" -> "NGN";
-            case "tunisian dinar" -> "TND";
-            default -> currencyName.toUpperCase();  // Fallback: use original name
-        };
     }
     
-    private String encodeFilter(String filter) {
-        return filter.replace(" ", "%20").replace("\"", "%22").replace(":", "%3A");
+    /**
+     * GETs a Treasury API URL, keeping the rows the filter selects as the response streams in.
+     * Concurrent callers asking for the same URL and rows share one HTTP call; the URL is built
+     * from normalized values (upper-cased currency code, formatted dates). The shared call is
+     * hedged when hedging is enabled; the hedge does not wait for a concurrency slot.
+     */
+    private Page fetch(String url, RowFilter filter) {
+        String key = filter == RowFilter.ALL ? url : url + " " + filter;
+        TreasuryApiClient.BodyReader<Page> reader = body -> parser.read(HedgedRequests.interruptible(body), filter);
+        return requests.execute(key, () -> hedging.execute(
+            () -> apiClient.get(url, reader),
+            () -> apiClient.tryGet(url, reader)));
     }
     
-    private String getCacheKey(String currencyCode, LocalDate date) {
-        return currencyCode.toUpperCase() + "_" + date.format(DATE_FORMATTER);
-    }
-
     /**
      * Retrieves the most recent exchange rate within a date range.
      * 
      * REQUIREMENT: Must use exchange rate with effective date <= endDate (purchase date)
      * within the last 6 months (startDate = 6 months before endDate).
      * 
-     * STRATEGY: Query for rates from startDate onward, then locally filter for rates
-     * that are ON or BEFORE endDate, and pick the most recent one.
+     * STRATEGY: Answer from the in-process rate index with a floor lookup when it already holds
+     * every rate that could be the answer. Otherwise query for rates between startDate and
+     * endDate, add them to the index, then locally filter for rates matching the criteria and
+     * pick the most recent one. Criteria values the index already knows the Treasury spelling of
+     * are sent in the query filter too, so a warm index asks only for the series in question;
+     * on a cold index every series is fetched and indexed. With the cache disabled nothing is
+     * indexed, so the criteria and dates are applied while the response is parsed and parsing
+     * stops once the answer is known.
      * 
      * RESILIENCE PATTERNS APPLIED:
      * - @CircuitBreaker: Fast failure when Treasury API is down
      * - @Retry: Automatic retry for transient failures
-     * - @Bulkhead: Concurrent call limiting (BULKHEAD PATTERN)
+     * - Concurrency limit: Concurrent call limiting (BULKHEAD PATTERN, in TreasuryApiClient)
      * 
      * FALLBACK: Searches cache for most recent rate for the currency
      * Note: TimeLimiter removed - only works with async CompletionStage returns
+     * (applied in AsyncTreasuryExchangeRateService)
      */
     @Override
     @CircuitBreaker(name = "treasuryApi", fallbackMethod = "getMostRecentExchangeRateWithinRangeFallback")
     @Retry(name = "treasuryApi")
-    @Bulkhead(name = "treasuryApi")  // BULKHEAD PATTERN: Resource isolation
     public Optional<ExchangeRate> getMostRecentExchangeRateWithinRange(String country, String currency, String country_currency_desc, LocalDate startDate, LocalDate endDate) {
         // Validate that at least one filter is provided
-        if ((country == null || country.trim().isEmpty()) &&
-            (currency == null || currency.trim().isEmpty()) &&
-            (country_currency_desc == null || country_currency_desc.trim().isEmpty())) {
+        ExchangeRateCriteria criteria = ExchangeRateCriteria.of(country, currency, country_currency_desc);
+        if (criteria.isEmpty()) {
             throw new IllegalArgumentException("Must specify at least one of: country, currency, or country_currency_desc");
         }
         
         if (startDate == null || endDate == null) throw new IllegalArgumentException("Dates cannot be null");
         
+        if (cacheEnabled) {
+            Optional<ExchangeRate> local = results.coveredMostRecent(criteria, startDate, endDate);
+            if (local != null) return local;
+        }
+        
         try {
-            // Query for rates from startDate onwards
-            String filter = "record_date:gte:\"%s\"".formatted(startDate.format(DATE_FORMATTER));
-            String url = "%s?filter=%s&sort=-record_date&limit=500".formatted(this.treasuryApiUrl, encodeFilter(filter));
-            log.debug("Fetching exchange rates from Treasury API with country={}, currency={}, country_currency_desc={} from {} onwards", 
-                    country, currency, country_currency_desc, startDate);
-            @SuppressWarnings("null")
-            String response = restTemplate.getForObject(url, String.class);
-            List<ExchangeRate> rates = parseExchangeRates(response);
-            if (rates.isEmpty()) {
-                log.warn("API returned no exchange rates since {}", startDate);
-                return Optional.empty();
-            }
-            
-            // Filter rates to find matches for all provided criteria
-            List<ExchangeRate> filteredRates = rates.stream()
-                    .filter(rate -> matchesCriteria(rate, country, currency, country_currency_desc))
-                    .filter(rate -> rate.getEffectiveDate() != null)
-                    .filter(rate -> !rate.getEffectiveDate().isAfter(endDate))  // Must be on or before purchase date
-                    .filter(rate -> !rate.getEffectiveDate().isBefore(startDate))  // Must be within date range
-                    .toList();
-            
-            if (filteredRates.isEmpty()) {
-                log.warn("API returned {} rates but none matching country={}, currency={}, country_currency_desc={} on or before {} and on/after {}", 
-                        rates.size(), country, currency, country_currency_desc, endDate, startDate);
-                return Optional.empty();
+            // Query for rates between startDate and endDate, filtered by the criteria the API can match exactly
+            ExchangeRateCriteria pushed = TreasuryQuery.pushable(criteria, rateIndex.spelling(criteria));
+            String url = query.ratesBetween(pushed, startDate, endDate);
+            log.debug("Fetching exchange rates from Treasury API with country={}, currency={}, country_currency_desc={} from {} to {}", 
+                    country, currency, country_currency_desc, startDate, endDate);
+            if (!cacheEnabled) {
+                Optional<ExchangeRate> mostRecent = fetch(url, RowFilter.mostRecent(criteria, startDate, endDate)).rates().stream().findFirst();
+                if (mostRecent.isEmpty()) {
+                    log.warn("API returned no rates matching country={}, currency={}, country_currency_desc={} on or before {} and on/after {}", 
+                            country, currency, country_currency_desc, endDate, startDate);
+                }
+                return mostRecent;
             }
-            
-            // Pick the most recent (latest) by effective date
-            Optional<ExchangeRate> mostRecent = filteredRates.stream()
-                    .max(Comparator.comparing(ExchangeRate::getEffectiveDate));
-            
-            mostRecent.ifPresent(rate -> log.info("Selected exchange rate matching country={}, currency={}, country_currency_desc={} with effective date: {} (rate: {})", 
-                    country, currency, country_currency_desc, rate.getEffectiveDate(), rate.getExchangeRate()));
-            
-            return mostRecent;
+            Page page = fetch(url, RowFilter.ALL);
+            results.indexRange(page, pushed, startDate, endDate);
+            // Filter rates to find matches for all provided criteria, and pick the most recent
+            return results.mostRecent(page.rates(), criteria, startDate, endDate);
         } catch (Exception e) {
             log.error("Failed to retrieve exchange rates for country={}, currency={}, country_currency_desc={} between {} and {}", 
                     country, currency, country_currency_desc, startDate, endDate, e);
@@ -400,42 +382,11 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
         }
     }
     
-    /**
-     * Matches an exchange rate against the provided filter criteria.
-     * User can specify any combination of country, currency, and country_currency_desc.
-     * All provided criteria must match (AND logic).
-     */
-    private boolean matchesCriteria(ExchangeRate rate, String country, String currency, String country_currency_desc) {
-        // Check country match (if provided)
-        if (country != null && !country.trim().isEmpty()) {
-            if (rate.getCountryCode() == null || !rate.getCountryCode().equalsIgnoreCase(country)) {
-                return false;
-            }
-        }
-        
-        // Check currency match (if provided)
-        // This matches the Treasury API's "currency" field (e.g., "Euro", "Rupee", "Yen")
-        // NOT ISO codes - use additional parameters for disambiguation
-        if (currency != null && !currency.trim().isEmpty()) {
-            if (rate.getCurrencySimpleName() == null || !rate.getCurrencySimpleName().equalsIgnoreCase(currency)) {
-                return false;
-            }
-        }
-        
-        // Check country_currency_desc match (if provided)
-        // This should match the full description like "Euro Zone-Euro"
-        if (country_currency_desc != null && !country_currency_desc.trim().isEmpty()) {
-            if (rate.getCurrencyName() == null || !rate.getCurrencyName().equalsIgnoreCase(country_currency_desc)) {
-                return false;
-            }
-        }
-        
-        return true;
-    }
-    
     // ==============================================================================
     // FALLBACK METHODS - Called when Circuit Breaker is OPEN or on failure
     // ==============================================================================
+    // Not private: resilience4j invokes them on the Spring proxy, which only forwards non-private
+    // methods to this bean - a private one would run against the proxy's unset fields.
     
     /**
      * FALLBACK METHOD for getExchangeRateForCurrency
@@ -444,7 +395,7 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
      * - Circuit breaker is OPEN (too many failures)
      * - All retry attempts are exhausted
      * - Request times out
-     * - Bulkhead is full (too many concurrent calls)
+     * - The concurrency limit is reached (too many concurrent calls)
      * 
      * GRACEFUL DEGRADATION: Returns cached data instead of failing completely
      * 
@@ -453,19 +404,10 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
      * @param ex Exception that triggered the fallback
      * @return Cached exchange rate if available, empty otherwise
      */
-    private Optional<ExchangeRate> getExchangeRateForCurrencyFallback(String currencyCode, LocalDate date, Exception ex) {
+    Optional<ExchangeRate> getExchangeRateForCurrencyFallback(String currencyCode, LocalDate date, Exception ex) {
         log.warn("Treasury API call failed for currency {} on date {}, using fallback. Reason: {}", 
                 currencyCode, date, ex.getMessage());
-        
-        // Try to return cached value
-        String cacheKey = getCacheKey(currencyCode, date);
-        if (cacheEnabled && exchangeRateCache.containsKey(cacheKey)) {
-            log.info("Returning cached exchange rate for {} on {}", currencyCode, date);
-            return Optional.of(exchangeRateCache.get(cacheKey));
-        }
-        
-        log.warn("No cached exchange rate available for {} on {}", currencyCode, date);
-        return Optional.empty();
+        return results.cachedRate(currencyCode, date, cacheEnabled);
     }
     
     /**
@@ -477,24 +419,15 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
      * @param ex Exception that triggered the fallback
      * @return List of currencies from cache, or empty list
      */
-    private List<String> getAvailableCurrenciesFallback(Exception ex) {
+    List<String> getAvailableCurrenciesFallback(Exception ex) {
         log.warn("Treasury API call failed for available currencies, using fallback. Reason: {}", ex.getMessage());
-        
-        // Extract unique currency codes from cache
-        Set<String> uniqueCurrencies = new LinkedHashSet<>();
-        exchangeRateCache.values().forEach(rate -> uniqueCurrencies.add(rate.getCurrencyCode()));
-        
-        List<String> currencies = new ArrayList<>(uniqueCurrencies);
-        Collections.sort(currencies);
-        
-        log.info("Returning {} currencies from cache as fallback", currencies.size());
-        return currencies;
+        return results.cachedCurrencies();
     }
     
     /**
      * FALLBACK METHOD for getMostRecentExchangeRateWithinRange
      * 
-     * GRACEFUL DEGRADATION: Searches cache for the most recent rate for the currency
+     * GRACEFUL DEGRADATION: Searches the rate index and cache for the most recent rate for the currency
      * IMPORTANT: Must respect the date range constraint (REQ 2.3 - within 6 months)
      * 
      * @param currencyCode Currency code to look up
@@ -503,27 +436,12 @@ public class TreasuryExchangeRateService implements IExchangeRateService {
      * @param ex Exception that triggered the fallback
      * @return Most recent cached exchange rate within the specified date range, or empty
      */
-    private Optional<ExchangeRate> getMostRecentExchangeRateWithinRangeFallback(
+    Optional<ExchangeRate> getMostRecentExchangeRateWithinRangeFallback(
             String country, String currency, String country_currency_desc, LocalDate startDate, LocalDate endDate, Exception ex) {
         log.warn("Treasury API call failed for country={}, currency={}, country_currency_desc={} between {} and {}, using fallback. Reason: {}", 
                 country, currency, country_currency_desc, startDate, endDate, ex.getMessage());
         
-        // Search cache for most recent rate matching criteria within the date range
-        Optional<ExchangeRate> mostRecent = exchangeRateCache.values().stream()
-                .filter(rate -> matchesCriteria(rate, country, currency, country_currency_desc))
-                .filter(rate -> rate.getEffectiveDate() != null)
-                .filter(rate -> !rate.getEffectiveDate().isBefore(startDate))
-                .filter(rate -> !rate.getEffectiveDate().isAfter(endDate))
-                .max(Comparator.comparing(ExchangeRate::getEffectiveDate));
-        
-        if (mostRecent.isPresent()) {
-            log.info("Returning cached exchange rate matching country={}, currency={}, country_currency_desc={} from date {} as fallback (within range {} to {})", 
-                    country, currency, country_currency_desc, mostRecent.get().getEffectiveDate(), startDate, endDate);
-        } else {
-            log.warn("No cached exchange rate available matching country={}, currency={}, country_currency_desc={} within date range {} to {}", 
-                    country, currency, country_currency_desc, startDate, endDate);
-        }
-        
-        return mostRecent;
+        // Search the rate index, then the cache, for most recent rate matching criteria within the date range
+        return results.cachedMostRecent(ExchangeRateCriteria.of(country, currency, country_currency_desc), startDate, endDate);
     }
-}
\ No newline at end of file
+}
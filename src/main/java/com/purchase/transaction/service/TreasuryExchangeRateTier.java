@@ -0,0 +1,61 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Last tier: {@link TreasuryExchangeRateService}, or {@link AsyncTreasuryExchangeRateService} for
+ * the {@code Async} lookup, which always answer - from the Treasury API with its circuit breaker,
+ * retry and fallbacks, or by failing with ExchangeRateRetrievalException.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class TreasuryExchangeRateTier implements IExchangeRateTier {
+    private final TreasuryExchangeRateService treasuryService;
+    private final AsyncTreasuryExchangeRateService asyncTreasuryService;
+
+    public TreasuryExchangeRateTier(TreasuryExchangeRateService treasuryService,
+                                    AsyncTreasuryExchangeRateService asyncTreasuryService) {
+        this.treasuryService = treasuryService;
+        this.asyncTreasuryService = asyncTreasuryService;
+    }
+
+    @Override
+    public String getName() {
+        return "treasury";
+    }
+
+    @Override
+    public List<ExchangeRate> getExchangeRatesForDate(LocalDate date) {
+        return treasuryService.getExchangeRatesForDate(date);
+    }
+
+    @Override
+    public Optional<ExchangeRate> getExchangeRateForCurrency(String currencyCode, LocalDate date) {
+        return treasuryService.getExchangeRateForCurrency(currencyCode, date);
+    }
+
+    @Override
+    public Optional<ExchangeRate> getMostRecentExchangeRateWithinRange(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        return treasuryService.getMostRecentExchangeRateWithinRange(
+            criteria.country(), criteria.currency(), criteria.countryCurrencyDesc(), startDate, endDate);
+    }
+
+    @Override
+    public List<String> getAvailableCurrencies() {
+        return treasuryService.getAvailableCurrencies();
+    }
+
+    @Override
+    public CompletableFuture<Optional<ExchangeRate>> getMostRecentExchangeRateWithinRangeAsync(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate, Long deadline) {
+        return asyncTreasuryService.getMostRecentExchangeRateWithinRange(
+            criteria.country(), criteria.currency(), criteria.countryCurrencyDesc(), startDate, endDate, deadline);
+    }
+}
@@ -0,0 +1,113 @@
+package com.purchase.transaction.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds Treasury {@code rates_of_exchange} URLs for {@link TreasuryExchangeRateService} and
+ * {@link AsyncTreasuryExchangeRateService}. Every query asks only for the {@link #FIELDS} the
+ * {@link TreasuryRateParser} reads, and range lookups push the country / currency /
+ * country_currency_desc criteria and both date bounds into {@code filter=}, so the API returns
+ * only the rows that can be the answer.
+ *
+ * URLs are fully encoded, so callers send them as a {@link java.net.URI} without encoding again.
+ */
+final class TreasuryQuery {
+    static final String DEFAULT_URL = "https://api.fiscaldata.treasury.gov/services/api/fiscal_service/v1/accounting/od/rates_of_exchange";
+    static final int PAGE_LIMIT = 500;
+    static final String FIELDS = "record_date,country,currency,country_currency_desc,exchange_rate";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final String baseUrl;
+
+    TreasuryQuery(String baseUrl) {
+        this.baseUrl = (baseUrl == null || baseUrl.isBlank()) ? DEFAULT_URL : baseUrl;
+    }
+
+    /** Every rate published for an exchange rate date. */
+    String ratesOn(LocalDate date) {
+        String filter = "exchange_rate_date:eq:\"%s\"".formatted(date.format(DATE_FORMATTER));
+        return "%s?fields=%s&filter=%s&limit=%d".formatted(baseUrl, FIELDS, encode(filter), PAGE_LIMIT);
+    }
+
+    /**
+     * Rates recorded on a date whose {@code currency} is one of {@code currencies} (every series
+     * if empty). Treasury has no currency code field, so callers pass the spellings the rate index
+     * holds for a code ({@link ExchangeRateIndex#currencySpellings}) and match the code against
+     * the rows returned.
+     */
+    String rateFor(Collection<String> currencies, LocalDate date) {
+        List<String> filters = new ArrayList<>();
+        filters.add("record_date:eq:\"%s\"".formatted(date.format(DATE_FORMATTER)));
+        if (!currencies.isEmpty()) filters.add("currency:in:(%s)".formatted(String.join(",", currencies)));
+        return "%s?fields=%s&filter=%s&limit=%d".formatted(baseUrl, FIELDS, encode(String.join(",", filters)), PAGE_LIMIT);
+    }
+
+    /** Rates of every series recorded on or after {@code from}, newest first, one page. */
+    String ratesSince(LocalDate from) {
+        String filter = "record_date:gte:\"%s\"".formatted(from.format(DATE_FORMATTER));
+        return "%s?fields=%s&filter=%s&sort=-record_date&limit=%d".formatted(baseUrl, FIELDS, encode(filter), PAGE_LIMIT);
+    }
+
+    /**
+     * Rates recorded in [from, to] of the series matching {@code criteria}, newest first, one
+     * page. Pass criteria through {@link #pushable} first; empty criteria ask for every series.
+     */
+    String ratesBetween(ExchangeRateCriteria criteria, LocalDate from, LocalDate to) {
+        List<String> filters = new ArrayList<>();
+        filters.add("record_date:gte:\"%s\"".formatted(from.format(DATE_FORMATTER)));
+        filters.add("record_date:lte:\"%s\"".formatted(to.format(DATE_FORMATTER)));
+        if (criteria.country() != null) filters.add("country:eq:\"%s\"".formatted(criteria.country()));
+        if (criteria.currency() != null) filters.add("currency:eq:\"%s\"".formatted(criteria.currency()));
+        if (criteria.countryCurrencyDesc() != null) filters.add("country_currency_desc:eq:\"%s\"".formatted(criteria.countryCurrencyDesc()));
+        return "%s?fields=%s&filter=%s&sort=-record_date&limit=%d".formatted(baseUrl, FIELDS, encode(String.join(",", filters)), PAGE_LIMIT);
+    }
+
+    /** One page of rates recorded after {@code after} (all if null), oldest first. */
+    String ratesAfter(LocalDate after, int page, int pageSize) {
+        String filter = after == null ? "" : "filter=%s&".formatted(encode("record_date:gt:\"%s\"".formatted(after.format(DATE_FORMATTER))));
+        return "%s?fields=%s&%ssort=record_date&page%%5Bnumber%%5D=%d&page%%5Bsize%%5D=%d".formatted(baseUrl, FIELDS, filter, page, pageSize);
+    }
+
+    /**
+     * The part of {@code criteria} that can be sent as {@code eq} filters without changing which
+     * rows match. {@link ExchangeRateCriteria#matches} ignores case but the API compares exactly,
+     * so a value is only kept if {@code spelling} holds its exact Treasury spelling (from the rate
+     * index); values containing the filter syntax's separators are never kept. Rows are still
+     * matched locally, so dropping a value only costs payload size.
+     */
+    static ExchangeRateCriteria pushable(ExchangeRateCriteria criteria, ExchangeRateCriteria spelling) {
+        return ExchangeRateCriteria.of(
+            pushable(criteria.country(), spelling.country()),
+            pushable(criteria.currency(), spelling.currency()),
+            pushable(criteria.countryCurrencyDesc(), spelling.countryCurrencyDesc()));
+    }
+
+    private static String pushable(String value, String spelled) {
+        if (value == null || spelled == null || !spelled.equalsIgnoreCase(value)) return null;
+        return spelled.matches(".*[,()\"].*") ? null : spelled;
+    }
+
+    /**
+     * Percent-encodes a filter: every byte but unreserved characters and the {@code ,} between
+     * filters, so values such as "Trinidad & Tobago" cannot end the parameter.
+     */
+    static String encode(String filter) {
+        StringBuilder encoded = new StringBuilder(filter.length() + 16);
+        for (byte b : filter.getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xFF;
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "-._~,".indexOf(c) >= 0) {
+                encoded.append((char) c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                    .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+}
@@ -0,0 +1,336 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Turns Treasury {@code rates_of_exchange} responses into {@link ExchangeRate}s. Shared by the
+ * blocking ({@link TreasuryExchangeRateService}) and non-blocking
+ * ({@link AsyncTreasuryExchangeRateService}) clients so both map rows the same way.
+ *
+ * Responses are read token by token with Jackson's {@link JsonParser} - from the HTTP input
+ * stream where there is one - without building a tree. Each row's fields are checked against
+ * the {@link RowFilter} before its rate is converted to a {@link BigDecimal}, and a filtered read
+ * of a response sorted by {@code -record_date} stops as soon as no later row can match.
+ */
+final class TreasuryRateParser {
+    private static final Logger log = LoggerFactory.getLogger(TreasuryRateParser.class);
+
+    private final JsonFactory jsonFactory;
+
+    TreasuryRateParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Which rows of a response to keep. With no criteria and no dates every row is kept.
+     * {@code mostRecentOnly} keeps just the latest matching row and assumes the response is
+     * sorted by {@code -record_date}: reading stops at the first row older than {@code from} or
+     * older than the match already found.
+     */
+    record RowFilter(ExchangeRateCriteria criteria, LocalDate from, LocalDate to, boolean mostRecentOnly) {
+        static final RowFilter ALL = new RowFilter(null, null, null, false);
+
+        static RowFilter mostRecent(ExchangeRateCriteria criteria, LocalDate from, LocalDate to) {
+            return new RowFilter(criteria, from, to, true);
+        }
+    }
+
+    /**
+     * The kept rates of one response page, with the number of rows read and the API's
+     * {@code meta.total-pages}. After an early stop {@code rows} only counts the rows read.
+     */
+    record Page(List<ExchangeRate> rates, int rows, int totalPages) {
+        Page {
+            rates = List.copyOf(rates);
+        }
+    }
+
+    Page read(InputStream body, RowFilter filter) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return read(parser, filter);
+        }
+    }
+
+    Page read(String body, RowFilter filter) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return read(parser, filter);
+        }
+    }
+
+    /**
+     * Reads every row of a response, handing each rate to {@code sink} as soon as it is parsed
+     * rather than collecting a page; for whole-dataset files. Returns the number of rows read.
+     */
+    int stream(InputStream body, Consumer<ExchangeRate> sink) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) return 0;
+            if (first != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object in Treasury API response, found " + first);
+            }
+            int rows = 0;
+            List<ExchangeRate> row = new ArrayList<>(1);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"data".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    rows++;
+                    readRow(parser, RowFilter.ALL, row);
+                    if (!row.isEmpty()) sink.accept(row.remove(0));
+                }
+            }
+            return rows;
+        }
+    }
+
+    private Page read(JsonParser parser, RowFilter filter) throws IOException {
+        List<ExchangeRate> rates = new ArrayList<>();
+        int rows = 0;
+        int totalPages = 1;
+        JsonToken first = parser.nextToken();
+        if (first == null) return new Page(rates, 0, 1);
+        if (first != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object in Treasury API response, found " + first);
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                boolean stopped = false;
+                while (!stopped && parser.nextToken() != JsonToken.END_ARRAY) {
+                    rows++;
+                    stopped = readRow(parser, filter, rates);
+                }
+                // Nothing after the rows is needed once a filtered read has its answer
+                if (stopped) break;
+            } else if ("meta".equals(field) && value == JsonToken.START_OBJECT) {
+                totalPages = readTotalPages(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        log.debug("Kept {} of {} exchange rate rows read from API response", rates.size(), rows);
+        return new Page(rates, rows, totalPages);
+    }
+
+    /**
+     * Reads the row at the parser's current token and adds it to {@code rates} if the filter
+     * keeps it.
+     *
+     * @return true if no later row can be kept
+     */
+    private boolean readRow(JsonParser parser, RowFilter filter, List<ExchangeRate> rates) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return false;
+        }
+
+        // Treasury API fields:
+        // - "currency": Currency name (e.g., "Euro", "Pound Sterling")
+        // - "country_currency_desc": Full description (e.g., "Euro Zone-Euro")
+        // - "country": Country name
+        String currencyName = "";
+        String country = "";
+        String countryCurrencyDesc = "";
+        String exchangeRateStr = "";
+        String dateStr = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "currency" -> currencyName = text(parser, "");
+                case "country" -> country = text(parser, "");
+                case "country_currency_desc" -> countryCurrencyDesc = text(parser, "");
+                case "exchange_rate" -> exchangeRateStr = text(parser, "");
+                case "record_date" -> dateStr = text(parser, null);
+                default -> parser.skipChildren();
+            }
+        }
+
+        // Skip if missing critical fields
+        if (currencyName.isEmpty() || exchangeRateStr.isEmpty()) {
+            return false;
+        }
+
+        LocalDate effectiveDate;
+        try {
+            effectiveDate = dateStr == null || dateStr.isBlank() ? null : LocalDate.parse(dateStr);
+        } catch (DateTimeParseException e) {
+            log.warn("Failed to parse exchange rate record: {}", e.getMessage());
+            return false;
+        }
+
+        ExchangeRate best = filter.mostRecentOnly() && !rates.isEmpty() ? rates.get(0) : null;
+        if (filter.from() != null || filter.to() != null || filter.mostRecentOnly()) {
+            if (effectiveDate == null) return false;
+            if (filter.to() != null && effectiveDate.isAfter(filter.to())) return false;
+            if (filter.from() != null && effectiveDate.isBefore(filter.from())) {
+                // Rows are sorted newest first: everything from here on is older still
+                return filter.mostRecentOnly();
+            }
+            if (best != null) {
+                if (effectiveDate.isBefore(best.getEffectiveDate())) return true;
+                if (!effectiveDate.isAfter(best.getEffectiveDate())) return false;  // first row wins a tie
+            }
+        }
+        if (filter.criteria() != null && !filter.criteria().matches(country, currencyName, countryCurrencyDesc)) {
+            return false;
+        }
+
+        BigDecimal exchangeRate;
+        try {
+            exchangeRate = new BigDecimal(exchangeRateStr);
+        } catch (NumberFormatException e) {
+            log.warn("Failed to parse exchange rate record: invalid exchange_rate {}", exchangeRateStr);
+            return false;
+        }
+
+        ExchangeRate rate = new ExchangeRate(
+            currencyCode(currencyName),  // Use mapped currency code (e.g., "EUR" for "Euro")
+            countryCurrencyDesc,  // Full description (e.g., "Euro Zone-Euro")
+            currencyName,  // Simple currency name (e.g., "Euro")
+            exchangeRate,
+            effectiveDate,
+            country  // Use country name
+        );
+        if (best != null) rates.set(0, rate);
+        else rates.add(rate);
+        return false;
+    }
+
+    private static int readTotalPages(JsonParser parser) throws IOException {
+        int totalPages = 1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("total-pages".equals(field)) {
+                totalPages = parser.getValueAsInt(1);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return totalPages;
+    }
+
+    /** The scalar at the current token as text, or {@code absent} for null or a nested value. */
+    private static String text(JsonParser parser, String absent) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isScalarValue() && token != JsonToken.VALUE_NULL) return parser.getText();
+        parser.skipChildren();
+        return absent;
+    }
+
+    /**
+     * Maps Treasury API currency names to standard ISO 4217 currency codes.
+     * The Treasury API returns currency names like "Euro", "Dollar", "Pound Sterling", etc.
+     * This method converts them to standard codes for display purposes.
+     * 
+     * NOTE: For currencies shared by multiple countries (e.g., "Rupee" used by India, Pakistan, Nepal),
+     * the user must specify the country to disambiguate. This honors the API contract.
+     */
+    static String currencyCode(String currencyName) {
+        if (currencyName == null || currencyName.isEmpty()) {
+            return "";
+        }
+        
+        return switch (currencyName.toLowerCase()) {
+            case "euro" -> "EUR";
+            case "dollar" -> "USD";
+            case "pound sterling" -> "GBP";
+            case "yen" -> "JPY";
+            case "canadian dollar" -> "CAD";
+            case "australian dollar" -> "AUD";
+            case "swiss franc" -> "CHF";
+            case "swedish krona" -> "SEK";
+            case "norwegian krone" -> "NOK";
+            case "danish krone" -> "DKK";
+            case "hong kong dollar" -> "HKD";
+            case "singapore dollar" -> "SGD";
+            case "new zealand dollar" -> "NZD";
+            case "mexican peso" -> "MXN";
+            case "brazilian real" -> "BRL";
+            case "south african rand" -> "ZAR";
+            case "south korean won" -> "KRW";
+            case "thai baht" -> "THB";
+            case "malaysian ringgit" -> "MYR";
+            case "indonesian rupiah" -> "IDR";
+            case "philippine peso" -> "PHP";
+            case "chinese yuan", "renminbi" -> "CNY";
+            case "russian ruble" -> "RUB";
+            case "turkish lira" -> "TRY";
+            case "saudi riyal" -> "SAR";
+            case "united arab emirates dirham" -> "AED";
+            case "israeli new sheqel" -> "ILS";
+            case "afghan afghani" -> "AFN";
+            case "argentine peso" -> "ARS";
+            case "bahraini dinar" -> "BHD";
+            case "colombian peso" -> "COP";
+            case "czech koruna" -> "CZK";
+            case "hungarian forint" -> "HUF";
+            case "icelandic króna" -> "ISK";
+            case "kuwaiti dinar" -> "KWD";
+            case "lebanese pound" -> "LBP";
+            case "libyan dinar" -> "LYD";
+            case "moroccan dirham" -> "MAD";
+            case "omani rial" -> "OMR";
+            case "peruvian nuevo sol" -> "PEN";
+            case "qatari riyal" -> "QAR";
+            case "ukrainian hryvnia" -> "UAH";
+            case "bangladeshi taka" -> "BDT";
+            case "bulgarian lev" -> "BGN";
+            case "croatian kuna" -> "HRK";
+            case "estonian kroon" -> "EEK";
+            case "lithuanian litas" -> "LTL";
+            case "pakistani rupee" -> "PKR";
+            case "polish zloty" -> "PLN";
+            case "romanian leu" -> "RON";
+            case "slovak koruna" -> "SKK";
+            case "slovenian tolar" -> "SIT";
+            case "venezuelan bolívar" -> "VEB";
+            case "vietnamese dong" -> "VND";
+            case "zambian kwacha" -> "ZMW";
+            case "kenyan shilling" -> "KES";
+            case "nigerian naira" -> "NGN";
+            case "tunisian dinar" -> "TND";
+            default -> currencyName.toUpperCase();  // Fallback: use original name
+        };
+    }
+    
+
+    /**
+     * First day from which a {@code record_date:gte:from} query sorted by {@code -record_date}
+     * returned every matching row: {@code from} itself, unless the response was cut off at
+     * {@code pageLimit}, in which case only the days after the oldest row returned are complete.
+     * Empty if a truncated response held no dated row.
+     */
+    static Optional<LocalDate> completeFrom(Page page, LocalDate from, int pageLimit) {
+        boolean truncated = page.rows() >= pageLimit || page.totalPages() > 1;
+        if (!truncated) return Optional.of(from);
+        return page.rates().stream().map(ExchangeRate::getEffectiveDate).filter(Objects::nonNull)
+            .min(Comparator.naturalOrder()).map(oldest -> oldest.plusDays(1));
+    }
+}
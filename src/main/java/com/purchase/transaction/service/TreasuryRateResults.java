@@ -0,0 +1,176 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import com.purchase.transaction.service.TreasuryRateParser.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * What {@link TreasuryExchangeRateService} and {@link AsyncTreasuryExchangeRateService} do with
+ * rates, apart from making the HTTP call: answering from the rate index and cache when they
+ * already know the answer, adding fetched rates to them (and to the persisted rates), picking
+ * the answer out of a response, and the cache-based fallbacks used when the API fails.
+ *
+ * The local answers return null when the index and cache cannot tell, so the caller fetches.
+ */
+final class TreasuryRateResults {
+    private static final Logger log = LoggerFactory.getLogger(TreasuryRateResults.class);
+
+    private final ExchangeRateIndex rateIndex;
+    private final ExchangeRateCache exchangeRateCache;
+    private final PersistentRateCache persistentCache;
+
+    TreasuryRateResults(ExchangeRateIndex rateIndex, ExchangeRateCache exchangeRateCache, PersistentRateCache persistentCache) {
+        this.rateIndex = rateIndex;
+        this.exchangeRateCache = exchangeRateCache;
+        this.persistentCache = persistentCache;
+    }
+
+    // --- local answers ---
+
+    /** Every rate effective on a date the index fully covers, or null. */
+    List<ExchangeRate> coveredRatesOn(LocalDate date) {
+        return rateIndex.covers(date, date) ? rateIndex.ratesOn(date) : null;
+    }
+
+    /**
+     * The cached rate (or cached miss) for the currency on the date, or its rate in the index if
+     * the index fully covers the date (a fetched range, an imported dataset); null otherwise.
+     */
+    Optional<ExchangeRate> localRateFor(String currencyCode, LocalDate date) {
+        Optional<ExchangeRate> cached = exchangeRateCache.get(currencyCode, date);
+        if (cached != null) return cached;  // a cached miss is Optional.empty()
+        if (!rateIndex.covers(date, date)) return null;
+        return rateIndex.ratesOn(date).stream()
+                .filter(rate -> currencyCode.equalsIgnoreCase(rate.getCurrencyCode()))
+                .findFirst();
+    }
+
+    /** The most recent matching rate in a window the index fully covers, or null. */
+    Optional<ExchangeRate> coveredMostRecent(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        ExchangeRateIndex.Lookup local = rateIndex.findCovered(criteria, startDate, endDate);
+        if (!local.covered()) return null;
+        log.debug("Served exchange rate matching {} on or before {} from the rate index", criteria, endDate);
+        return local.rate();
+    }
+
+    /** Currency codes with a rate since the date if the index covers it through today, or null. */
+    List<String> coveredCurrencyCodesSince(LocalDate startDate) {
+        return rateIndex.covers(startDate, LocalDate.now()) ? rateIndex.currencyCodesSince(startDate) : null;
+    }
+
+    // --- fetched answers ---
+
+    /**
+     * Adds the rates fetched for one currency on one date to the index and persisted rates, and
+     * picks the currency's rate; with the cache enabled the answer, or the miss, is cached too.
+     */
+    Optional<ExchangeRate> rateFor(List<ExchangeRate> rates, String currencyCode, LocalDate date, boolean cacheEnabled) {
+        rateIndex.addAll(rates);
+        persistentCache.saveRates(rates);
+
+        Optional<ExchangeRate> match = rates.stream().filter(rate -> currencyCode.equalsIgnoreCase(rate.getCurrencyCode())).findFirst();
+        if (match.isPresent()) {
+            ExchangeRate rate = match.get();
+            if (cacheEnabled) {
+                exchangeRateCache.put(currencyCode, date, rate);
+                persistentCache.saveCached(ExchangeRateCache.key(currencyCode, date), rate);
+            }
+            return match;
+        }
+
+        log.warn("No exchange rate found for currency: {} on date: {}", currencyCode, date);
+        if (cacheEnabled) exchangeRateCache.putMiss(currencyCode, date);
+        return Optional.empty();
+    }
+
+    /**
+     * Adds the rows of a query for {@code filter} from {@code from} to {@code to} sorted by
+     * {@code -record_date} to the rate index. If the response held every matching row, the index
+     * now knows all such rates up to {@code to} (or today, if earlier); if it was cut off at the
+     * page limit, only the days after the oldest row returned are complete. Only coverage of
+     * every series is persisted, and only up to the index's settled dates.
+     */
+    void indexRange(Page page, ExchangeRateCriteria filter, LocalDate from, LocalDate to) {
+        LocalDate until = to.isAfter(LocalDate.now()) ? LocalDate.now() : to;
+        TreasuryRateParser.completeFrom(page, from, TreasuryQuery.PAGE_LIMIT).ifPresent(complete -> {
+            rateIndex.addAll(page.rates(), filter, complete, until);
+            persistentCache.saveRates(page.rates());
+            LocalDate settled = rateIndex.settledThrough();
+            if (filter.isEmpty()) persistentCache.saveCoverage(complete, until.isAfter(settled) ? settled : until);
+        });
+    }
+
+    /** The most recent of the fetched rates matching the criteria and effective in [startDate, endDate]. */
+    Optional<ExchangeRate> mostRecent(List<ExchangeRate> rates, ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        Optional<ExchangeRate> mostRecent = rates.stream()
+                .filter(criteria::matches)
+                .filter(rate -> rate.getEffectiveDate() != null)
+                .filter(rate -> !rate.getEffectiveDate().isAfter(endDate))  // Must be on or before purchase date
+                .filter(rate -> !rate.getEffectiveDate().isBefore(startDate))  // Must be within date range
+                .max(Comparator.comparing(ExchangeRate::getEffectiveDate));
+
+        if (mostRecent.isPresent()) {
+            log.info("Selected exchange rate matching {} with effective date: {} (rate: {})",
+                    criteria, mostRecent.get().getEffectiveDate(), mostRecent.get().getExchangeRate());
+        } else {
+            log.warn("API returned {} rates but none matching {} on or before {} and on/after {}",
+                    rates.size(), criteria, endDate, startDate);
+        }
+        return mostRecent;
+    }
+
+    /** Distinct currency codes of the rates, sorted. */
+    static List<String> currencyCodes(List<ExchangeRate> rates) {
+        return List.copyOf(new TreeSet<>(rates.stream().map(ExchangeRate::getCurrencyCode).toList()));
+    }
+
+    // --- fallbacks, used when the Treasury API cannot be reached ---
+
+    /** The cached rate for the currency on the date, or empty. */
+    Optional<ExchangeRate> cachedRate(String currencyCode, LocalDate date, boolean cacheEnabled) {
+        Optional<ExchangeRate> cached = cacheEnabled ? exchangeRateCache.get(currencyCode, date) : null;
+        if (cached != null && cached.isPresent()) {
+            log.info("Returning cached exchange rate for {} on {}", currencyCode, date);
+            return cached;
+        }
+        log.warn("No cached exchange rate available for {} on {}", currencyCode, date);
+        return Optional.empty();
+    }
+
+    /** Currency codes of the cached rates, sorted; empty rather than failing if nothing is cached. */
+    List<String> cachedCurrencies() {
+        List<String> currencies = new ArrayList<>(currencyCodes(exchangeRateCache.rates()));
+        log.info("Returning {} currencies from cache as fallback", currencies.size());
+        return currencies;
+    }
+
+    /**
+     * The most recent rate matching the criteria within [startDate, endDate] held by the rate
+     * index, or else by the cache. Must respect the date range constraint (REQ 2.3 - within 6 months).
+     */
+    Optional<ExchangeRate> cachedMostRecent(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+        Optional<ExchangeRate> mostRecent = rateIndex.find(criteria, startDate, endDate)
+                .or(() -> exchangeRateCache.rates().stream()
+                        .filter(criteria::matches)
+                        .filter(rate -> rate.getEffectiveDate() != null)
+                        .filter(rate -> !rate.getEffectiveDate().isBefore(startDate))
+                        .filter(rate -> !rate.getEffectiveDate().isAfter(endDate))
+                        .max(Comparator.comparing(ExchangeRate::getEffectiveDate)));
+
+        if (mostRecent.isPresent()) {
+            log.info("Returning cached exchange rate matching {} from date {} as fallback (within range {} to {})",
+                    criteria, mostRecent.get().getEffectiveDate(), startDate, endDate);
+        } else {
+            log.warn("No cached exchange rate available matching {} within date range {} to {}", criteria, startDate, endDate);
+        }
+        return mostRecent;
+    }
+}
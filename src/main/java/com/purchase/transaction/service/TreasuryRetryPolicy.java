@@ -0,0 +1,80 @@
+package com.purchase.transaction.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * When and how soon the {@code treasuryApi} retry (see ResilienceConfig) tries a failed call again:
+ *
+ * - only for transient failures: an I/O error or timeout, or a 5xx / 429 from the Treasury API,
+ *   anywhere in the cause chain (the services wrap them in ExchangeRateRetrievalException)
+ * - only while the {@link RetryBudget} has a token
+ * - only while at least {@code minTimeLeft} of the {@link RequestDeadline} remains: the current
+ *   thread's, or for a non-blocking lookup the one its failure carries
+ *   ({@link AsyncRetrievalException}), since that failure arrives on a thread without one
+ * - after an exponential, jittered backoff starting at {@code initialBackoff} and capped at
+ *   {@code maxBackoff}, shortened so half of the remaining deadline is left for the attempt
+ */
+@Component
+public class TreasuryRetryPolicy {
+    private final RetryBudget budget;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long minTimeLeftNanos;
+
+    public TreasuryRetryPolicy(RetryBudget budget, ExchangeRateProperties properties) {
+        ExchangeRateProperties.Retry settings = properties.getRetry();
+        this.budget = budget;
+        this.initialBackoffMillis = settings.getInitialBackoff().toMillis();
+        this.maxBackoffMillis = settings.getMaxBackoff().toMillis();
+        this.minTimeLeftNanos = settings.getMinTimeLeft().toNanos();
+    }
+
+    /** Whether a call that failed with {@code error} should be tried again. */
+    public boolean shouldRetry(Throwable error) {
+        if (!isTransient(error)) return false;
+        if (remainingNanos(error) < minTimeLeftNanos) return false;
+        return budget.canRetry();
+    }
+
+    /**
+     * Milliseconds to wait before retry number {@code attempt} (1 for the first) of a call that
+     * failed with {@code error}; takes the retry's budget token, since the retry is now certain to happen.
+     */
+    public long backoffMillis(int attempt, Throwable error) {
+        budget.withdraw();
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        // Equal jitter: half the backoff fixed, half random, so concurrent retries spread out
+        long backoff = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        long remainingMillis = remainingNanos(error) / 1_000_000;
+        return Math.max(0, Math.min(backoff, remainingMillis / 2));
+    }
+
+    /** Nanoseconds left of the deadline of the request the failed call served. */
+    private static long remainingNanos(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AsyncRetrievalException e) return RequestDeadline.remainingNanos(e.getDeadline());
+        }
+        return RequestDeadline.remainingNanos();
+    }
+
+    /** True for failures a later attempt may not see: I/O errors, timeouts, 5xx and 429. */
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof ResourceAccessException || cause instanceof TimeoutException) return true;
+            if (cause instanceof RestClientResponseException e) return isTransient(e.getStatusCode().value());
+            if (cause instanceof WebClientResponseException e) return isTransient(e.getStatusCode().value());
+        }
+        return false;
+    }
+
+    private static boolean isTransient(int status) {
+        return status >= 500 || status == 429;
+    }
+}
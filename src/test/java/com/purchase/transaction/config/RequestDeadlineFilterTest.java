@@ -0,0 +1,29 @@
+package com.purchase.transaction.config;
+
+import com.purchase.transaction.service.ExchangeRateProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RequestDeadlineFilter Tests")
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter(new ExchangeRateProperties());
+
+    @Test
+    @DisplayName("Should use the configured request timeout without a header")
+    void testDefaultTimeout() {
+        assertEquals(Duration.ofSeconds(5), filter.timeout(null));
+        assertEquals(Duration.ofSeconds(5), filter.timeout("not-a-number"));
+    }
+
+    @Test
+    @DisplayName("Should shorten the deadline to the caller's timeout but never extend it")
+    void testCallerTimeout() {
+        assertEquals(Duration.ofMillis(1500), filter.timeout("1500"));
+        assertEquals(Duration.ofSeconds(5), filter.timeout("60000"));
+    }
+}
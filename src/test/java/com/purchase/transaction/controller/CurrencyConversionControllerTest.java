@@ -15,6 +15,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -52,9 +53,10 @@ class CurrencyConversionControllerTest {
             LocalDate.now()
         );
         
-        when(transactionService.convertTransaction(transactionId, country, currency, country_currency_desc)).thenReturn(mockConverted);
+        when(transactionService.convertTransactionAsync(transactionId, country, currency, country_currency_desc))
+            .thenReturn(CompletableFuture.completedFuture(mockConverted));
         
-        ResponseEntity<ConvertedTransaction> response = currencyConversionController.convertTransaction(transactionId, country, currency, country_currency_desc);
+        ResponseEntity<ConvertedTransaction> response = currencyConversionController.convertTransaction(transactionId, country, currency, country_currency_desc).join();
         
         assertEquals(HttpStatus.OK, response.getStatusCode());
         ConvertedTransaction body = response.getBody();
@@ -1,6 +1,10 @@
 package com.purchase.transaction.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.BulkIngestionReport;
+import com.purchase.transaction.model.BulkTransactionResult;
 import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionPage;
 import com.purchase.transaction.service.IPurchaseTransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,13 +14,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,7 +42,9 @@ class TransactionControllerTest {
     
     @BeforeEach
     void setUp() {
-        transactionController = new TransactionController(transactionService);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        transactionController = new TransactionController(transactionService, objectMapper);
     }
     
     @Test
@@ -102,7 +113,7 @@ class TransactionControllerTest {
         
         when(transactionService.getAllTransactions()).thenReturn(mockTransactions);
         
-        ResponseEntity<List<PurchaseTransaction>> response = transactionController.getAllTransactions();
+        ResponseEntity<List<PurchaseTransaction>> response = transactionController.getAllTransactions(null, null, null, null);
         
         assertEquals(HttpStatus.OK, response.getStatusCode());
         List<PurchaseTransaction> body = response.getBody();
@@ -110,6 +121,107 @@ class TransactionControllerTest {
         assertEquals(2, body.size());
     }
     
+    @Test
+    @DisplayName("Should return a page of transactions with the next cursor header when the page is full")
+    void testGetTransactionPage() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        List<PurchaseTransaction> mockTransactions = List.of(
+            PurchaseTransaction.create("January purchase", LocalDate.of(2025, 1, 15), new BigDecimal("50")));
+        
+        when(transactionService.getTransactionPage(from, to, null, 1)).thenReturn(new TransactionPage(mockTransactions, "next-token"));
+        
+        ResponseEntity<List<PurchaseTransaction>> response = transactionController.getAllTransactions(from, to, null, 1);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(mockTransactions, response.getBody());
+        assertEquals("next-token", response.getHeaders().getFirst(TransactionController.NEXT_CURSOR_HEADER));
+        verify(transactionService, never()).getAllTransactions();
+    }
+    
+    @Test
+    @DisplayName("Should omit the next cursor header on the last page")
+    void testGetLastTransactionPage() {
+        when(transactionService.getTransactionPage(null, null, "cursor", 10)).thenReturn(new TransactionPage(List.of(), null));
+        
+        ResponseEntity<List<PurchaseTransaction>> response = transactionController.getAllTransactions(null, null, "cursor", 10);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(TransactionController.NEXT_CURSOR_HEADER));
+    }
+    
+    @Test
+    @DisplayName("Should stream transactions as newline-delimited JSON")
+    void testStreamTransactions() throws Exception {
+        PurchaseTransaction first = PurchaseTransaction.create("First", LocalDate.of(2025, 1, 1), new BigDecimal("1.00"));
+        PurchaseTransaction second = PurchaseTransaction.create("Second", LocalDate.of(2025, 1, 2), new BigDecimal("2.00"));
+        when(transactionService.streamTransactions(null, null, null, null)).thenReturn(Stream.of(first, second));
+        
+        ResponseEntity<StreamingResponseBody> response = transactionController.streamTransactions(null, null, null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains(first.getTransactionId()));
+        assertTrue(lines[1].contains("\"2025-01-02\""));
+    }
+    
+    @Test
+    @DisplayName("Should read a JSON array bulk request element by element, keeping entries that do not bind as rejected entries")
+    void testCreateTransactionsJson() throws Exception {
+        String body = """
+            [{"description":"Coffee","transactionDate":"2025-01-15","amount":3.50},
+             {"description":"Bad amount","transactionDate":"2025-01-15","amount":"three"},
+             null,
+             {"description":"Lunch","transactionDate":"2025-01-16","amount":12.00}]
+            """;
+        BulkIngestionReport report = BulkIngestionReport.of(List.of(BulkTransactionResult.created(0, "a"),
+            BulkTransactionResult.rejected(1, "Entry is missing or is not a valid transaction object"),
+            BulkTransactionResult.rejected(2, "Entry is missing or is not a valid transaction object"), BulkTransactionResult.created(3, "b")));
+        when(transactionService.createTransactions(anyList())).thenReturn(report);
+
+        ResponseEntity<BulkIngestionReport> response = transactionController.createTransactionsJson(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().created());
+        verify(transactionService).createTransactions(argThat(drafts -> drafts.size() == 4
+            && "Coffee".equals(drafts.get(0).description())
+            && drafts.get(1) == null
+            && drafts.get(2) == null
+            && "2025-01-16".equals(drafts.get(3).transactionDate())));
+
+        assertThrows(IllegalArgumentException.class, () -> transactionController.createTransactionsJson(
+            new ByteArrayInputStream("{\"description\":\"Not an array\"}".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IllegalArgumentException.class, () -> transactionController.createTransactionsJson(
+            new ByteArrayInputStream("[{\"description\":\"Cut off\"".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    @DisplayName("Should read NDJSON bulk entries line by line, keeping malformed lines as rejected entries")
+    void testCreateTransactionsNdjson() throws Exception {
+        String body = """
+            {"description":"Coffee","transactionDate":"2025-01-15","amount":3.50}
+            
+            not json
+            {"description":"Lunch","transactionDate":"2025-01-16","amount":12.00}
+            """;
+        BulkIngestionReport report = BulkIngestionReport.of(List.of(BulkTransactionResult.created(0, "a"),
+            BulkTransactionResult.rejected(1, "Entry is missing or is not a valid transaction object"), BulkTransactionResult.created(2, "b")));
+        when(transactionService.createTransactions(anyList())).thenReturn(report);
+        
+        ResponseEntity<BulkIngestionReport> response = transactionController.createTransactionsNdjson(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().created());
+        verify(transactionService).createTransactions(argThat(drafts -> drafts.size() == 3
+            && "Coffee".equals(drafts.get(0).description())
+            && drafts.get(1) == null
+            && "2025-01-16".equals(drafts.get(2).transactionDate())));
+    }
+    
     @Test
     @DisplayName("Should delete transaction and return success message")
     void testDeleteTransactionSuccess() {
@@ -0,0 +1,37 @@
+package com.purchase.transaction.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionCursor Model Tests")
+class TransactionCursorTest {
+    
+    @Test
+    @DisplayName("Should round-trip a cursor through its URL-safe token")
+    void testEncodeDecode() {
+        PurchaseTransaction transaction = PurchaseTransaction.create("Test", LocalDate.of(2025, 6, 30), new BigDecimal("1.00"));
+        TransactionCursor cursor = TransactionCursor.of(transaction);
+        
+        String token = cursor.encode();
+        
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, TransactionCursor.decode(token));
+        assertEquals(LocalDate.of(2025, 6, 30), TransactionCursor.decode(token).transactionDate());
+        
+        TransactionCursor undated = new TransactionCursor(null, transaction.getTransactionId());
+        assertEquals(undated, TransactionCursor.decode(undated.encode()));
+    }
+    
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void testDecodeInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(new TransactionCursor(LocalDate.of(2025, 1, 1), "").encode()));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("bm90LWEtZGF0ZXxpZA"));
+    }
+}
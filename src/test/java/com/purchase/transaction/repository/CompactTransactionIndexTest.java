@@ -0,0 +1,172 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompactTransactionIndex Tests")
+class CompactTransactionIndexTest {
+
+    private static final Function<TransactionLogRecord, Boolean> NO_JOURNAL = record -> true;
+
+    @Test
+    @DisplayName("Should round-trip every field exactly, including ids and amounts it cannot encode")
+    void testRoundTrip() {
+        CompactTransactionIndex index = new CompactTransactionIndex();
+        List<PurchaseTransaction> transactions = List.of(
+                new PurchaseTransaction(UUID.randomUUID().toString(), "Café ☕", LocalDate.of(2025, 1, 15), new BigDecimal("12.30"), LocalDate.of(2025, 1, 16)),
+                new PurchaseTransaction(UUID.randomUUID().toString(), "", LocalDate.of(1999, 12, 31), new BigDecimal("7"), null),
+                new PurchaseTransaction("legacy-1", "Legacy id", LocalDate.of(2025, 1, 15), new BigDecimal("1.00"), LocalDate.of(2025, 1, 15)),
+                new PurchaseTransaction(UUID.randomUUID().toString().toUpperCase(), "Upper-case id", null, new BigDecimal("5.00"), LocalDate.of(2025, 1, 15)),
+                new PurchaseTransaction(UUID.randomUUID().toString(), "Huge amount", LocalDate.of(2025, 1, 15), new BigDecimal("123456789012345678901234.56"), LocalDate.of(2025, 1, 15)));
+
+        transactions.forEach(transaction -> index.put(transaction, NO_JOURNAL));
+
+        assertEquals(transactions.size(), index.size());
+        for (PurchaseTransaction expected : transactions) {
+            PurchaseTransaction actual = index.get(expected.getTransactionId());
+            assertNotNull(actual);
+            assertEquals(expected.getTransactionId(), actual.getTransactionId());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getTransactionDate(), actual.getTransactionDate());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        }
+        assertNull(index.get(UUID.randomUUID().toString()));
+        assertEquals(transactions.size(), index.values().size());
+        assertEquals(3, index.streamByTransactionDate(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 1, 15), null).count());
+    }
+
+    @Test
+    @DisplayName("Should match the object index under random puts, replaces, deletes and range reads")
+    void testMatchesObjectIndex() {
+        CompactTransactionIndex compact = new CompactTransactionIndex();
+        ConcurrentTransactionIndex reference = new ConcurrentTransactionIndex();
+        Random random = new Random(42);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ids.add(i % 50 == 0 ? "legacy-" + i : new UUID(random.nextLong(), random.nextLong()).toString());
+        }
+
+        for (int i = 0; i < 40_000; i++) {
+            String id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(10) < 7) {
+                PurchaseTransaction transaction = new PurchaseTransaction(id, "Purchase " + "x".repeat(random.nextInt(40)),
+                        LocalDate.of(2025, 1, 1).plusDays(random.nextInt(60)), BigDecimal.valueOf(random.nextInt(1_000_000), 2),
+                        LocalDate.of(2025, 3, 1));
+                compact.put(transaction, NO_JOURNAL);
+                reference.put(transaction, NO_JOURNAL);
+            } else {
+                assertEquals(reference.remove(id, NO_JOURNAL), compact.remove(id, NO_JOURNAL));
+            }
+        }
+
+        assertEquals(reference.size(), compact.size());
+        assertEquals(snapshot(reference), snapshot(compact));
+        for (String id : ids) {
+            assertEquals(reference.contains(id), compact.contains(id));
+        }
+
+        LocalDate from = LocalDate.of(2025, 1, 10);
+        LocalDate to = LocalDate.of(2025, 2, 10);
+        assertEquals(keys(reference, from, to, null), keys(compact, from, to, null));
+        List<String> all = keys(reference, LocalDate.MIN, LocalDate.MAX, null);
+        assertEquals(all, keys(compact, LocalDate.MIN, LocalDate.MAX, null));
+
+        PurchaseTransaction middle = reference.get(all.get(all.size() / 2));
+        TransactionCursor cursor = TransactionCursor.of(middle);
+        assertEquals(keys(reference, from, to, cursor), keys(compact, from, to, cursor));
+        assertEquals(keys(reference, LocalDate.MIN, LocalDate.MAX, cursor), keys(compact, LocalDate.MIN, LocalDate.MAX, cursor));
+    }
+
+    @Test
+    @DisplayName("Should reclaim description space when records are replaced many times")
+    void testArenaCompaction() {
+        CompactTransactionIndex index = new CompactTransactionIndex();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        for (int round = 0; round < 500; round++) {
+            for (String id : ids) {
+                index.put(new PurchaseTransaction(id, round + "-" + "d".repeat(40), LocalDate.of(2025, 1, 1),
+                        new BigDecimal("1.00"), LocalDate.of(2025, 1, 1)), NO_JOURNAL);
+            }
+        }
+
+        assertEquals(100, index.size());
+        for (String id : ids) {
+            assertEquals("499-" + "d".repeat(40), index.get(id).getDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("Should journal concurrent mutations in the order they were applied")
+    void testJournalOrderMatchesIndex() throws Exception {
+        CompactTransactionIndex index = new CompactTransactionIndex();
+        ConcurrentLinkedQueue<TransactionLogRecord> journal = new ConcurrentLinkedQueue<>();
+        Function<TransactionLogRecord, Boolean> recorder = journal::add;
+        String[] ids = {UUID.randomUUID().toString(), UUID.randomUUID().toString(), "legacy-a", "legacy-b"};
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2000; i++) {
+                    String id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                    int op = ThreadLocalRandom.current().nextInt(100);
+                    if (op < 60) {
+                        index.put(new PurchaseTransaction(id, "Version " + i, LocalDate.of(2025, 1, 1),
+                                new BigDecimal(thread * 10_000 + i), LocalDate.of(2025, 1, 1)), recorder);
+                    } else if (op < 98) {
+                        index.remove(id, recorder);
+                    } else {
+                        index.clear(recorder);
+                    }
+                    index.get(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+
+        CompactTransactionIndex replayed = new CompactTransactionIndex();
+        journal.forEach(replayed::apply);
+
+        assertEquals(snapshot(index), snapshot(replayed));
+    }
+
+    private static Map<String, BigDecimal> snapshot(ITransactionIndex index) {
+        return index.values().stream().collect(Collectors.toMap(PurchaseTransaction::getTransactionId, PurchaseTransaction::getAmount));
+    }
+
+    private static List<String> keys(ITransactionIndex index, LocalDate from, LocalDate to, TransactionCursor after) {
+        return index.streamByTransactionDate(from, to, after).map(PurchaseTransaction::getTransactionId).toList();
+    }
+}
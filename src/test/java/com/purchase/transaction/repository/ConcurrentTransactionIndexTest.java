@@ -0,0 +1,90 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConcurrentTransactionIndex Tests")
+class ConcurrentTransactionIndexTest {
+
+    private static PurchaseTransaction transaction(String id, int version) {
+        return new PurchaseTransaction(id, "Version " + version, LocalDate.of(2025, 1, 1), new BigDecimal(version), LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Should journal only removals of transactions that exist")
+    void testRemoveJournalsOnlyExisting() {
+        ConcurrentTransactionIndex index = new ConcurrentTransactionIndex();
+        List<TransactionLogRecord> journal = new ArrayList<>();
+        Function<TransactionLogRecord, Boolean> recorder = journal::add;
+
+        index.put(transaction("a", 1), recorder);
+        assertEquals(Boolean.TRUE, index.remove("a", recorder));
+        assertNull(index.remove("a", recorder));
+
+        assertEquals(2, journal.size());
+        assertFalse(index.contains("a"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should journal concurrent mutations in the order they were applied")
+    void testJournalOrderMatchesIndex() throws Exception {
+        ConcurrentTransactionIndex index = new ConcurrentTransactionIndex();
+        ConcurrentLinkedQueue<TransactionLogRecord> journal = new ConcurrentLinkedQueue<>();
+        Function<TransactionLogRecord, Boolean> recorder = journal::add;
+        String[] ids = {"a", "b", "c", "d"};
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2000; i++) {
+                    String id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                    int op = ThreadLocalRandom.current().nextInt(100);
+                    if (op < 60) {
+                        index.put(transaction(id, thread * 10_000 + i), recorder);
+                    } else if (op < 98) {
+                        index.remove(id, recorder);
+                    } else {
+                        index.clear(recorder);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+
+        ConcurrentTransactionIndex replayed = new ConcurrentTransactionIndex();
+        journal.forEach(replayed::apply);
+
+        assertEquals(snapshot(index), snapshot(replayed));
+    }
+
+    private static Map<String, BigDecimal> snapshot(ITransactionIndex index) {
+        return index.values().stream().collect(Collectors.toMap(PurchaseTransaction::getTransactionId, PurchaseTransaction::getAmount));
+    }
+}
@@ -2,6 +2,7 @@ package com.purchase.transaction.repository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,8 +11,10 @@ import org.junit.jupiter.api.io.TempDir;
 import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,6 +67,57 @@ class FileBasedTransactionRepositoryTest {
         assertEquals(2, all.size());
     }
     
+    @Test
+    @DisplayName("Should return transactions in a date window ordered by date")
+    void testFindByTransactionDateBetween() {
+        PurchaseTransaction march = repository.save(PurchaseTransaction.create("March", LocalDate.of(2025, 3, 10), new BigDecimal("30")));
+        PurchaseTransaction january = repository.save(PurchaseTransaction.create("January", LocalDate.of(2025, 1, 10), new BigDecimal("10")));
+        PurchaseTransaction february = repository.save(PurchaseTransaction.create("February", LocalDate.of(2025, 2, 10), new BigDecimal("20")));
+        repository.save(PurchaseTransaction.create("April", LocalDate.of(2025, 4, 10), new BigDecimal("40")));
+        
+        List<PurchaseTransaction> window = repository.findByTransactionDateBetween(LocalDate.of(2025, 1, 10), LocalDate.of(2025, 3, 10), 10);
+        assertEquals(List.of(january.getTransactionId(), february.getTransactionId(), march.getTransactionId()),
+            window.stream().map(PurchaseTransaction::getTransactionId).toList());
+        
+        assertEquals(2, repository.findByTransactionDateBetween(LocalDate.MIN, LocalDate.MAX, 2).size());
+        
+        repository.deleteById(february.getTransactionId());
+        repository.save(new PurchaseTransaction(march.getTransactionId(), "Moved", LocalDate.of(2025, 5, 1), new BigDecimal("30"), LocalDate.now()));
+        List<PurchaseTransaction> afterChanges = repository.findByTransactionDateBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), 10);
+        assertEquals(List.of(january.getTransactionId()), afterChanges.stream().map(PurchaseTransaction::getTransactionId).toList());
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> repository.findByTransactionDateBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), 10));
+    }
+    
+    @Test
+    @DisplayName("Should page through transactions with a keyset cursor")
+    void testStreamByTransactionDateAfterCursor() {
+        for (int day = 1; day <= 5; day++) {
+            repository.save(PurchaseTransaction.create("Day " + day, LocalDate.of(2025, 7, day), new BigDecimal("1.00")));
+            repository.save(PurchaseTransaction.create("Day " + day + " again", LocalDate.of(2025, 7, day), new BigDecimal("2.00")));
+        }
+        
+        List<PurchaseTransaction> seen = new ArrayList<>();
+        TransactionCursor cursor = null;
+        while (true) {
+            List<PurchaseTransaction> page = repository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, cursor).limit(3).toList();
+            if (page.isEmpty()) break;
+            seen.addAll(page);
+            cursor = TransactionCursor.of(page.get(page.size() - 1));
+        }
+        
+        assertEquals(10, seen.size());
+        assertEquals(10, seen.stream().map(PurchaseTransaction::getTransactionId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getTransactionDate().isBefore(seen.get(i - 1).getTransactionDate()));
+        }
+        
+        TransactionCursor afterJuly3 = TransactionCursor.of(seen.get(5));
+        assertEquals(4, repository.streamByTransactionDate(LocalDate.MIN, LocalDate.of(2025, 7, 5), afterJuly3).count());
+        assertEquals(0, repository.streamByTransactionDate(LocalDate.MIN, LocalDate.of(2025, 7, 2), afterJuly3).count());
+    }
+    
     @Test
     @DisplayName("Should delete transaction by ID")
     void testDeleteById() {
@@ -94,4 +148,75 @@ class FileBasedTransactionRepositoryTest {
         assertNotNull(transaction);
         assertNotNull(transaction.getTransactionId());
     }
+    
+    @Test
+    @DisplayName("Should stream undated transactions in id order, apart from the date index, in every layout")
+    void testStreamUndated() {
+        for (StorageLayout layout : StorageLayout.values()) {
+            RepositoryProperties properties = RepositoryProperties.forPath(tempDir.resolve("undated-" + layout).toString());
+            properties.setLayout(layout);
+            FileBasedTransactionRepository undatedRepository = new FileBasedTransactionRepository(objectMapper, properties);
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                ids.add(undatedRepository.save(new PurchaseTransaction(UUID.randomUUID().toString(), "Undated " + i, null, new BigDecimal("1.00"), LocalDate.now())).getTransactionId());
+            }
+            ids.add(undatedRepository.save(new PurchaseTransaction("legacy-id", "Undated legacy", null, new BigDecimal("1.00"), LocalDate.now())).getTransactionId());
+            undatedRepository.save(PurchaseTransaction.create("Dated", LocalDate.of(2025, 7, 1), new BigDecimal("1.00")));
+            ids.sort(null);
+            
+            assertEquals(ids, undatedRepository.streamUndated(null).map(PurchaseTransaction::getTransactionId).toList(), layout.name());
+            assertEquals(ids.subList(2, 4), undatedRepository.streamUndated(ids.get(1)).map(PurchaseTransaction::getTransactionId).toList(), layout.name());
+            assertEquals(1, undatedRepository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, new TransactionCursor(null, ids.get(3))).count(), layout.name());
+            
+            undatedRepository.deleteById(ids.get(0));
+            undatedRepository.save(new PurchaseTransaction(ids.get(1), "Now dated", LocalDate.of(2025, 7, 2), new BigDecimal("1.00"), LocalDate.now()));
+            assertEquals(ids.subList(2, 4), undatedRepository.streamUndated(null).map(PurchaseTransaction::getTransactionId).toList(), layout.name());
+            undatedRepository.close();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should persist a bulk save and reload it")
+    void testSaveAll() {
+        RepositoryProperties properties = RepositoryProperties.forPath(tempDir.resolve("bulk").toString());
+        properties.setPersistenceMode(PersistenceMode.LOG);
+        FileBasedTransactionRepository bulk = new FileBasedTransactionRepository(objectMapper, properties);
+        List<PurchaseTransaction> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(PurchaseTransaction.create("Bulk " + i, LocalDate.of(2025, 1, 1), new BigDecimal("1.00")));
+        }
+        
+        assertEquals(1000, bulk.saveAll(batch).size());
+        assertTrue(bulk.saveAll(List.of()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> bulk.saveAll(null));
+        bulk.close();
+        
+        FileBasedTransactionRepository reloaded = new FileBasedTransactionRepository(objectMapper, properties);
+        assertEquals(1000, reloaded.count());
+        assertTrue(reloaded.existsById(batch.get(999).getTransactionId()));
+        reloaded.close();
+    }
+    
+    @Test
+    @DisplayName("Should reload transactions into the compact layout")
+    void testCompactLayoutReload() {
+        RepositoryProperties properties = RepositoryProperties.forPath(tempDir.resolve("compact").toString());
+        properties.setPersistenceMode(PersistenceMode.LOG);
+        properties.setLayout(StorageLayout.COMPACT);
+        FileBasedTransactionRepository compact = new FileBasedTransactionRepository(objectMapper, properties);
+        PurchaseTransaction kept = compact.save(PurchaseTransaction.create("Kept", LocalDate.of(2025, 2, 1), new BigDecimal("10.50")));
+        PurchaseTransaction deleted = compact.save(PurchaseTransaction.create("Deleted", LocalDate.of(2025, 2, 1), new BigDecimal("2.00")));
+        compact.deleteById(deleted.getTransactionId());
+        compact.close();
+        
+        FileBasedTransactionRepository reloaded = new FileBasedTransactionRepository(objectMapper, properties);
+        
+        assertEquals(1, reloaded.count());
+        PurchaseTransaction found = reloaded.findById(kept.getTransactionId()).orElseThrow();
+        assertEquals("Kept", found.getDescription());
+        assertEquals(new BigDecimal("10.50"), found.getAmount());
+        assertEquals(List.of(kept.getTransactionId()), reloaded.streamByTransactionDate(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 1), null)
+                .map(PurchaseTransaction::getTransactionId).toList());
+        reloaded.close();
+    }
 }
@@ -0,0 +1,202 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GroupCommitWriter Tests")
+class GroupCommitWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static class RecordingStore implements ITransactionStore {
+        final List<TransactionLogRecord> written = new ArrayList<>();
+        final AtomicInteger appends = new AtomicInteger();
+        final AtomicInteger syncs = new AtomicInteger();
+        volatile boolean failing;
+
+        @Override
+        public void replay(Consumer<TransactionLogRecord> sink) {
+        }
+
+        @Override
+        public void append(List<TransactionLogRecord> records) throws IOException {
+            if (failing) throw new IOException("disk full");
+            appends.incrementAndGet();
+            written.addAll(records);
+        }
+
+        @Override
+        public void sync() {
+            syncs.incrementAndGet();
+        }
+    }
+
+    private static TransactionLogRecord record(int i) {
+        return TransactionLogRecord.put(PurchaseTransaction.create("Purchase " + i, LocalDate.of(2025, 1, 1), new BigDecimal("1.00")));
+    }
+
+    @Test
+    @DisplayName("Should write concurrent submissions in shared batches with one fsync each")
+    void testBatchesConcurrentWrites() {
+        RecordingStore store = new RecordingStore();
+        GroupCommitWriter writer = new GroupCommitWriter(store, DurabilityMode.FSYNC_PER_BATCH, Duration.ofMillis(50), 1000, Duration.ofSeconds(1));
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(writer.submit(record(i)));
+        }
+        futures.forEach(CompletableFuture::join);
+        writer.close();
+
+        assertEquals(100, store.written.size());
+        assertTrue(store.appends.get() < 100, "expected batched appends but got " + store.appends.get());
+        assertEquals(store.appends.get(), store.syncs.get());
+    }
+
+    @Test
+    @DisplayName("Should cap batches at the configured size")
+    void testMaxBatchSize() {
+        RecordingStore store = new RecordingStore();
+        GroupCommitWriter writer = new GroupCommitWriter(store, DurabilityMode.OS_BUFFERED, Duration.ofMillis(50), 10, Duration.ofSeconds(1));
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 35; i++) {
+            futures.add(writer.submit(record(i)));
+        }
+        futures.forEach(CompletableFuture::join);
+        writer.close();
+
+        assertTrue(store.appends.get() >= 4);
+        assertEquals(0, store.syncs.get());
+    }
+
+    @Test
+    @DisplayName("Should write everything submitted under a hold as one batch")
+    void testHoldWritesOneBatch() {
+        RecordingStore store = new RecordingStore();
+        GroupCommitWriter writer = new GroupCommitWriter(store, DurabilityMode.FSYNC_PER_BATCH, Duration.ZERO, 10, Duration.ofSeconds(1));
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        writer.hold();
+        for (int i = 0; i < 35; i++) {
+            futures.add(writer.submit(record(i)));
+        }
+        writer.release();
+        futures.forEach(CompletableFuture::join);
+        writer.close();
+
+        assertEquals(35, store.written.size());
+        assertEquals(1, store.appends.get());
+        assertEquals(1, store.syncs.get());
+    }
+
+    @Test
+    @DisplayName("Should fail every writer in a batch that could not be written")
+    void testFailurePropagates() {
+        RecordingStore store = new RecordingStore();
+        store.failing = true;
+        GroupCommitWriter writer = new GroupCommitWriter(store, DurabilityMode.FSYNC_PER_BATCH, Duration.ZERO, 10, Duration.ofSeconds(1));
+
+        CompletableFuture<Void> future = writer.submit(record(1));
+        CompletionException ex = assertThrows(CompletionException.class, future::join);
+        assertTrue(ex.getCause() instanceof IOException);
+        writer.close();
+
+        assertThrows(CompletionException.class, () -> writer.submit(record(2)).join());
+    }
+
+    @Test
+    @DisplayName("Should complete every submission that races close, either written or failed")
+    void testSubmitRacingClose() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 50; round++) {
+                RecordingStore store = new RecordingStore();
+                GroupCommitWriter writer = new GroupCommitWriter(store, DurabilityMode.OS_BUFFERED, Duration.ZERO, 10, Duration.ofSeconds(1));
+                List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+                CountDownLatch submitting = new CountDownLatch(4);
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    tasks.add(pool.submit(() -> {
+                        submitting.countDown();
+                        for (int i = 0; i < 200; i++) {
+                            futures.add(writer.submit(record(i)));
+                        }
+                    }));
+                }
+                submitting.await();
+                writer.close();
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+
+                int written = 0;
+                for (CompletableFuture<Void> future : futures) {
+                    try {
+                        future.get(5, TimeUnit.SECONDS);
+                        written++;
+                    } catch (ExecutionException e) {
+                        assertInstanceOf(IllegalStateException.class, e.getCause());
+                    }
+                }
+                assertEquals(store.written.size(), written);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should persist every concurrent save through the repository")
+    void testConcurrentRepositorySaves() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        RepositoryProperties properties = RepositoryProperties.forPath(tempDir.toString());
+        properties.setPersistenceMode(PersistenceMode.LOG);
+        FileBasedTransactionRepository repository = new FileBasedTransactionRepository(objectMapper, properties);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    repository.save(PurchaseTransaction.create("Concurrent", LocalDate.of(2025, 1, 2), new BigDecimal("3.00")));
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+        repository.close();
+
+        FileBasedTransactionRepository reopened = new FileBasedTransactionRepository(objectMapper, properties);
+        assertEquals(200, reopened.count());
+        reopened.close();
+    }
+}
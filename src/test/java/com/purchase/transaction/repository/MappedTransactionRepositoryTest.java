@@ -0,0 +1,159 @@
+package com.purchase.transaction.repository;
+
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MappedTransactionRepository Tests")
+class MappedTransactionRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RepositoryProperties properties;
+    private MappedTransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        properties = RepositoryProperties.forPath(tempDir.toString());
+        properties.setEngine(RepositoryEngine.MMAP);
+        repository = new MappedTransactionRepository(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("Should save, replace and find transactions with every field intact")
+    void testSaveAndFind() {
+        PurchaseTransaction transaction = new PurchaseTransaction("tx-1", "Café ☕", LocalDate.of(2025, 1, 15), new BigDecimal("12.30"), LocalDate.of(2025, 1, 16));
+        repository.save(transaction);
+        repository.save(new PurchaseTransaction("tx-2", null, null, null, null));
+
+        PurchaseTransaction found = repository.findById("tx-1").orElseThrow();
+        assertEquals("Café ☕", found.getDescription());
+        assertEquals(LocalDate.of(2025, 1, 15), found.getTransactionDate());
+        assertEquals(new BigDecimal("12.30"), found.getAmount());
+        assertEquals(LocalDate.of(2025, 1, 16), found.getCreatedAt());
+        PurchaseTransaction empty = repository.findById("tx-2").orElseThrow();
+        assertNull(empty.getDescription());
+        assertNull(empty.getAmount());
+        assertNull(empty.getTransactionDate());
+
+        transaction.setDescription("Replaced");
+        repository.save(transaction);
+        assertEquals("Replaced", repository.findById("tx-1").orElseThrow().getDescription());
+        assertEquals(2, repository.count());
+        assertTrue(repository.findById("missing").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep every remaining transaction reachable across deletes and index growth")
+    void testDeleteAndGrow() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            PurchaseTransaction saved = repository.save(PurchaseTransaction.create("Purchase " + i, LocalDate.of(2025, 1, 1).plusDays(i % 30), new BigDecimal("1.00")));
+            ids.add(saved.getTransactionId());
+        }
+        Set<String> deleted = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += 3) {
+            assertTrue(repository.deleteById(ids.get(i)));
+            deleted.add(ids.get(i));
+        }
+        assertFalse(repository.deleteById(ids.get(0)));
+
+        assertEquals(ids.size() - deleted.size(), repository.count());
+        for (String id : ids) {
+            assertEquals(!deleted.contains(id), repository.existsById(id));
+        }
+        assertEquals(repository.count(), repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should save a batch in one pass, replacing ids it already holds")
+    void testSaveAll() {
+        PurchaseTransaction existing = repository.save(PurchaseTransaction.create("Before", LocalDate.of(2025, 1, 1), new BigDecimal("1.00")));
+        List<PurchaseTransaction> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(PurchaseTransaction.create("Bulk " + i, LocalDate.of(2025, 1, 1), new BigDecimal("1.00")));
+        }
+        existing.setDescription("After");
+        batch.add(existing);
+
+        assertEquals(101, repository.saveAll(batch).size());
+        assertEquals(101, repository.count());
+        assertEquals("After", repository.findById(existing.getTransactionId()).orElseThrow().getDescription());
+    }
+
+    @Test
+    @DisplayName("Should reopen instantly after a clean close and rebuild after an unclean one")
+    void testReopen() throws Exception {
+        PurchaseTransaction kept = repository.save(PurchaseTransaction.create("Kept", LocalDate.of(2025, 2, 1), new BigDecimal("10.50")));
+        PurchaseTransaction torn = repository.save(PurchaseTransaction.create("Torn", LocalDate.of(2025, 2, 1), new BigDecimal("2.00")));
+        repository.close();
+
+        repository = new MappedTransactionRepository(properties);
+        assertEquals(2, repository.count());
+        assertEquals("Kept", repository.findById(kept.getTransactionId()).orElseThrow().getDescription());
+
+        // Abandon the open store without closing it and tear the second record
+        try (RandomAccessFile file = new RandomAccessFile(tempDir.resolve(MappedTransactionRepository.DATA_FILENAME).toFile(), "rw")) {
+            file.seek(MappedTransactionRepository.RECORD_BYTES + 100);
+            file.write(0x7F);
+        }
+        MappedTransactionRepository recovered = new MappedTransactionRepository(properties);
+        try {
+            assertEquals(1, recovered.count());
+            assertTrue(recovered.existsById(kept.getTransactionId()));
+            assertFalse(recovered.existsById(torn.getTransactionId()));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream date ranges in (date, id) order after a cursor")
+    void testStreamByTransactionDate() {
+        for (int day = 1; day <= 5; day++) {
+            for (int n = 0; n < 3; n++) {
+                repository.save(new PurchaseTransaction("tx-" + day + "-" + n, "Day " + day, LocalDate.of(2025, 3, day), new BigDecimal("1.00"), LocalDate.of(2025, 3, day)));
+            }
+        }
+
+        List<String> range = repository.findByTransactionDateBetween(LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 3), 10).stream()
+                .map(PurchaseTransaction::getTransactionId).toList();
+        assertEquals(List.of("tx-2-0", "tx-2-1", "tx-2-2", "tx-3-0", "tx-3-1", "tx-3-2"), range);
+
+        TransactionCursor cursor = new TransactionCursor(LocalDate.of(2025, 3, 4), "tx-4-1");
+        List<String> resumed = repository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, cursor)
+                .map(PurchaseTransaction::getTransactionId).toList();
+        assertEquals(List.of("tx-4-2", "tx-5-0", "tx-5-1", "tx-5-2"), resumed);
+
+        repository.save(new PurchaseTransaction("undated-b", "Undated", null, new BigDecimal("1.00"), LocalDate.of(2025, 3, 1)));
+        repository.save(new PurchaseTransaction("undated-a", "Undated", null, new BigDecimal("1.00"), LocalDate.of(2025, 3, 1)));
+        assertEquals(List.of("undated-a", "undated-b"), repository.streamUndated(null).map(PurchaseTransaction::getTransactionId).toList());
+        assertEquals(List.of("undated-b"), repository.streamUndated("undated-a").map(PurchaseTransaction::getTransactionId).toList());
+        assertEquals(15, repository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, new TransactionCursor(null, "undated-b")).count());
+
+        repository.deleteAll();
+        assertEquals(0, repository.count());
+        assertEquals(0, repository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, null).count());
+    }
+}
@@ -0,0 +1,121 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SegmentedLogTransactionStore Tests")
+class SegmentedLogTransactionStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+    }
+
+    private FileBasedTransactionRepository openRepository(DataSize segmentSize) {
+        RepositoryProperties properties = RepositoryProperties.forPath(tempDir.toString());
+        properties.setPersistenceMode(PersistenceMode.LOG);
+        properties.setSegmentSize(segmentSize);
+        return new FileBasedTransactionRepository(objectMapper, properties);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay saves and deletes from the log after restart")
+    void testReplayAfterRestart() {
+        FileBasedTransactionRepository repository = openRepository(DataSize.ofMegabytes(1));
+        PurchaseTransaction kept = repository.save(PurchaseTransaction.create("Kept", LocalDate.of(2025, 1, 10), new BigDecimal("10.00")));
+        PurchaseTransaction removed = repository.save(PurchaseTransaction.create("Removed", LocalDate.of(2025, 1, 11), new BigDecimal("20.00")));
+        repository.deleteById(removed.getTransactionId());
+        repository.close();
+
+        FileBasedTransactionRepository reopened = openRepository(DataSize.ofMegabytes(1));
+        assertEquals(1, reopened.count());
+        assertEquals("Kept", reopened.findById(kept.getTransactionId()).orElseThrow().getDescription());
+        assertEquals(new BigDecimal("10.00"), reopened.findById(kept.getTransactionId()).orElseThrow().getAmount());
+        assertFalse(reopened.existsById(removed.getTransactionId()));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should roll over to new segments and replay them in order")
+    void testSegmentRollover() throws IOException {
+        FileBasedTransactionRepository repository = openRepository(DataSize.ofBytes(256));
+        for (int i = 0; i < 10; i++) {
+            repository.save(PurchaseTransaction.create("Purchase " + i, LocalDate.of(2025, 2, 1), new BigDecimal("1.00")));
+        }
+        repository.deleteAll();
+        PurchaseTransaction last = repository.save(PurchaseTransaction.create("After clear", LocalDate.of(2025, 2, 2), new BigDecimal("2.00")));
+        repository.close();
+
+        assertTrue(segments().size() > 1);
+
+        FileBasedTransactionRepository reopened = openRepository(DataSize.ofBytes(256));
+        assertEquals(1, reopened.count());
+        assertTrue(reopened.existsById(last.getTransactionId()));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should discard a torn record at the tail of the newest segment")
+    void testTornTailIsTruncated() throws IOException {
+        FileBasedTransactionRepository repository = openRepository(DataSize.ofMegabytes(1));
+        PurchaseTransaction saved = repository.save(PurchaseTransaction.create("Durable", LocalDate.of(2025, 3, 1), new BigDecimal("5.00")));
+        repository.close();
+
+        Path segment = segments().get(0);
+        long intactSize = Files.size(segment);
+        Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        FileBasedTransactionRepository reopened = openRepository(DataSize.ofMegabytes(1));
+        assertEquals(1, reopened.count());
+        assertTrue(reopened.existsById(saved.getTransactionId()));
+        assertEquals(intactSize, Files.size(segment));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should import an existing transactions.json into an empty log once")
+    void testMigratesLegacyJsonFile() throws IOException {
+        FileBasedTransactionRepository jsonRepository = new FileBasedTransactionRepository(objectMapper, tempDir.toString());
+        PurchaseTransaction saved = jsonRepository.save(PurchaseTransaction.create("Legacy", LocalDate.of(2024, 12, 1), new BigDecimal("99.99")));
+        jsonRepository.close();
+
+        FileBasedTransactionRepository logRepository = openRepository(DataSize.ofMegabytes(1));
+        assertTrue(logRepository.existsById(saved.getTransactionId()));
+        logRepository.close();
+
+        assertFalse(Files.exists(tempDir.resolve("transactions.json")));
+        assertTrue(Files.exists(tempDir.resolve("transactions.json.migrated")));
+
+        FileBasedTransactionRepository reopened = openRepository(DataSize.ofMegabytes(1));
+        assertEquals(1, reopened.count());
+        reopened.close();
+    }
+}
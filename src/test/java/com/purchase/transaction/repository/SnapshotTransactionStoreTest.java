@@ -0,0 +1,124 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SnapshotTransactionStore Tests")
+class SnapshotTransactionStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+    }
+
+    private FileBasedTransactionRepository openRepository() {
+        RepositoryProperties properties = RepositoryProperties.forPath(tempDir.toString());
+        properties.setPersistenceMode(PersistenceMode.SNAPSHOT);
+        properties.setSegmentSize(DataSize.ofKilobytes(1));
+        properties.setCompactionInterval(Duration.ofHours(1));
+        return new FileBasedTransactionRepository(objectMapper, properties);
+    }
+
+    private void compactAndWait(FileBasedTransactionRepository repository) throws InterruptedException {
+        long before = (long) repository.describeStore().get("compactions");
+        assertTrue(repository.requestCompaction());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((long) repository.describeStore().get("compactions") == before) {
+            assertTrue(System.currentTimeMillis() < deadline, "compaction did not finish");
+            Thread.sleep(10);
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fold the change log into a snapshot and restore from it")
+    void testCompactionAndRestore() throws Exception {
+        FileBasedTransactionRepository repository = openRepository();
+        PurchaseTransaction first = null;
+        for (int i = 0; i < 20; i++) {
+            PurchaseTransaction saved = repository.save(PurchaseTransaction.create("Purchase " + i, LocalDate.of(2025, 4, 1), new BigDecimal("12.34")));
+            if (first == null) first = saved;
+        }
+        repository.deleteById(first.getTransactionId());
+        assertTrue(segmentCount() > 1);
+
+        compactAndWait(repository);
+
+        assertTrue(Files.exists(tempDir.resolve("transactions.snapshot")));
+        assertEquals(1, segmentCount());
+        assertEquals(19L, repository.describeStore().get("snapshotRecords"));
+
+        PurchaseTransaction afterSnapshot = repository.save(PurchaseTransaction.create("After snapshot", LocalDate.of(2025, 4, 2), new BigDecimal("1.50")));
+        repository.close();
+
+        FileBasedTransactionRepository reopened = openRepository();
+        assertEquals(20, reopened.count());
+        assertFalse(reopened.existsById(first.getTransactionId()));
+        PurchaseTransaction restored = reopened.findById(afterSnapshot.getTransactionId()).orElseThrow();
+        assertEquals(new BigDecimal("1.50"), restored.getAmount());
+        assertEquals(LocalDate.of(2025, 4, 2), restored.getTransactionDate());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should keep accepting writes and compact again after a restart")
+    void testRepeatedCompaction() throws Exception {
+        FileBasedTransactionRepository repository = openRepository();
+        repository.save(PurchaseTransaction.create("One", LocalDate.of(2025, 5, 1), new BigDecimal("1.00")));
+        compactAndWait(repository);
+        repository.close();
+
+        FileBasedTransactionRepository reopened = openRepository();
+        reopened.deleteAll();
+        PurchaseTransaction two = reopened.save(PurchaseTransaction.create("Two", LocalDate.of(2025, 5, 2), new BigDecimal("2.00")));
+        compactAndWait(reopened);
+        reopened.close();
+
+        FileBasedTransactionRepository again = openRepository();
+        assertEquals(1, again.count());
+        assertTrue(again.existsById(two.getTransactionId()));
+        again.close();
+    }
+
+    @Test
+    @DisplayName("Should refuse to start from a corrupted snapshot")
+    void testCorruptSnapshotIsRejected() throws Exception {
+        FileBasedTransactionRepository repository = openRepository();
+        repository.save(PurchaseTransaction.create("Data", LocalDate.of(2025, 6, 1), new BigDecimal("3.00")));
+        compactAndWait(repository);
+        repository.close();
+
+        Path snapshot = tempDir.resolve("transactions.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 12] ^= 0x7F;
+        Files.write(snapshot, bytes);
+
+        assertThrows(RuntimeException.class, this::openRepository);
+    }
+}
@@ -0,0 +1,116 @@
+package com.purchase.transaction.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.PurchaseTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionJsonStreamReader Tests")
+class TransactionJsonStreamReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+    }
+
+    private List<PurchaseTransaction> writeLedger(int size) throws IOException {
+        List<PurchaseTransaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactions.add(PurchaseTransaction.create("Purchase " + i, LocalDate.of(2025, 1, 1).plusDays(i % 365), new BigDecimal(i + ".25")));
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempDir.resolve("transactions.json").toFile(), transactions);
+        return transactions;
+    }
+
+    private List<PurchaseTransaction> read(int parallelism) throws IOException {
+        List<PurchaseTransaction> loaded = new ArrayList<>();
+        long count = new TransactionJsonStreamReader(objectMapper, parallelism).read(tempDir.resolve("transactions.json"), loaded::add);
+        assertEquals(loaded.size(), count);
+        return loaded;
+    }
+
+    @Test
+    @DisplayName("Should stream every transaction in file order")
+    void testSequentialRead() throws IOException {
+        List<PurchaseTransaction> written = writeLedger(50);
+
+        List<PurchaseTransaction> loaded = read(1);
+
+        assertEquals(50, loaded.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(written.get(i).getTransactionId(), loaded.get(i).getTransactionId());
+            assertEquals(written.get(i).getAmount(), loaded.get(i).getAmount());
+            assertEquals(written.get(i).getTransactionDate(), loaded.get(i).getTransactionDate());
+        }
+    }
+
+    @Test
+    @DisplayName("Should bind in parallel and still deliver in file order")
+    void testParallelReadKeepsOrder() throws IOException {
+        List<PurchaseTransaction> written = writeLedger(5000);
+
+        List<PurchaseTransaction> loaded = read(4);
+
+        assertEquals(written.size(), loaded.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(written.get(i).getTransactionId(), loaded.get(i).getTransactionId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat an empty array as an empty ledger and reject non-array content")
+    void testEmptyAndMalformedFiles() throws IOException {
+        Files.writeString(tempDir.resolve("transactions.json"), "[ ]");
+        assertTrue(read(1).isEmpty());
+
+        Files.writeString(tempDir.resolve("transactions.json"), "{\"transactionId\":\"x\"}");
+        assertThrows(IOException.class, () -> read(1));
+
+        Files.writeString(tempDir.resolve("transactions.json"), "[{\"transactionId\":\"x\"}, 42]");
+        assertThrows(IOException.class, () -> read(4));
+    }
+
+    @Test
+    @DisplayName("Should replay many log segments in parallel in sequence order")
+    void testParallelSegmentReplay() {
+        RepositoryProperties properties = RepositoryProperties.forPath(tempDir.toString());
+        properties.setPersistenceMode(PersistenceMode.LOG);
+        properties.setSegmentSize(DataSize.ofBytes(512));
+        properties.setLoadParallelism(4);
+        FileBasedTransactionRepository repository = new FileBasedTransactionRepository(objectMapper, properties);
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            PurchaseTransaction saved = repository.save(PurchaseTransaction.create("Purchase " + i, LocalDate.of(2025, 3, 1), new BigDecimal("4.00")));
+            if (i % 3 == 0) {
+                repository.deleteById(saved.getTransactionId());
+            } else {
+                kept.add(saved.getTransactionId());
+            }
+        }
+        repository.close();
+
+        FileBasedTransactionRepository reopened = new FileBasedTransactionRepository(objectMapper, properties);
+        assertEquals(kept.size(), reopened.count());
+        kept.forEach(id -> assertTrue(reopened.existsById(id)));
+        reopened.close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        properties.getLimiter().setInitialLimit(4);
+        properties.getLimiter().setMinLimit(2);
+        properties.getLimiter().setMaxLimit(8);
+        properties.getLimiter().setBackoffRatio(0.5);
+        properties.getLimiter().setMaxWait(Duration.ZERO);
+        limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should reject a call once the limit is reached and admit it after a slot is freed")
+    void testRejectsWhenFull() {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(4);
+
+        assertThrows(AdaptiveConcurrencyLimiter.LimitExceededException.class, limiter::tryAcquire);
+        assertEquals(4, limiter.getInFlight());
+
+        permits.get(0).complete(null);
+        assertNotNull(limiter.acquire());
+    }
+
+    @Test
+    @DisplayName("Should queue non-blocking callers for a released slot, in order, and time them out at max-wait")
+    void testAcquireAsync() throws Exception {
+        limiter = limiterWaiting(Duration.ofMillis(200));
+        List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(4);
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> first = limiter.acquireAsync();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> abandoned = limiter.acquireAsync();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> last = limiter.acquireAsync();
+        assertFalse(first.isDone());
+
+        abandoned.cancel(false);
+        permits.get(0).complete(null);
+        assertTrue(first.isDone());
+        permits.get(1).complete(null);
+        assertNotNull(last.get(1, TimeUnit.SECONDS), "the abandoned caller's slot went to the next one");
+        assertEquals(4, limiter.getInFlight());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> limiter.acquireAsync().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AdaptiveConcurrencyLimiter.LimitExceededException.class, e.getCause());
+        assertTrue(AdaptiveConcurrencyLimiter.isLimitExceeded(new ExchangeRateRetrievalException("Failed", e.getCause())));
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while the calls in use succeed")
+    void testGrowsWhenHealthy() {
+        for (int round = 0; round < 10; round++) {
+            acquire((int) limiter.getLimit()).forEach(permit -> permit.complete(null));
+        }
+
+        assertTrue(limiter.getLimit() > 4, "limit was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 8);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should back off once per round of calls failing with overload errors")
+    void testShrinksOnOverload() {
+        acquire(4).forEach(permit -> permit.complete(new ResourceAccessException("Read timed out")));
+        assertEquals(2.0, limiter.getLimit());
+
+        acquire(2).forEach(permit -> permit.complete(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertEquals(2.0, limiter.getLimit(), "never below min-limit");
+    }
+
+    @Test
+    @DisplayName("Should not back off for client errors")
+    void testIgnoresClientErrors() {
+        acquire(4).forEach(permit -> permit.complete(new HttpClientErrorException(HttpStatus.BAD_REQUEST)));
+
+        assertEquals(4.0, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should treat timeouts, 5xx and 429 as overload")
+    void testSignalsOverload() {
+        assertTrue(AdaptiveConcurrencyLimiter.signalsOverload(new ResourceAccessException("Read timed out")));
+        assertTrue(AdaptiveConcurrencyLimiter.signalsOverload(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+        assertTrue(AdaptiveConcurrencyLimiter.signalsOverload(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertFalse(AdaptiveConcurrencyLimiter.signalsOverload(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+    }
+
+    private static AdaptiveConcurrencyLimiter limiterWaiting(Duration maxWait) {
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        properties.getLimiter().setInitialLimit(4);
+        properties.getLimiter().setMaxWait(maxWait);
+        return new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    private List<AdaptiveConcurrencyLimiter.Permit> acquire(int count) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) permits.add(limiter.tryAcquire());
+        return permits;
+    }
+}
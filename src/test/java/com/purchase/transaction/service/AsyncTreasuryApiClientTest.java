@@ -0,0 +1,83 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AsyncTreasuryApiClient Tests")
+class AsyncTreasuryApiClientTest {
+
+    private static final String BODY = "{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\","
+            + "\"exchange_rate\":\"0.92\",\"record_date\":\"2025-03-31\",\"country\":\"Euro Zone\"}]}";
+
+    private final TreasuryRateParser parser = new TreasuryRateParser(new ObjectMapper());
+    private ExchangeRateProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExchangeRateProperties();
+        properties.getLimiter().setMaxWait(Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should parse a body received in several buffers straight from the bytes")
+    void testParsesBufferedChunks() throws Exception {
+        byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+        int half = bytes.length / 2;
+        AsyncTreasuryApiClient client = client(() -> Flux.just(
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, 0, half)),
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, half, bytes.length))));
+
+        TreasuryRateParser.Page page = client.get("http://test/rates", body -> parser.read(body, TreasuryRateParser.RowFilter.ALL))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, page.rates().size());
+        assertEquals(new BigDecimal("0.92"), page.rates().get(0).getExchangeRate());
+    }
+
+    @Test
+    @DisplayName("Should fail a call whose body exceeds the size limit")
+    void testRejectsOversizedBody() {
+        byte[] chunk = new byte[1024 * 1024];
+        AsyncTreasuryApiClient client = client(() -> Flux.range(0, AsyncTreasuryApiClient.MAX_BODY_BYTES / chunk.length + 1)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(chunk)));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> client.get("http://test/rates", body -> parser.read(body, TreasuryRateParser.RowFilter.ALL)).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataBufferLimitException.class, e.getCause());
+    }
+
+    private AsyncTreasuryApiClient client(Supplier<Flux<DataBuffer>> body) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body.get())
+                        .build()))
+                .build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new AsyncTreasuryApiClient(webClient, new AdaptiveConcurrencyLimiter(properties, meterRegistry),
+                new RetryBudget(properties, meterRegistry));
+    }
+}
@@ -0,0 +1,94 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
+import com.purchase.transaction.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTreasuryExchangeRateServiceTest {
+
+    private final List<String> requestedUrls = new ArrayList<>();
+    private final List<CompletableFuture<String>> responses = new ArrayList<>();
+    private AsyncTreasuryExchangeRateService service;
+
+    @BeforeEach
+    void setup() {
+        AsyncTreasuryApiClient apiClient = new AsyncTreasuryApiClient(null, null, null) {
+            @Override
+            public <T> CompletableFuture<T> get(String url, TreasuryApiClient.BodyReader<T> reader) {
+                requestedUrls.add(url);
+                CompletableFuture<String> response = new CompletableFuture<>();
+                responses.add(response);
+                return response.thenApply(body -> {
+                    try {
+                        return reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        service = new AsyncTreasuryExchangeRateService(apiClient, new ObjectMapper(), "http://test", new ExchangeRateIndex(),
+                new ExchangeRateCache(new ExchangeRateProperties(), new SimpleMeterRegistry()), new SimpleMeterRegistry(),
+                PersistentRateCache.disabled(), new HedgedRequests(new ExchangeRateProperties(), new SimpleMeterRegistry()));
+        service.setCacheEnabled(true);
+    }
+
+    @Test
+    void getMostRecentExchangeRateWithinRange_completesWhenResponseArrives() throws Exception {
+        LocalDate today = LocalDate.now();
+        CompletableFuture<Optional<ExchangeRate>> result = service.getMostRecentExchangeRateWithinRange(
+                "Euro Zone", null, null, today.minusMonths(6), today, null);
+        assertFalse(result.isDone());
+
+        responses.get(0).complete(("{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\",\"exchange_rate\":\"0.4\",\"record_date\":\"%s\",\"country\":\"Euro Zone\"}]}")
+                .formatted(today.minusDays(3)));
+
+        assertEquals(new BigDecimal("0.4"), result.get(5, TimeUnit.SECONDS).orElseThrow().getExchangeRate());
+        // The window is now in the rate index, so a repeat lookup completes without a request
+        CompletableFuture<Optional<ExchangeRate>> repeat = service.getMostRecentExchangeRateWithinRange(
+                "Euro Zone", null, null, today.minusMonths(6), today, null);
+        assertTrue(repeat.isDone());
+        assertEquals(1, requestedUrls.size());
+    }
+
+    @Test
+    void getMostRecentExchangeRateWithinRange_coalescesIdenticalRequests() throws Exception {
+        LocalDate date = LocalDate.of(2025, 3, 31);
+        CompletableFuture<Optional<ExchangeRate>> first = service.getMostRecentExchangeRateWithinRange(null, "Euro", null, date.minusMonths(6), date, null);
+        CompletableFuture<Optional<ExchangeRate>> second = service.getMostRecentExchangeRateWithinRange(null, "Euro", null, date.minusMonths(6), date, null);
+        responses.get(0).complete("{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\",\"exchange_rate\":\"0.92\",\"record_date\":\"2025-03-31\",\"country\":\"Euro Zone\"}]}");
+
+        assertEquals(new BigDecimal("0.92"), first.get(5, TimeUnit.SECONDS).orElseThrow().getExchangeRate());
+        assertEquals(new BigDecimal("0.92"), second.get(5, TimeUnit.SECONDS).orElseThrow().getExchangeRate());
+        assertEquals(1, requestedUrls.size());
+    }
+
+    @Test
+    void failedRequest_failsFutureWithRetrievalException() {
+        LocalDate today = LocalDate.now();
+        CompletableFuture<Optional<ExchangeRate>> result = service.getMostRecentExchangeRateWithinRange(
+                null, "Euro", null, today.minusMonths(6), today, null);
+        responses.get(0).completeExceptionally(new IllegalStateException("connection reset"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ExchangeRateRetrievalException.class, e.getCause());
+    }
+}
@@ -0,0 +1,83 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExchangeRateCache Tests")
+class ExchangeRateCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ExchangeRateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ExchangeRateProperties.Cache settings = new ExchangeRateProperties().getCache();
+        settings.setRecentWindow(Duration.ofDays(30));
+        settings.setRecentTtl(Duration.ofHours(1));
+        settings.setNegativeTtl(Duration.ofMinutes(5));
+        cache = new ExchangeRateCache(settings, new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    @DisplayName("Should keep rates for past dates but expire rates for recent dates after the recent TTL")
+    void testRecentRatesExpire() {
+        LocalDate old = LocalDate.now().minusYears(1);
+        LocalDate recent = LocalDate.now().minusDays(2);
+        cache.put("eur", old, rate(old));
+        cache.put("EUR", recent, rate(recent));
+
+        advance(Duration.ofMinutes(59));
+        assertNotNull(cache.get("EUR", recent));
+
+        advance(Duration.ofMinutes(2));
+        assertNull(cache.get("EUR", recent));
+        assertEquals(old, cache.get("EUR", old).orElseThrow().getEffectiveDate());
+    }
+
+    @Test
+    @DisplayName("Should remember a miss as an empty result until the negative TTL passes")
+    void testNegativeCaching() {
+        LocalDate date = LocalDate.now().minusYears(1);
+        cache.putMiss("JPY", date);
+
+        assertEquals(Optional.empty(), cache.get("JPY", date));
+        assertTrue(cache.rates().isEmpty());
+
+        advance(Duration.ofMinutes(6));
+        assertNull(cache.get("JPY", date));
+    }
+
+    @Test
+    @DisplayName("Should evict once the maximum size is exceeded")
+    void testBoundedSize() {
+        ExchangeRateProperties.Cache settings = new ExchangeRateProperties().getCache();
+        settings.setMaximumSize(10);
+        ExchangeRateCache bounded = new ExchangeRateCache(settings, new SimpleMeterRegistry(), nanos::get);
+        LocalDate start = LocalDate.now().minusYears(2);
+        for (int day = 0; day < 100; day++) {
+            bounded.put("EUR", start.plusDays(day), rate(start.plusDays(day)));
+        }
+        bounded.cleanUp();
+
+        assertTrue(bounded.size() <= 10);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static ExchangeRate rate(LocalDate date) {
+        return new ExchangeRate("EUR", "Euro Zone-Euro", "Euro", new BigDecimal("0.92"), date, "Euro Zone");
+    }
+}
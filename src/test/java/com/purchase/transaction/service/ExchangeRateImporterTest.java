@@ -0,0 +1,138 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExchangeRateImporter Tests")
+class ExchangeRateImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ExchangeRateIndex rateIndex;
+    private ExchangeRateImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        rateIndex = new ExchangeRateIndex();
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        properties.getBulkImport().setDirectory(tempDir.toString());
+        importer = new ExchangeRateImporter(rateIndex, PersistentRateCache.disabled(), new ObjectMapper(), properties);
+    }
+
+    @Test
+    @DisplayName("Should import a CSV download by its column labels and cover its date range")
+    void testImportsCsv() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("rates.csv"), """
+            Record Date,Country,Currency,Country - Currency Description,Exchange Rate,Effective Date
+            2025-03-31,Euro Zone,Euro,Euro Zone-Euro,0.925,2025-03-31
+            2025-03-31,"Korea, Republic Of",Won,Korea-Won,1470.0,2025-03-31
+            2024-12-31,Euro Zone,Euro,Euro Zone-Euro,0.961,2024-12-31
+            2024-12-31,Canada,Dollar,Canada-Dollar,not-a-number,2024-12-31
+            """);
+
+        ExchangeRateImporter.ImportReport report = importer.importFile(file, LocalDate.of(2025, 4, 15), true);
+
+        assertEquals(3, report.imported());
+        assertEquals(1, report.skipped());
+        assertEquals(LocalDate.of(2024, 12, 31), report.coveredFrom());
+        assertEquals(LocalDate.of(2025, 4, 15), report.coveredTo());
+        assertTrue(rateIndex.covers(LocalDate.of(2024, 12, 31), LocalDate.of(2025, 4, 15)));
+        assertEquals(List.of("Korea, Republic Of"), rateIndex.ratesOn(LocalDate.of(2025, 3, 31)).stream()
+            .map(ExchangeRate::getCountryCode).filter(country -> country.startsWith("Korea")).toList());
+
+        ExchangeRateIndex.Lookup euro = rateIndex.findCovered(ExchangeRateCriteria.of(null, null, "Euro Zone-Euro"),
+            LocalDate.of(2024, 10, 15), LocalDate.of(2025, 4, 15));
+        assertTrue(euro.covered());
+        assertEquals(new BigDecimal("0.925"), euro.rate().map(ExchangeRate::getExchangeRate).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should import the API's JSON format")
+    void testImportsJson() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("rates.json"), """
+            {"data":[{"record_date":"2025-03-31","country":"Euro Zone","currency":"Euro","country_currency_desc":"Euro Zone-Euro","exchange_rate":"0.925"},
+                     {"record_date":"2025-03-31","country":"Canada","currency":"Dollar","country_currency_desc":"Canada-Dollar","exchange_rate":"1.435"}],
+             "meta":{"total-pages":1}}
+            """);
+
+        ExchangeRateImporter.ImportReport report = importer.importFile(file, null, true);
+
+        assertEquals(2, report.imported());
+        assertEquals(Optional.of(LocalDate.of(2025, 3, 31)), Optional.ofNullable(rateIndex.latestEffectiveDate()));
+        assertTrue(rateIndex.covers(LocalDate.of(2025, 3, 31), report.coveredTo()));
+        assertSame(report, importer.getLastImport());
+    }
+
+    @Test
+    @DisplayName("Should cover a freshly copied file only through its last record unless coveredTo extends it")
+    void testCoversThroughLastRecordByDefault() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("rates.json"), """
+            {"meta":{"total-pages":1},
+             "data":[{"record_date":"2025-03-31","country":"Euro Zone","currency":"Euro","country_currency_desc":"Euro Zone-Euro","exchange_rate":"0.925"},
+                     {"record_date":"2025-03-31","country":"Canada","currency":"Dollar","country_currency_desc":"Canada-Dollar","exchange_rate":"bad"}]}
+            """);
+
+        ExchangeRateImporter.ImportReport report = importer.importFile(file, null, true);
+
+        assertEquals(1, report.imported());
+        assertEquals(1, report.skipped());
+        assertEquals(LocalDate.of(2025, 3, 31), report.coveredTo());
+        assertFalse(rateIndex.covers(LocalDate.of(2025, 3, 31), LocalDate.of(2025, 4, 1)));
+
+        report = importer.importFile(file, LocalDate.of(2025, 4, 10), true);
+
+        assertEquals(LocalDate.of(2025, 4, 10), report.coveredTo());
+        assertTrue(rateIndex.covers(LocalDate.of(2025, 3, 31), LocalDate.of(2025, 4, 10)));
+    }
+
+    @Test
+    @DisplayName("Should cover only the series in a file not vouched complete, each from its own first record")
+    void testCoversOnlyImportedSeriesByDefault() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("euro.csv"), """
+            Record Date,Country,Currency,Country - Currency Description,Exchange Rate,Effective Date
+            2025-03-31,Euro Zone,Euro,Euro Zone-Euro,0.925,2025-03-31
+            2024-12-31,Euro Zone,Euro,Euro Zone-Euro,0.961,2024-12-31
+            2025-03-31,Canada,Dollar,Canada-Dollar,1.435,2025-03-31
+            """);
+
+        ExchangeRateImporter.ImportReport report = importer.importFile(file, LocalDate.of(2025, 4, 10), false);
+
+        assertFalse(report.complete());
+        assertEquals(2, report.series());
+        assertFalse(rateIndex.covers(LocalDate.of(2024, 12, 31), LocalDate.of(2025, 3, 31)));
+        assertTrue(rateIndex.findCovered(ExchangeRateCriteria.of(null, null, "Euro Zone-Euro"),
+            LocalDate.of(2024, 10, 10), LocalDate.of(2025, 4, 10)).covered());
+        assertTrue(rateIndex.covers(ExchangeRateCriteria.of("euro zone", "euro", null), LocalDate.of(2024, 12, 31), LocalDate.of(2025, 4, 10)));
+        assertTrue(rateIndex.covers(ExchangeRateCriteria.of(null, null, "Canada-Dollar"), LocalDate.of(2025, 3, 31), LocalDate.of(2025, 4, 10)));
+        assertFalse(rateIndex.covers(ExchangeRateCriteria.of(null, null, "Canada-Dollar"), LocalDate.of(2024, 12, 31), LocalDate.of(2025, 3, 31)));
+        assertFalse(rateIndex.covers(ExchangeRateCriteria.of(null, null, "Japan-Yen"), LocalDate.of(2025, 3, 31), LocalDate.of(2025, 3, 31)));
+    }
+
+    @Test
+    @DisplayName("Should only import files inside the import directory through the endpoint")
+    void testRejectsFilesOutsideDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> importer.importFromDirectory("../secrets.csv", null, false));
+        assertThrows(IllegalArgumentException.class, () -> importer.importFromDirectory("missing.csv", null, false));
+    }
+
+    @Test
+    @DisplayName("Should split quoted CSV fields")
+    void testSplitsCsv() {
+        assertEquals(List.of("2025-03-31", "Korea, Republic Of", "say \"hi\"", ""),
+            ExchangeRateImporter.splitCsv("2025-03-31,\"Korea, Republic Of\",\"say \"\"hi\"\"\","));
+    }
+}
@@ -0,0 +1,134 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExchangeRateIndex Tests")
+class ExchangeRateIndexTest {
+
+    private static final ExchangeRateCriteria EURO_ZONE = ExchangeRateCriteria.of("Euro Zone", "Euro", null);
+
+    private ExchangeRateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ExchangeRateIndex();
+    }
+
+    @Test
+    @DisplayName("Should return the latest rate on or before the end date within the window")
+    void testFloorLookup() {
+        index.addAll(List.of(
+            rate("Euro Zone", "Euro", "Euro Zone-Euro", "0.90", "2024-12-31"),
+            rate("Euro Zone", "Euro", "Euro Zone-Euro", "0.92", "2025-03-31"),
+            rate("Euro Zone", "Euro", "Euro Zone-Euro", "0.95", "2025-06-30"),
+            rate("Canada", "Dollar", "Canada-Dollar", "1.35", "2025-03-31")));
+
+        assertEquals(new BigDecimal("0.92"), index.find(EURO_ZONE, LocalDate.of(2024, 11, 1), LocalDate.of(2025, 5, 1)).orElseThrow().getExchangeRate());
+        assertEquals(new BigDecimal("0.95"), index.find(EURO_ZONE, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30)).orElseThrow().getExchangeRate());
+        assertTrue(index.find(EURO_ZONE, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 30)).isEmpty());
+        assertEquals("Canada-Dollar", index.find(ExchangeRateCriteria.of(null, null, "canada-dollar"),
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30)).orElseThrow().getCurrencyName());
+    }
+
+    @Test
+    @DisplayName("Should match partial criteria across series with the same semantics as the API filter")
+    void testPartialCriteria() {
+        index.addAll(List.of(
+            rate("India", "Rupee", "India-Rupee", "83.1", "2025-03-31"),
+            rate("Pakistan", "Rupee", "Pakistan-Rupee", "280.5", "2025-06-30"),
+            rate("India", "Rupee", "India-Rupee", "85.0", "2025-09-30")));
+
+        assertEquals("Pakistan", index.find(ExchangeRateCriteria.of(null, "rupee", " "), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 7, 1)).orElseThrow().getCountryCode());
+        assertEquals(new BigDecimal("85.0"), index.find(ExchangeRateCriteria.of("INDIA", "Rupee", null), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 10, 1)).orElseThrow().getExchangeRate());
+        assertTrue(index.find(ExchangeRateCriteria.of("India", "Yen", null), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 10, 1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only treat a lookup as final when no newer rate can be missing")
+    void testCoverage() {
+        List<ExchangeRate> rates = List.of(rate("Euro Zone", "Euro", "Euro Zone-Euro", "0.92", "2025-03-31"));
+        index.addAll(rates);
+        assertFalse(index.findCovered(EURO_ZONE, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 5, 1)).covered());
+
+        index.addAll(rates, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 15));
+        ExchangeRateIndex.Lookup within = index.findCovered(EURO_ZONE, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 15));
+        assertTrue(within.covered());
+        assertEquals(new BigDecimal("0.92"), within.rate().orElseThrow().getExchangeRate());
+        assertFalse(index.findCovered(EURO_ZONE, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 16)).covered());
+
+        ExchangeRateIndex.Lookup absent = index.findCovered(ExchangeRateCriteria.of("Canada", null, null), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1));
+        assertTrue(absent.covered());
+        assertEquals(Optional.empty(), absent.rate());
+    }
+
+    @Test
+    @DisplayName("Should merge adjacent and overlapping covered intervals")
+    void testCoverageMerge() {
+        index.addAll(List.of(), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+        index.addAll(List.of(), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        assertFalse(index.covers(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 15)));
+
+        index.addAll(List.of(), LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28));
+        assertTrue(index.covers(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31)));
+
+        index.addAll(List.of(), LocalDate.of(2024, 12, 1), LocalDate.of(2025, 6, 30));
+        assertTrue(index.covers(LocalDate.of(2024, 12, 1), LocalDate.of(2025, 6, 30)));
+        assertFalse(index.covers(LocalDate.of(2024, 11, 30), LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Should cover a filtered query only for lookups narrower than its filter")
+    void testFilteredCoverage() {
+        index.addAll(List.of(rate("India", "Rupee", "India-Rupee", "83.1", "2025-03-31"),
+            rate("Pakistan", "Rupee", "Pakistan-Rupee", "280.5", "2025-03-31")));
+        assertEquals(ExchangeRateCriteria.of("India", "Rupee", null), index.spelling(ExchangeRateCriteria.of("INDIA", "rupee", "Nowhere-Rupee")));
+
+        index.addAll(List.of(rate("India", "Rupee", "India-Rupee", "85.0", "2025-06-30")),
+            ExchangeRateCriteria.of("India", null, null), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 7, 31));
+
+        ExchangeRateIndex.Lookup india = index.findCovered(ExchangeRateCriteria.of("india", "Rupee", null), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 7, 31));
+        assertTrue(india.covered());
+        assertEquals(new BigDecimal("85.0"), india.rate().orElseThrow().getExchangeRate());
+        assertFalse(index.findCovered(ExchangeRateCriteria.of(null, "Rupee", null), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 7, 31)).covered());
+        assertFalse(index.covers(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 7, 31)));
+    }
+
+    @Test
+    @DisplayName("Should let coverage of recent dates lapse so a late-published rate is picked up")
+    void testRecentCoverageLapses() {
+        AtomicLong nanos = new AtomicLong();
+        index = new ExchangeRateIndex(Duration.ofDays(30), Duration.ofHours(1), nanos::get);
+        LocalDate today = LocalDate.now();
+        LocalDate quarterEnd = today.minusDays(3);
+        index.addAll(List.of(rate("Euro Zone", "Euro", "Euro Zone-Euro", "0.92", today.minusMonths(3).toString())),
+            today.minusMonths(6), today);
+        assertTrue(index.findCovered(EURO_ZONE, today.minusMonths(6), quarterEnd).covered());
+
+        // The quarter-end rate is published after the window was fetched
+        nanos.addAndGet(Duration.ofMinutes(61).toNanos());
+        assertFalse(index.findCovered(EURO_ZONE, today.minusMonths(6), quarterEnd).covered());
+        assertTrue(index.covers(today.minusMonths(6), index.settledThrough()));
+
+        index.addAll(List.of(rate("Euro Zone", "Euro", "Euro Zone-Euro", "0.95", quarterEnd.toString())),
+            today.minusMonths(6), today);
+        ExchangeRateIndex.Lookup refetched = index.findCovered(EURO_ZONE, today.minusMonths(6), quarterEnd);
+        assertTrue(refetched.covered());
+        assertEquals(new BigDecimal("0.95"), refetched.rate().orElseThrow().getExchangeRate());
+    }
+
+    private static ExchangeRate rate(String country, String currency, String description, String value, String date) {
+        return new ExchangeRate(currency.toUpperCase(), description, currency, new BigDecimal(value), LocalDate.parse(date), country);
+    }
+}
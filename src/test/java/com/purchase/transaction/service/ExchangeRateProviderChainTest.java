@@ -0,0 +1,149 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
+import com.purchase.transaction.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExchangeRateProviderChain Tests")
+class ExchangeRateProviderChainTest {
+
+    private final LocalDate today = LocalDate.now();
+    private ExchangeRateIndex rateIndex;
+    private ExchangeRateCache cache;
+    private RemoteTier remote;
+    private SimpleMeterRegistry meterRegistry;
+    private ExchangeRateProviderChain chain;
+
+    @BeforeEach
+    void setUp() {
+        rateIndex = new ExchangeRateIndex();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ExchangeRateCache(new ExchangeRateProperties(), meterRegistry);
+        remote = new RemoteTier();
+        chain = new ExchangeRateProviderChain(List.of(new IndexExchangeRateTier(rateIndex, true, false),
+            new CacheExchangeRateTier(cache, true), remote), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should answer from the index when it holds the whole window, including a window with no rate")
+    void testServesCoveredWindowsFromIndex() {
+        rateIndex.addAll(List.of(rate("EUR", "0.92", today.minusMonths(1))), today.minusMonths(6), today);
+
+        assertEquals(new BigDecimal("0.92"), chain.getMostRecentExchangeRateWithinRange(
+            "Euro Zone", "Euro", null, today.minusMonths(6), today).orElseThrow().getExchangeRate());
+        assertTrue(chain.getMostRecentExchangeRateWithinRange("Japan", null, null, today.minusMonths(6), today).isEmpty());
+        assertEquals(List.of("EUR"), chain.getAvailableCurrencies());
+        assertEquals(0, remote.calls);
+        assertEquals(3.0, lookups("index"));
+    }
+
+    @Test
+    @DisplayName("Should answer single-currency lookups from the cache, including cached misses")
+    void testServesCachedCurrencyLookups() {
+        LocalDate date = today.minusYears(1);
+        cache.put("EUR", date, rate("EUR", "0.90", date));
+        cache.putMiss("JPY", date);
+
+        assertEquals(Optional.of(new BigDecimal("0.90")),
+            chain.getExchangeRateForCurrency("EUR", date).map(ExchangeRate::getExchangeRate));
+        assertEquals(Optional.empty(), chain.getExchangeRateForCurrency("JPY", date));
+        assertEquals(0, remote.calls);
+        assertEquals(2.0, lookups("cache"));
+    }
+
+    @Test
+    @DisplayName("Should fall through to the next tier when the local tiers cannot answer authoritatively")
+    void testFallsThroughToRemoteTier() {
+        // The index holds a rate but not the whole window, so a more recent rate may exist
+        rateIndex.addAll(List.of(rate("EUR", "0.92", today.minusMonths(1))));
+
+        assertEquals(new BigDecimal("0.95"), chain.getMostRecentExchangeRateWithinRange(
+            "Euro Zone", "Euro", null, today.minusMonths(6), today).orElseThrow().getExchangeRate());
+        assertEquals(List.of(new BigDecimal("0.95")),
+            chain.getExchangeRatesForDate(today).stream().map(ExchangeRate::getExchangeRate).toList());
+        assertEquals(2, remote.calls);
+        assertEquals(2.0, lookups("treasury"));
+        assertEquals(0.0, lookups("index"));
+    }
+
+    @Test
+    @DisplayName("Should resolve non-blocking lookups through the same tiers")
+    void testAsyncChain() {
+        rateIndex.addAll(List.of(rate("EUR", "0.92", today.minusMonths(1))), today.minusMonths(6), today);
+        AsyncExchangeRateProviderChain async = new AsyncExchangeRateProviderChain(chain);
+
+        assertEquals(new BigDecimal("0.92"), async.getMostRecentExchangeRateWithinRange(
+            "Euro Zone", "Euro", null, today.minusMonths(6), today).join().orElseThrow().getExchangeRate());
+        assertEquals(new BigDecimal("0.95"), async.getMostRecentExchangeRateWithinRange(
+            "Euro Zone", "Euro", null, today.minusYears(2), today.minusYears(1)).join().orElseThrow().getExchangeRate());
+        assertEquals(1, remote.calls);
+        assertEquals(1.0, lookups("index"));
+        assertEquals(1.0, lookups("treasury"));
+    }
+
+    @Test
+    @DisplayName("Should validate arguments before asking any tier and fail when no tier answers")
+    void testValidationAndUnansweredLookups() {
+        assertThrows(IllegalArgumentException.class,
+            () -> chain.getMostRecentExchangeRateWithinRange(" ", null, "", today, today));
+        assertThrows(IllegalArgumentException.class, () -> chain.getExchangeRateForCurrency("", today));
+        assertEquals(0, remote.calls);
+
+        ExchangeRateProviderChain localOnly = new ExchangeRateProviderChain(
+            List.of(new IndexExchangeRateTier(rateIndex, true, false)), meterRegistry);
+        assertThrows(ExchangeRateRetrievalException.class, localOnly::getAvailableCurrencies);
+    }
+
+    private double lookups(String tier) {
+        return meterRegistry.find("exchange.rate.lookups").tag("tier", tier).counters().stream()
+            .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static ExchangeRate rate(String code, String value, LocalDate date) {
+        return new ExchangeRate(code, "Euro Zone-Euro", "Euro", new BigDecimal(value), date, "Euro Zone");
+    }
+
+    /** Stands in for the Treasury tier: always answers with a 0.95 EUR rate dated today. */
+    private final class RemoteTier implements IExchangeRateTier {
+        int calls;
+
+        @Override
+        public String getName() {
+            return "treasury";
+        }
+
+        @Override
+        public List<ExchangeRate> getExchangeRatesForDate(LocalDate date) {
+            calls++;
+            return List.of(rate("EUR", "0.95", today));
+        }
+
+        @Override
+        public Optional<ExchangeRate> getExchangeRateForCurrency(String currencyCode, LocalDate date) {
+            calls++;
+            return Optional.of(rate("EUR", "0.95", today));
+        }
+
+        @Override
+        public Optional<ExchangeRate> getMostRecentExchangeRateWithinRange(ExchangeRateCriteria criteria, LocalDate startDate, LocalDate endDate) {
+            calls++;
+            return Optional.of(rate("EUR", "0.95", today));
+        }
+
+        @Override
+        public List<String> getAvailableCurrencies() {
+            calls++;
+            return List.of("EUR");
+        }
+    }
+}
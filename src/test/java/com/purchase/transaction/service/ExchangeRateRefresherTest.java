@@ -0,0 +1,103 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ExchangeRateRefresher Tests")
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateRefresherTest {
+
+    @Mock
+    private TreasuryExchangeRateService treasuryService;
+
+    private ExchangeRateIndex rateIndex;
+    private ExchangeRateRefresher refresher;
+    private ExchangeRateProviderChain localService;
+
+    @BeforeEach
+    void setUp() {
+        rateIndex = new ExchangeRateIndex();
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        properties.getPreload().setPageSize(100);
+        refresher = new ExchangeRateRefresher(treasuryService, rateIndex, properties);
+        localService = new ExchangeRateProviderChain(List.of(new IndexExchangeRateTier(rateIndex, false, true),
+            new TreasuryExchangeRateTier(treasuryService, null)), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should load the full dataset first, then only records newer than the latest loaded")
+    void testFullThenIncrementalRefresh() {
+        LocalDate today = LocalDate.now();
+        LocalDate lastQuarter = today.minusMonths(3);
+        when(treasuryService.fetchRatesAfter(isNull(), eq(100))).thenReturn(List.of(
+            rate("Euro Zone", "Euro", "0.90", lastQuarter.minusMonths(3)),
+            rate("Euro Zone", "Euro", "0.92", lastQuarter)));
+        when(treasuryService.fetchRatesAfter(eq(lastQuarter), eq(100))).thenReturn(List.of(
+            rate("Euro Zone", "Euro", "0.95", today.minusDays(1))));
+
+        refresher.refresh();
+        assertTrue(refresher.isLoaded());
+        assertEquals(new BigDecimal("0.92"), localService.getMostRecentExchangeRateWithinRange(
+            "Euro Zone", "Euro", null, today.minusMonths(6), today).orElseThrow().getExchangeRate());
+
+        refresher.refresh();
+        assertEquals(new BigDecimal("0.95"), localService.getMostRecentExchangeRateWithinRange(
+            "Euro Zone", "Euro", null, today.minusMonths(6), today).orElseThrow().getExchangeRate());
+        assertEquals(3, rateIndex.size());
+        assertTrue(rateIndex.covers(LocalDate.of(2001, 1, 1), today));
+        verify(treasuryService, times(2)).fetchRatesAfter(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should serve conversions and available currencies locally once loaded")
+    void testServesLocallyOnceLoaded() {
+        LocalDate today = LocalDate.now();
+        when(treasuryService.fetchRatesAfter(isNull(), anyInt())).thenReturn(List.of(
+            rate("Euro Zone", "Euro", "0.92", today.minusMonths(1)),
+            rate("Canada", "Canadian Dollar", "1.35", today.minusMonths(1)),
+            rate("Japan", "Yen", "150.0", today.minusYears(2))));
+        refresher.refresh();
+
+        assertEquals(List.of("CAD", "EUR"), localService.getAvailableCurrencies());
+        assertTrue(localService.getMostRecentExchangeRateWithinRange("Japan", null, null, today.minusMonths(6), today).isEmpty());
+        assertEquals(Optional.of(new BigDecimal("1.35")),
+            localService.getExchangeRateForCurrency("cad", today.minusMonths(1)).map(ExchangeRate::getExchangeRate));
+        verify(treasuryService, never()).getMostRecentExchangeRateWithinRange(any(), any(), any(), any(), any());
+        verify(treasuryService, never()).getAvailableCurrencies();
+    }
+
+    @Test
+    @DisplayName("Should call the Treasury API until the first load has completed")
+    void testDelegatesBeforeFirstLoad() {
+        when(treasuryService.getAvailableCurrencies()).thenReturn(List.of("EUR"));
+
+        assertFalse(refresher.isLoaded());
+        assertEquals(List.of("EUR"), localService.getAvailableCurrencies());
+        assertThrows(IllegalArgumentException.class,
+            () -> localService.getMostRecentExchangeRateWithinRange(" ", null, "", LocalDate.now(), LocalDate.now()));
+    }
+
+    private static ExchangeRate rate(String country, String currency, String value, LocalDate date) {
+        String code = switch (currency) {
+            case "Euro" -> "EUR";
+            case "Canadian Dollar" -> "CAD";
+            default -> "JPY";
+        };
+        return new ExchangeRate(code, country + "-" + currency, currency, new BigDecimal(value), date, country);
+    }
+}
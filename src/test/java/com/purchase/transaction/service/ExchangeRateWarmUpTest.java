@@ -0,0 +1,84 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import com.purchase.transaction.model.PurchaseTransaction;
+import com.purchase.transaction.repository.ITransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ExchangeRateWarmUp Tests")
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateWarmUpTest {
+
+    @Mock
+    private ITransactionRepository transactionRepository;
+
+    @Mock
+    private TreasuryExchangeRateService treasuryService;
+
+    private ExchangeRateIndex rateIndex;
+    private ExchangeRateWarmUp warmUp;
+
+    @BeforeEach
+    void setUp() {
+        rateIndex = new ExchangeRateIndex();
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        properties.getWarmUp().setCurrencies(List.of("Euro Zone-Euro", "Atlantis-Drachma"));
+        properties.getWarmUp().setConcurrency(2);
+        warmUp = new ExchangeRateWarmUp(transactionRepository, treasuryService, rateIndex, properties);
+    }
+
+    @Test
+    @DisplayName("Should merge overlapping conversion windows")
+    void testMergesWindows() {
+        List<ExchangeRateWarmUp.Window> windows = ExchangeRateWarmUp.windows(Stream.of(
+            LocalDate.of(2025, 3, 31), LocalDate.of(2024, 1, 15), LocalDate.of(2025, 1, 10), LocalDate.of(2025, 3, 31)));
+
+        assertEquals(List.of(
+            new ExchangeRateWarmUp.Window(LocalDate.of(2023, 7, 15), LocalDate.of(2024, 1, 15)),
+            new ExchangeRateWarmUp.Window(LocalDate.of(2024, 7, 10), LocalDate.of(2025, 3, 31))), windows);
+    }
+
+    @Test
+    @DisplayName("Should prefetch each window of the stored transactions for every known currency")
+    void testPrefetchesKnownCurrencies() {
+        rateIndex.addAll(List.of(new ExchangeRate("EURO", "Euro Zone-Euro", "Euro", new BigDecimal("0.92"), LocalDate.of(2025, 3, 31), "Euro Zone")));
+        when(transactionRepository.streamByTransactionDate(any(), any(), isNull())).thenReturn(Stream.of(
+            transaction(LocalDate.of(2024, 1, 15)), transaction(LocalDate.of(2025, 3, 31))));
+        when(treasuryService.prefetchRates(any(), any(), any())).thenReturn(2);
+
+        assertEquals(4, warmUp.warmUp());
+
+        ExchangeRateCriteria euro = ExchangeRateCriteria.of(null, null, "Euro Zone-Euro");
+        verify(treasuryService).getAvailableCurrencies();
+        verify(treasuryService).prefetchRates(euro, LocalDate.of(2023, 7, 15), LocalDate.of(2024, 1, 15));
+        verify(treasuryService).prefetchRates(euro, LocalDate.of(2024, 9, 30), LocalDate.of(2025, 3, 31));
+        verifyNoMoreInteractions(treasuryService);
+    }
+
+    @Test
+    @DisplayName("Should not call the Treasury API when no transactions are stored")
+    void testNoTransactions() {
+        when(transactionRepository.streamByTransactionDate(any(), any(), isNull())).thenReturn(Stream.empty());
+
+        assertEquals(0, warmUp.warmUp());
+        verifyNoInteractions(treasuryService);
+    }
+
+    private static PurchaseTransaction transaction(LocalDate date) {
+        return new PurchaseTransaction("tx-" + date, "Purchase", date, new BigDecimal("10.00"), date);
+    }
+}
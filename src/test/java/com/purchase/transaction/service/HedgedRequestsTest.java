@@ -0,0 +1,205 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HedgedRequests Tests")
+class HedgedRequestsTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private MeterRegistry meterRegistry;
+    private ExchangeRateProperties.Hedging settings;
+    private HedgedRequests hedging;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        settings = new ExchangeRateProperties().getHedging();
+        settings.setEnabled(true);
+        settings.setPercentile(50);
+        settings.setMinDelay(Duration.ofMillis(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hedging != null) hedging.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run only the primary call on the caller's thread when disabled")
+    void testDisabled() {
+        settings.setEnabled(false);
+        hedging = new HedgedRequests(settings, meterRegistry, "test.hedges");
+        Thread caller = Thread.currentThread();
+
+        assertEquals("primary", hedging.execute(() -> {
+            assertSame(caller, Thread.currentThread());
+            return "primary";
+        }, () -> {
+            fail("hedged");
+            return "hedge";
+        }));
+    }
+
+    @Test
+    @DisplayName("Should not hedge before enough latencies are known")
+    void testNoHedgeWithoutSamples() {
+        hedging = new HedgedRequests(settings, meterRegistry, "test.hedges");
+
+        assertEquals(-1, hedging.delayNanos());
+        assertEquals("primary", hedging.execute(() -> sleepThen(20, "primary"), () -> "hedge"));
+        assertEquals(0.0, count("test.hedges.sent"));
+    }
+
+    @Test
+    @DisplayName("Should return the hedge when the primary call is slower than the delay and cancel the primary")
+    void testHedgeWins() throws Exception {
+        hedging = warmedUp();
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        String result = hedging.execute(() -> {
+            try {
+                Thread.sleep(10_000);
+                return "primary";
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                throw new IllegalStateException(e);
+            }
+        }, () -> "hedge");
+
+        assertEquals("hedge", result);
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, count("test.hedges.sent"));
+        assertEquals(1.0, count("test.hedges.won"));
+    }
+
+    @Test
+    @DisplayName("Should hedge at most the budget ratio of calls")
+    void testBudgetCap() {
+        hedging = warmedUp();
+        AtomicInteger hedges = new AtomicInteger();
+        // A warm-up call slower than the delay on a loaded machine is counted as skipped too
+        double skippedBefore = count("test.hedges.skipped");
+
+        for (int i = 0; i < 30; i++) {
+            // Well above the 5ms delay, so a busy machine does not let the primary answer first
+            hedging.execute(() -> sleepThen(100, "primary"), () -> "hedge" + hedges.incrementAndGet());
+        }
+
+        // 40 calls in all, counting the 10 of the warm-up: budget for 4 hedges
+        assertEquals(4, hedges.get());
+        assertEquals(26.0, count("test.hedges.skipped") - skippedBefore);
+    }
+
+    @Test
+    @DisplayName("Should complete a non-blocking call with the hedge when the primary is slow, and cancel the primary")
+    void testAsyncHedgeWins() throws Exception {
+        hedging = warmedUp();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = hedging.executeAsync(() -> primary, () -> CompletableFuture.completedFuture("hedge"));
+
+        assertEquals("hedge", result.get(5, TimeUnit.SECONDS));
+        assertTrue(primary.isCancelled());
+        assertEquals(1.0, count("test.hedges.sent"));
+        assertEquals(1.0, count("test.hedges.won"));
+    }
+
+    @Test
+    @DisplayName("Should spend the same budget on blocking and non-blocking hedges")
+    void testAsyncSharesBudget() throws Exception {
+        hedging = warmedUp();
+        assertEquals("hedge", hedging.execute(() -> sleepThen(10_000, "primary"), () -> "hedge"));
+
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> result = hedging.executeAsync(() -> primary, () -> CompletableFuture.completedFuture("hedge"));
+        Thread.sleep(50);
+        assertFalse(result.isDone(), "the budget was spent by the blocking hedge");
+        primary.complete("primary");
+
+        assertEquals("primary", result.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, count("test.hedges.sent"));
+    }
+
+    @Test
+    @DisplayName("Should fail a non-blocking call without hedging when the primary fails before the delay")
+    void testAsyncFastFailureNotHedged() {
+        hedging = warmedUp();
+        AtomicInteger hedges = new AtomicInteger();
+
+        CompletableFuture<String> result = hedging.executeAsync(
+            () -> CompletableFuture.failedFuture(new IllegalStateException("503")),
+            () -> CompletableFuture.completedFuture("hedge" + hedges.incrementAndGet()));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("503", e.getCause().getMessage());
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    @DisplayName("Should fail without hedging when the primary call fails before the delay")
+    void testFastFailureNotHedged() {
+        hedging = warmedUp();
+        AtomicInteger hedges = new AtomicInteger();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> hedging.execute(() -> {
+            throw new IllegalStateException("503");
+        }, () -> "hedge" + hedges.incrementAndGet()));
+
+        assertEquals("503", e.getMessage());
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    @DisplayName("Should stop reading a response body once the reading thread is interrupted")
+    void testInterruptibleBody() throws Exception {
+        InputStream body = HedgedRequests.interruptible(new ByteArrayInputStream(new byte[]{1, 2}));
+        assertEquals(1, body.read());
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, body::read);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    /** A hedging instance whose delay is the 5ms minimum and that has earned one hedge (10 fast calls). */
+    private HedgedRequests warmedUp() {
+        HedgedRequests warmed = new HedgedRequests(settings, meterRegistry, "test.hedges");
+        for (int i = 0; i < 100; i++) warmed.record(FAST);
+        for (int i = 0; i < 10; i++) warmed.execute(() -> "fast", () -> "hedge");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), warmed.delayNanos());
+        return warmed;
+    }
+
+    private double count(String name) {
+        return meterRegistry.find(name).counter().count();
+    }
+
+    private static String sleepThen(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PersistentRateCache Tests")
+class PersistentRateCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should reload cached rates, indexed rates and coverage after a restart")
+    void testReloadAfterRestart() {
+        ExchangeRate euro = rate("Euro Zone", "Euro", "EUR", "0.92", "2025-03-31");
+        ExchangeRate yen = rate("Japan", "Yen", "JPY", "150.5", "2025-03-31");
+        PersistentRateCache cache = new PersistentRateCache(new ObjectMapper(), tempDir.toString(), true);
+        cache.saveCached("EUR_2025-03-31", euro);
+        cache.saveRates(List.of(euro, yen, euro));
+        cache.saveCoverage(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 30));
+        cache.close();
+
+        ExchangeRateCache reloaded = new ExchangeRateCache(new ExchangeRateProperties(), new SimpleMeterRegistry());
+        ExchangeRateIndex index = new ExchangeRateIndex();
+        new PersistentRateCache(new ObjectMapper(), tempDir.toString(), true).load(reloaded, index);
+
+        assertEquals(1, reloaded.size());
+        assertEquals(new BigDecimal("0.92"), reloaded.get("EUR", LocalDate.of(2025, 3, 31)).orElseThrow().getExchangeRate());
+        assertEquals(2, index.size());
+        ExchangeRateIndex.Lookup lookup = index.findCovered(ExchangeRateCriteria.of("Japan", null, null),
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 30));
+        assertTrue(lookup.covered());
+        assertEquals(new BigDecimal("150.5"), lookup.rate().orElseThrow().getExchangeRate());
+    }
+
+    @Test
+    @DisplayName("Should not replay coverage of dates that are still recent")
+    void testRecentCoverageIsNotReplayed() {
+        LocalDate today = LocalDate.now();
+        PersistentRateCache cache = new PersistentRateCache(new ObjectMapper(), tempDir.toString(), true);
+        cache.saveCoverage(today.minusMonths(6), today);
+        cache.close();
+
+        ExchangeRateIndex index = new ExchangeRateIndex();
+        new PersistentRateCache(new ObjectMapper(), tempDir.toString(), true).load(
+            new ExchangeRateCache(new ExchangeRateProperties(), new SimpleMeterRegistry()), index);
+
+        assertTrue(index.covers(today.minusMonths(6), index.settledThrough()));
+        assertFalse(index.covers(today.minusMonths(6), today));
+    }
+
+    @Test
+    @DisplayName("Should skip a torn last line and keep appending after it")
+    void testTornLineIsSkipped() throws Exception {
+        PersistentRateCache cache = new PersistentRateCache(new ObjectMapper(), tempDir.toString(), true);
+        cache.saveRates(List.of(rate("Euro Zone", "Euro", "EUR", "0.92", "2025-03-31")));
+        cache.close();
+        Files.writeString(tempDir.resolve(PersistentRateCache.FILENAME), "{\"code\":\"JPY\",\"rate\":", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        ExchangeRateIndex index = new ExchangeRateIndex();
+        new PersistentRateCache(new ObjectMapper(), tempDir.toString(), true).load(
+            new ExchangeRateCache(new ExchangeRateProperties(), new SimpleMeterRegistry()), index);
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Should neither write nor read anything when disabled")
+    void testDisabled() {
+        PersistentRateCache cache = new PersistentRateCache(new ObjectMapper(), tempDir.toString(), false);
+        cache.saveRates(List.of(rate("Euro Zone", "Euro", "EUR", "0.92", "2025-03-31")));
+        cache.saveCoverage(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 30));
+
+        assertFalse(Files.exists(tempDir.resolve(PersistentRateCache.FILENAME)));
+    }
+
+    private static ExchangeRate rate(String country, String currency, String code, String value, String date) {
+        return new ExchangeRate(code, country + "-" + currency, currency, new BigDecimal(value), LocalDate.parse(date), country);
+    }
+}
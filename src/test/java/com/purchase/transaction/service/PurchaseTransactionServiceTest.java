@@ -1,8 +1,11 @@
 package com.purchase.transaction.service;
 
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
 import com.purchase.transaction.exception.TransactionValidationException;
 import com.purchase.transaction.model.PurchaseTransaction;
 import com.purchase.transaction.repository.ITransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,17 +13,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import com.purchase.transaction.model.BulkIngestionReport;
 import com.purchase.transaction.model.ExchangeRate;
 import com.purchase.transaction.model.ConvertedTransaction;
+import com.purchase.transaction.model.TransactionCursor;
+import com.purchase.transaction.model.TransactionDraft;
+import com.purchase.transaction.model.TransactionPage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @DisplayName("PurchaseTransactionService Tests")
@@ -33,11 +50,14 @@ class PurchaseTransactionServiceTest {
     @Mock
     private IExchangeRateService exchangeRateService;
     
+    @Mock
+    private IAsyncExchangeRateService asyncExchangeRateService;
+    
     private PurchaseTransactionService purchaseTransactionService;
     
     @BeforeEach
     void setUp() {
-        purchaseTransactionService = new PurchaseTransactionService(transactionRepository, exchangeRateService);
+        purchaseTransactionService = new PurchaseTransactionService(transactionRepository, exchangeRateService, asyncExchangeRateService);
     }
     
     @Test
@@ -112,6 +132,31 @@ class PurchaseTransactionServiceTest {
             () -> purchaseTransactionService.createTransaction("Valid", LocalDate.now(), new BigDecimal("-100")));
     }
     
+    @Test
+    @DisplayName("Should save valid bulk entries in one call and report each entry")
+    void testCreateTransactionsReportsEachEntry() {
+        List<TransactionDraft> drafts = new ArrayList<>();
+        drafts.add(new TransactionDraft("Coffee", "2025-01-15", new BigDecimal("3.456")));
+        drafts.add(new TransactionDraft("", "2025-01-15", new BigDecimal("1.00")));
+        drafts.add(new TransactionDraft("Bad date", "15/01/2025", new BigDecimal("1.00")));
+        drafts.add(null);
+        drafts.add(new TransactionDraft("Lunch", "2025-01-16", new BigDecimal("12.00")));
+        when(transactionRepository.saveAll(anyCollection())).thenAnswer(invocation -> List.copyOf(invocation.getArgument(0)));
+        
+        BulkIngestionReport report = purchaseTransactionService.createTransactions(drafts);
+        
+        assertEquals(5, report.received());
+        assertEquals(2, report.created());
+        assertEquals(3, report.rejected());
+        assertNotNull(report.results().get(0).transactionId());
+        assertEquals("Description cannot be null or empty", report.results().get(1).error());
+        assertTrue(report.results().get(2).error().startsWith("Invalid transactionDate format"));
+        assertNotNull(report.results().get(3).error());
+        assertEquals(4, report.results().get(4).index());
+        verify(transactionRepository, times(1)).saveAll(argThat(batch -> batch.size() == 2));
+        verify(transactionRepository, never()).save(any());
+    }
+    
     @Test
     @DisplayName("Should retrieve transaction by ID")
     void testGetTransactionSuccess() {
@@ -144,6 +189,95 @@ class PurchaseTransactionServiceTest {
         verify(transactionRepository, times(1)).findAll();
     }
     
+    @Test
+    @DisplayName("Should query the repository date index with open bounds defaulted")
+    void testGetTransactionPage() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        PurchaseTransaction march5 = PurchaseTransaction.create("March 5", LocalDate.of(2025, 3, 5), new BigDecimal("10.00"));
+        PurchaseTransaction march6 = PurchaseTransaction.create("March 6", LocalDate.of(2025, 3, 6), new BigDecimal("20.00"));
+        when(transactionRepository.streamByTransactionDate(from, LocalDate.MAX, null)).thenReturn(Stream.of(march5, march6));
+        
+        TransactionPage page = purchaseTransactionService.getTransactionPage(from, null, null, 5);
+        
+        assertEquals(List.of(march5, march6), page.transactions());
+        assertNull(page.nextCursor());
+        verify(transactionRepository, never()).findAll();
+    }
+    
+    @Test
+    @DisplayName("Should hand out a cursor for a full page and resume after it")
+    void testGetTransactionPageCursor() {
+        PurchaseTransaction first = PurchaseTransaction.create("First", LocalDate.of(2025, 3, 5), new BigDecimal("10.00"));
+        PurchaseTransaction second = PurchaseTransaction.create("Second", LocalDate.of(2025, 3, 6), new BigDecimal("20.00"));
+        when(transactionRepository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, null)).thenReturn(Stream.of(first, second));
+        
+        TransactionPage page = purchaseTransactionService.getTransactionPage(null, null, null, 1);
+        
+        assertEquals(List.of(first), page.transactions());
+        assertEquals(TransactionCursor.of(first), TransactionCursor.decode(page.nextCursor()));
+        
+        when(transactionRepository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, TransactionCursor.of(first))).thenReturn(Stream.of(second));
+        TransactionPage next = purchaseTransactionService.getTransactionPage(null, null, page.nextCursor(), 1);
+        assertEquals(List.of(second), next.transactions());
+    }
+    
+    @Test
+    @DisplayName("Should list undated transactions before every date when the range is open at the start")
+    void testGetTransactionPageUndated() {
+        PurchaseTransaction undatedA = new PurchaseTransaction("a", "Undated A", null, new BigDecimal("1.00"), LocalDate.of(2025, 1, 1));
+        PurchaseTransaction undatedB = new PurchaseTransaction("b", "Undated B", null, new BigDecimal("2.00"), LocalDate.of(2025, 1, 1));
+        PurchaseTransaction dated = PurchaseTransaction.create("Dated", LocalDate.of(2025, 3, 5), new BigDecimal("10.00"));
+        when(transactionRepository.streamUndated(null)).thenReturn(Stream.of(undatedA, undatedB));
+        when(transactionRepository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, null)).thenReturn(Stream.of(dated));
+        
+        TransactionPage page = purchaseTransactionService.getTransactionPage(null, null, null, 1);
+        assertEquals(List.of(undatedA), page.transactions());
+        assertNull(TransactionCursor.decode(page.nextCursor()).transactionDate());
+        
+        when(transactionRepository.streamUndated("a")).thenReturn(Stream.of(undatedB));
+        when(transactionRepository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, new TransactionCursor(null, "a"))).thenReturn(Stream.of(dated));
+        TransactionPage next = purchaseTransactionService.getTransactionPage(null, null, page.nextCursor(), 5);
+        assertEquals(List.of(undatedB, dated), next.transactions());
+        
+        // A dated cursor or a start bound is already past every undated transaction
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        when(transactionRepository.streamByTransactionDate(from, LocalDate.MAX, null)).thenReturn(Stream.of(dated));
+        assertEquals(List.of(dated), purchaseTransactionService.getTransactionPage(from, null, null, 5).transactions());
+        when(transactionRepository.streamByTransactionDate(LocalDate.MIN, LocalDate.MAX, TransactionCursor.of(dated))).thenReturn(Stream.empty());
+        assertTrue(purchaseTransactionService.getTransactionPage(null, null, TransactionCursor.of(dated).encode(), 5).transactions().isEmpty());
+        verify(transactionRepository, times(2)).streamUndated(any());
+    }
+    
+    @Test
+    @DisplayName("Should bound a page without a limit by the default page size and reject limits above the maximum")
+    void testGetTransactionPageSizeBounds() {
+        List<PurchaseTransaction> ledger = new ArrayList<>();
+        for (int day = 0; day < PurchaseTransactionService.DEFAULT_PAGE_SIZE + 5; day++) {
+            ledger.add(PurchaseTransaction.create("Day " + day, LocalDate.of(2024, 1, 1).plusDays(day), new BigDecimal("1.00")));
+        }
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        when(transactionRepository.streamByTransactionDate(from, LocalDate.MAX, null)).thenReturn(ledger.stream());
+        
+        TransactionPage page = purchaseTransactionService.getTransactionPage(from, null, null, null);
+        
+        assertEquals(PurchaseTransactionService.DEFAULT_PAGE_SIZE, page.transactions().size());
+        assertNotNull(page.nextCursor());
+        assertThrows(IllegalArgumentException.class,
+            () -> purchaseTransactionService.getTransactionPage(from, null, null, PurchaseTransactionService.MAX_PAGE_SIZE + 1));
+    }
+    
+    @Test
+    @DisplayName("Should reject an inverted date range, non-positive limit or malformed cursor")
+    void testGetTransactionPageInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+            () -> purchaseTransactionService.getTransactionPage(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> purchaseTransactionService.getTransactionPage(null, null, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> purchaseTransactionService.getTransactionPage(null, null, "not a cursor", 10));
+        verifyNoInteractions(transactionRepository);
+    }
+    
     @Test
     @DisplayName("Should delete transaction successfully")
     void testDeleteTransactionSuccess() {
@@ -212,4 +346,122 @@ class PurchaseTransactionServiceTest {
         // 100 * 0.333333 = 33.3333 -> rounded to 33.33
         assertEquals(new BigDecimal("33.33"), converted.getConvertedAmount());
     }
+
+    @Test
+    @DisplayName("Should convert through the non-blocking rate lookup and fail the future when no rate is found")
+    void testConvertTransactionAsync() {
+        String transactionId = "tx-400";
+        LocalDate purchaseDate = LocalDate.of(2025, 12, 1);
+        PurchaseTransaction tx = PurchaseTransaction.create("Test", purchaseDate, new BigDecimal("100.00"));
+        tx.setTransactionId(transactionId);
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(tx));
+
+        ExchangeRate rate = new ExchangeRate("EUR", "Euro", new BigDecimal("0.9"), LocalDate.of(2025, 11, 30), "EU");
+        LocalDate cutoff = purchaseDate.minusMonths(6);
+        when(asyncExchangeRateService.getMostRecentExchangeRateWithinRange(eq("Euro Zone"), eq("Euro"), isNull(), eq(cutoff), eq(purchaseDate)))
+            .thenReturn(CompletableFuture.completedFuture(Optional.of(rate)), CompletableFuture.completedFuture(Optional.empty()));
+
+        assertEquals(new BigDecimal("90.00"),
+            purchaseTransactionService.convertTransactionAsync(transactionId, "Euro Zone", "Euro", null).join().getConvertedAmount());
+        CompletionException ex = assertThrows(CompletionException.class,
+            () -> purchaseTransactionService.convertTransactionAsync(transactionId, "Euro Zone", "Euro", null).join());
+        assertInstanceOf(ExchangeRateRetrievalException.class, ex.getCause());
+        verifyNoInteractions(exchangeRateService);
+    }
+
+    @Test
+    @DisplayName("Should hedge a slow Treasury call of a non-blocking conversion and convert with the first answer")
+    void testConvertTransactionAsyncHedgesSlowTreasuryCall() throws Exception {
+        String transactionId = "tx-401";
+        LocalDate purchaseDate = LocalDate.of(2025, 12, 1);
+        PurchaseTransaction tx = PurchaseTransaction.create("Test", purchaseDate, new BigDecimal("100.00"));
+        tx.setTransactionId(transactionId);
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(tx));
+
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setMinDelay(Duration.ofMillis(5));
+        HedgedRequests hedging = new HedgedRequests(properties, new SimpleMeterRegistry());
+        // Known latencies and the budget for one hedge (10 calls at 10%)
+        for (int i = 0; i < 100; i++) hedging.record(TimeUnit.MILLISECONDS.toNanos(1));
+        for (int i = 0; i < 10; i++) hedging.executeAsync(() -> CompletableFuture.completedFuture("fast"), () -> CompletableFuture.completedFuture("hedge"));
+
+        List<CompletableFuture<?>> primaries = new ArrayList<>();
+        String body = "{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\",\"exchange_rate\":\"0.9\",\"record_date\":\"2025-11-30\",\"country\":\"Euro Zone\"}]}";
+        AsyncTreasuryApiClient apiClient = new AsyncTreasuryApiClient(null, null, null) {
+            @Override
+            public <T> CompletableFuture<T> get(String url, TreasuryApiClient.BodyReader<T> reader) {
+                CompletableFuture<T> neverAnswers = new CompletableFuture<>();
+                primaries.add(neverAnswers);
+                return neverAnswers;
+            }
+
+            @Override
+            public <T> CompletableFuture<T> tryGet(String url, TreasuryApiClient.BodyReader<T> reader) {
+                try {
+                    return CompletableFuture.completedFuture(reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+                } catch (IOException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+        };
+        AsyncTreasuryExchangeRateService treasury = new AsyncTreasuryExchangeRateService(apiClient, new ObjectMapper(), "http://test",
+            new ExchangeRateIndex(), new ExchangeRateCache(properties, new SimpleMeterRegistry()), new SimpleMeterRegistry(),
+            PersistentRateCache.disabled(), hedging);
+        PurchaseTransactionService service = new PurchaseTransactionService(transactionRepository, exchangeRateService, treasuryTier(treasury));
+
+        try {
+            ConvertedTransaction converted = service.convertTransactionAsync(transactionId, "Euro Zone", "Euro", null).get(5, TimeUnit.SECONDS);
+
+            assertEquals(new BigDecimal("90.00"), converted.getConvertedAmount());
+            assertEquals(1, primaries.size());
+            assertTrue(primaries.get(0).isCancelled(), "the slower call is cancelled");
+        } finally {
+            hedging.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should carry the request deadline, read on the request thread, into a failing non-blocking Treasury lookup")
+    void testConvertTransactionAsyncCarriesRequestDeadline() {
+        String transactionId = "tx-402";
+        LocalDate purchaseDate = LocalDate.of(2025, 12, 1);
+        PurchaseTransaction tx = PurchaseTransaction.create("Test", purchaseDate, new BigDecimal("100.00"));
+        tx.setTransactionId(transactionId);
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(tx));
+
+        AsyncTreasuryApiClient apiClient = new AsyncTreasuryApiClient(null, null, null) {
+            @Override
+            public <T> CompletableFuture<T> get(String url, TreasuryApiClient.BodyReader<T> reader) {
+                // The failure arrives on another thread, which has no request deadline
+                return CompletableFuture.supplyAsync(() -> {
+                    throw new IllegalStateException("connection reset");
+                });
+            }
+        };
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        AsyncTreasuryExchangeRateService treasury = new AsyncTreasuryExchangeRateService(apiClient, new ObjectMapper(), "http://test",
+            new ExchangeRateIndex(), new ExchangeRateCache(properties, new SimpleMeterRegistry()), new SimpleMeterRegistry(),
+            PersistentRateCache.disabled(), new HedgedRequests(properties, new SimpleMeterRegistry()));
+        PurchaseTransactionService service = new PurchaseTransactionService(transactionRepository, exchangeRateService, treasuryTier(treasury));
+
+        RequestDeadline.start(Duration.ofSeconds(3));
+        Long deadline = RequestDeadline.current();
+        CompletableFuture<ConvertedTransaction> conversion;
+        try {
+            conversion = service.convertTransactionAsync(transactionId, "Euro Zone", "Euro", null);
+        } finally {
+            RequestDeadline.clear();
+        }
+
+        CompletionException ex = assertThrows(CompletionException.class, conversion::join);
+        AsyncRetrievalException failure = assertInstanceOf(AsyncRetrievalException.class, ex.getCause());
+        assertEquals(deadline, failure.getDeadline());
+    }
+
+    /** The non-blocking lookup the application uses, with the Treasury service as its only tier. */
+    private static IAsyncExchangeRateService treasuryTier(AsyncTreasuryExchangeRateService treasury) {
+        return new AsyncExchangeRateProviderChain(new ExchangeRateProviderChain(
+            List.of(new TreasuryExchangeRateTier(null, treasury)), new SimpleMeterRegistry()));
+    }
 }
@@ -0,0 +1,60 @@
+package com.purchase.transaction.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RefreshingSnapshot Tests")
+class RefreshingSnapshotTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Runnable> pending = new ArrayList<>();
+
+    @Test
+    @DisplayName("Should serve the loaded value without reloading while it is fresh")
+    void testServesFreshValue() {
+        RefreshingSnapshot<String> snapshot = new RefreshingSnapshot<>("test", () -> "v" + loads.incrementAndGet(), Duration.ofHours(1), pending::add);
+
+        assertNull(snapshot.get());
+        assertEquals("v1", snapshot.load());
+        assertEquals("v1", snapshot.get());
+        assertEquals("v1", snapshot.get());
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should serve a stale value immediately and reload it once in the background")
+    void testRevalidatesStaleValue() {
+        RefreshingSnapshot<String> snapshot = new RefreshingSnapshot<>("test", () -> "v" + loads.incrementAndGet(), Duration.ZERO, pending::add);
+        snapshot.load();
+
+        assertEquals("v1", snapshot.get());
+        assertEquals("v1", snapshot.get());
+        assertEquals(1, pending.size());
+
+        pending.remove(0).run();
+        assertEquals("v2", snapshot.get());
+    }
+
+    @Test
+    @DisplayName("Should keep the previous value when a background reload fails")
+    void testKeepsValueOnFailedReload() {
+        RefreshingSnapshot<String> snapshot = new RefreshingSnapshot<>("test", () -> {
+            if (loads.incrementAndGet() > 1) throw new IllegalStateException("Treasury API down");
+            return "v1";
+        }, Duration.ZERO, pending::add);
+        snapshot.load();
+
+        snapshot.reloadInBackground();
+        pending.remove(0).run();
+
+        assertEquals("v1", snapshot.get());
+        assertEquals(1, pending.size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RetryBudget Tests")
+class RetryBudgetTest {
+
+    private MeterRegistry meterRegistry;
+    private RetryBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        properties.getRetry().setMaxTokens(2);
+        budget = new RetryBudget(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should allow the saved-up retries, then deny until successes earn more")
+    void testSpendsAndEarns() {
+        assertEquals(2.0, budget.getTokens());
+        budget.withdraw();
+        budget.withdraw();
+        assertFalse(budget.canRetry());
+
+        for (int i = 0; i < 9; i++) budget.recordSuccess();
+        assertFalse(budget.canRetry());
+        budget.recordSuccess();
+        assertTrue(budget.canRetry());
+
+        assertEquals(2.0, meterRegistry.find("treasury.api.retries").counter().count());
+        assertEquals(2.0, meterRegistry.find("treasury.api.retries.denied").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not save up more than max-tokens retries")
+    void testCapsTokens() {
+        for (int i = 0; i < 100; i++) budget.recordSuccess();
+
+        assertEquals(2.0, budget.getTokens());
+    }
+}
@@ -0,0 +1,124 @@
+package com.purchase.transaction.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private MeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>(meterRegistry, "test.requests");
+    }
+
+    @Test
+    @DisplayName("Should share one in-flight call among concurrent callers with the same key")
+    void testCoalescesConcurrentCalls() throws Exception {
+        int callers = 8;
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("rates", () -> {
+                invocations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "body";
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("rates", () -> {
+                    invocations.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            while (meterRegistry.find("test.requests.coalesced").counter().count() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("body", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, invocations.get());
+            assertEquals(1.0, meterRegistry.find("test.requests.calls").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not cache results or failures once the call has completed")
+    void testKeyIsReleasedAfterCompletion() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("rates", () -> {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals("body", singleFlight.execute("rates", () -> {
+            invocations.incrementAndGet();
+            return "body";
+        }));
+        assertEquals("other", singleFlight.execute("other-rates", () -> "other"));
+
+        assertEquals(2, invocations.get());
+        assertEquals(0.0, meterRegistry.find("test.requests.coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should hand callers of an in-flight async call the same future and free the key on completion")
+    void testCoalescesAsyncCalls() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.executeAsync("rates", () -> {
+            invocations.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> second = singleFlight.executeAsync("rates", () -> {
+            invocations.incrementAndGet();
+            return CompletableFuture.completedFuture("duplicate");
+        });
+        assertFalse(first.isDone());
+        response.complete("body");
+
+        assertEquals("body", first.get(5, TimeUnit.SECONDS));
+        assertEquals("body", second.get(5, TimeUnit.SECONDS));
+        assertEquals("again", singleFlight.executeAsync("rates", () -> {
+            invocations.incrementAndGet();
+            return CompletableFuture.completedFuture("again");
+        }).get(5, TimeUnit.SECONDS));
+        assertEquals(2, invocations.get());
+        assertEquals(1.0, meterRegistry.find("test.requests.coalesced").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
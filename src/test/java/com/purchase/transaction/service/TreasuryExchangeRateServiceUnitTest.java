@@ -14,6 +14,8 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
@@ -72,6 +74,38 @@ class TreasuryExchangeRateServiceUnitTest {
         server.verify();
     }
 
+    @Test
+    void getMostRecentExchangeRateWithinRange_servesRepeatLookupsFromRateIndex() throws Exception {
+        LocalDate today = LocalDate.now();
+        String json = ("{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\",\"exchange_rate\":\"0.4\",\"record_date\":\"%s\",\"country\":\"Euro Zone\"},"
+                + "{\"currency\":\"Canadian Dollar\",\"country_currency_desc\":\"Canada-Dollar\",\"exchange_rate\":\"1.3\",\"record_date\":\"%s\",\"country\":\"Canada\"}]}")
+                .formatted(today.minusMonths(1), today.minusMonths(2));
+        // only the first lookup goes to the API; the response holds every rate since the cutoff
+        server.expect(requestTo(startsWith("http://test"))).andRespond(withSuccess(json, MediaType.APPLICATION_JSON));
+
+        Optional<ExchangeRate> first = service.getMostRecentExchangeRateWithinRange("Euro Zone", "Euro", null, today.minusMonths(6), today);
+        Optional<ExchangeRate> second = service.getMostRecentExchangeRateWithinRange(null, null, "Canada-Dollar", today.minusMonths(3), today.minusDays(3));
+        Optional<ExchangeRate> none = service.getMostRecentExchangeRateWithinRange("Euro Zone", null, null, today.minusMonths(6), today.minusMonths(2));
+
+        assertEquals(new BigDecimal("0.4"), first.orElseThrow().getExchangeRate());
+        assertEquals(new BigDecimal("1.3"), second.orElseThrow().getExchangeRate());
+        assertTrue(none.isEmpty());
+        server.verify();
+    }
+
+    @Test
+    void fetchRatesAfter_followsPagination() throws Exception {
+        String page1 = "{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\",\"exchange_rate\":\"0.9\",\"record_date\":\"2025-03-31\",\"country\":\"Euro Zone\"}],\"meta\":{\"total-pages\":2}}";
+        String page2 = "{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\",\"exchange_rate\":\"0.95\",\"record_date\":\"2025-06-30\",\"country\":\"Euro Zone\"}],\"meta\":{\"total-pages\":2}}";
+        server.expect(requestTo(allOf(containsString("2024-12-31"), containsString("number%5D=1")))).andRespond(withSuccess(page1, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(allOf(containsString("2024-12-31"), containsString("number%5D=2")))).andRespond(withSuccess(page2, MediaType.APPLICATION_JSON));
+
+        List<ExchangeRate> rates = service.fetchRatesAfter(LocalDate.of(2024,12,31), 1);
+        assertEquals(2, rates.size());
+        assertEquals(LocalDate.of(2025,6,30), rates.get(1).getEffectiveDate());
+        server.verify();
+    }
+
     @Test
     void getExchangeRateForCurrency_cachesResult() throws Exception {
         String json = "{\"data\":[{\"currency\":\"Euro\",\"country_currency_desc\":\"Euro Zone-Euro\",\"exchange_rate\":\"0.3333\",\"record_date\":\"2025-12-01\",\"country\":\"Euro Zone\"}]}";
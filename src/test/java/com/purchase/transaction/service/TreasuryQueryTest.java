@@ -0,0 +1,72 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.model.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TreasuryQuery Tests")
+class TreasuryQueryTest {
+
+    private final TreasuryQuery query = new TreasuryQuery("http://test");
+
+    @Test
+    @DisplayName("Should push both date bounds and the criteria into the filter and project the parsed fields")
+    void testRatesBetween() {
+        String url = query.ratesBetween(ExchangeRateCriteria.of("Euro Zone", "Euro", null), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30));
+
+        assertEquals("http://test?fields=" + TreasuryQuery.FIELDS
+            + "&filter=record_date%3Agte%3A%222025-01-01%22,record_date%3Alte%3A%222025-06-30%22,"
+            + "country%3Aeq%3A%22Euro%20Zone%22,currency%3Aeq%3A%22Euro%22&sort=-record_date&limit=500", url);
+    }
+
+    @Test
+    @DisplayName("Should look up a currency code by record date and the currency spellings the index holds for it")
+    void testRateFor() {
+        ExchangeRateIndex index = new ExchangeRateIndex();
+        index.addAll(List.of(new ExchangeRate("EUR", "Euro Zone-Euro", "Euro", new BigDecimal("0.92"), LocalDate.of(2025, 3, 31), "Euro Zone")));
+        LocalDate date = LocalDate.of(2025, 3, 31);
+
+        assertEquals("http://test?fields=" + TreasuryQuery.FIELDS
+            + "&filter=record_date%3Aeq%3A%222025-03-31%22,currency%3Ain%3A%28Euro%29&limit=500",
+            query.rateFor(index.currencySpellings("eur"), date));
+        assertEquals("http://test?fields=" + TreasuryQuery.FIELDS + "&filter=record_date%3Aeq%3A%222025-03-31%22&limit=500",
+            query.rateFor(index.currencySpellings("JPY"), date));
+    }
+
+    @Test
+    @DisplayName("Should only push values whose exact Treasury spelling is known")
+    void testPushable() {
+        ExchangeRateCriteria pushed = TreasuryQuery.pushable(ExchangeRateCriteria.of("euro zone", "Euro", "Korea-Won"),
+            ExchangeRateCriteria.of("Euro Zone", null, "Korea-Won"));
+
+        assertEquals(ExchangeRateCriteria.of("Euro Zone", null, "Korea-Won"), pushed);
+        assertTrue(TreasuryQuery.pushable(ExchangeRateCriteria.of("Congo, Dem. Rep.", null, null),
+            ExchangeRateCriteria.of("Congo, Dem. Rep.", null, null)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should percent-encode filter values containing query syntax such as '&'")
+    void testEncodesQuerySyntaxInValues() {
+        ExchangeRateCriteria pushed = TreasuryQuery.pushable(ExchangeRateCriteria.of("trinidad & tobago", null, null),
+            ExchangeRateCriteria.of("Trinidad & Tobago", null, null));
+        String url = query.ratesBetween(pushed, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30));
+
+        assertTrue(url.contains(",country%3Aeq%3A%22Trinidad%20%26%20Tobago%22&sort="), url);
+        assertEquals("a%2Bb%23c%25d%C3%A9", TreasuryQuery.encode("a+b#c%d\u00e9"));
+        assertEquals(url, URI.create(url).toString());
+        assertTrue(query.ratesAfter(null, 1, 100).endsWith("page%5Bnumber%5D=1&page%5Bsize%5D=100"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the public Treasury endpoint when no URL is configured")
+    void testDefaultUrl() {
+        assertTrue(new TreasuryQuery(" ").ratesSince(LocalDate.of(2025, 1, 1)).startsWith(TreasuryQuery.DEFAULT_URL + "?fields="));
+    }
+}
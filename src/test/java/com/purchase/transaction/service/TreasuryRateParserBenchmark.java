@@ -0,0 +1,98 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import com.purchase.transaction.service.TreasuryRateParser.Page;
+import com.purchase.transaction.service.TreasuryRateParser.RowFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a full 500-row Treasury page with {@link TreasuryRateParser} against the
+ * previous approach of {@code readTree} on the response String followed by a walk of the tree,
+ * and measures the filtered read that stops at the first matching row.
+ *
+ * Not run by the build. To run:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.purchase.transaction.service.TreasuryRateParserBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreasuryRateParserBenchmark {
+    private static final String[][] SERIES = {
+        {"Euro Zone", "Euro"}, {"Japan", "Yen"}, {"United Kingdom", "Pound Sterling"}, {"Canada", "Dollar"},
+        {"Mexico", "Peso"}, {"India", "Rupee"}, {"Switzerland", "Franc"}, {"Australia", "Dollar"}};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TreasuryRateParser parser = new TreasuryRateParser(objectMapper);
+    private byte[] body;
+    private RowFilter mostRecentYen;
+
+    @Setup
+    public void setUp() {
+        // One page as returned for sort=-record_date&limit=500: newest quarter first
+        StringBuilder json = new StringBuilder("{\"data\":[");
+        LocalDate quarter = LocalDate.of(2025, 6, 30);
+        for (int row = 0; row < 500; row++) {
+            String[] series = SERIES[row % SERIES.length];
+            if (row > 0 && row % SERIES.length == 0) quarter = quarter.minusMonths(3);
+            if (row > 0) json.append(',');
+            json.append(("{\"record_date\":\"%s\",\"country\":\"%s\",\"currency\":\"%s\",\"country_currency_desc\":\"%s-%s\","
+                + "\"exchange_rate\":\"%d.%03d\",\"effective_date\":\"%s\",\"src_line_nbr\":\"%d\",\"record_fiscal_year\":\"%d\","
+                + "\"record_fiscal_quarter\":\"%d\",\"record_calendar_year\":\"%d\",\"record_calendar_quarter\":\"%d\","
+                + "\"record_calendar_month\":\"%02d\",\"record_calendar_day\":\"%02d\"}")
+                .formatted(quarter, series[0], series[1], series[0], series[1], 1 + row % 150, row % 1000, quarter, row + 1,
+                    quarter.getYear(), 1 + row % 4, quarter.getYear(), 1 + row % 4, quarter.getMonthValue(), quarter.getDayOfMonth()));
+        }
+        json.append("],\"meta\":{\"count\":500,\"total-count\":500,\"total-pages\":1},\"links\":{\"self\":\"&page%5Bnumber%5D=1\"}}");
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+        mostRecentYen = RowFilter.mostRecent(ExchangeRateCriteria.of("Japan", "Yen", null), LocalDate.of(2020, 1, 1), LocalDate.of(2025, 5, 1));
+    }
+
+    @Benchmark
+    public List<ExchangeRate> treeParse() throws IOException {
+        String response = new String(body, StandardCharsets.UTF_8);
+        JsonNode root = objectMapper.readTree(response);
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (JsonNode node : root.path("data")) {
+            String currencyName = node.path("currency").asText("");
+            String exchangeRateStr = node.path("exchange_rate").asText();
+            if (currencyName.isEmpty() || exchangeRateStr.isEmpty()) continue;
+            rates.add(new ExchangeRate(TreasuryRateParser.currencyCode(currencyName), node.path("country_currency_desc").asText(""),
+                currencyName, new BigDecimal(exchangeRateStr), LocalDate.parse(node.path("record_date").asText()), node.path("country").asText("")));
+        }
+        return rates;
+    }
+
+    @Benchmark
+    public Page streamingParse() throws IOException {
+        return parser.read(new ByteArrayInputStream(body), RowFilter.ALL);
+    }
+
+    @Benchmark
+    public Page streamingMostRecent() throws IOException {
+        return parser.read(new ByteArrayInputStream(body), mostRecentYen);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TreasuryRateParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.purchase.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.purchase.transaction.model.ExchangeRate;
+import com.purchase.transaction.service.TreasuryRateParser.Page;
+import com.purchase.transaction.service.TreasuryRateParser.RowFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TreasuryRateParser Tests")
+class TreasuryRateParserTest {
+
+    private final TreasuryRateParser parser = new TreasuryRateParser(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should read every row and the page count from the response stream")
+    void testReadsAllRows() throws IOException {
+        String json = "{\"data\":[" + row("Euro Zone", "Euro", "0.92", "2025-03-31") + ","
+            + "{\"currency\":\"\",\"exchange_rate\":\"N/A\"}," + row("Japan", "Yen", "150.5", "2025-03-31")
+            + "],\"meta\":{\"count\":3,\"total-pages\":4,\"labels\":{\"currency\":\"Currency\"}},\"links\":{\"next\":\"&page%5Bnumber%5D=2\"}}";
+
+        Page page = parser.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), RowFilter.ALL);
+
+        assertEquals(2, page.rates().size());
+        assertEquals(3, page.rows());
+        assertEquals(4, page.totalPages());
+        ExchangeRate euro = page.rates().get(0);
+        assertEquals("EUR", euro.getCurrencyCode());
+        assertEquals("Euro Zone-Euro", euro.getCurrencyName());
+        assertEquals(new BigDecimal("0.92"), euro.getExchangeRate());
+        assertEquals(LocalDate.of(2025, 3, 31), euro.getEffectiveDate());
+    }
+
+    @Test
+    @DisplayName("Should keep the most recent matching row and stop reading once older rows follow")
+    void testMostRecentStopsEarly() throws IOException {
+        // Newest first, as with sort=-record_date; the tail is malformed and must never be read
+        String json = "{\"data\":[" + row("Euro Zone", "Euro", "0.95", "2025-07-15") + ","
+            + row("Japan", "Yen", "150.5", "2025-06-30") + ","
+            + row("Euro Zone", "Euro", "0.92", "2025-06-30") + ","
+            + row("Euro Zone", "Euro", "0.90", "2025-03-31") + ",{\"broken\":";
+
+        Page page = parser.read(json, RowFilter.mostRecent(ExchangeRateCriteria.of("euro zone", null, null),
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30)));
+
+        assertEquals(1, page.rates().size());
+        assertEquals(new BigDecimal("0.92"), page.rates().get(0).getExchangeRate());
+        assertEquals(4, page.rows());
+    }
+
+    @Test
+    @DisplayName("Should pick the latest matching row even if the rows are not sorted")
+    void testMostRecentOfAscendingRows() throws IOException {
+        String json = "{\"data\":[" + row("Euro Zone", "Euro", "0.2", "2025-01-01") + ","
+            + row("Euro Zone", "Euro", "0.4", "2025-06-01") + "]}";
+
+        Page page = parser.read(json, RowFilter.mostRecent(ExchangeRateCriteria.of("Euro Zone", "Euro", null),
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30)));
+
+        assertEquals(new BigDecimal("0.4"), page.rates().get(0).getExchangeRate());
+    }
+
+    @Test
+    @DisplayName("Should read an empty body as an empty page")
+    void testEmptyBody() throws IOException {
+        Page page = parser.read("", RowFilter.ALL);
+
+        assertTrue(page.rates().isEmpty());
+        assertEquals(1, page.totalPages());
+    }
+
+    private static String row(String country, String currency, String rate, String date) {
+        return ("{\"record_date\":\"%s\",\"country\":\"%s\",\"currency\":\"%s\",\"country_currency_desc\":\"%s-%s\","
+            + "\"exchange_rate\":\"%s\",\"effective_date\":\"%s\",\"src_line_nbr\":\"1\"}")
+            .formatted(date, country, currency, country, currency, rate, date);
+    }
+}
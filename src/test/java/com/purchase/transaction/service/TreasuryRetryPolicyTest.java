@@ -0,0 +1,104 @@
+package com.purchase.transaction.service;
+
+import com.purchase.transaction.exception.ExchangeRateRetrievalException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TreasuryRetryPolicy Tests")
+class TreasuryRetryPolicyTest {
+
+    private static final RuntimeException TIMEOUT = new ExchangeRateRetrievalException("Failed to retrieve exchange rate",
+        new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out")));
+
+    private RetryBudget budget;
+    private TreasuryRetryPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        ExchangeRateProperties properties = new ExchangeRateProperties();
+        budget = new RetryBudget(properties, new SimpleMeterRegistry());
+        policy = new TreasuryRetryPolicy(budget, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    @DisplayName("Should retry I/O errors, 5xx and 429 but not client errors")
+    void testRetriesTransientFailuresOnly() {
+        assertTrue(policy.shouldRetry(TIMEOUT));
+        assertTrue(policy.shouldRetry(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertTrue(policy.shouldRetry(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertFalse(policy.shouldRetry(new HttpClientErrorException(HttpStatus.BAD_REQUEST)));
+        assertFalse(policy.shouldRetry(new IllegalArgumentException("Currency code cannot be null or empty")));
+    }
+
+    @Test
+    @DisplayName("Should stop retrying once the retry budget is spent")
+    void testRespectsBudget() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            assertTrue(policy.shouldRetry(TIMEOUT));
+            policy.backoffMillis(1, TIMEOUT);
+        }
+
+        assertFalse(policy.shouldRetry(TIMEOUT));
+    }
+
+    @Test
+    @DisplayName("Should not retry when too little of the request deadline is left")
+    void testRespectsDeadline() {
+        RequestDeadline.start(Duration.ofMillis(200));
+
+        assertFalse(policy.shouldRetry(TIMEOUT));
+    }
+
+    @Test
+    @DisplayName("Should use the deadline a non-blocking lookup's failure carries, on a thread without one")
+    void testRespectsCarriedDeadline() throws Exception {
+        RequestDeadline.start(Duration.ofMillis(200));
+        RuntimeException failure = new AsyncRetrievalException("Failed to retrieve exchange rates", TIMEOUT.getCause(), RequestDeadline.current());
+        RequestDeadline.clear();
+
+        boolean[] retried = new boolean[2];
+        long[] backoff = new long[1];
+        Thread callback = new Thread(() -> {
+            retried[0] = policy.shouldRetry(failure);
+            retried[1] = policy.shouldRetry(new AsyncRetrievalException("Failed to retrieve exchange rates", TIMEOUT.getCause(), null));
+            backoff[0] = policy.backoffMillis(5, failure);
+        });
+        callback.start();
+        callback.join();
+
+        assertFalse(retried[0]);
+        assertTrue(retried[1], "no deadline to respect");
+        assertTrue(backoff[0] <= 100);
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially with jitter, below a second and within the deadline")
+    void testBackoff() {
+        for (int i = 0; i < 50; i++) {
+            long first = policy.backoffMillis(1, TIMEOUT);
+            assertTrue(first >= 50 && first <= 100, "first backoff was " + first);
+            long fifth = policy.backoffMillis(5, TIMEOUT);
+            assertTrue(fifth >= 400 && fifth <= 800, "fifth backoff was " + fifth);
+        }
+
+        RequestDeadline.start(Duration.ofMillis(600));
+        assertTrue(policy.backoffMillis(5, TIMEOUT) <= 300);
+    }
+}